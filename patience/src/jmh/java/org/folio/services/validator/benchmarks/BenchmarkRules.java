@@ -0,0 +1,147 @@
+package org.folio.services.validator.benchmarks;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.registry.TenantRulesLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Rule sets and passwords of the benchmarks, along with the stubbed registry serving the rules
+ */
+final class BenchmarkRules {
+
+  static final String TENANT = "diku";
+  static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+  static final String USER_NAME = "jdoe";
+
+  private static final String DEFAULT_RULES_FILE = "ramls/defaultRules/defaultRules.json";
+  private static final String[] WORDS = {"password", "qwerty", "letmein", "welcome", "monkey", "dragon",
+    "master", "sunshine", "princess", "football", "shadow", "admin", "library", "folio", "iloveyou"};
+  private static final String[] CHARACTER_CLASSES = {"0-9", "a-z", "A-Z", "!@#$%^&*", "\\p{Punct}"};
+
+  private BenchmarkRules() {
+  }
+
+  /**
+   * Returns the rule set of the benchmark
+   *
+   * @param ruleSet "default" for the default rules of the module, or the number of generated RegExp rules
+   * @return enabled rules
+   */
+  static List<Rule> ruleSet(String ruleSet) {
+    if ("default".equals(ruleSet)) {
+      return defaultRules();
+    }
+    return regExpRules(Integer.parseInt(ruleSet));
+  }
+
+  /**
+   * Reads the default rules of the module, the programmatic rule calling mod-login is left out
+   */
+  static List<Rule> defaultRules() {
+    try {
+      String json = new String(Files.readAllBytes(Paths.get(DEFAULT_RULES_FILE)), StandardCharsets.UTF_8);
+      return new JsonObject(json).getJsonArray("rules").stream()
+        .map(rule -> ((JsonObject) rule).mapTo(Rule.class))
+        .filter(rule -> !Rule.Type.PROGRAMMATIC.equals(rule.getType()))
+        .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Generates RegExp rules of the shapes tenants write: length bounds, character classes,
+   * forbidden words in any letter case and repeated characters
+   *
+   * @param count number of rules
+   * @return enabled rules
+   */
+  static List<Rule> regExpRules(int count) {
+    List<Rule> rules = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String expression;
+      switch (i % 5) {
+        case 0:
+          expression = String.format(Locale.ROOT, "^.{%d,256}$", 6 + i % 7);
+          break;
+        case 1:
+          expression = String.format(Locale.ROOT, ".*[%s].*", CHARACTER_CLASSES[i / 5 % CHARACTER_CLASSES.length]);
+          break;
+        case 2:
+          expression = String.format(Locale.ROOT, "(?i)^(?!.*%s%d).*$", WORDS[i / 5 % WORDS.length], i);
+          break;
+        case 3:
+          expression = String.format(Locale.ROOT, "^(?!.*(?:%s|%s|%s)).*$", WORDS[i % WORDS.length],
+            WORDS[(i + 1) % WORDS.length], WORDS[(i + 2) % WORDS.length]);
+          break;
+        default:
+          expression = String.format(Locale.ROOT, "^(?!.*(.)\\1{%d}).*$", 3 + i % 3);
+          break;
+      }
+      rules.add(new Rule()
+        .withRuleId(UUID.nameUUIDFromBytes(("benchmark-" + i).getBytes(StandardCharsets.UTF_8)).toString())
+        .withName("benchmark_rule_" + i)
+        .withType(Rule.Type.REG_EXP)
+        .withValidationType(Rule.ValidationType.STRONG)
+        .withState(Rule.State.ENABLED)
+        .withModuleName("mod-password-validator")
+        .withExpression(expression)
+        .withOrderNo(i)
+        .withErrMessageId("benchmark.rule" + i + ".invalid"));
+    }
+    return rules;
+  }
+
+  /**
+   * Returns the password of the benchmark
+   *
+   * @param password "short" for a typical password, "passphrase" for a passphrase of 48 characters,
+   *                 "long-passphrase" for a passphrase of 256 characters
+   * @return password
+   */
+  static String password(String password) {
+    switch (password) {
+      case "short":
+        return "Tr0ub4dor&3x";
+      case "passphrase":
+        return passphrase(48);
+      case "long-passphrase":
+        return passphrase(256);
+      default:
+        throw new IllegalArgumentException("Unknown password " + password);
+    }
+  }
+
+  private static String passphrase(int length) {
+    String[] words = {"Correct", "horse", "battery", "staple", "7", "lantern", "orbit", "Mosaic", "quiet", "river!"};
+    StringBuilder passphrase = new StringBuilder(length);
+    for (int i = 0; passphrase.length() < length; i++) {
+      passphrase.append(words[i % words.length]).append(' ');
+    }
+    return passphrase.substring(0, length);
+  }
+
+  /**
+   * Returns the registry stub serving the rules without json conversion, as the in-process registry does
+   *
+   * @param rules rules of the tenant
+   * @return tenant rules loader
+   */
+  static TenantRulesLoader loader(List<Rule> rules) {
+    RuleCollection ruleCollection = new RuleCollection().withRules(rules).withTotalRecords(rules.size());
+    return (tenantId, resultHandler) -> resultHandler.handle(Future.succeededFuture(ruleCollection));
+  }
+}
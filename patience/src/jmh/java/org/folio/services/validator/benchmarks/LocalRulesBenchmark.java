@@ -0,0 +1,86 @@
+package org.folio.services.validator.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.RestVerticle;
+import org.folio.services.validator.engine.ValidationEngineServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Measures the validation of a password against the local rules of a tenant.
+ * The rules are served by a stubbed registry and the user name is cached ahead,
+ * so the validation completes on the calling thread without any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalRulesBenchmark {
+
+  @Param({"default", "10", "50", "200"})
+  private String ruleSet;
+
+  @Param({"short", "passphrase", "long-passphrase"})
+  private String password;
+
+  // whether the latency histograms are recorded, to measure their cost
+  @Param({"true", "false"})
+  private String metrics;
+
+  private Vertx vertx;
+  private ValidationEngineServiceImpl validationEngine;
+  private Map<String, String> headers;
+  private String passwordValue;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    MODULE_SPECIFIC_ARGS.put("metrics.enabled", metrics);
+    vertx = Vertx.vertx();
+    validationEngine = new ValidationEngineServiceImpl(vertx, null,
+      BenchmarkRules.loader(BenchmarkRules.ruleSet(ruleSet)));
+    validationEngine.getUserNamesCache().put(BenchmarkRules.TENANT, BenchmarkRules.USER_ID, BenchmarkRules.USER_NAME);
+    headers = Collections.singletonMap(RestVerticle.OKAPI_HEADER_TENANT, BenchmarkRules.TENANT);
+    passwordValue = BenchmarkRules.password(password);
+    // loads and compiles the rules of the tenant ahead of the measurement
+    validatePassword();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    MODULE_SPECIFIC_ARGS.remove("metrics.enabled");
+    vertx.close();
+  }
+
+  @Benchmark
+  public JsonObject validatePassword() {
+    AtomicReference<AsyncResult<JsonObject>> result = new AtomicReference<>();
+    validationEngine.validatePassword(BenchmarkRules.USER_ID, passwordValue, headers, result::set);
+    AsyncResult<JsonObject> validationResult = result.get();
+    if (validationResult == null || validationResult.failed()) {
+      throw new IllegalStateException("Password is not validated synchronously: " + validationResult);
+    }
+    return validationResult.result();
+  }
+}
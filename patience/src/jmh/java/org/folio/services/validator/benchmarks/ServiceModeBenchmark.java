@@ -0,0 +1,99 @@
+package org.folio.services.validator.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+import org.folio.rest.RestVerticle;
+import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.engine.ValidationEngineServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calling the validation engine in-process with calling it through its event bus proxy,
+ * the two ways the module can be deployed (see the "service.mode" parameter).
+ * Both calls are issued from an event loop, as the REST handlers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceModeBenchmark {
+
+  private static final String ENGINE_ADDRESS = "benchmark.validation.engine";
+
+  @Param({"default", "50"})
+  private String ruleSet;
+
+  private Vertx vertx;
+  private Context context;
+  private ValidationEngineService localEngine;
+  private ValidationEngineService proxyEngine;
+  private Map<String, String> headers;
+  private String password;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    ValidationEngineServiceImpl validationEngine = new ValidationEngineServiceImpl(vertx, null,
+      BenchmarkRules.loader(BenchmarkRules.ruleSet(ruleSet)));
+    validationEngine.getUserNamesCache().put(BenchmarkRules.TENANT, BenchmarkRules.USER_ID, BenchmarkRules.USER_NAME);
+    new ServiceBinder(vertx).setAddress(ENGINE_ADDRESS).register(ValidationEngineService.class, validationEngine);
+    localEngine = validationEngine;
+    proxyEngine = ValidationEngineService.createProxy(vertx, ENGINE_ADDRESS);
+    headers = Collections.singletonMap(RestVerticle.OKAPI_HEADER_TENANT, BenchmarkRules.TENANT);
+    password = BenchmarkRules.password("short");
+    // loads and compiles the rules of the tenant ahead of the measurement
+    validatePassword(localEngine);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public JsonObject local() throws Exception {
+    return validatePassword(localEngine);
+  }
+
+  @Benchmark
+  public JsonObject eventBus() throws Exception {
+    return validatePassword(proxyEngine);
+  }
+
+  private JsonObject validatePassword(ValidationEngineService validationEngine) throws Exception {
+    CompletableFuture<JsonObject> result = new CompletableFuture<>();
+    Handler<AsyncResult<JsonObject>> resultHandler = validationResult -> {
+      if (validationResult.succeeded()) {
+        result.complete(validationResult.result());
+      } else {
+        result.completeExceptionally(validationResult.cause());
+      }
+    };
+    context.runOnContext(v -> validationEngine.validatePassword(BenchmarkRules.USER_ID, password, headers, resultHandler));
+    return result.get(10, TimeUnit.SECONDS);
+  }
+}
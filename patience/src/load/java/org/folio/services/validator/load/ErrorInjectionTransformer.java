@@ -0,0 +1,44 @@
+package org.folio.services.validator.load;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.apache.http.HttpStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces the stubbed responses by 500 errors at the rate given by the "errorRate" parameter of the stub,
+ * the latency of the stub is kept
+ */
+final class ErrorInjectionTransformer extends ResponseDefinitionTransformer {
+
+  static final String NAME = "error-injection";
+  static final String ERROR_RATE_PARAMETER = "errorRate";
+
+  @Override
+  public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files,
+                                      Parameters parameters) {
+    Object errorRate = parameters.get(ERROR_RATE_PARAMETER);
+    if (errorRate == null || ThreadLocalRandom.current().nextDouble() >= Double.parseDouble(errorRate.toString())) {
+      return responseDefinition;
+    }
+    return ResponseDefinitionBuilder.like(responseDefinition).but()
+      .withStatus(HttpStatus.SC_INTERNAL_SERVER_ERROR)
+      .withBody("Injected error")
+      .build();
+  }
+
+  @Override
+  public boolean applyGlobally() {
+    return false;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+}
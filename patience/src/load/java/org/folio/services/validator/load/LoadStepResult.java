@@ -0,0 +1,51 @@
+package org.folio.services.validator.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latencies of the recorded requests of a load test step
+ */
+final class LoadStepResult {
+
+  static final String HEADER = String.format(Locale.ROOT, "%8s %8s %8s %8s %12s %10s %10s %10s %10s",
+    "rate", "sent", "ok", "errors", "throughput", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+  private final int rate;
+  private final long sentRequests;
+  private final long completedRequests;
+  private final long failedRequests;
+  private final long elapsedNanos;
+  private final Histogram histogram;
+
+  LoadStepResult(int rate, long sentRequests, long completedRequests, long failedRequests, long elapsedNanos,
+                 Histogram histogram) {
+    this.rate = rate;
+    this.sentRequests = sentRequests;
+    this.completedRequests = completedRequests;
+    this.failedRequests = failedRequests;
+    this.elapsedNanos = elapsedNanos;
+    this.histogram = histogram;
+  }
+
+  /**
+   * Returns the successful responses per second over the time from the first recorded request to the last response
+   */
+  double getThroughput() {
+    return completedRequests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%8d %8d %8d %8d %12.1f %10.2f %10.2f %10.2f %10.2f",
+      rate, sentRequests, completedRequests, failedRequests, getThroughput(),
+      millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+      millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
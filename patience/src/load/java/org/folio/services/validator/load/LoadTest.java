@@ -0,0 +1,96 @@
+package org.folio.services.validator.load;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of POST /password/validate against the module deployed with embedded Postgres,
+ * the modules it calls through Okapi are stubbed (see {@link OkapiStubs}).
+ * Every arrival rate of the "load.rates" system property is run for the warmup and then the recorded duration,
+ * and the throughput and latency percentiles of the recorded requests are printed once all rates are done.
+ */
+public final class LoadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+  private static final String TENANT = "diku";
+  private static final String HTTP_PORT = "http.port";
+  private static final long DEPLOYMENT_TIMEOUT_MINUTES = 3;
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = new LoadTestOptions();
+    logger.info("Running load test with " + options);
+    Vertx vertx = Vertx.vertx();
+    OkapiStubs okapiStubs = new OkapiStubs(options);
+    OpenLoopGenerator generator = null;
+    try {
+      int port = NetworkUtils.nextFreePort();
+      PostgresClient.setIsEmbedded(true);
+      PostgresClient.getInstance(vertx).startEmbeddedPostgres();
+      deployModule(vertx, port).get(DEPLOYMENT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+
+      generator = new OpenLoopGenerator(vertx, options, port, TENANT, okapiStubs.getUrl());
+      List<LoadStepResult> results = new ArrayList<>();
+      for (int rate : options.rates) {
+        logger.info("Sending " + rate + " requests per second");
+        CompletableFuture<LoadStepResult> result = new CompletableFuture<>();
+        generator.run(rate).setHandler(stepResult -> result.complete(stepResult.result()));
+        results.add(result.get());
+      }
+
+      System.out.println(LoadStepResult.HEADER);
+      results.forEach(System.out::println);
+    } finally {
+      if (generator != null) {
+        generator.close();
+      }
+      okapiStubs.stop();
+      CompletableFuture<Void> closed = new CompletableFuture<>();
+      vertx.close(result -> closed.complete(null));
+      closed.get(DEPLOYMENT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+      PostgresClient.stopEmbeddedPostgres();
+    }
+  }
+
+  /**
+   * Deploys RestVerticle and enables the module for the tenant, which loads the default rules
+   */
+  private static CompletableFuture<Void> deployModule(Vertx vertx, int port) {
+    CompletableFuture<Void> deployed = new CompletableFuture<>();
+    DeploymentOptions deploymentOptions = new DeploymentOptions().setConfig(new JsonObject().put(HTTP_PORT, port));
+    vertx.deployVerticle(RestVerticle.class.getName(), deploymentOptions, deployment -> {
+      if (deployment.failed()) {
+        deployed.completeExceptionally(deployment.cause());
+        return;
+      }
+      try {
+        new TenantClient("localhost", port, TENANT, TENANT).postTenant(null, response -> {
+          if (response.statusCode() / 100 == 2) {
+            deployed.complete(null);
+          } else {
+            deployed.completeExceptionally(
+              new IllegalStateException("Module is not enabled for the tenant: " + response.statusCode()));
+          }
+        });
+      } catch (Exception e) {
+        deployed.completeExceptionally(e);
+      }
+    });
+    return deployed;
+  }
+}
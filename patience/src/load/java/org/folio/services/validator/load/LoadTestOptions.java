@@ -0,0 +1,47 @@
+package org.folio.services.validator.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Options of the load test, read from the system properties
+ */
+final class LoadTestOptions {
+
+  // arrival rates in requests per second, each rate is a step of the load test
+  final List<Integer> rates = Arrays.stream(System.getProperty("load.rates", "50,100,200").split(","))
+    .map(String::trim)
+    .map(Integer::valueOf)
+    .collect(Collectors.toList());
+  // seconds a step runs before its latencies are recorded
+  final int warmupSeconds = Integer.getInteger("load.warmup", 10);
+  // seconds the latencies of a step are recorded
+  final int durationSeconds = Integer.getInteger("load.duration", 30);
+  // distinct user ids the requests are spread over, so the user names cache is missed as in production
+  final int users = Integer.getInteger("load.users", 1000);
+  // milliseconds a request waits for the response of the module before it is counted as an error
+  final int requestTimeout = Integer.getInteger("load.request.timeout", 10000);
+  // milliseconds the stubbed /users endpoint takes to respond
+  final int usersLatency = Integer.getInteger("load.users.latency", 20);
+  // share of the /users responses replaced by 500 errors
+  final double usersErrorRate = Double.parseDouble(System.getProperty("load.users.error.rate", "0"));
+  // milliseconds the stubbed /authn/password/repeatable endpoint takes to respond
+  final int repeatableLatency = Integer.getInteger("load.repeatable.latency", 20);
+  // share of the /authn/password/repeatable responses replaced by 500 errors
+  final double repeatableErrorRate = Double.parseDouble(System.getProperty("load.repeatable.error.rate", "0"));
+  // threads of the stub server, the stubbed latencies hold a thread each
+  final int stubThreads = Integer.getInteger("load.stub.threads", 200);
+
+  @Override
+  public String toString() {
+    return "rates=" + rates
+      + ", warmup=" + warmupSeconds + "s"
+      + ", duration=" + durationSeconds + "s"
+      + ", users=" + users
+      + ", users latency=" + usersLatency + "ms"
+      + ", users error rate=" + usersErrorRate
+      + ", repeatable latency=" + repeatableLatency + "ms"
+      + ", repeatable error rate=" + repeatableErrorRate;
+  }
+}
@@ -0,0 +1,62 @@
+package org.folio.services.validator.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Stands in for the modules called through Okapi by the password validation:
+ * the user lookup of mod-users and the programmatic rule of mod-login
+ */
+final class OkapiStubs {
+
+  private static final String USERS_PATH = "/users";
+  private static final String REPEATABLE_PASSWORD_PATH = "/authn/password/repeatable";
+
+  private final WireMockServer server;
+
+  OkapiStubs(LoadTestOptions options) {
+    server = new WireMockServer(WireMockConfiguration.wireMockConfig()
+      .dynamicPort()
+      .containerThreads(options.stubThreads)
+      .disableRequestJournal()
+      .notifier(new ConsoleNotifier(false))
+      .extensions(new ErrorInjectionTransformer()));
+    server.start();
+
+    JsonObject user = new JsonObject()
+      .put("username", "loadtest")
+      .put("id", "f0a7ddf1-a3a6-4b6b-9d36-0a1e8ca0e5a9")
+      .put("active", true);
+    server.stubFor(WireMock.get(WireMock.urlPathEqualTo(USERS_PATH))
+      .willReturn(stubResponse(new JsonObject()
+          .put("users", new JsonArray().add(user))
+          .put("totalRecords", 1),
+        options.usersLatency, options.usersErrorRate)));
+    server.stubFor(WireMock.post(WireMock.urlPathEqualTo(REPEATABLE_PASSWORD_PATH))
+      .willReturn(stubResponse(new JsonObject().put("result", "valid"),
+        options.repeatableLatency, options.repeatableErrorRate)));
+  }
+
+  private static ResponseDefinitionBuilder stubResponse(JsonObject body, int latency, double errorRate) {
+    return WireMock.okJson(body.encode())
+      .withFixedDelay(latency)
+      .withTransformers(ErrorInjectionTransformer.NAME)
+      .withTransformerParameter(ErrorInjectionTransformer.ERROR_RATE_PARAMETER, errorRate);
+  }
+
+  /**
+   * Returns the url to be passed to the module as the Okapi url
+   */
+  String getUrl() {
+    return "http://localhost:" + server.port();
+  }
+
+  void stop() {
+    server.stop();
+  }
+}
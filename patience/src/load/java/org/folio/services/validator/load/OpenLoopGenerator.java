@@ -0,0 +1,187 @@
+package org.folio.services.validator.load;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+import org.apache.http.HttpStatus;
+import org.folio.rest.RestVerticle;
+
+import javax.ws.rs.core.MediaType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends POST /password/validate requests at a fixed arrival rate, whatever the response times of the module are.
+ * Each latency is measured from the time the request was due rather than the time it was sent,
+ * so a stalled module shows in the percentiles instead of slowing down the load.
+ */
+final class OpenLoopGenerator {
+
+  private static final String VALIDATE_PATH = "/password/validate";
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+  private static final String[] PASSWORDS = {"Tr0ub4dor&3x", "P@ssw0rd1", "correct horse battery staple",
+    "Kx9#mQ2$vL7!", "aaaaaaaa", "Winter2019!"};
+  // latencies above one minute are recorded as one minute
+  private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+  private static final long TICK_MILLIS = 1;
+
+  private final Vertx vertx;
+  private final Context context;
+  private final HttpClient httpClient;
+  private final LoadTestOptions options;
+  private final int port;
+  private final String tenant;
+  private final String okapiUrl;
+  private final List<Buffer> requestBodies;
+
+  OpenLoopGenerator(Vertx vertx, LoadTestOptions options, int port, String tenant, String okapiUrl) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.options = options;
+    this.port = port;
+    this.tenant = tenant;
+    this.okapiUrl = okapiUrl;
+    this.httpClient = vertx.createHttpClient(new HttpClientOptions()
+      .setMaxPoolSize(1000)
+      .setKeepAlive(true)
+      .setMaxWaitQueueSize(-1));
+    requestBodies = new ArrayList<>(options.users);
+    for (int i = 0; i < options.users; i++) {
+      String userId = UUID.nameUUIDFromBytes(("load-user-" + i).getBytes(StandardCharsets.UTF_8)).toString();
+      requestBodies.add(new JsonObject()
+        .put("password", PASSWORDS[i % PASSWORDS.length])
+        .put("userId", userId)
+        .toBuffer());
+    }
+  }
+
+  /**
+   * Runs a step of the load test
+   *
+   * @param rate arrival rate in requests per second
+   * @return result of the step, completed once all its requests are answered or timed out
+   */
+  Future<LoadStepResult> run(int rate) {
+    Future<LoadStepResult> future = Future.future();
+    context.runOnContext(v -> new Step(rate, future).start());
+    return future;
+  }
+
+  void close() {
+    httpClient.close();
+  }
+
+  /**
+   * Step of the load test, all its handlers run on the context of the generator
+   */
+  private final class Step {
+
+    private final int rate;
+    private final Future<LoadStepResult> future;
+    private final double intervalNanos;
+    private final long totalRequests;
+    private final long warmupRequests;
+    private final Histogram histogram = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+    private long startNanos;
+    private long sentRequests;
+    private long outstandingRequests;
+    private long completedRequests;
+    private long failedRequests;
+    private long firstRecordedNanos;
+    private long lastRecordedNanos;
+
+    Step(int rate, Future<LoadStepResult> future) {
+      this.rate = rate;
+      this.future = future;
+      this.intervalNanos = (double) TimeUnit.SECONDS.toNanos(1) / rate;
+      this.warmupRequests = (long) rate * options.warmupSeconds;
+      this.totalRequests = warmupRequests + (long) rate * options.durationSeconds;
+    }
+
+    void start() {
+      startNanos = System.nanoTime();
+      // timers fire at most every millisecond, so every tick sends the requests that have been due since the last one
+      vertx.setPeriodic(TICK_MILLIS, timerId -> {
+        long now = System.nanoTime();
+        while (sentRequests < totalRequests && dueNanos(sentRequests) <= now) {
+          send(dueNanos(sentRequests), sentRequests >= warmupRequests);
+          sentRequests++;
+        }
+        if (sentRequests == totalRequests) {
+          vertx.cancelTimer(timerId);
+          completeIfDone();
+        }
+      });
+    }
+
+    private long dueNanos(long request) {
+      return startNanos + (long) (request * intervalNanos);
+    }
+
+    private void send(long dueNanos, boolean recorded) {
+      outstandingRequests++;
+      Buffer body = requestBodies.get((int) (sentRequests % requestBodies.size()));
+      // a request failing after its response has started is answered once
+      Future<Boolean> answer = Future.future();
+      answer.setHandler(succeeded -> onResponse(dueNanos, recorded, succeeded.result()));
+      HttpClientRequest request = httpClient.post(port, "localhost", VALIDATE_PATH, response -> {
+        response.exceptionHandler(exception -> answer.tryComplete(false));
+        response.bodyHandler(responseBody ->
+          answer.tryComplete(response.statusCode() == HttpStatus.SC_OK && isValidationResult(responseBody)));
+      });
+      request.setTimeout(options.requestTimeout);
+      request.exceptionHandler(exception -> answer.tryComplete(false));
+      request
+        .putHeader(RestVerticle.OKAPI_HEADER_TENANT, tenant)
+        .putHeader(RestVerticle.OKAPI_HEADER_TOKEN, "token")
+        .putHeader(OKAPI_URL_HEADER, okapiUrl)
+        .putHeader("Content-Type", MediaType.APPLICATION_JSON)
+        .putHeader("Accept", MediaType.APPLICATION_JSON + ", " + MediaType.TEXT_PLAIN)
+        .end(body);
+    }
+
+    private boolean isValidationResult(Buffer responseBody) {
+      try {
+        return responseBody.toJsonObject().containsKey("result");
+      } catch (DecodeException e) {
+        return false;
+      }
+    }
+
+    private void onResponse(long dueNanos, boolean recorded, boolean succeeded) {
+      outstandingRequests--;
+      if (recorded) {
+        long now = System.nanoTime();
+        if (completedRequests + failedRequests == 0) {
+          firstRecordedNanos = dueNanos;
+        }
+        lastRecordedNanos = Math.max(lastRecordedNanos, now);
+        if (succeeded) {
+          completedRequests++;
+          histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - dueNanos), HIGHEST_LATENCY_MICROS));
+        } else {
+          failedRequests++;
+        }
+      }
+      completeIfDone();
+    }
+
+    private void completeIfDone() {
+      if (sentRequests == totalRequests && outstandingRequests == 0 && !future.isComplete()) {
+        long elapsedNanos = Math.max(lastRecordedNanos - firstRecordedNanos, 1);
+        future.complete(new LoadStepResult(rate, totalRequests - warmupRequests, completedRequests, failedRequests,
+          elapsedNanos, histogram));
+      }
+    }
+  }
+}
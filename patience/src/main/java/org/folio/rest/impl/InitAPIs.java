@@ -6,10 +6,16 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.serviceproxy.ServiceBinder;
+import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.resource.interfaces.InitAPI;
+import org.folio.services.validator.breached.ConfiguredBreachedPasswords;
 import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.registry.EventBusTenantRulesLoader;
+import org.folio.services.validator.registry.RulesChangedListener;
 import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.registry.ValidatorRegistryServiceImpl;
 import org.folio.services.validator.util.ValidatorHelper;
+import org.folio.services.validator.util.ValidatorServices;
 
 /**
  * Performs preprocessing operations before the verticle is deployed,
@@ -18,13 +24,40 @@ import org.folio.services.validator.util.ValidatorHelper;
 public class InitAPIs implements InitAPI {
   @Override
   public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
+    ValidatorRegistryServiceImpl validatorRegistryServiceImpl = new ValidatorRegistryServiceImpl(vertx);
+    // the engine deployed separately loads the rules with the binary rule collection codec
+    EventBusTenantRulesLoader.bind(vertx, validatorRegistryServiceImpl);
+    ValidatorRegistryService validatorRegistryService = validatorRegistryServiceImpl;
+    ValidationEngineService validationEngineService;
+    if (ValidatorServices.isLocalMode()) {
+      // the engine calls the registry directly, the event bus services stay available for the other modules
+      validatorRegistryService = ValidatorServices
+        .bindLocal(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS, validatorRegistryService);
+      validationEngineService = ValidatorServices.bindLocal(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS,
+        ValidationEngineService.createLocal(vertx, validatorRegistryService));
+    } else {
+      validationEngineService = ValidationEngineService.create(vertx);
+    }
     new ServiceBinder(vertx)
       .setAddress(ValidatorHelper.REGISTRY_SERVICE_ADDRESS)
-      .register(ValidatorRegistryService.class, ValidatorRegistryService.create(vertx));
+      .register(ValidatorRegistryService.class, validatorRegistryService);
     new ServiceBinder(vertx)
       .setAddress(ValidatorHelper.VALIDATOR_ENGINE_ADDRESS)
-      .register(ValidationEngineService.class, ValidationEngineService.create(vertx));
+      .register(ValidationEngineService.class, validationEngineService);
+    if (RulesChangedListener.isEnabled()) {
+      // rules changed via the other instances of the module are announced by the database
+      ValidatorServices.acquireRulesChangedListener(vertx,
+        () -> new RulesChangedListener(vertx, PostgresClient.getInstance(vertx).getConnectionConfig())).start();
+    }
 
-    handler.handle(Future.succeededFuture(true));
+    if (ConfiguredBreachedPasswords.isConfigured()) {
+      // maps the breached passwords files before the first validation rather than on the event loop
+      vertx.executeBlocking(future -> {
+        ConfiguredBreachedPasswords.get();
+        future.complete(true);
+      }, handler);
+    } else {
+      handler.handle(Future.succeededFuture(true));
+    }
   }
 }
@@ -4,19 +4,38 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.serviceproxy.ServiceException;
+import org.folio.rest.jaxrs.model.PasswordCollection;
+import org.folio.rest.jaxrs.model.PasswordUpdate;
+import org.folio.rest.jaxrs.model.ValidationBatchTemplate;
+import org.folio.rest.jaxrs.model.ValidationSessionResult;
+import org.folio.rest.jaxrs.model.ValidationSessionTemplate;
 import org.folio.rest.jaxrs.model.ValidationTemplate;
 import org.folio.rest.jaxrs.resource.Password;
 import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.history.PasswordHistoryService;
+import org.folio.services.validator.metrics.ValidationMetrics;
 import org.folio.services.validator.util.ValidatorHelper;
+import org.folio.services.validator.util.ValidatorServices;
 
 import javax.ws.rs.core.Response;
 import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
 
 public class PasswordImpl implements Password {
 
   private final Logger logger = LoggerFactory.getLogger(PasswordImpl.class);
+  // Maximum number of passwords validated by a single request
+  private final int batchMaxSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("batch.max.size", "500"));
 
   @Override
   public void postPasswordValidate(org.folio.rest.jaxrs.model.Password entity,
@@ -25,8 +44,11 @@ public class PasswordImpl implements Password {
                                    Context vertxContext)  {
     try {
       ValidationEngineService validationEngineProxy =
-        ValidationEngineService.createProxy(vertxContext.owner(), ValidatorHelper.VALIDATOR_ENGINE_ADDRESS);
+        ValidatorServices.getValidationEngineService(vertxContext.owner());
+      ValidationMetrics validationMetrics = ValidatorServices.getValidationMetrics(vertxContext.owner());
+      long startedAt = System.nanoTime();
       validationEngineProxy.validatePassword(entity.getUserId(), entity.getPassword(), okapiHeaders, result -> {
+        validationMetrics.recordServiceCall("validatePassword", System.nanoTime() - startedAt);
         Response response;
         if (result.succeeded()) {
           response = PostPasswordValidateResponse.respond200WithApplicationJson(result.result().mapTo(ValidationTemplate.class));
@@ -43,4 +65,167 @@ public class PasswordImpl implements Password {
         PostPasswordValidateResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
   }
+
+  @Override
+  public void postPasswordValidateBatch(PasswordCollection entity,
+                                        Map<String, String> okapiHeaders,
+                                        Handler<AsyncResult<Response>> asyncResultHandler,
+                                        Context vertxContext) {
+    try {
+      if (entity.getPasswords().size() > batchMaxSize) {
+        String errorMessage = "The number of passwords cannot exceed " + batchMaxSize;
+        logger.error(errorMessage);
+        asyncResultHandler.handle(Future.succeededFuture(
+          PostPasswordValidateBatchResponse.respond400WithTextPlain(errorMessage)));
+        return;
+      }
+      JsonArray passwords = new JsonArray(entity.getPasswords().stream()
+        .map(JsonObject::mapFrom)
+        .collect(Collectors.toList()));
+      ValidationEngineService validationEngineProxy =
+        ValidatorServices.getValidationEngineService(vertxContext.owner());
+      ValidationMetrics validationMetrics = ValidatorServices.getValidationMetrics(vertxContext.owner());
+      long startedAt = System.nanoTime();
+      validationEngineProxy.validatePasswords(passwords, okapiHeaders, result -> {
+        validationMetrics.recordServiceCall("validatePasswords", System.nanoTime() - startedAt);
+        Response response;
+        if (result.succeeded()) {
+          response = PostPasswordValidateBatchResponse
+            .respond200WithApplicationJson(result.result().mapTo(ValidationBatchTemplate.class));
+        } else {
+          String errorMessage = "Failed to validate passwords: " + result.cause().getLocalizedMessage();
+          logger.error(errorMessage, result.cause());
+          response = PostPasswordValidateBatchResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to validate passwords: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostPasswordValidateBatchResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void postPasswordValidateSession(ValidationSessionTemplate entity,
+                                          Map<String, String> okapiHeaders,
+                                          Handler<AsyncResult<Response>> asyncResultHandler,
+                                          Context vertxContext) {
+    try {
+      ValidationEngineService validationEngineProxy =
+        ValidatorServices.getValidationEngineService(vertxContext.owner());
+      validationEngineProxy.openValidationSession(entity.getUserId(), okapiHeaders, result -> {
+        Response response;
+        if (result.succeeded()) {
+          response = PostPasswordValidateSessionResponse
+            .respond201WithApplicationJson(result.result().mapTo(ValidationSessionTemplate.class));
+        } else {
+          String errorMessage = "Failed to open validation session: " + result.cause().getLocalizedMessage();
+          logger.error(errorMessage, result.cause());
+          response = PostPasswordValidateSessionResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to open validation session: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostPasswordValidateSessionResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void postPasswordValidateSessionBySessionId(String sessionId,
+                                                     PasswordUpdate entity,
+                                                     Map<String, String> okapiHeaders,
+                                                     Handler<AsyncResult<Response>> asyncResultHandler,
+                                                     Context vertxContext) {
+    try {
+      ValidationEngineService validationEngineProxy =
+        ValidatorServices.getValidationEngineService(vertxContext.owner());
+      ValidationMetrics validationMetrics = ValidatorServices.getValidationMetrics(vertxContext.owner());
+      long startedAt = System.nanoTime();
+      validationEngineProxy.updateValidationSession(sessionId, entity.getPassword(),
+        Boolean.TRUE.equals(entity.getSubmit()), okapiHeaders, result -> {
+          validationMetrics.recordServiceCall("updateValidationSession", System.nanoTime() - startedAt);
+          Response response;
+          if (result.succeeded()) {
+            response = PostPasswordValidateSessionBySessionIdResponse
+              .respond200WithApplicationJson(result.result().mapTo(ValidationSessionResult.class));
+          } else if (isSessionNotFound(result.cause())) {
+            response = PostPasswordValidateSessionBySessionIdResponse.respond404WithTextPlain(result.cause().getMessage());
+          } else {
+            String errorMessage = "Failed to validate password: " + result.cause().getLocalizedMessage();
+            logger.error(errorMessage, result.cause());
+            response = PostPasswordValidateSessionBySessionIdResponse
+              .respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+          }
+          asyncResultHandler.handle(Future.succeededFuture(response));
+        });
+    } catch (Exception e) {
+      logger.error("Failed to validate password: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostPasswordValidateSessionBySessionIdResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void deletePasswordValidateSessionBySessionId(String sessionId,
+                                                       Map<String, String> okapiHeaders,
+                                                       Handler<AsyncResult<Response>> asyncResultHandler,
+                                                       Context vertxContext) {
+    try {
+      ValidationEngineService validationEngineProxy =
+        ValidatorServices.getValidationEngineService(vertxContext.owner());
+      validationEngineProxy.closeValidationSession(sessionId, okapiHeaders, result -> {
+        Response response;
+        if (result.succeeded()) {
+          response = Boolean.TRUE.equals(result.result())
+            ? DeletePasswordValidateSessionBySessionIdResponse.respond204()
+            : DeletePasswordValidateSessionBySessionIdResponse.respond404WithTextPlain("Validation session " + sessionId + " is not found");
+        } else {
+          String errorMessage = "Failed to close validation session: " + result.cause().getLocalizedMessage();
+          logger.error(errorMessage, result.cause());
+          response = DeletePasswordValidateSessionBySessionIdResponse
+            .respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to close validation session: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        DeletePasswordValidateSessionBySessionIdResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  private static boolean isSessionNotFound(Throwable cause) {
+    return cause instanceof ServiceException
+      && ((ServiceException) cause).failureCode() == ValidatorHelper.SESSION_NOT_FOUND_CODE;
+  }
+
+  @Override
+  public void postPasswordHistory(org.folio.rest.jaxrs.model.Password entity,
+                                  Map<String, String> okapiHeaders,
+                                  Handler<AsyncResult<Response>> asyncResultHandler,
+                                  Context vertxContext) {
+    try {
+      String tenantId = new CaseInsensitiveHeaders().addAll(okapiHeaders).get(OKAPI_HEADER_TENANT);
+      PasswordHistoryService passwordHistoryService =
+        ValidatorServices.getPasswordHistoryService(vertxContext.owner());
+      passwordHistoryService.recordPassword(tenantId, entity.getUserId(), entity.getPassword(), result -> {
+        Response response;
+        if (result.succeeded()) {
+          response = PostPasswordHistoryResponse.respond201();
+        } else {
+          String errorMessage = "Failed to record password: " + result.cause().getLocalizedMessage();
+          logger.error(errorMessage, result.cause());
+          response = PostPasswordHistoryResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to record password: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostPasswordHistoryResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
 }
@@ -0,0 +1,26 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.folio.rest.resource.interfaces.ShutdownAPI;
+import org.folio.services.validator.registry.RulesChangedListener;
+import org.folio.services.validator.util.ValidatorServices;
+
+/**
+ * Releases the resources acquired by {@link InitAPIs} when the verticle is undeployed.
+ */
+public class ShutdownAPIs implements ShutdownAPI {
+  @Override
+  public void shutdown(Vertx vertx, Handler<AsyncResult<Void>> handler) {
+    // the listener is shared by the verticle instances, the last one undeployed closes it
+    RulesChangedListener rulesChangedListener = ValidatorServices.releaseRulesChangedListener(vertx);
+    if (rulesChangedListener != null) {
+      // the dedicated database connection is not closed by the PostgresClient of the module
+      rulesChangedListener.close(handler);
+    } else {
+      handler.handle(Future.succeededFuture());
+    }
+  }
+}
@@ -11,8 +11,10 @@ import io.vertx.core.logging.LoggerFactory;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
 import org.folio.rest.jaxrs.resource.TenantRules;
+import org.folio.services.validator.breached.ConfiguredBreachedPasswords;
 import org.folio.services.validator.registry.ValidatorRegistryService;
 import org.folio.services.validator.util.ValidatorHelper;
+import org.folio.services.validator.util.ValidatorServices;
 
 import javax.ws.rs.core.Response;
 import java.util.Map;
@@ -24,13 +26,23 @@ public class TenantRulesImpl implements TenantRules {
   private static final String ORDER_NUMBER_ERROR = "Order number cannot be negative";
   private static final String VALIDATION_TYPE_ERROR = "In case of RegExp rule Validation Type can only be Strong";
   private static final String IMPLEMENTATION_REFERENCE_REQUIRED_ERROR = "In case of Programmatic rule Implementation reference should be provided";
+  private static final String SEQUENCE_VALIDATION_TYPE_ERROR = "In case of Sequence rule Validation Type can only be Strong";
+  private static final String SEQUENCES_REQUIRED_ERROR = "In case of Sequence rule non-empty sequences should be provided";
+  private static final String BREACHED_VALIDATION_TYPE_ERROR = "In case of Breached rule Validation Type can only be Strong";
+  private static final String STRENGTH_VALIDATION_TYPE_ERROR = "In case of Strength rule Validation Type can only be Strong";
+  private static final String BREACHED_INDEX_REQUIRED_ERROR = "Breached rule cannot be used, the module is started without breached hash index";
+  private static final String HISTORY_VALIDATION_TYPE_ERROR = "In case of History rule Validation Type can only be Strong";
+  private static final String HISTORY_SIZE_ERROR = "In case of History rule history size from 1 to %d should be provided";
 
   private final ValidatorRegistryService validatorRegistryService;
+  // number of the last passwords kept in the history, a History rule cannot check more of them
+  private final int historyMaxSize;
   private String tenantId;
 
   public TenantRulesImpl(Vertx vertx, String tenantId) {
     this.tenantId = tenantId;
-    this.validatorRegistryService = ValidatorRegistryService.createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    this.validatorRegistryService = ValidatorServices.getValidatorRegistryService(vertx);
+    this.historyMaxSize = ValidatorServices.getPasswordHistoryService(vertx).getMaxSize();
   }
 
   @Override
@@ -174,6 +186,30 @@ public class TenantRulesImpl implements TenantRules {
       && (entity.getImplementationReference() == null || entity.getImplementationReference().isEmpty())) {
       logger.debug("Implementation reference is not specified for type Programmatic");
       errorMessage = IMPLEMENTATION_REFERENCE_REQUIRED_ERROR;
+    } else if (Rule.Type.SEQUENCE.equals(entity.getType()) && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
+      logger.debug("Invalid validationType parameter");
+      errorMessage = SEQUENCE_VALIDATION_TYPE_ERROR;
+    } else if (Rule.Type.SEQUENCE.equals(entity.getType())
+      && (entity.getSequences() == null || entity.getSequences().isEmpty()
+      || entity.getSequences().stream().anyMatch(sequence -> sequence == null || sequence.isEmpty()))) {
+      logger.debug("Sequences are not specified for type Sequence");
+      errorMessage = SEQUENCES_REQUIRED_ERROR;
+    } else if (Rule.Type.BREACHED.equals(entity.getType()) && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
+      logger.debug("Invalid validationType parameter");
+      errorMessage = BREACHED_VALIDATION_TYPE_ERROR;
+    } else if (Rule.Type.BREACHED.equals(entity.getType()) && !ConfiguredBreachedPasswords.isConfigured()) {
+      logger.debug("Breached hash index is not configured");
+      errorMessage = BREACHED_INDEX_REQUIRED_ERROR;
+    } else if (Rule.Type.STRENGTH.equals(entity.getType()) && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
+      logger.debug("Invalid validationType parameter");
+      errorMessage = STRENGTH_VALIDATION_TYPE_ERROR;
+    } else if (Rule.Type.HISTORY.equals(entity.getType()) && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
+      logger.debug("Invalid validationType parameter");
+      errorMessage = HISTORY_VALIDATION_TYPE_ERROR;
+    } else if (Rule.Type.HISTORY.equals(entity.getType())
+      && (entity.getHistorySize() == null || entity.getHistorySize() < 1 || entity.getHistorySize() > historyMaxSize)) {
+      logger.debug("Invalid historySize parameter");
+      errorMessage = String.format(HISTORY_SIZE_ERROR, historyMaxSize);
     }
     return errorMessage;
   }
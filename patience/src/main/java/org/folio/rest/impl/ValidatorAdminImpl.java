@@ -0,0 +1,135 @@
+package org.folio.rest.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.rest.jaxrs.model.FlightRecording;
+import org.folio.rest.jaxrs.resource.Validator;
+import org.folio.services.validator.jfr.ValidationEvents;
+import org.folio.services.validator.jfr.ValidationRecording;
+import org.folio.services.validator.util.ValidatorServices;
+
+import javax.ws.rs.core.Response;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+public class ValidatorAdminImpl implements Validator {
+
+  private final Logger logger = LoggerFactory.getLogger(ValidatorAdminImpl.class);
+
+  @Override
+  public void getValidatorAdminMetrics(Map<String, String> okapiHeaders,
+                                       Handler<AsyncResult<Response>> asyncResultHandler,
+                                       Context vertxContext) {
+    try {
+      ValidatorServices.getValidationEngineService(vertxContext.owner()).getMetrics(result -> {
+        Response response;
+        if (result.succeeded()) {
+          response = GetValidatorAdminMetricsResponse.respond200WithTextPlain(result.result());
+        } else {
+          logger.error("Failed to get metrics: " + result.cause().getLocalizedMessage(), result.cause());
+          response = GetValidatorAdminMetricsResponse
+            .respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to get metrics: " + e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        GetValidatorAdminMetricsResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void getValidatorAdminRecording(Map<String, String> okapiHeaders,
+                                         Handler<AsyncResult<Response>> asyncResultHandler,
+                                         Context vertxContext) {
+    handleRecording(ValidationRecording::getState,
+      GetValidatorAdminRecordingResponse::respond200WithApplicationJson,
+      GetValidatorAdminRecordingResponse::respond404WithTextPlain,
+      GetValidatorAdminRecordingResponse::respond500WithTextPlain,
+      asyncResultHandler, vertxContext);
+  }
+
+  @Override
+  public void postValidatorAdminRecording(PostValidatorAdminRecordingSettings settings,
+                                          int maxAge,
+                                          Map<String, String> okapiHeaders,
+                                          Handler<AsyncResult<Response>> asyncResultHandler,
+                                          Context vertxContext) {
+    handleRecording(() -> ValidationRecording.start(settings.name().toLowerCase(Locale.ROOT), maxAge),
+      PostValidatorAdminRecordingResponse::respond201WithApplicationJson,
+      PostValidatorAdminRecordingResponse::respond400WithTextPlain,
+      PostValidatorAdminRecordingResponse::respond500WithTextPlain,
+      asyncResultHandler, vertxContext);
+  }
+
+  @Override
+  public void deleteValidatorAdminRecording(Map<String, String> okapiHeaders,
+                                            Handler<AsyncResult<Response>> asyncResultHandler,
+                                            Context vertxContext) {
+    handleRecording(ValidationRecording::stop,
+      DeleteValidatorAdminRecordingResponse::respond200WithApplicationJson,
+      DeleteValidatorAdminRecordingResponse::respond404WithTextPlain,
+      DeleteValidatorAdminRecordingResponse::respond500WithTextPlain,
+      asyncResultHandler, vertxContext);
+  }
+
+  @Override
+  public void postValidatorAdminRecordingDump(Map<String, String> okapiHeaders,
+                                              Handler<AsyncResult<Response>> asyncResultHandler,
+                                              Context vertxContext) {
+    handleRecording(ValidationRecording::dump,
+      PostValidatorAdminRecordingDumpResponse::respond200WithApplicationJson,
+      PostValidatorAdminRecordingDumpResponse::respond404WithTextPlain,
+      PostValidatorAdminRecordingDumpResponse::respond500WithTextPlain,
+      asyncResultHandler, vertxContext);
+  }
+
+  /**
+   * Runs the action on the flight recording on a worker thread, as starting and dumping a recording write files
+   *
+   * @param action              action returning the state of the recording
+   * @param okResponse          response to the state of the recording
+   * @param badStateResponse    response to the recording not being in the state the action expects,
+   *                            or to the flight recorder not being available
+   * @param errorResponse       response to an unexpected error
+   * @param asyncResultHandler  handler of the response
+   * @param vertxContext        context of the request
+   */
+  private void handleRecording(Callable<FlightRecording> action,
+                               Function<FlightRecording, Response> okResponse,
+                               Function<String, Response> badStateResponse,
+                               Function<String, Response> errorResponse,
+                               Handler<AsyncResult<Response>> asyncResultHandler,
+                               Context vertxContext) {
+    if (!ValidationEvents.isFlightRecorderAvailable()) {
+      asyncResultHandler.handle(Future.succeededFuture(
+        badStateResponse.apply("Flight recorder is not available in the JVM of the module")));
+      return;
+    }
+    vertxContext.owner().<FlightRecording>executeBlocking(blockingFuture -> {
+      try {
+        blockingFuture.complete(action.call());
+      } catch (Exception e) {
+        blockingFuture.fail(e);
+      }
+    }, false, result -> {
+      Response response;
+      if (result.succeeded()) {
+        response = okResponse.apply(result.result());
+      } else if (result.cause() instanceof IllegalStateException || result.cause() instanceof IllegalArgumentException) {
+        response = badStateResponse.apply(result.cause().getMessage());
+      } else {
+        logger.error("Failed to handle the flight recording: " + result.cause().getLocalizedMessage(), result.cause());
+        response = errorResponse.apply(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+      }
+      asyncResultHandler.handle(Future.succeededFuture(response));
+    });
+  }
+}
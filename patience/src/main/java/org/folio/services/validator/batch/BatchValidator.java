@@ -0,0 +1,381 @@
+package org.folio.services.validator.batch;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.cache.UserNamesCache;
+import org.folio.services.validator.engine.HttpClientStatistics;
+import org.folio.services.validator.util.ValidatorHelper;
+
+import javax.ws.rs.core.MediaType;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
+
+/**
+ * Validation of the passwords of several users at once, e.g. on a bulk user import.
+ * <p>
+ * The rules of the tenant are loaded and the users of all the passwords are looked up once for the whole batch,
+ * the users not cached are requested from mod-users by chunks of lookup.batch.size ids, each chunk by a single query.
+ * Every password then goes through the steps of the validation of a single password,
+ * the RegExp and Sequence rules of the passwords being checked on worker threads in parallel.
+ */
+public class BatchValidator {
+
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+
+  private final Logger logger = LoggerFactory.getLogger(BatchValidator.class);
+
+  // Maximum number of users looked up by a single request to mod-users
+  private int lookupBatchSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("lookup.batch.size", "50"));
+
+  private final Vertx vertx;
+  private final PasswordValidationSteps validationSteps;
+  private final UserNamesCache userNamesCache;
+  private final Supplier<HttpClient> httpClient;
+  private final HttpClientStatistics httpClientStatistics;
+  private final int lookupTimeout;
+
+  /**
+   * Constructor
+   *
+   * @param vertx                vertx instance to check the passwords on worker threads, null to check them at once
+   * @param validationSteps      steps of the validation of a single password
+   * @param userNamesCache       names of the looked up users
+   * @param httpClient           supplier of the http client to call mod-users
+   * @param httpClientStatistics counters of the requests sent to Okapi
+   * @param lookupTimeout        time in milliseconds to wait for a mod-users response
+   */
+  public BatchValidator(Vertx vertx,
+                        PasswordValidationSteps validationSteps,
+                        UserNamesCache userNamesCache,
+                        Supplier<HttpClient> httpClient,
+                        HttpClientStatistics httpClientStatistics,
+                        int lookupTimeout) {
+    this.vertx = vertx;
+    this.validationSteps = validationSteps;
+    this.userNamesCache = userNamesCache;
+    this.httpClient = httpClient;
+    this.httpClientStatistics = httpClientStatistics;
+    this.lookupTimeout = lookupTimeout;
+  }
+
+  /**
+   * Validates the passwords of several users.
+   * A password which user is not found gets an error result, the rest of the batch is still validated.
+   *
+   * @param passwords     received passwords, objects with userId and password
+   * @param headers       request headers
+   * @param resultHandler handler with validation results of each password in the received order
+   */
+  public void validatePasswords(final JsonArray passwords,
+                                final MultiMap headers,
+                                final Handler<AsyncResult<JsonObject>> resultHandler) {
+    String tenantId = headers.get(OKAPI_HEADER_TENANT);
+    List<PasswordCheck> passwordChecks = new ArrayList<>(passwords.size());
+    Set<String> userIds = new LinkedHashSet<>();
+    for (int i = 0; i < passwords.size(); i++) {
+      JsonObject password = passwords.getJsonObject(i);
+      String userId = password.getString(ValidatorHelper.REQUEST_USER_ID_KEY);
+      passwordChecks.add(new PasswordCheck(userId, password.getString(ValidatorHelper.REQUEST_PARAM_KEY)));
+      userIds.add(userId);
+    }
+    if (passwordChecks.isEmpty()) {
+      prepareBatchResponse(passwordChecks, resultHandler);
+      return;
+    }
+    validationSteps.loadTenantRules(tenantId).setHandler(rulesResponse -> {
+      if (rulesResponse.failed()) {
+        resultHandler.handle(Future.failedFuture(rulesResponse.cause().getMessage()));
+        return;
+      }
+      List<Rule> rules = rulesResponse.result().getRules();
+      boolean userNameRequired = validationSteps.isUserNameRequired(tenantId, rules);
+      Future<Map<String, String>> userNamesFuture = userNameRequired
+        ? lookupCachedUserNames(tenantId, userIds, headers)
+        : Future.succeededFuture(Collections.emptyMap());
+      userNamesFuture.setHandler(lookupUsersHandler -> {
+        if (lookupUsersHandler.failed()) {
+          resultHandler.handle(Future.failedFuture(lookupUsersHandler.cause().getMessage()));
+          return;
+        }
+        Map<String, String> userNames = lookupUsersHandler.result();
+        List<PasswordCheck> resolvedPasswordChecks = new ArrayList<>(passwordChecks.size());
+        for (PasswordCheck passwordCheck : passwordChecks) {
+          if (!userNameRequired || userNames.containsKey(passwordCheck.userId)) {
+            resolvedPasswordChecks.add(passwordCheck);
+          } else {
+            passwordCheck.error = "No user found by user id :" + passwordCheck.userId;
+          }
+        }
+        validatePasswordsByLocalRules(tenantId, rules, userNames, resolvedPasswordChecks).setHandler(localRulesHandler -> {
+          if (localRulesHandler.failed()) {
+            resultHandler.handle(Future.failedFuture(localRulesHandler.cause()));
+            return;
+          }
+          List<Future> passwordsFutures = new ArrayList<>(resolvedPasswordChecks.size());
+          for (PasswordCheck passwordCheck : resolvedPasswordChecks) {
+            passwordsFutures.add(validationSteps.validateByProgrammaticRules(tenantId, rules, passwordCheck.userId,
+              passwordCheck.password, headers, passwordCheck.errorMessages, passwordCheck.rulesFutures));
+          }
+          CompositeFuture.all(passwordsFutures).setHandler(asyncResult -> {
+            if (asyncResult.failed()) {
+              resultHandler.handle(Future.failedFuture(asyncResult.cause()));
+              return;
+            }
+            prepareBatchResponse(passwordChecks, resultHandler);
+          });
+        });
+      });
+    });
+  }
+
+  /**
+   * Checks the passwords by the RegExp and Sequence rules,
+   * the passwords are split into a chunk per processor checked on worker threads in parallel
+   *
+   * @param tenantId       tenant id
+   * @param rules          rules of the tenant
+   * @param userNames      names of the users by user id
+   * @param passwordChecks passwords to check, get the messages of the violated rules and the futures of the checks
+   * @return future completed when all the passwords are checked
+   */
+  private Future<Void> validatePasswordsByLocalRules(final String tenantId,
+                                                     final List<Rule> rules,
+                                                     final Map<String, String> userNames,
+                                                     final List<PasswordCheck> passwordChecks) {
+    if (vertx == null) {
+      validatePasswordsByLocalRules(tenantId, rules, userNames, passwordChecks, 0, 1);
+      return Future.succeededFuture();
+    }
+    int chunksCount = Math.min(passwordChecks.size(), Runtime.getRuntime().availableProcessors());
+    List<Future> chunksFutures = new ArrayList<>(chunksCount);
+    for (int chunk = 0; chunk < chunksCount; chunk++) {
+      int firstIndex = chunk;
+      Future<Void> chunkFuture = Future.future();
+      vertx.<Void>executeBlocking(blockingFuture -> {
+        validatePasswordsByLocalRules(tenantId, rules, userNames, passwordChecks, firstIndex, chunksCount);
+        blockingFuture.complete();
+      }, false, chunkFuture);
+      chunksFutures.add(chunkFuture);
+    }
+    Future<Void> future = Future.future();
+    CompositeFuture.all(chunksFutures).setHandler(chunksResult -> {
+      if (chunksResult.succeeded()) {
+        future.complete();
+      } else {
+        future.fail(chunksResult.cause());
+      }
+    });
+    return future;
+  }
+
+  private void validatePasswordsByLocalRules(final String tenantId,
+                                             final List<Rule> rules,
+                                             final Map<String, String> userNames,
+                                             final List<PasswordCheck> passwordChecks,
+                                             final int firstIndex,
+                                             final int step) {
+    for (int i = firstIndex; i < passwordChecks.size(); i += step) {
+      PasswordCheck passwordCheck = passwordChecks.get(i);
+      passwordCheck.rulesFutures = validationSteps.validateByLocalRules(tenantId, rules,
+        userNames.get(passwordCheck.userId), passwordCheck.password, passwordCheck.errorMessages, false);
+    }
+  }
+
+  /**
+   * Returns cached names of the users and looks up the rest of the users by chunks.
+   * Stale names are returned at once and refreshed in the background.
+   *
+   * @param tenantId tenant id
+   * @param userIds  ids of the users
+   * @param headers  request headers
+   * @return future with the names of the found users by user id
+   */
+  private Future<Map<String, String>> lookupCachedUserNames(String tenantId, Collection<String> userIds,
+                                                            MultiMap headers) {
+    Map<String, String> userNames = new HashMap<>();
+    List<String> notCachedUserIds = new ArrayList<>();
+    List<String> staleUserIds = new ArrayList<>();
+    for (String userId : userIds) {
+      UserNamesCache.CachedUserName cachedUserName = userNamesCache.get(tenantId, userId);
+      if (cachedUserName == null) {
+        notCachedUserIds.add(userId);
+      } else {
+        userNames.put(userId, cachedUserName.getUserName());
+        if (cachedUserName.isStale() && userNamesCache.startRefresh(tenantId, userId)) {
+          staleUserIds.add(userId);
+        }
+      }
+    }
+    if (!staleUserIds.isEmpty()) {
+      long refreshStartedAt = System.nanoTime();
+      lookupUserNames(staleUserIds, headers).setHandler(refreshResult -> {
+        long refreshNanos = System.nanoTime() - refreshStartedAt;
+        for (String userId : staleUserIds) {
+          if (refreshResult.succeeded() && refreshResult.result().containsKey(userId)) {
+            userNamesCache.refreshed(tenantId, userId, refreshResult.result().get(userId), refreshNanos);
+          } else {
+            userNamesCache.refreshFailed(tenantId, userId, refreshNanos);
+          }
+        }
+        if (refreshResult.failed()) {
+          logger.warn("Stale user names are kept: " + refreshResult.cause().getMessage());
+        }
+      });
+    }
+    if (notCachedUserIds.isEmpty()) {
+      return Future.succeededFuture(userNames);
+    }
+    return lookupUserNames(notCachedUserIds, headers).map(lookedUpUserNames -> {
+      lookedUpUserNames.forEach((userId, userName) -> userNamesCache.put(tenantId, userId, userName));
+      userNames.putAll(lookedUpUserNames);
+      return userNames;
+    });
+  }
+
+  /**
+   * Looks up names of the users, the users are requested from mod-users
+   * in parallel by chunks of lookup.batch.size ids, each chunk by a single query
+   *
+   * @param userIds ids of the users
+   * @param headers request headers
+   * @return future with the names of the found users by user id, failed if a request fails
+   */
+  private Future<Map<String, String>> lookupUserNames(Collection<String> userIds, MultiMap headers) {
+    List<String> userIdsList = new ArrayList<>(userIds);
+    List<Future> chunksFutures = new ArrayList<>();
+    for (int i = 0; i < userIdsList.size(); i += lookupBatchSize) {
+      chunksFutures.add(lookupUsers(userIdsList.subList(i, Math.min(i + lookupBatchSize, userIdsList.size())), headers));
+    }
+    Future<Map<String, String>> future = Future.future();
+    CompositeFuture.all(chunksFutures).setHandler(chunksResult -> {
+      if (chunksResult.failed()) {
+        future.fail(chunksResult.cause());
+        return;
+      }
+      Map<String, String> userNames = new HashMap<>();
+      for (int i = 0; i < chunksResult.result().size(); i++) {
+        JsonArray users = chunksResult.result().resultAt(i);
+        for (int j = 0; j < users.size(); j++) {
+          JsonObject user = users.getJsonObject(j);
+          userNames.put(user.getString("id"), user.getString("username"));
+        }
+      }
+      List<String> notFoundUserIds = userIdsList.stream()
+        .filter(userId -> !userNames.containsKey(userId))
+        .collect(Collectors.toList());
+      if (!notFoundUserIds.isEmpty()) {
+        logger.error("No user found by user id :" + String.join(", ", notFoundUserIds));
+      }
+      future.complete(userNames);
+    });
+    return future;
+  }
+
+  private Future<JsonArray> lookupUsers(List<String> userIds, MultiMap headers) {
+    Future<JsonArray> future = Future.future();
+    String okapiUrl = headers.get(OKAPI_URL_HEADER);
+    String query = userIds.stream()
+      .map(userId -> "\"" + userId.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+      .collect(Collectors.joining(" or ", "id==(", ")"));
+    String usersRequestUrl;
+    try {
+      usersRequestUrl = String.format("%s/users?query=%s&limit=%d", okapiUrl,
+        URLEncoder.encode(query, StandardCharsets.UTF_8.name()), userIds.size());
+    } catch (UnsupportedEncodingException e) {
+      future.fail(e);
+      return future;
+    }
+    HttpClientRequest request = httpClient.get().getAbs(usersRequestUrl);
+    // the request is closed once no response data is received within the deadline
+    request.setTimeout(lookupTimeout);
+    request
+      .putHeader(OKAPI_HEADER_TOKEN, headers.get(OKAPI_HEADER_TOKEN))
+      .putHeader(OKAPI_HEADER_TENANT, headers.get(OKAPI_HEADER_TENANT))
+      .putHeader(HttpHeaders.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
+      .putHeader(HttpHeaders.ACCEPT.toString(), MediaType.APPLICATION_JSON)
+      .handler(response -> response.bodyHandler(buf -> {
+        if (response.statusCode() != 200) {
+          future.fail("Error looking up users at url '" + usersRequestUrl
+            + "' Expected status code 200, got '" + response.statusCode() + "' :" + buf.toString());
+          return;
+        }
+        JsonObject resultObject = buf.toJsonObject();
+        if (!resultObject.containsKey("users")) {
+          future.fail("Error, missing field 'users' in users response object");
+        } else {
+          future.complete(resultObject.getJsonArray("users"));
+        }
+      }))
+      .exceptionHandler(exception -> {
+        httpClientStatistics.requestFailed(exception);
+        future.tryFail(exception);
+      });
+    request.end();
+    return httpClientStatistics.track(future);
+  }
+
+  private void prepareBatchResponse(final List<PasswordCheck> passwordChecks,
+                                    final Handler<AsyncResult<JsonObject>> resultHandler) {
+    JsonArray results = new JsonArray();
+    for (PasswordCheck passwordCheck : passwordChecks) {
+      if (passwordCheck.error != null) {
+        results.add(new JsonObject()
+          .put(ValidatorHelper.REQUEST_USER_ID_KEY, passwordCheck.userId)
+          .put(ValidatorHelper.RESPONSE_ERROR_KEY, passwordCheck.error));
+      } else {
+        results.add(ValidatorHelper.buildValidationResult(passwordCheck.errorMessages)
+          .put(ValidatorHelper.REQUEST_USER_ID_KEY, passwordCheck.userId));
+      }
+    }
+    JsonObject validationResults = new JsonObject()
+      .put(ValidatorHelper.RESPONSE_RESULTS_KEY, results)
+      .put(ValidatorHelper.RESPONSE_TOTAL_RECORDS_KEY, results.size());
+    resultHandler.handle(Future.succeededFuture(validationResults));
+  }
+
+  /**
+   * Password of a batch along with the results of its checks
+   */
+  private static class PasswordCheck {
+    private final String userId;
+    private final String password;
+    private final List<String> errorMessages = new ArrayList<>();
+    // futures of the RegExp and Sequence rule checks
+    private List<Future> rulesFutures;
+    // reason the password is not validated, e.g. its user is not found
+    private String error;
+
+    private PasswordCheck(String userId, String password) {
+      this.userId = userId;
+      this.password = password;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.folio.services.validator.batch;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.cache.CompiledRuleSet;
+
+import java.util.List;
+
+/**
+ * Steps of the validation of a single password, provided by the validation engine
+ * and run by the batch validation for every password of the batch.
+ */
+public interface PasswordValidationSteps {
+
+  /**
+   * Returns enabled rules of the tenant sorted by order number
+   *
+   * @param tenantId tenant id
+   * @return future with the rule set snapshot
+   */
+  Future<CompiledRuleSet> loadTenantRules(String tenantId);
+
+  /**
+   * Tells whether any local rule of the tenant uses the user name
+   *
+   * @param tenantId tenant id
+   * @param rules    rules of the tenant
+   * @return true if the user name has to be looked up
+   */
+  boolean isUserNameRequired(String tenantId, List<Rule> rules);
+
+  /**
+   * Checks the password by the RegExp and Sequence rules
+   *
+   * @param tenantId      tenant id
+   * @param rules         rules of the tenant
+   * @param userName      name of the user the password belongs to
+   * @param password      password to check
+   * @param errorMessages list to add the messages of the violated rules to
+   * @param onEventLoop   whether the rules are checked on the event loop rather than on a worker thread
+   * @return futures of the checks, failed if a Strong rule exceeded the step limit
+   */
+  List<Future> validateByLocalRules(String tenantId, List<Rule> rules, String userName, String password,
+                                    List<String> errorMessages, boolean onEventLoop);
+
+  /**
+   * Calls the programmatic rules of the password once the local rules are checked
+   *
+   * @param tenantId          tenant id
+   * @param rules             rules of the tenant
+   * @param userId            user id
+   * @param password          password to check
+   * @param headers           request headers
+   * @param errorMessages     messages of the violated local rules, messages of the programmatic rules are added to
+   * @param localRulesFutures futures of the local rule checks
+   * @return future with the messages of all the violated rules in the order of the rules
+   */
+  Future<List<String>> validateByProgrammaticRules(String tenantId, List<Rule> rules, String userId, String password,
+                                                   MultiMap headers, List<String> errorMessages,
+                                                   List<Future> localRulesFutures);
+}
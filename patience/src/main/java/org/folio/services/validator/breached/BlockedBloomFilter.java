@@ -0,0 +1,236 @@
+package org.folio.services.validator.breached;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Blocked Bloom filter of the breached password hashes, memory-mapped from a snapshot file.
+ * It answers most lookups of clean passwords without touching the much larger {@link BreachedHashIndex}:
+ * a password the filter does not contain is certainly not breached, a password it contains
+ * is breached with the probability of a false positive, so it is checked in the index.
+ * <p>
+ * All the bits of a hash are set in the same {@value #BLOCK_SIZE} bytes block, i.e. a single cache line,
+ * so a lookup reads one block whatever the number of hash functions. The block and the bits are taken
+ * from the password hash itself, which is uniformly distributed already.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE} bytes header: the magic, the format version, the hash algorithm id,
+ * the number of hash functions, the number of blocks at offset {@value #BLOCKS_OFFSET} and the number of hashes
+ * the filter is built from, followed by the blocks. The snapshot is built by {@link BlockedBloomFilterBuilder}.
+ */
+public final class BlockedBloomFilter {
+
+  static final byte[] MAGIC = "PWBLOOMF".getBytes(StandardCharsets.US_ASCII);
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int BLOCKS_OFFSET = 16;
+  static final int ENTRIES_OFFSET = 24;
+  static final int BLOCK_SIZE = 64;
+  static final int MAX_HASH_FUNCTIONS = 16;
+
+  private static final int BLOCK_BITS = BLOCK_SIZE * Byte.SIZE;
+  // a single mapping cannot exceed 2 GB
+  private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final HashAlgorithm algorithm;
+  private final int hashFunctions;
+  private final long blocks;
+  private final long entries;
+  private final long blocksPerSegment;
+  private final MappedByteBuffer[] segments;
+
+  private BlockedBloomFilter(HashAlgorithm algorithm, int hashFunctions, long blocks, long entries,
+                             long blocksPerSegment, MappedByteBuffer[] segments) {
+    this.algorithm = algorithm;
+    this.hashFunctions = hashFunctions;
+    this.blocks = blocks;
+    this.entries = entries;
+    this.blocksPerSegment = blocksPerSegment;
+    this.segments = segments;
+  }
+
+  /**
+   * Maps the snapshot file into memory
+   *
+   * @param file snapshot file built by {@link BlockedBloomFilterBuilder}
+   * @return filter
+   * @throws IOException if the file cannot be read or is not a filter snapshot
+   */
+  public static BlockedBloomFilter open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = FileHeader.read(channel, HEADER_SIZE);
+      if (!FileHeader.hasMagic(header, HEADER_SIZE, MAGIC)) {
+        throw new IOException("File " + file + " is not a breached hash filter");
+      }
+      int version = header.getInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported breached hash filter version " + version + " of the file " + file);
+      }
+      HashAlgorithm algorithm;
+      try {
+        algorithm = HashAlgorithm.fromId(header.get());
+      } catch (IllegalArgumentException e) {
+        throw new IOException("File " + file + " is not a breached hash filter: " + e.getMessage(), e);
+      }
+      int hashFunctions = header.get();
+      long blocks = header.getLong(BLOCKS_OFFSET);
+      long entries = header.getLong(ENTRIES_OFFSET);
+      if (hashFunctions < 1 || hashFunctions > MAX_HASH_FUNCTIONS
+        || blocks < 1 || channel.size() != HEADER_SIZE + blocks * BLOCK_SIZE) {
+        throw new IOException("Breached hash filter " + file + " is truncated or corrupted");
+      }
+      long blocksPerSegment = MAX_SEGMENT_SIZE / BLOCK_SIZE;
+      return new BlockedBloomFilter(algorithm, hashFunctions, blocks, entries, blocksPerSegment,
+        map(channel, FileChannel.MapMode.READ_ONLY, blocks, blocksPerSegment));
+    }
+  }
+
+  /**
+   * Creates an empty snapshot file and maps it for writing
+   *
+   * @param file          snapshot file
+   * @param algorithm     hash algorithm of the hashes added to the filter
+   * @param hashFunctions number of bits set per hash
+   * @param blocks        number of blocks
+   * @param entries       number of hashes the filter is built from
+   * @return writable filter
+   * @throws IOException if the file cannot be written
+   */
+  static BlockedBloomFilter create(Path file, HashAlgorithm algorithm, int hashFunctions, long blocks, long entries)
+    throws IOException {
+    try (RandomAccessFile snapshot = new RandomAccessFile(file.toFile(), "rw")) {
+      snapshot.setLength(0);
+      snapshot.write(MAGIC);
+      snapshot.writeInt(FORMAT_VERSION);
+      snapshot.writeByte(algorithm.getId());
+      snapshot.writeByte(hashFunctions);
+      snapshot.seek(BLOCKS_OFFSET);
+      snapshot.writeLong(blocks);
+      snapshot.writeLong(entries);
+      snapshot.setLength(HEADER_SIZE + blocks * BLOCK_SIZE);
+      long blocksPerSegment = MAX_SEGMENT_SIZE / BLOCK_SIZE;
+      return new BlockedBloomFilter(algorithm, hashFunctions, blocks, entries, blocksPerSegment,
+        map(snapshot.getChannel(), FileChannel.MapMode.READ_WRITE, blocks, blocksPerSegment));
+    }
+  }
+
+  private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long blocks,
+                                        long blocksPerSegment) throws IOException {
+    int segmentsCount = (int) ((blocks + blocksPerSegment - 1) / blocksPerSegment);
+    MappedByteBuffer[] segments = new MappedByteBuffer[segmentsCount];
+    for (int i = 0; i < segmentsCount; i++) {
+      long first = i * blocksPerSegment;
+      long size = Math.min(blocksPerSegment, blocks - first) * BLOCK_SIZE;
+      // the mappings stay valid once the channel is closed
+      segments[i] = channel.map(mode, HEADER_SIZE + first * BLOCK_SIZE, size);
+    }
+    return segments;
+  }
+
+  /**
+   * Adds the hash to a writable filter
+   *
+   * @param hash hash of the filter algorithm
+   */
+  void add(byte[] hash) {
+    long block = block(hash);
+    MappedByteBuffer segment = segments[(int) (block / blocksPerSegment)];
+    int offset = (int) (block % blocksPerSegment) * BLOCK_SIZE;
+    long second = prefix(hash, Long.BYTES);
+    int bits = (int) second;
+    int step = (int) (second >>> 32) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      int bit = (bits + i * step) & (BLOCK_BITS - 1);
+      int index = offset + (bit >>> 3);
+      segment.put(index, (byte) (segment.get(index) | 1 << (bit & 7)));
+    }
+  }
+
+  /**
+   * Tells whether the hash may be in the filter
+   *
+   * @param hash hash of the filter algorithm
+   * @return false if the hash is certainly not in the filter
+   */
+  public boolean mightContain(byte[] hash) {
+    if (hash.length != algorithm.getHashLength()) {
+      return false;
+    }
+    long block = block(hash);
+    MappedByteBuffer segment = segments[(int) (block / blocksPerSegment)];
+    int offset = (int) (block % blocksPerSegment) * BLOCK_SIZE;
+    long second = prefix(hash, Long.BYTES);
+    int bits = (int) second;
+    int step = (int) (second >>> 32) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      int bit = (bits + i * step) & (BLOCK_BITS - 1);
+      if ((segment.get(offset + (bit >>> 3)) & 1 << (bit & 7)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long block(byte[] hash) {
+    return Long.remainderUnsigned(prefix(hash, 0), blocks);
+  }
+
+  private static long prefix(byte[] hash, int from) {
+    long prefix = 0;
+    for (int i = from; i < from + Long.BYTES; i++) {
+      prefix = prefix << 8 | (hash[i] & 0xff);
+    }
+    return prefix;
+  }
+
+  /**
+   * Writes the blocks of a writable filter to the file
+   */
+  void force() {
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+  }
+
+  public HashAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public int getHashFunctions() {
+    return hashFunctions;
+  }
+
+  /**
+   * Returns number of hashes the filter is built from
+   *
+   * @return number of hashes
+   */
+  public long getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns size of the mapped blocks, they are held in the page cache rather than on the heap
+   *
+   * @return mapped bytes
+   */
+  public long sizeInBytes() {
+    return blocks * BLOCK_SIZE;
+  }
+
+  /**
+   * Returns false positive rate expected for the filled filter,
+   * calculated for a standard Bloom filter of the same size, the blocked layout adds a little to it
+   *
+   * @return expected false positive probability
+   */
+  public double getExpectedFalsePositiveRate() {
+    double bits = (double) sizeInBytes() * Byte.SIZE;
+    return Math.pow(1 - Math.exp(-hashFunctions * entries / bits), hashFunctions);
+  }
+}
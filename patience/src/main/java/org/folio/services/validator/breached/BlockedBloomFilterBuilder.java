@@ -0,0 +1,60 @@
+package org.folio.services.validator.breached;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool building the {@link BlockedBloomFilter} snapshot from a {@link BreachedHashIndex} file.
+ * <p>
+ * Usage: {@code java -cp mod-password-validator-fat.jar org.folio.services.validator.breached.BlockedBloomFilterBuilder
+ * <index file> <filter file> [false positive rate]}
+ */
+public final class BlockedBloomFilterBuilder {
+
+  static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  private BlockedBloomFilterBuilder() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("Usage: BlockedBloomFilterBuilder <index file> <filter file> [false positive rate]");
+      System.exit(1);
+    }
+    double falsePositiveRate = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+    BlockedBloomFilter filter = build(BreachedHashIndex.open(Paths.get(args[0])), Paths.get(args[1]), falsePositiveRate);
+    System.out.println("Breached hash filter " + args[1] + " is built: " + filter.sizeInBytes() + " bytes, "
+      + filter.getHashFunctions() + " hash functions, expected false positive rate "
+      + filter.getExpectedFalsePositiveRate());
+  }
+
+  /**
+   * Builds the filter snapshot of all the hashes of the index
+   *
+   * @param index             breached hash index
+   * @param filterFile        snapshot file to write
+   * @param falsePositiveRate target probability of a clean password passing the filter
+   * @return built filter
+   * @throws IOException              if the snapshot cannot be written
+   * @throws IllegalArgumentException if the false positive rate is not between 0 and 1
+   */
+  public static BlockedBloomFilter build(BreachedHashIndex index, Path filterFile, double falsePositiveRate)
+    throws IOException {
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+    }
+    double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    int hashFunctions = (int) Math.max(1, Math.min(BlockedBloomFilter.MAX_HASH_FUNCTIONS,
+      Math.round(bitsPerEntry * Math.log(2))));
+    long bits = (long) Math.ceil(Math.max(1, index.size()) * bitsPerEntry);
+    long blocks = Math.max(1, (bits + BlockedBloomFilter.BLOCK_SIZE * Byte.SIZE - 1)
+      / (BlockedBloomFilter.BLOCK_SIZE * Byte.SIZE));
+
+    BlockedBloomFilter filter = BlockedBloomFilter.create(filterFile, index.getAlgorithm(), hashFunctions, blocks,
+      index.size());
+    index.forEachHash(filter::add);
+    filter.force();
+    return filter;
+  }
+}
@@ -0,0 +1,229 @@
+package org.folio.services.validator.breached;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Read-only index of the breached password hashes, memory-mapped from a file so that
+ * a dataset of hundreds of millions of hashes is kept in the page cache rather than on the heap.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE} bytes header: the magic, the format version,
+ * the hash algorithm id, the hash length and, at offset {@value #COUNT_OFFSET}, the number of hashes. The header is followed by
+ * the distinct hashes of the same length sorted as unsigned byte strings, see {@link BreachedHashIndexBuilder}.
+ * <p>
+ * A hash is searched by interpolation on its first 8 bytes, which are uniformly distributed,
+ * falling back to binary search. Only absolute reads of the mapped buffers are used,
+ * so the index is safe for concurrent lookups from any thread.
+ */
+public final class BreachedHashIndex {
+
+  static final byte[] MAGIC = "PWHASHIX".getBytes(StandardCharsets.US_ASCII);
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  // the magic, the version, the algorithm id, the hash length and two reserved bytes precede the count
+  static final int COUNT_OFFSET = 16;
+
+  // a single mapping cannot exceed 2 GB
+  private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+  private static final int INTERPOLATION_STEPS = 8;
+  private static final int BINARY_SEARCH_RANGE = 16;
+
+  private final HashAlgorithm algorithm;
+  private final int hashLength;
+  private final long count;
+  private final long hashesPerSegment;
+  private final MappedByteBuffer[] segments;
+
+  private BreachedHashIndex(HashAlgorithm algorithm, long count, long hashesPerSegment, MappedByteBuffer[] segments) {
+    this.algorithm = algorithm;
+    this.hashLength = algorithm.getHashLength();
+    this.count = count;
+    this.hashesPerSegment = hashesPerSegment;
+    this.segments = segments;
+  }
+
+  /**
+   * Maps the index file into memory
+   *
+   * @param file index file built by {@link BreachedHashIndexBuilder}
+   * @return index
+   * @throws IOException if the file cannot be read or is not an index file
+   */
+  public static BreachedHashIndex open(Path file) throws IOException {
+    return open(file, MAX_SEGMENT_SIZE);
+  }
+
+  static BreachedHashIndex open(Path file, long maxSegmentSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = FileHeader.read(channel, HEADER_SIZE);
+      if (!FileHeader.hasMagic(header, HEADER_SIZE, MAGIC)) {
+        throw new IOException("File " + file + " is not a breached hash index");
+      }
+      int version = header.getInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported breached hash index version " + version + " of the file " + file);
+      }
+      HashAlgorithm algorithm;
+      try {
+        algorithm = HashAlgorithm.fromId(header.get());
+      } catch (IllegalArgumentException e) {
+        throw new IOException("File " + file + " is not a breached hash index: " + e.getMessage(), e);
+      }
+      int hashLength = header.get();
+      long count = header.getLong(COUNT_OFFSET);
+      if (hashLength != algorithm.getHashLength()
+        || count < 0 || channel.size() != HEADER_SIZE + count * hashLength) {
+        throw new IOException("Breached hash index " + file + " is truncated or corrupted");
+      }
+
+      long hashesPerSegment = Math.max(1, maxSegmentSize / hashLength);
+      int segmentsCount = (int) ((count + hashesPerSegment - 1) / hashesPerSegment);
+      MappedByteBuffer[] segments = new MappedByteBuffer[segmentsCount];
+      for (int i = 0; i < segmentsCount; i++) {
+        long first = i * hashesPerSegment;
+        long size = Math.min(hashesPerSegment, count - first) * hashLength;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * hashLength, size);
+      }
+      // the mappings stay valid once the channel is closed
+      return new BreachedHashIndex(algorithm, count, hashesPerSegment, segments);
+    }
+  }
+
+  /**
+   * Tells whether the password is breached
+   *
+   * @param password password
+   * @return true if the hash of the password is in the index
+   */
+  public boolean containsPassword(CharSequence password) {
+    return contains(algorithm.hash(password));
+  }
+
+  /**
+   * Tells whether the hash is in the index
+   *
+   * @param hash hash of the index algorithm
+   * @return true if the hash is in the index
+   */
+  public boolean contains(byte[] hash) {
+    if (hash.length != hashLength || count == 0) {
+      return false;
+    }
+    long prefix = prefix(hash);
+    long low = 0;
+    long high = count - 1;
+    int step = 0;
+    while (low <= high) {
+      long middle;
+      if (step++ < INTERPOLATION_STEPS && high - low > BINARY_SEARCH_RANGE) {
+        long lowPrefix = prefixAt(low);
+        long highPrefix = prefixAt(high);
+        if (Long.compareUnsigned(prefix, lowPrefix) < 0 || Long.compareUnsigned(prefix, highPrefix) > 0) {
+          return false;
+        }
+        middle = interpolate(prefix, lowPrefix, highPrefix, low, high);
+      } else {
+        middle = (low + high) >>> 1;
+      }
+      int comparison = compareAt(middle, hash);
+      if (comparison == 0) {
+        return true;
+      } else if (comparison < 0) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return false;
+  }
+
+  private static long interpolate(long prefix, long lowPrefix, long highPrefix, long low, long high) {
+    double range = toUnsignedDouble(highPrefix) - toUnsignedDouble(lowPrefix);
+    if (range <= 0) {
+      return (low + high) >>> 1;
+    }
+    double fraction = (toUnsignedDouble(prefix) - toUnsignedDouble(lowPrefix)) / range;
+    long middle = low + (long) (fraction * (high - low));
+    return Math.max(low, Math.min(high, middle));
+  }
+
+  private static double toUnsignedDouble(long value) {
+    return (double) (value >>> 1) * 2.0 + (value & 1);
+  }
+
+  private static long prefix(byte[] hash) {
+    long prefix = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      prefix = prefix << 8 | (hash[i] & 0xff);
+    }
+    return prefix;
+  }
+
+  private long prefixAt(long index) {
+    return segments[(int) (index / hashesPerSegment)].getLong(offsetOf(index));
+  }
+
+  /**
+   * Compares the hash at the index with the given hash as unsigned byte strings
+   */
+  private int compareAt(long index, byte[] hash) {
+    MappedByteBuffer segment = segments[(int) (index / hashesPerSegment)];
+    int offset = offsetOf(index);
+    for (int i = 0; i < hashLength; i++) {
+      int comparison = Integer.compare(segment.get(offset + i) & 0xff, hash[i] & 0xff);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Passes the hashes of the index to the action in their sorted order
+   *
+   * @param action action called with a copy of every hash
+   */
+  void forEachHash(Consumer<byte[]> action) {
+    for (long index = 0; index < count; index++) {
+      byte[] hash = new byte[hashLength];
+      MappedByteBuffer segment = segments[(int) (index / hashesPerSegment)];
+      int offset = offsetOf(index);
+      for (int i = 0; i < hashLength; i++) {
+        hash[i] = segment.get(offset + i);
+      }
+      action.accept(hash);
+    }
+  }
+
+  private int offsetOf(long index) {
+    return (int) (index % hashesPerSegment) * hashLength;
+  }
+
+  public HashAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * Returns number of hashes in the index
+   *
+   * @return number of hashes
+   */
+  public long size() {
+    return count;
+  }
+
+  /**
+   * Returns size of the mapped hashes, they are held in the page cache rather than on the heap
+   *
+   * @return mapped bytes
+   */
+  public long sizeInBytes() {
+    return count * hashLength;
+  }
+}
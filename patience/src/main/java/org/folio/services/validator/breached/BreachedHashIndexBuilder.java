@@ -0,0 +1,224 @@
+package org.folio.services.validator.breached;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Command line tool building the {@link BreachedHashIndex} file from a plain list of hashes.
+ * <p>
+ * The list has a hexadecimal hash per line, optionally followed by a colon and a prevalence count
+ * as in the Pwned Passwords downloads. The list does not have to be sorted: the hashes are sorted
+ * by chunks which are merged into the index, so the heap holds a single chunk whatever the list size.
+ * <p>
+ * Usage: {@code java -cp mod-password-validator-fat.jar org.folio.services.validator.breached.BreachedHashIndexBuilder
+ * <sha1|ntlm> <hash list file> <index file> [hashes per chunk]}
+ */
+public final class BreachedHashIndexBuilder {
+
+  static final int DEFAULT_CHUNK_SIZE = 4_000_000;
+
+  private static final Comparator<byte[]> UNSIGNED_ORDER = BreachedHashIndexBuilder::compareUnsigned;
+
+  private BreachedHashIndexBuilder() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3 || args.length > 4) {
+      System.err.println("Usage: BreachedHashIndexBuilder <sha1|ntlm> <hash list file> <index file> [hashes per chunk]");
+      System.exit(1);
+    }
+    int chunkSize = args.length == 4 ? Integer.parseInt(args[3]) : DEFAULT_CHUNK_SIZE;
+    long count = build(HashAlgorithm.fromName(args[0]), Paths.get(args[1]), Paths.get(args[2]), chunkSize);
+    System.out.println("Breached hash index " + args[2] + " is built with " + count + " distinct hashes");
+  }
+
+  /**
+   * Builds the index file from the list of hashes
+   *
+   * @param algorithm hash algorithm of the list
+   * @param hashList  file with a hexadecimal hash per line
+   * @param indexFile index file to write
+   * @param chunkSize number of hashes sorted in memory at once
+   * @return number of distinct hashes in the index
+   * @throws IOException              if the files cannot be read or written
+   * @throws IllegalArgumentException if a line of the list is not a hash of the algorithm
+   */
+  public static long build(HashAlgorithm algorithm, Path hashList, Path indexFile, int chunkSize) throws IOException {
+    Path chunksDirectory = Files.createTempDirectory("breached-hash-chunks");
+    try {
+      List<Path> chunks = writeSortedChunks(algorithm, hashList, chunksDirectory, chunkSize);
+      return mergeChunks(algorithm, chunks, indexFile);
+    } finally {
+      try (Stream<Path> files = Files.list(chunksDirectory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.deleteIfExists(file);
+        }
+      }
+      Files.deleteIfExists(chunksDirectory);
+    }
+  }
+
+  private static List<Path> writeSortedChunks(HashAlgorithm algorithm, Path hashList, Path chunksDirectory,
+                                              int chunkSize) throws IOException {
+    List<Path> chunks = new ArrayList<>();
+    List<byte[]> hashes = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(hashList, StandardCharsets.US_ASCII)) {
+      String line;
+      long lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.trim();
+        if (line.isEmpty()) {
+          continue;
+        }
+        hashes.add(parseHash(algorithm, line, lineNumber));
+        if (hashes.size() == chunkSize) {
+          chunks.add(writeChunk(hashes, chunksDirectory, chunks.size()));
+          hashes.clear();
+        }
+      }
+    }
+    if (!hashes.isEmpty()) {
+      chunks.add(writeChunk(hashes, chunksDirectory, chunks.size()));
+    }
+    return chunks;
+  }
+
+  static byte[] parseHash(HashAlgorithm algorithm, String line, long lineNumber) {
+    int end = line.indexOf(':');
+    String hex = end < 0 ? line : line.substring(0, end).trim();
+    if (hex.length() != algorithm.getHashLength() * 2) {
+      throw new IllegalArgumentException("Line " + lineNumber + " is not a " + algorithm.getName() + " hash: " + line);
+    }
+    byte[] hash = new byte[algorithm.getHashLength()];
+    for (int i = 0; i < hash.length; i++) {
+      int high = Character.digit(hex.charAt(2 * i), 16);
+      int low = Character.digit(hex.charAt(2 * i + 1), 16);
+      if (high < 0 || low < 0) {
+        throw new IllegalArgumentException("Line " + lineNumber + " is not a " + algorithm.getName() + " hash: " + line);
+      }
+      hash[i] = (byte) (high << 4 | low);
+    }
+    return hash;
+  }
+
+  private static Path writeChunk(List<byte[]> hashes, Path chunksDirectory, int chunkNumber) throws IOException {
+    hashes.sort(UNSIGNED_ORDER);
+    Path chunk = chunksDirectory.resolve("chunk-" + chunkNumber);
+    try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(chunk), 1 << 16)) {
+      for (byte[] hash : hashes) {
+        output.write(hash);
+      }
+    }
+    return chunk;
+  }
+
+  private static long mergeChunks(HashAlgorithm algorithm, List<Path> chunks, Path indexFile) throws IOException {
+    PriorityQueue<ChunkReader> readers = new PriorityQueue<>(Math.max(1, chunks.size()),
+      (first, second) -> compareUnsigned(first.current, second.current));
+    long count = 0;
+    try {
+      for (Path chunk : chunks) {
+        ChunkReader reader = new ChunkReader(chunk, algorithm.getHashLength());
+        if (reader.next()) {
+          readers.add(reader);
+        } else {
+          reader.close();
+        }
+      }
+      try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(indexFile), 1 << 16)) {
+        output.write(new byte[BreachedHashIndex.HEADER_SIZE]);
+        byte[] previous = null;
+        while (!readers.isEmpty()) {
+          ChunkReader reader = readers.poll();
+          byte[] hash = reader.current;
+          // the same hash may come from several chunks or repeat within a chunk
+          if (previous == null || !Arrays.equals(previous, hash)) {
+            output.write(hash);
+            previous = hash;
+            count++;
+          }
+          if (reader.next()) {
+            readers.add(reader);
+          } else {
+            reader.close();
+          }
+        }
+      }
+    } finally {
+      for (ChunkReader reader : readers) {
+        reader.close();
+      }
+    }
+    writeHeader(algorithm, indexFile, count);
+    return count;
+  }
+
+  private static void writeHeader(HashAlgorithm algorithm, Path indexFile, long count) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(indexFile.toFile(), "rw")) {
+      file.write(BreachedHashIndex.MAGIC);
+      file.writeInt(BreachedHashIndex.FORMAT_VERSION);
+      file.writeByte(algorithm.getId());
+      file.writeByte(algorithm.getHashLength());
+      file.seek(BreachedHashIndex.COUNT_OFFSET);
+      file.writeLong(count);
+    }
+  }
+
+  static int compareUnsigned(byte[] first, byte[] second) {
+    for (int i = 0; i < first.length; i++) {
+      int comparison = Integer.compare(first[i] & 0xff, second[i] & 0xff);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Reads the sorted hashes of a chunk one by one
+   */
+  private static class ChunkReader {
+    private final DataInputStream input;
+    private final int hashLength;
+    private byte[] current;
+
+    ChunkReader(Path chunk, int hashLength) throws IOException {
+      InputStream stream = Files.newInputStream(chunk);
+      this.input = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+      this.hashLength = hashLength;
+    }
+
+    boolean next() throws IOException {
+      byte[] hash = new byte[hashLength];
+      try {
+        input.readFully(hash);
+      } catch (EOFException e) {
+        return false;
+      }
+      current = hash;
+      return true;
+    }
+
+    void close() throws IOException {
+      input.close();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package org.folio.services.validator.breached;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Breached passwords looked up in the hash index, optionally behind a Bloom filter
+ * which accepts most clean passwords without reading the index
+ */
+public final class BreachedPasswords {
+
+  private final BreachedHashIndex index;
+  private final BlockedBloomFilter filter;
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong indexLookups = new AtomicLong();
+  private final AtomicLong breached = new AtomicLong();
+
+  /**
+   * Constructor
+   *
+   * @param index  breached hash index
+   * @param filter filter of the index hashes, may be null
+   * @throws IllegalArgumentException if the filter is built for another hash algorithm
+   */
+  public BreachedPasswords(BreachedHashIndex index, BlockedBloomFilter filter) {
+    if (filter != null && filter.getAlgorithm() != index.getAlgorithm()) {
+      throw new IllegalArgumentException("Breached hash filter of " + filter.getAlgorithm().getName()
+        + " hashes cannot be used with the index of " + index.getAlgorithm().getName() + " hashes");
+    }
+    this.index = index;
+    this.filter = filter;
+  }
+
+  /**
+   * Tells whether the password is breached
+   *
+   * @param password password
+   * @return true if the hash of the password is in the index
+   */
+  public boolean contains(CharSequence password) {
+    lookups.incrementAndGet();
+    byte[] hash = index.getAlgorithm().hash(password);
+    if (filter != null && !filter.mightContain(hash)) {
+      return false;
+    }
+    indexLookups.incrementAndGet();
+    boolean found = index.contains(hash);
+    if (found) {
+      breached.incrementAndGet();
+    }
+    return found;
+  }
+
+  public long getLookups() {
+    return lookups.get();
+  }
+
+  public long getIndexLookups() {
+    return indexLookups.get();
+  }
+
+  /**
+   * Returns memory footprint and lookup counters
+   *
+   * @return json with the mapped sizes of the index and the filter, the number of lookups, index lookups,
+   * filter false positives and breached passwords
+   */
+  public JsonObject getStatistics() {
+    long breachedCount = breached.get();
+    JsonObject statistics = new JsonObject()
+      .put("algorithm", index.getAlgorithm().getName())
+      .put("hashes", index.size())
+      .put("indexBytes", index.sizeInBytes())
+      .put("lookups", getLookups())
+      .put("indexLookups", getIndexLookups())
+      .put("breached", breachedCount);
+    if (filter != null) {
+      statistics
+        .put("filterBytes", filter.sizeInBytes())
+        .put("filterHashFunctions", filter.getHashFunctions())
+        .put("filterExpectedFalsePositiveRate", filter.getExpectedFalsePositiveRate())
+        .put("filterFalsePositives", getIndexLookups() - breachedCount);
+    }
+    return statistics;
+  }
+}
@@ -0,0 +1,75 @@
+package org.folio.services.validator.breached;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Breached passwords of the module, set by the {@value #FILE_PARAMETER} and {@value #FILTER_FILE_PARAMETER}
+ * module parameters. The files are mapped once, at the module start up or on the first use,
+ * and are shared by the Breached rules of all the tenants.
+ */
+public final class ConfiguredBreachedPasswords {
+
+  public static final String FILE_PARAMETER = "breached.hash.file";
+  public static final String FILTER_FILE_PARAMETER = "breached.filter.file";
+
+  private static final Logger logger = LoggerFactory.getLogger(ConfiguredBreachedPasswords.class);
+
+  private static volatile BreachedPasswords breachedPasswords;
+
+  private ConfiguredBreachedPasswords() {
+  }
+
+  /**
+   * Tells whether the module is started with a breached hash index
+   *
+   * @return true if Breached rules can be checked
+   */
+  public static boolean isConfigured() {
+    return MODULE_SPECIFIC_ARGS.get(FILE_PARAMETER) != null;
+  }
+
+  /**
+   * Returns the breached passwords, mapping the index and the filter files on the first call
+   *
+   * @return breached passwords
+   * @throws IllegalStateException if the module is started without a breached hash index
+   * @throws UncheckedIOException  if the files cannot be mapped
+   */
+  public static BreachedPasswords get() {
+    BreachedPasswords result = breachedPasswords;
+    if (result == null) {
+      synchronized (ConfiguredBreachedPasswords.class) {
+        result = breachedPasswords;
+        if (result == null) {
+          result = load();
+          breachedPasswords = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static BreachedPasswords load() {
+    String file = MODULE_SPECIFIC_ARGS.get(FILE_PARAMETER);
+    if (file == null) {
+      throw new IllegalStateException("Module parameter " + FILE_PARAMETER + " is not set");
+    }
+    String filterFile = MODULE_SPECIFIC_ARGS.get(FILTER_FILE_PARAMETER);
+    try {
+      BreachedHashIndex index = BreachedHashIndex.open(Paths.get(file));
+      BlockedBloomFilter filter = filterFile == null ? null : BlockedBloomFilter.open(Paths.get(filterFile));
+      BreachedPasswords result = new BreachedPasswords(index, filter);
+      logger.info("Breached passwords are loaded: " + result.getStatistics().encode());
+      return result;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
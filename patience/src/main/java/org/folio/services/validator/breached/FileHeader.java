@@ -0,0 +1,52 @@
+package org.folio.services.validator.breached;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Header of the breached password files: magic bytes, format version and the format specific fields
+ */
+final class FileHeader {
+
+  private FileHeader() {
+  }
+
+  /**
+   * Reads the header from the start of the file
+   *
+   * @param channel file channel
+   * @param size    header size
+   * @return header ready to be read, with fewer remaining bytes than the size if the file is shorter
+   * @throws IOException if the file cannot be read
+   */
+  static ByteBuffer read(FileChannel channel, int size) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(size);
+    int read = 0;
+    while (header.hasRemaining() && read >= 0) {
+      read = channel.read(header, header.position());
+    }
+    // flipped as a Buffer: ByteBuffer.flip() exists since Java 9 only and is linked when compiled by a later JDK
+    ((Buffer) header).flip();
+    return header;
+  }
+
+  /**
+   * Tells whether the header is complete and starts with the magic bytes, the magic bytes are consumed
+   *
+   * @param header header read by {@link #read(FileChannel, int)}
+   * @param size   header size
+   * @param magic  magic bytes of the format
+   * @return true if the header is of the format
+   */
+  static boolean hasMagic(ByteBuffer header, int size, byte[] magic) {
+    if (header.remaining() < size) {
+      return false;
+    }
+    byte[] bytes = new byte[magic.length];
+    header.get(bytes);
+    return Arrays.equals(bytes, magic);
+  }
+}
@@ -0,0 +1,84 @@
+package org.folio.services.validator.breached;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hash function of the breached passwords index
+ */
+public enum HashAlgorithm {
+  SHA1((byte) 1, "sha1", 20),
+  NTLM((byte) 2, "ntlm", 16);
+
+  private final byte id;
+  private final String name;
+  private final int hashLength;
+
+  HashAlgorithm(byte id, String name, int hashLength) {
+    this.id = id;
+    this.name = name;
+    this.hashLength = hashLength;
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getHashLength() {
+    return hashLength;
+  }
+
+  /**
+   * Calculates hash of the password: SHA-1 of its UTF-8 bytes or MD4 of its UTF-16LE bytes for NTLM
+   *
+   * @param password password
+   * @return hash bytes
+   */
+  public byte[] hash(CharSequence password) {
+    if (this == NTLM) {
+      return Md4.digest(password.toString().getBytes(StandardCharsets.UTF_16LE));
+    }
+    try {
+      return MessageDigest.getInstance("SHA-1").digest(password.toString().getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not supported by the platform", e);
+    }
+  }
+
+  /**
+   * Returns the algorithm by its id stored in the index header
+   *
+   * @param id algorithm id
+   * @return hash algorithm
+   * @throws IllegalArgumentException if the id is unknown
+   */
+  public static HashAlgorithm fromId(byte id) {
+    for (HashAlgorithm algorithm : values()) {
+      if (algorithm.id == id) {
+        return algorithm;
+      }
+    }
+    throw new IllegalArgumentException("Unknown hash algorithm id " + id);
+  }
+
+  /**
+   * Returns the algorithm by its name, e.g. sha1 or ntlm
+   *
+   * @param name algorithm name, case insensitive
+   * @return hash algorithm
+   * @throws IllegalArgumentException if the name is unknown
+   */
+  public static HashAlgorithm fromName(String name) {
+    for (HashAlgorithm algorithm : values()) {
+      if (algorithm.name.equalsIgnoreCase(name)) {
+        return algorithm;
+      }
+    }
+    throw new IllegalArgumentException("Unknown hash algorithm " + name);
+  }
+}
@@ -0,0 +1,91 @@
+package org.folio.services.validator.breached;
+
+/**
+ * MD4 message digest (RFC 1320), needed for the NTLM password hashes
+ * as the standard security providers do not register it
+ */
+final class Md4 {
+
+  private Md4() {
+  }
+
+  /**
+   * Calculates MD4 digest of the message
+   *
+   * @param message message bytes
+   * @return 16 bytes digest
+   */
+  static byte[] digest(byte[] message) {
+    int paddedLength = ((message.length + 8) / 64 + 1) * 64;
+    byte[] padded = new byte[paddedLength];
+    System.arraycopy(message, 0, padded, 0, message.length);
+    padded[message.length] = (byte) 0x80;
+    long bitLength = (long) message.length * 8;
+    for (int i = 0; i < 8; i++) {
+      padded[paddedLength - 8 + i] = (byte) (bitLength >>> (8 * i));
+    }
+
+    int a = 0x67452301;
+    int b = 0xefcdab89;
+    int c = 0x98badcfe;
+    int d = 0x10325476;
+    int[] x = new int[16];
+    for (int block = 0; block < paddedLength; block += 64) {
+      for (int i = 0; i < 16; i++) {
+        int offset = block + i * 4;
+        x[i] = (padded[offset] & 0xff) | (padded[offset + 1] & 0xff) << 8
+          | (padded[offset + 2] & 0xff) << 16 | (padded[offset + 3] & 0xff) << 24;
+      }
+      int aa = a;
+      int bb = b;
+      int cc = c;
+      int dd = d;
+
+      for (int i = 0; i < 16; i += 4) {
+        a = Integer.rotateLeft(a + f(b, c, d) + x[i], 3);
+        d = Integer.rotateLeft(d + f(a, b, c) + x[i + 1], 7);
+        c = Integer.rotateLeft(c + f(d, a, b) + x[i + 2], 11);
+        b = Integer.rotateLeft(b + f(c, d, a) + x[i + 3], 19);
+      }
+      for (int i = 0; i < 4; i++) {
+        a = Integer.rotateLeft(a + g(b, c, d) + x[i] + 0x5a827999, 3);
+        d = Integer.rotateLeft(d + g(a, b, c) + x[i + 4] + 0x5a827999, 5);
+        c = Integer.rotateLeft(c + g(d, a, b) + x[i + 8] + 0x5a827999, 9);
+        b = Integer.rotateLeft(b + g(c, d, a) + x[i + 12] + 0x5a827999, 13);
+      }
+      int[] order = {0, 2, 1, 3};
+      for (int i : order) {
+        a = Integer.rotateLeft(a + h(b, c, d) + x[i] + 0x6ed9eba1, 3);
+        d = Integer.rotateLeft(d + h(a, b, c) + x[i + 8] + 0x6ed9eba1, 9);
+        c = Integer.rotateLeft(c + h(d, a, b) + x[i + 4] + 0x6ed9eba1, 11);
+        b = Integer.rotateLeft(b + h(c, d, a) + x[i + 12] + 0x6ed9eba1, 15);
+      }
+
+      a += aa;
+      b += bb;
+      c += cc;
+      d += dd;
+    }
+
+    byte[] digest = new byte[16];
+    int[] words = {a, b, c, d};
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 4; j++) {
+        digest[i * 4 + j] = (byte) (words[i] >>> (8 * j));
+      }
+    }
+    return digest;
+  }
+
+  private static int f(int x, int y, int z) {
+    return (x & y) | (~x & z);
+  }
+
+  private static int g(int x, int y, int z) {
+    return (x & y) | (x & z) | (y & z);
+  }
+
+  private static int h(int x, int y, int z) {
+    return x ^ y ^ z;
+  }
+}
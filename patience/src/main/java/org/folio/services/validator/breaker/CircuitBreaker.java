@@ -0,0 +1,170 @@
+package org.folio.services.validator.breaker;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of the calls to a remote endpoint.
+ * <p>
+ * Outcomes of the last calls are kept in a count-based sliding window. Once the window holds
+ * at least the minimum number of calls and the failure rate reaches the threshold, the breaker opens
+ * and rejects calls. After the open timeout the breaker becomes half-open and lets a limited number
+ * of probe calls through: a failed probe opens it again, enough succeeded probes close it.
+ */
+public class CircuitBreaker {
+
+  /**
+   * State of the circuit breaker
+   */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  private final String name;
+  private final CircuitBreakerOptions options;
+  private final LongSupplier clock;
+
+  // outcomes of the last calls, true for a failure
+  private final boolean[] window;
+  private int windowPosition;
+  private int windowCalls;
+  private int windowFailures;
+
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  private long calls;
+  private long failures;
+  private long rejections;
+  private long openings;
+
+  /**
+   * Constructor
+   *
+   * @param name    name of the breaker, e.g. the endpoint it guards
+   * @param options breaker thresholds
+   * @param clock   source of the current time in milliseconds
+   */
+  public CircuitBreaker(String name, CircuitBreakerOptions options, LongSupplier clock) {
+    this.name = name;
+    this.options = options;
+    this.clock = clock;
+    this.window = new boolean[options.getWindowSize()];
+  }
+
+  /**
+   * Asks the breaker for a permission to make a call.
+   * Every permitted call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+   *
+   * @return true if the call is permitted, false if the breaker is open
+   */
+  public synchronized boolean tryAcquire() {
+    if (state == State.OPEN && clock.getAsLong() - openedAt >= options.getOpenTimeout()) {
+      transitionTo(State.HALF_OPEN);
+    }
+    if (state == State.OPEN || state == State.HALF_OPEN && halfOpenPermits == 0) {
+      rejections++;
+      return false;
+    }
+    if (state == State.HALF_OPEN) {
+      halfOpenPermits--;
+    }
+    calls++;
+    return true;
+  }
+
+  /**
+   * Records a succeeded call
+   */
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      halfOpenSuccesses++;
+      if (halfOpenSuccesses >= options.getHalfOpenCalls()) {
+        transitionTo(State.CLOSED);
+      }
+    } else if (state == State.CLOSED) {
+      record(false);
+    }
+  }
+
+  /**
+   * Records a failed call, i.e. an error response, a connection error or an exceeded deadline
+   */
+  public synchronized void onFailure() {
+    failures++;
+    if (state == State.HALF_OPEN) {
+      transitionTo(State.OPEN);
+    } else if (state == State.CLOSED) {
+      record(true);
+      if (windowCalls >= options.getMinimumCalls()
+        && windowFailures * 100L >= (long) options.getFailureRateThreshold() * windowCalls) {
+        transitionTo(State.OPEN);
+      }
+    }
+  }
+
+  private void record(boolean failure) {
+    if (windowCalls == window.length) {
+      if (window[windowPosition]) {
+        windowFailures--;
+      }
+    } else {
+      windowCalls++;
+    }
+    window[windowPosition] = failure;
+    if (failure) {
+      windowFailures++;
+    }
+    windowPosition = (windowPosition + 1) % window.length;
+  }
+
+  private void transitionTo(State newState) {
+    logger.info("Circuit breaker " + name + " changes state from " + state + " to " + newState);
+    if (newState == State.OPEN) {
+      logger.error("Circuit breaker " + name + " is open, the remote module is considered unavailable");
+      openedAt = clock.getAsLong();
+      openings++;
+    } else if (newState == State.HALF_OPEN) {
+      halfOpenPermits = options.getHalfOpenCalls();
+      halfOpenSuccesses = 0;
+    } else {
+      windowPosition = 0;
+      windowCalls = 0;
+      windowFailures = 0;
+    }
+    state = newState;
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the state and the counters of the breaker
+   *
+   * @return breaker statistics
+   */
+  public synchronized JsonObject getStatistics() {
+    return new JsonObject()
+      .put("state", state.name())
+      .put("calls", calls)
+      .put("failures", failures)
+      .put("rejections", rejections)
+      .put("openings", openings)
+      .put("windowCalls", windowCalls)
+      .put("windowFailures", windowFailures);
+  }
+}
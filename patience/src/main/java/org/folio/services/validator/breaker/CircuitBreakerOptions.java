@@ -0,0 +1,88 @@
+package org.folio.services.validator.breaker;
+
+/**
+ * Thresholds of the circuit breakers
+ */
+public class CircuitBreakerOptions {
+
+  private int windowSize = 20;
+  private int minimumCalls = 10;
+  private int failureRateThreshold = 50;
+  private long openTimeout = 30000;
+  private int halfOpenCalls = 3;
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+   * Sets the number of the last calls the failure rate is calculated on
+   *
+   * @param windowSize number of calls
+   * @return options
+   */
+  public CircuitBreakerOptions setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+    return this;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  /**
+   * Sets the number of calls the window has to hold before the breaker may open
+   *
+   * @param minimumCalls number of calls
+   * @return options
+   */
+  public CircuitBreakerOptions setMinimumCalls(int minimumCalls) {
+    this.minimumCalls = minimumCalls;
+    return this;
+  }
+
+  public int getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  /**
+   * Sets the percentage of failed calls of the window which opens the breaker
+   *
+   * @param failureRateThreshold failure rate in percents
+   * @return options
+   */
+  public CircuitBreakerOptions setFailureRateThreshold(int failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  public long getOpenTimeout() {
+    return openTimeout;
+  }
+
+  /**
+   * Sets the time the breaker stays open before letting probe calls through
+   *
+   * @param openTimeout time in milliseconds
+   * @return options
+   */
+  public CircuitBreakerOptions setOpenTimeout(long openTimeout) {
+    this.openTimeout = openTimeout;
+    return this;
+  }
+
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  /**
+   * Sets the number of probe calls of the half-open breaker which have to succeed to close it
+   *
+   * @param halfOpenCalls number of calls
+   * @return options
+   */
+  public CircuitBreakerOptions setHalfOpenCalls(int halfOpenCalls) {
+    this.halfOpenCalls = halfOpenCalls;
+    return this;
+  }
+}
@@ -0,0 +1,47 @@
+package org.folio.services.validator.breaker;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breakers of the remote endpoints, created on the first call to an endpoint
+ */
+public class CircuitBreakerRegistry {
+
+  private final CircuitBreakerOptions options;
+  private final LongSupplier clock;
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+  public CircuitBreakerRegistry(CircuitBreakerOptions options) {
+    this(options, System::currentTimeMillis);
+  }
+
+  public CircuitBreakerRegistry(CircuitBreakerOptions options, LongSupplier clock) {
+    this.options = options;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the circuit breaker of the endpoint
+   *
+   * @param name endpoint, e.g. implementation reference of a programmatic rule
+   * @return circuit breaker
+   */
+  public CircuitBreaker get(String name) {
+    return circuitBreakers.computeIfAbsent(name, key -> new CircuitBreaker(key, options, clock));
+  }
+
+  /**
+   * Returns statistics of all the breakers by their names
+   *
+   * @return breakers statistics
+   */
+  public JsonObject getStatistics() {
+    JsonObject statistics = new JsonObject();
+    circuitBreakers.forEach((name, circuitBreaker) -> statistics.put(name, circuitBreaker.getStatistics()));
+    return statistics;
+  }
+}
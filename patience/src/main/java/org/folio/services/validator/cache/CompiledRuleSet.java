@@ -0,0 +1,62 @@
+package org.folio.services.validator.cache;
+
+import org.folio.rest.jaxrs.model.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the enabled rules of a tenant, sorted by <code>orderNo</code>.
+ * Rules of the snapshot are shared between concurrent validations and must not be modified.
+ */
+public final class CompiledRuleSet {
+
+  private final String tenantId;
+  private final long version;
+  private final long loadedAt;
+  private final List<Rule> rules;
+
+  CompiledRuleSet(String tenantId, long version, long loadedAt, List<Rule> rules) {
+    this.tenantId = tenantId;
+    this.version = version;
+    this.loadedAt = loadedAt;
+    this.rules = rules;
+  }
+
+  /**
+   * Builds sorted snapshot of enabled rules
+   *
+   * @param tenantId tenant id
+   * @param version  version of the snapshot
+   * @param rules    rules received from the registry
+   * @return rule set snapshot
+   */
+  static CompiledRuleSet compile(String tenantId, long version, List<Rule> rules) {
+    List<Rule> enabledRules = new ArrayList<>(rules.size());
+    for (Rule rule : rules) {
+      if (Rule.State.ENABLED.equals(rule.getState())) {
+        enabledRules.add(rule);
+      }
+    }
+    enabledRules.sort(Comparator.comparing(Rule::getOrderNo, Comparator.nullsLast(Comparator.naturalOrder())));
+    return new CompiledRuleSet(tenantId, version, System.currentTimeMillis(), Collections.unmodifiableList(enabledRules));
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getLoadedAt() {
+    return loadedAt;
+  }
+
+  public List<Rule> getRules() {
+    return rules;
+  }
+}
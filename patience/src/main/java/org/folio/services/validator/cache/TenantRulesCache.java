@@ -0,0 +1,156 @@
+package org.folio.services.validator.cache;
+
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.Rule;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of the per-tenant rule set snapshots.
+ * Least recently used tenants are evicted once the cache reaches its maximum size.
+ * <p>
+ * Every invalidation bumps the version sequence, so a snapshot loaded before
+ * the invalidation of its tenant is never stored.
+ */
+public class TenantRulesCache {
+
+  private final int maxSize;
+  private final long ttl;
+  private final AtomicLong versionSequence = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+  private final Map<String, Long> invalidatedVersions = new HashMap<>();
+  private long allInvalidatedVersion;
+  private final LinkedHashMap<String, CompiledRuleSet> ruleSets;
+
+  /**
+   * Constructor
+   *
+   * @param maxSize maximum number of tenants kept in the cache
+   * @param ttl     time in milliseconds after which a snapshot is reloaded, 0 disables expiration
+   */
+  public TenantRulesCache(int maxSize, long ttl) {
+    this.maxSize = maxSize;
+    this.ttl = ttl;
+    this.ruleSets = new LinkedHashMap<String, CompiledRuleSet>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CompiledRuleSet> eldest) {
+        boolean evict = size() > TenantRulesCache.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Returns cached rule set snapshot of the tenant
+   *
+   * @param tenantId tenant id
+   * @return rule set snapshot or null if the tenant rules have to be loaded
+   */
+  public synchronized CompiledRuleSet get(String tenantId) {
+    CompiledRuleSet ruleSet = ruleSets.get(tenantId);
+    if (ruleSet != null && ttl > 0 && System.currentTimeMillis() - ruleSet.getLoadedAt() > ttl) {
+      ruleSets.remove(tenantId);
+      ruleSet = null;
+    }
+    if (ruleSet == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return ruleSet;
+  }
+
+  /**
+   * Returns token to be passed to {@link #put(String, List, long)} once the rules are loaded.
+   * Must be obtained before the rules loading is started.
+   *
+   * @return load token
+   */
+  public long loadToken() {
+    return versionSequence.get();
+  }
+
+  /**
+   * Compiles loaded rules into the snapshot and stores it,
+   * unless the tenant rules were invalidated while loading
+   *
+   * @param tenantId  tenant id
+   * @param rules     rules loaded from the registry
+   * @param loadToken token obtained by {@link #loadToken()} before loading
+   * @return rule set snapshot
+   */
+  public synchronized CompiledRuleSet put(String tenantId, List<Rule> rules, long loadToken) {
+    CompiledRuleSet ruleSet = CompiledRuleSet.compile(tenantId, versionSequence.incrementAndGet(), rules);
+    long invalidatedVersion = Math.max(allInvalidatedVersion, invalidatedVersions.getOrDefault(tenantId, 0L));
+    if (invalidatedVersion <= loadToken) {
+      ruleSets.put(tenantId, ruleSet);
+    }
+    return ruleSet;
+  }
+
+  /**
+   * Drops the rule set snapshot of the tenant
+   *
+   * @param tenantId tenant id
+   */
+  public synchronized void invalidate(String tenantId) {
+    invalidatedVersions.put(tenantId, versionSequence.incrementAndGet());
+    ruleSets.remove(tenantId);
+    invalidations.incrementAndGet();
+  }
+
+  /**
+   * Drops all the cached snapshots
+   */
+  public synchronized void invalidateAll() {
+    allInvalidatedVersion = versionSequence.incrementAndGet();
+    invalidatedVersions.clear();
+    ruleSets.clear();
+    invalidations.incrementAndGet();
+  }
+
+  public synchronized int size() {
+    return ruleSets.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public long getInvalidations() {
+    return invalidations.get();
+  }
+
+  /**
+   * Returns cache counters
+   *
+   * @return json with size, hits, misses, evictions and invalidations counters
+   */
+  public JsonObject getStatistics() {
+    return new JsonObject()
+      .put("size", size())
+      .put("maxSize", maxSize)
+      .put("hits", getHits())
+      .put("misses", getMisses())
+      .put("evictions", getEvictions())
+      .put("invalidations", getInvalidations());
+  }
+}
@@ -0,0 +1,253 @@
+package org.folio.services.validator.cache;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of the user names looked up in mod-users, keyed by tenant and user id.
+ * Least recently used users are evicted once the cache reaches its maximum size.
+ * <p>
+ * A user name older than the TTL is stale: it is still served during the stale period,
+ * while a single background refresh per user replaces it. A failed refresh keeps the stale name,
+ * so that a slow or briefly unavailable mod-users does not fail validations.
+ * Names older than the TTL plus the stale period are dropped and have to be looked up again.
+ */
+public class UserNamesCache {
+
+  /**
+   * User name served from the cache
+   */
+  public static class CachedUserName {
+    private final String userName;
+    private final boolean stale;
+
+    private CachedUserName(String userName, boolean stale) {
+      this.userName = userName;
+      this.stale = stale;
+    }
+
+    public String getUserName() {
+      return userName;
+    }
+
+    /**
+     * @return true if the name is older than the TTL and has to be refreshed
+     */
+    public boolean isStale() {
+      return stale;
+    }
+  }
+
+  private static class UserNameEntry {
+    private final String userName;
+    private final long loadedAt;
+    private boolean refreshing;
+
+    private UserNameEntry(String userName, long loadedAt) {
+      this.userName = userName;
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  private final int maxSize;
+  private final long ttl;
+  private final long stalePeriod;
+  private final LongSupplier clock;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong refreshes = new AtomicLong();
+  private final AtomicLong refreshFailures = new AtomicLong();
+  private final AtomicLong refreshTotalNanos = new AtomicLong();
+  private final AtomicLong refreshMaxNanos = new AtomicLong();
+  private final LinkedHashMap<String, UserNameEntry> userNames;
+
+  /**
+   * Constructor
+   *
+   * @param maxSize     maximum number of users kept in the cache, 0 disables caching
+   * @param ttl         time in milliseconds after which a user name is refreshed
+   * @param stalePeriod time in milliseconds after the TTL during which a stale user name is still served
+   */
+  public UserNamesCache(int maxSize, long ttl, long stalePeriod) {
+    this(maxSize, ttl, stalePeriod, System::currentTimeMillis);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param maxSize     maximum number of users kept in the cache, 0 disables caching
+   * @param ttl         time in milliseconds after which a user name is refreshed
+   * @param stalePeriod time in milliseconds after the TTL during which a stale user name is still served
+   * @param clock       source of the current time in milliseconds
+   */
+  public UserNamesCache(int maxSize, long ttl, long stalePeriod, LongSupplier clock) {
+    this.maxSize = maxSize;
+    this.ttl = ttl;
+    this.stalePeriod = stalePeriod;
+    this.clock = clock;
+    this.userNames = new LinkedHashMap<String, UserNameEntry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, UserNameEntry> eldest) {
+        boolean evict = size() > UserNamesCache.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Returns cached name of the user
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @return cached user name or null if the user has to be looked up
+   */
+  public synchronized CachedUserName get(String tenantId, String userId) {
+    String key = key(tenantId, userId);
+    UserNameEntry entry = userNames.get(key);
+    long age = entry == null ? 0 : clock.getAsLong() - entry.loadedAt;
+    if (entry != null && age > ttl + stalePeriod) {
+      userNames.remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    if (age > ttl) {
+      staleHits.incrementAndGet();
+      return new CachedUserName(entry.userName, true);
+    }
+    hits.incrementAndGet();
+    return new CachedUserName(entry.userName, false);
+  }
+
+  /**
+   * Marks the stale user name as being refreshed, so that concurrent validations do not refresh it again
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @return true if the caller has to refresh the name, false if it is refreshed already or is not cached
+   */
+  public synchronized boolean startRefresh(String tenantId, String userId) {
+    UserNameEntry entry = userNames.get(key(tenantId, userId));
+    if (entry == null || entry.refreshing) {
+      return false;
+    }
+    entry.refreshing = true;
+    return true;
+  }
+
+  /**
+   * Stores looked up name of the user
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @param userName user name
+   */
+  public synchronized void put(String tenantId, String userId, String userName) {
+    userNames.put(key(tenantId, userId), new UserNameEntry(userName, clock.getAsLong()));
+  }
+
+  /**
+   * Stores the refreshed name of the user
+   *
+   * @param tenantId     tenant id
+   * @param userId       user id
+   * @param userName     user name
+   * @param refreshNanos duration of the refresh in nanoseconds
+   */
+  public void refreshed(String tenantId, String userId, String userName, long refreshNanos) {
+    recordRefresh(refreshNanos);
+    put(tenantId, userId, userName);
+  }
+
+  /**
+   * Keeps the stale name of the user after a failed refresh, the next validation refreshes it again
+   *
+   * @param tenantId     tenant id
+   * @param userId       user id
+   * @param refreshNanos duration of the refresh in nanoseconds
+   */
+  public void refreshFailed(String tenantId, String userId, long refreshNanos) {
+    recordRefresh(refreshNanos);
+    refreshFailures.incrementAndGet();
+    synchronized (this) {
+      UserNameEntry entry = userNames.get(key(tenantId, userId));
+      if (entry != null) {
+        entry.refreshing = false;
+      }
+    }
+  }
+
+  private void recordRefresh(long refreshNanos) {
+    refreshes.incrementAndGet();
+    refreshTotalNanos.addAndGet(refreshNanos);
+    refreshMaxNanos.accumulateAndGet(refreshNanos, Math::max);
+  }
+
+  private static String key(String tenantId, String userId) {
+    return tenantId + '/' + userId;
+  }
+
+  public synchronized int size() {
+    return userNames.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getStaleHits() {
+    return staleHits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public long getRefreshes() {
+    return refreshes.get();
+  }
+
+  public long getRefreshFailures() {
+    return refreshFailures.get();
+  }
+
+  /**
+   * Returns cache counters
+   *
+   * @return json with size, hit rate, refreshes counters and refresh latency
+   */
+  public JsonObject getStatistics() {
+    long served = getHits() + getStaleHits();
+    long requests = served + getMisses();
+    long refreshesCount = getRefreshes();
+    return new JsonObject()
+      .put("size", size())
+      .put("maxSize", maxSize)
+      .put("hits", getHits())
+      .put("staleHits", getStaleHits())
+      .put("misses", getMisses())
+      .put("hitRate", requests == 0 ? 0d : (double) served / requests)
+      .put("evictions", getEvictions())
+      .put("refreshes", refreshesCount)
+      .put("refreshFailures", getRefreshFailures())
+      .put("refreshMeanMillis", refreshesCount == 0 ? 0d
+        : (double) refreshTotalNanos.get() / refreshesCount / TimeUnit.MILLISECONDS.toNanos(1))
+      .put("refreshMaxMillis", (double) refreshMaxNanos.get() / TimeUnit.MILLISECONDS.toNanos(1));
+  }
+}
@@ -0,0 +1,218 @@
+package org.folio.services.validator.codec;
+
+import io.vertx.core.buffer.Buffer;
+import org.folio.rest.jaxrs.model.Metadata;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact binary layout of the rules sent across the cluster.
+ * <p>
+ * Strings are written as the length of their UTF-8 bytes followed by the bytes, -1 for null.
+ * Enums are written as a single byte ordinal, -1 for null, so new constants must be appended.
+ * Nullable numbers and booleans are preceded by a presence byte.
+ */
+final class RuleBinaryFormat {
+
+  static final byte FORMAT_VERSION = 3;
+
+  private static final byte ABSENT = -1;
+  private static final byte PRESENT = 1;
+
+  private RuleBinaryFormat() {
+  }
+
+  static void writeRuleCollection(Buffer buffer, RuleCollection ruleCollection) {
+    writeInteger(buffer, ruleCollection.getTotalRecords());
+    List<Rule> rules = ruleCollection.getRules();
+    buffer.appendInt(rules == null ? -1 : rules.size());
+    if (rules != null) {
+      for (Rule rule : rules) {
+        writeRule(buffer, rule);
+      }
+    }
+  }
+
+  static RuleCollection readRuleCollection(Reader reader) {
+    RuleCollection ruleCollection = new RuleCollection();
+    ruleCollection.setTotalRecords(reader.readInteger());
+    int rulesCount = reader.readInt();
+    if (rulesCount >= 0) {
+      List<Rule> rules = new ArrayList<>(rulesCount);
+      for (int i = 0; i < rulesCount; i++) {
+        rules.add(readRule(reader));
+      }
+      ruleCollection.setRules(rules);
+    }
+    return ruleCollection;
+  }
+
+  static void writeRule(Buffer buffer, Rule rule) {
+    writeString(buffer, rule.getRuleId());
+    writeString(buffer, rule.getName());
+    writeEnum(buffer, rule.getType());
+    writeEnum(buffer, rule.getValidationType());
+    writeEnum(buffer, rule.getState());
+    writeString(buffer, rule.getModuleName());
+    writeString(buffer, rule.getImplementationReference());
+    writeString(buffer, rule.getExpression());
+    List<String> sequences = rule.getSequences();
+    buffer.appendInt(sequences == null ? -1 : sequences.size());
+    if (sequences != null) {
+      for (String sequence : sequences) {
+        writeString(buffer, sequence);
+      }
+    }
+    writeBoolean(buffer, rule.getIgnoreCase());
+    writeBoolean(buffer, rule.getMatchReversed());
+    writeInteger(buffer, rule.getHistorySize());
+    writeInteger(buffer, rule.getMinScore());
+    writeString(buffer, rule.getDescription());
+    writeInteger(buffer, rule.getOrderNo());
+    writeString(buffer, rule.getErrMessageId());
+    Metadata metadata = rule.getMetadata();
+    if (metadata == null) {
+      buffer.appendByte(ABSENT);
+    } else {
+      buffer.appendByte(PRESENT);
+      writeDate(buffer, metadata.getCreatedDate());
+      writeString(buffer, metadata.getCreatedByUserId());
+      writeString(buffer, metadata.getCreatedByUsername());
+      writeDate(buffer, metadata.getUpdatedDate());
+      writeString(buffer, metadata.getUpdatedByUserId());
+      writeString(buffer, metadata.getUpdatedByUsername());
+    }
+  }
+
+  static Rule readRule(Reader reader) {
+    Rule rule = new Rule();
+    rule.setRuleId(reader.readString());
+    rule.setName(reader.readString());
+    rule.setType(reader.readEnum(Rule.Type.values()));
+    rule.setValidationType(reader.readEnum(Rule.ValidationType.values()));
+    rule.setState(reader.readEnum(Rule.State.values()));
+    rule.setModuleName(reader.readString());
+    rule.setImplementationReference(reader.readString());
+    rule.setExpression(reader.readString());
+    int sequencesCount = reader.readInt();
+    if (sequencesCount >= 0) {
+      List<String> sequences = new ArrayList<>(sequencesCount);
+      for (int i = 0; i < sequencesCount; i++) {
+        sequences.add(reader.readString());
+      }
+      rule.setSequences(sequences);
+    }
+    rule.setIgnoreCase(reader.readBoolean());
+    rule.setMatchReversed(reader.readBoolean());
+    rule.setHistorySize(reader.readInteger());
+    rule.setMinScore(reader.readInteger());
+    rule.setDescription(reader.readString());
+    rule.setOrderNo(reader.readInteger());
+    rule.setErrMessageId(reader.readString());
+    if (reader.readByte() == PRESENT) {
+      Metadata metadata = new Metadata();
+      metadata.setCreatedDate(reader.readDate());
+      metadata.setCreatedByUserId(reader.readString());
+      metadata.setCreatedByUsername(reader.readString());
+      metadata.setUpdatedDate(reader.readDate());
+      metadata.setUpdatedByUserId(reader.readString());
+      metadata.setUpdatedByUsername(reader.readString());
+      rule.setMetadata(metadata);
+    }
+    return rule;
+  }
+
+  private static void writeString(Buffer buffer, String value) {
+    if (value == null) {
+      buffer.appendInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+  }
+
+  private static void writeEnum(Buffer buffer, Enum<?> value) {
+    buffer.appendByte(value == null ? ABSENT : (byte) value.ordinal());
+  }
+
+  private static void writeBoolean(Buffer buffer, Boolean value) {
+    buffer.appendByte(value == null ? ABSENT : (byte) (value ? 1 : 0));
+  }
+
+  private static void writeInteger(Buffer buffer, Integer value) {
+    if (value == null) {
+      buffer.appendByte(ABSENT);
+    } else {
+      buffer.appendByte(PRESENT).appendInt(value);
+    }
+  }
+
+  private static void writeDate(Buffer buffer, Date value) {
+    if (value == null) {
+      buffer.appendByte(ABSENT);
+    } else {
+      buffer.appendByte(PRESENT).appendLong(value.getTime());
+    }
+  }
+
+  /**
+   * Reads the values one after another starting from the given buffer position
+   */
+  static class Reader {
+    private final Buffer buffer;
+    private int position;
+
+    Reader(Buffer buffer, int position) {
+      this.buffer = buffer;
+      this.position = position;
+    }
+
+    byte readByte() {
+      return buffer.getByte(position++);
+    }
+
+    int readInt() {
+      int value = buffer.getInt(position);
+      position += Integer.BYTES;
+      return value;
+    }
+
+    String readString() {
+      int length = readInt();
+      if (length < 0) {
+        return null;
+      }
+      String value = buffer.getString(position, position + length, StandardCharsets.UTF_8.name());
+      position += length;
+      return value;
+    }
+
+    <E extends Enum<E>> E readEnum(E[] values) {
+      byte ordinal = readByte();
+      return ordinal == ABSENT ? null : values[ordinal];
+    }
+
+    Boolean readBoolean() {
+      byte value = readByte();
+      return value == ABSENT ? null : value == 1;
+    }
+
+    Integer readInteger() {
+      return readByte() == ABSENT ? null : readInt();
+    }
+
+    Date readDate() {
+      if (readByte() == ABSENT) {
+        return null;
+      }
+      long time = buffer.getLong(position);
+      position += Long.BYTES;
+      return new Date(time);
+    }
+  }
+}
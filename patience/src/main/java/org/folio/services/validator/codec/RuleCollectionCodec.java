@@ -0,0 +1,47 @@
+package org.folio.services.validator.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import org.folio.rest.jaxrs.model.RuleCollection;
+
+/**
+ * Event bus codec of the rule collections.
+ * Local deliveries pass the collection by reference, so the sender must not change it once sent.
+ * Across the cluster the collection is sent in the length-prefixed binary layout of {@link RuleBinaryFormat}.
+ */
+public class RuleCollectionCodec implements MessageCodec<RuleCollection, RuleCollection> {
+
+  public static final String NAME = "validator-rule-collection";
+
+  @Override
+  public void encodeToWire(Buffer buffer, RuleCollection ruleCollection) {
+    Buffer payload = Buffer.buffer().appendByte(RuleBinaryFormat.FORMAT_VERSION);
+    RuleBinaryFormat.writeRuleCollection(payload, ruleCollection);
+    buffer.appendInt(payload.length()).appendBuffer(payload);
+  }
+
+  @Override
+  public RuleCollection decodeFromWire(int pos, Buffer buffer) {
+    RuleBinaryFormat.Reader reader = new RuleBinaryFormat.Reader(buffer, pos + Integer.BYTES);
+    byte version = reader.readByte();
+    if (version != RuleBinaryFormat.FORMAT_VERSION) {
+      throw new IllegalStateException("Unsupported rule collection format version " + version);
+    }
+    return RuleBinaryFormat.readRuleCollection(reader);
+  }
+
+  @Override
+  public RuleCollection transform(RuleCollection ruleCollection) {
+    return ruleCollection;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -0,0 +1,202 @@
+package org.folio.services.validator.engine;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.matcher.CompiledRuleStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluation order of the local rules of the tenants in the adaptive evaluation mode.
+ * <p>
+ * The mean evaluation time and the failure rate of every rule are tracked per tenant. Since the evaluation of
+ * a password stops at the first failed rule, the expected cost of a validation is the least when the rules are
+ * evaluated in the increasing order of their time divided by their failure probability: cheap rules which often
+ * fail go first, expensive rules which seldom fail go last. The order is recomputed from the statistics every
+ * given number of validations and whenever the rules of the tenant change.
+ * <p>
+ * The counters are updated without locking, a recomputed order replaces the previous one atomically,
+ * concurrent recomputations of the same order are harmless.
+ */
+public class AdaptiveRuleOrder {
+
+  private final int reorderInterval;
+  private final Map<String, TenantRuleOrder> tenants = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param reorderInterval number of validations of a tenant after which the order of its rules is recomputed
+   */
+  public AdaptiveRuleOrder(int reorderInterval) {
+    this.reorderInterval = Math.max(reorderInterval, 1);
+  }
+
+  /**
+   * Returns local rules of the tenant in the order of evaluation
+   *
+   * @param tenantId tenant id
+   * @param rules    enabled rules of the tenant sorted by order number, the list of a cached rule set
+   * @return local rules sorted by the expected cost of the evaluation
+   */
+  public List<Rule> order(String tenantId, List<Rule> rules) {
+    TenantRuleOrder tenantOrder = tenants.computeIfAbsent(tenantId, id -> new TenantRuleOrder());
+    Snapshot snapshot = tenantOrder.snapshot;
+    long validations = tenantOrder.validations.incrementAndGet();
+    if (snapshot == null || snapshot.rules != rules || validations % reorderInterval == 0) {
+      snapshot = new Snapshot(rules, tenantOrder.sort(rules));
+      tenantOrder.snapshot = snapshot;
+    }
+    return snapshot.order;
+  }
+
+  /**
+   * Records an evaluation of the rule
+   *
+   * @param tenantId tenant id
+   * @param rule     evaluated rule
+   * @param nanos    duration of the evaluation in nanoseconds
+   * @param passed   whether the password satisfied the rule
+   */
+  public void record(String tenantId, Rule rule, long nanos, boolean passed) {
+    tenants.computeIfAbsent(tenantId, id -> new TenantRuleOrder())
+      .statistics.computeIfAbsent(rule.getRuleId(), id -> new RuleStatistics())
+      .record(nanos, passed);
+  }
+
+  /**
+   * Drops the statistics of the rules of the tenant
+   *
+   * @param tenantId tenant id
+   */
+  public void invalidate(String tenantId) {
+    tenants.remove(tenantId);
+  }
+
+  /**
+   * Drops the statistics of the changed rule, so that the rule is measured again
+   *
+   * @param tenantId tenant id
+   * @param ruleId   rule id
+   */
+  public void invalidate(String tenantId, String ruleId) {
+    TenantRuleOrder tenantOrder = tenants.get(tenantId);
+    if (tenantOrder != null) {
+      tenantOrder.statistics.remove(ruleId);
+    }
+  }
+
+  /**
+   * Returns rule statistics of the tenants
+   *
+   * @return json with the rules of every tenant in the order of evaluation,
+   * along with their evaluations and failures counters, failure rate, mean time and expected cost
+   */
+  public JsonObject getStatistics() {
+    JsonObject statistics = new JsonObject();
+    tenants.forEach((tenantId, tenantOrder) -> {
+      Snapshot snapshot = tenantOrder.snapshot;
+      JsonArray rules = new JsonArray();
+      if (snapshot != null) {
+        for (Rule rule : snapshot.order) {
+          RuleStatistics ruleStatistics = tenantOrder.statistics.get(rule.getRuleId());
+          JsonObject ruleJson = new JsonObject()
+            .put("ruleId", rule.getRuleId())
+            .put("name", rule.getName())
+            .put("orderNo", rule.getOrderNo());
+          if (ruleStatistics != null) {
+            ruleJson
+              .put("evaluations", ruleStatistics.evaluations.sum())
+              .put("failures", ruleStatistics.failures.sum())
+              .put("failureRate", ruleStatistics.failureRate())
+              .put("meanMicros", ruleStatistics.meanNanos() / TimeUnit.MICROSECONDS.toNanos(1))
+              .put("cost", ruleStatistics.cost());
+          }
+          rules.add(ruleJson);
+        }
+      }
+      statistics.put(tenantId, new JsonObject()
+        .put("validations", tenantOrder.validations.get())
+        .put("rules", rules));
+    });
+    return statistics;
+  }
+
+  private static class TenantRuleOrder {
+    private final Map<String, RuleStatistics> statistics = new ConcurrentHashMap<>();
+    private final AtomicLong validations = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private List<Rule> sort(List<Rule> rules) {
+      List<Rule> localRules = new ArrayList<>(rules.size());
+      for (Rule rule : rules) {
+        if (CompiledRuleStore.isLocalRule(rule)) {
+          localRules.add(rule);
+        }
+      }
+      statistics.keySet().retainAll(localRules.stream()
+        .map(Rule::getRuleId)
+        .collect(Collectors.toSet()));
+      // rules without statistics go first to be measured, the sort is stable so ties keep the order numbers
+      localRules.sort(Comparator.comparingDouble(rule -> {
+        RuleStatistics ruleStatistics = statistics.get(rule.getRuleId());
+        return ruleStatistics == null ? 0d : ruleStatistics.cost();
+      }));
+      return Collections.unmodifiableList(localRules);
+    }
+  }
+
+  private static class Snapshot {
+    private final List<Rule> rules;
+    private final List<Rule> order;
+
+    private Snapshot(List<Rule> rules, List<Rule> order) {
+      this.rules = rules;
+      this.order = order;
+    }
+  }
+
+  private static class RuleStatistics {
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    private void record(long nanos, boolean passed) {
+      evaluations.increment();
+      totalNanos.add(nanos);
+      if (!passed) {
+        failures.increment();
+      }
+    }
+
+    private double meanNanos() {
+      long count = evaluations.sum();
+      return count == 0 ? 0d : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * Failure probability smoothed with one failure and one success, so that a rule which has not failed yet
+     * is not put last forever
+     */
+    private double failureRate() {
+      return (failures.sum() + 1d) / (evaluations.sum() + 2d);
+    }
+
+    /**
+     * Expected time spent on the rule per failure it detects
+     */
+    private double cost() {
+      return meanNanos() / failureRate();
+    }
+  }
+}
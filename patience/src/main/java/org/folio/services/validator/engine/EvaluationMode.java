@@ -0,0 +1,66 @@
+package org.folio.services.validator.engine;
+
+import java.util.Arrays;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Defines whether programmatic rules are called for a password
+ * which has already failed a local rule, and the order the local rules are evaluated in
+ */
+public enum EvaluationMode {
+
+  /**
+   * All the rules are checked and messages of all the violated rules are returned
+   */
+  COLLECT_ALL("collect-all"),
+
+  /**
+   * Local rules are checked first, programmatic rules are not called
+   * if the password has already failed a local rule
+   */
+  FAIL_FAST("fail-fast"),
+
+  /**
+   * Fail-fast evaluation which stops at the first failed local rule, the local rules are evaluated
+   * in the order of their measured cost and failure rate rather than by order number
+   */
+  ADAPTIVE("adaptive");
+
+  private static final String EVALUATION_MODE_PARAMETER = "evaluation.mode";
+
+  private final String value;
+
+  EvaluationMode(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Tells whether programmatic rules are skipped for a password which has already failed a local rule
+   *
+   * @return true for the fail-fast and adaptive modes
+   */
+  public boolean isFailFast() {
+    return this != COLLECT_ALL;
+  }
+
+  /**
+   * Returns evaluation mode of the tenant, which is set by the "evaluation.mode.{tenantId}" module parameter,
+   * otherwise by the "evaluation.mode" one; "collect-all" if neither is set or the value is unknown
+   *
+   * @param tenantId tenant id
+   * @return evaluation mode
+   */
+  public static EvaluationMode forTenant(String tenantId) {
+    String value = MODULE_SPECIFIC_ARGS.getOrDefault(EVALUATION_MODE_PARAMETER + "." + tenantId,
+      MODULE_SPECIFIC_ARGS.getOrDefault(EVALUATION_MODE_PARAMETER, COLLECT_ALL.value));
+    return Arrays.stream(values())
+      .filter(mode -> mode.value.equals(value))
+      .findFirst()
+      .orElse(COLLECT_ALL);
+  }
+}
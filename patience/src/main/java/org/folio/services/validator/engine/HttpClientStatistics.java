@@ -0,0 +1,115 @@
+package org.folio.services.validator.engine;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.ConnectionPoolTooBusyException;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the requests sent to Okapi, used to size the connection pool.
+ * <p>
+ * A request sent while the number of requests in flight exceeds the capacity of the pool,
+ * i.e. the pool size times the requests a connection carries at once, waits in the queue for a connection.
+ * A request rejected because the wait queue is full fails with {@link ConnectionPoolTooBusyException}.
+ */
+public class HttpClientStatistics {
+
+  private final int capacity;
+  private final int maxWaitQueueSize;
+  private final AtomicLong inFlight = new AtomicLong();
+  private final AtomicLong maxInFlight = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong queuedRequests = new AtomicLong();
+  private final AtomicLong rejectedRequests = new AtomicLong();
+  private final AtomicLong failedRequests = new AtomicLong();
+
+  /**
+   * Constructor
+   *
+   * @param capacity         number of requests the pool of a host carries at once
+   * @param maxWaitQueueSize maximum number of requests waiting for a connection, -1 for unbounded
+   */
+  public HttpClientStatistics(int capacity, int maxWaitQueueSize) {
+    this.capacity = capacity;
+    this.maxWaitQueueSize = maxWaitQueueSize;
+  }
+
+  /**
+   * Records a request being sent
+   */
+  public void requestStarted() {
+    requests.incrementAndGet();
+    long requestsInFlight = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(requestsInFlight, Math::max);
+    if (requestsInFlight > capacity) {
+      queuedRequests.incrementAndGet();
+    }
+  }
+
+  /**
+   * Records a request which response has been handled or which has failed
+   */
+  public void requestEnded() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Counts the request in flight until its future completes
+   *
+   * @param requestFuture future completed by the response or the failure of the request
+   * @return future completed along with the request future
+   */
+  public <T> Future<T> track(Future<T> requestFuture) {
+    requestStarted();
+    Future<T> future = Future.future();
+    requestFuture.setHandler(requestResult -> {
+      requestEnded();
+      future.handle(requestResult);
+    });
+    return future;
+  }
+
+  /**
+   * Records a failed request
+   *
+   * @param exception request failure
+   */
+  public void requestFailed(Throwable exception) {
+    failedRequests.incrementAndGet();
+    if (exception instanceof ConnectionPoolTooBusyException) {
+      rejectedRequests.incrementAndGet();
+    }
+  }
+
+  public long getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getQueuedRequests() {
+    return queuedRequests.get();
+  }
+
+  public long getRejectedRequests() {
+    return rejectedRequests.get();
+  }
+
+  /**
+   * Returns pool saturation counters
+   *
+   * @return json with capacity, requests in flight, queued, rejected and failed requests counters
+   */
+  public JsonObject getStatistics() {
+    long requestsInFlight = getInFlight();
+    return new JsonObject()
+      .put("capacity", capacity)
+      .put("maxWaitQueueSize", maxWaitQueueSize)
+      .put("inFlight", requestsInFlight)
+      .put("maxInFlight", maxInFlight.get())
+      .put("utilization", capacity == 0 ? 0d : (double) requestsInFlight / capacity)
+      .put("requests", requests.get())
+      .put("queuedRequests", getQueuedRequests())
+      .put("rejectedRequests", getRejectedRequests())
+      .put("failedRequests", failedRequests.get());
+  }
+}
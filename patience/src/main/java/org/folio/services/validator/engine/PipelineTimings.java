@@ -0,0 +1,121 @@
+package org.folio.services.validator.engine;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulated durations of the stages of the password validation pipeline
+ */
+public class PipelineTimings {
+
+  /**
+   * Stage of the password validation pipeline
+   */
+  public enum Stage {
+    RULES_LOADING("rulesLoading"),
+    USER_LOOKUP("userLookup"),
+    LOCAL_RULES("localRules"),
+    PROGRAMMATIC_RULES("programmaticRules"),
+    TOTAL("total");
+
+    private final String key;
+
+    Stage(String key) {
+      this.key = key;
+    }
+
+    public String getKey() {
+      return key;
+    }
+  }
+
+  private final Map<Stage, StageTimings> stages = new EnumMap<>(Stage.class);
+  // time the rules loading and the user lookup would have taken if run one after another
+  private final LongAdder overlapSavedNanos = new LongAdder();
+
+  public PipelineTimings() {
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, new StageTimings());
+    }
+  }
+
+  /**
+   * Records the duration of the stage that has just finished
+   *
+   * @param stage          pipeline stage
+   * @param startNanoTime  {@link System#nanoTime()} at the stage start
+   * @return duration of the stage in nanoseconds
+   */
+  public long record(Stage stage, long startNanoTime) {
+    long duration = System.nanoTime() - startNanoTime;
+    stages.get(stage).record(duration);
+    return duration;
+  }
+
+  /**
+   * Records the latency saved by running stages concurrently
+   *
+   * @param nanos saved time in nanoseconds
+   */
+  public void recordSaved(long nanos) {
+    if (nanos > 0) {
+      overlapSavedNanos.add(nanos);
+    }
+  }
+
+  public long getCount(Stage stage) {
+    return stages.get(stage).count.sum();
+  }
+
+  public long getTotalNanos(Stage stage) {
+    return stages.get(stage).totalNanos.sum();
+  }
+
+  public long getMaxNanos(Stage stage) {
+    return stages.get(stage).maxNanos.get();
+  }
+
+  public long getSavedNanos() {
+    return overlapSavedNanos.sum();
+  }
+
+  /**
+   * Returns the number, total, mean and maximum duration in milliseconds of each stage
+   *
+   * @return pipeline statistics
+   */
+  public JsonObject getStatistics() {
+    JsonObject statistics = new JsonObject();
+    for (Stage stage : Stage.values()) {
+      long count = getCount(stage);
+      long totalNanos = getTotalNanos(stage);
+      statistics.put(stage.getKey(), new JsonObject()
+        .put("count", count)
+        .put("totalMillis", toMillis(totalNanos))
+        .put("meanMillis", count == 0 ? 0 : toMillis(totalNanos) / count)
+        .put("maxMillis", toMillis(getMaxNanos(stage))));
+    }
+    return statistics.put("savedMillis", toMillis(getSavedNanos()));
+  }
+
+  private static double toMillis(long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static class StageTimings {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+  }
+}
@@ -4,7 +4,11 @@ import io.vertx.codegen.annotations.ProxyGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import org.folio.services.validator.registry.EventBusTenantRulesLoader;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.util.ValidatorHelper;
 
 import java.util.Map;
 
@@ -18,7 +22,20 @@ public interface ValidationEngineService {
 
 
   static ValidationEngineService create(Vertx vertx) {
-    return new ValidationEngineServiceImpl(vertx);
+    return new ValidationEngineServiceImpl(vertx,
+      ValidatorRegistryService.createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS),
+      new EventBusTenantRulesLoader(vertx));
+  }
+
+  /**
+   * Creates the engine calling the given registry instance directly
+   *
+   * @param vertx                    vertx instance
+   * @param validatorRegistryService registry of the rules
+   * @return ValidationEngineService instance
+   */
+  static ValidationEngineService createLocal(Vertx vertx, ValidatorRegistryService validatorRegistryService) {
+    return new ValidationEngineServiceImpl(vertx, validatorRegistryService);
   }
 
   /**
@@ -41,4 +58,59 @@ public interface ValidationEngineService {
    */
   void validatePassword(String userId, String password, Map<String, String> headers,
                         Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Performs validation of the passwords of several users,
+   * rules and user names are obtained once for all the passwords
+   *
+   * @param passwords     received passwords, objects with userId and password
+   * @param headers       request headers needed for access backend FOLIO services to perform programmatic rules validation
+   * @param resultHandler handler with validation results of each password in format <Results<UserId, Result, Messages>, TotalRecords>
+   */
+  void validatePasswords(JsonArray passwords, Map<String, String> headers,
+                         Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Opens an as-you-type validation session of the user,
+   * the rules of the tenant and the user name are resolved once for all the updates of the session
+   *
+   * @param userId        user id
+   * @param headers       request headers needed to look up the user
+   * @param resultHandler handler with the session in format <SessionId, UserId>
+   */
+  void openValidationSession(String userId, Map<String, String> headers,
+                             Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Validates the next version of the password of the session by the local rules, reporting the rules
+   * which result has changed since the previous version. A submitted password is validated by all the rules,
+   * including the programmatic ones. Fails with {@link io.vertx.serviceproxy.ServiceException} with
+   * {@link ValidatorHelper#SESSION_NOT_FOUND_CODE} if the session is not found or has expired.
+   *
+   * @param sessionId     session id
+   * @param password      password
+   * @param submit        whether the password is submitted
+   * @param headers       request headers needed for access backend FOLIO services to perform programmatic rules validation
+   * @param resultHandler handler with validation results in format <Result, Messages, Changes, Submitted>
+   */
+  void updateValidationSession(String sessionId, String password, boolean submit, Map<String, String> headers,
+                               Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Closes the validation session
+   *
+   * @param sessionId     session id
+   * @param headers       request headers
+   * @param resultHandler handler with true if the session was open
+   */
+  void closeValidationSession(String sessionId, Map<String, String> headers,
+                              Handler<AsyncResult<Boolean>> resultHandler);
+
+  /**
+   * Returns the latency histograms of the validation along with the statistics of the caches, circuit breakers,
+   * http client and sessions of the engine
+   *
+   * @param resultHandler handler with the metrics in the Prometheus text format
+   */
+  void getMetrics(Handler<AsyncResult<String>> resultHandler);
 }
@@ -2,6 +2,7 @@ package org.folio.services.validator.engine;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
@@ -11,21 +12,49 @@ import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.serviceproxy.ServiceException;
 import org.apache.http.HttpStatus;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.batch.BatchValidator;
+import org.folio.services.validator.batch.PasswordValidationSteps;
+import org.folio.services.validator.breached.ConfiguredBreachedPasswords;
+import org.folio.services.validator.breaker.CircuitBreaker;
+import org.folio.services.validator.breaker.CircuitBreakerOptions;
+import org.folio.services.validator.breaker.CircuitBreakerRegistry;
+import org.folio.services.validator.cache.CompiledRuleSet;
+import org.folio.services.validator.cache.TenantRulesCache;
+import org.folio.services.validator.cache.UserNamesCache;
+import org.folio.services.validator.history.PasswordHistoryService;
+import org.folio.services.validator.jfr.ValidationEvents;
+import org.folio.services.validator.matcher.CompiledRule;
+import org.folio.services.validator.matcher.CompiledRuleStore;
+import org.folio.services.validator.matcher.MatchStepLimitExceededException;
+import org.folio.services.validator.matcher.ScannedPassword;
+import org.folio.services.validator.metrics.PrometheusWriter;
+import org.folio.services.validator.metrics.ValidationMetrics;
+import org.folio.services.validator.registry.TenantRulesLoader;
 import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.session.ValidationSession;
+import org.folio.services.validator.session.ValidationSessions;
 import org.folio.services.validator.util.ValidatorHelper;
+import org.folio.services.validator.util.ValidatorServices;
 
 import javax.ws.rs.core.MediaType;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
@@ -44,7 +73,7 @@ import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
 public class ValidationEngineServiceImpl implements ValidationEngineService {
 
   private static final String OKAPI_URL_HEADER = "x-okapi-url";
-  private static final String REGEXP_USER_NAME_PLACEHOLDER = "<USER_NAME>";
+  private static final int DEFAULT_HISTORY_SIZE = 10;
 
   // Logger
   private final Logger logger = LoggerFactory
@@ -52,25 +81,223 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
   // Timeout to wait for response
   private int lookupTimeout = Integer
     .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("lookup.timeout", "1000"));
+  // Maximum number of tenants which rules are kept in memory
+  private int rulesCacheSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("rules.cache.size", "100"));
+  // Time in milliseconds after which cached tenant rules are reloaded
+  private long rulesCacheTtl = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("rules.cache.ttl", "60000"));
+  // Maximum number of keep-alive connections to an Okapi host
+  private int httpMaxPoolSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.max.pool.size", "20"));
+  // Maximum number of requests waiting for a connection, -1 - unbounded
+  private int httpMaxWaitQueueSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.max.wait.queue.size", "100"));
+  // Time in seconds after which an unused connection is closed
+  private int httpKeepAliveTimeout = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.keep.alive.timeout", "60"));
+  // Maximum number of requests pipelined on a HTTP/1.1 connection, 0 - no pipelining
+  private int httpPipeliningLimit = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.pipelining.limit", "0"));
+  // Whether the requests are multiplexed over cleartext HTTP/2 connections
+  private boolean h2c = Boolean
+    .parseBoolean(MODULE_SPECIFIC_ARGS.getOrDefault("http.h2c", "false"));
+  // Maximum number of HTTP/2 connections to an Okapi host
+  private int h2cMaxPoolSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.h2c.max.pool.size", "1"));
+  // Maximum number of concurrent requests on a HTTP/2 connection
+  private int h2cMultiplexingLimit = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("http.h2c.multiplexing.limit", "100"));
+  // Whether every event loop uses its own http client and connection pool
+  private boolean httpClientPerEventLoop = Boolean
+    .parseBoolean(MODULE_SPECIFIC_ARGS.getOrDefault("http.client.per.event.loop", "false"));
+  // Maximum number of users which names are kept in memory, 0 - no caching
+  private int userNamesCacheSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("users.cache.size", "1000"));
+  // Time in milliseconds after which a cached user name is refreshed
+  private long userNamesCacheTtl = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("users.cache.ttl", "300000"));
+  // Time in milliseconds after the TTL during which a stale user name is used while being refreshed
+  private long userNamesCacheStalePeriod = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("users.cache.stale.period", "600000"));
+  // Maximum number of steps of a RegExp rule match on the event loop, 0 - no limit
+  private long regExpStepLimit = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("regexp.step.limit", "100000"));
+  // Maximum number of steps of a RegExp rule match on a worker thread, 0 - no limit
+  private long regExpWorkerStepLimit = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("regexp.worker.step.limit", "10000000"));
+  // Number of exceeded step limits after which a RegExp rule is matched on a worker thread
+  private int regExpOffloadThreshold = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("regexp.offload.threshold", "3"));
+  // Time in milliseconds to wait for a programmatic rule response
+  private long programmaticRuleTimeout = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("programmatic.timeout", "5000"));
+  // Maximum number of open as-you-type validation sessions
+  private int sessionMaxSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("session.max.size", "10000"));
+  // Time in milliseconds after which a validation session not updated expires
+  private long sessionTtl = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("session.ttl", "600000"));
+  // Circuit breakers of the programmatic rules by implementation reference
+  private CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(new CircuitBreakerOptions()
+    .setWindowSize(Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("breaker.window.size", "20")))
+    .setMinimumCalls(Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("breaker.minimum.calls", "10")))
+    .setFailureRateThreshold(Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("breaker.failure.rate", "50")))
+    .setOpenTimeout(Long.parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("breaker.open.timeout", "30000")))
+    .setHalfOpenCalls(Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("breaker.half.open.calls", "3"))));
+  // Vertx instance to run slow RegExp rules on worker threads
+  private Vertx vertx;
   // Repository component to validation obtain rules
   private ValidatorRegistryService validatorRegistryProxy;
+  // Loads the rules without json conversion, the registry proxy is used when not set
+  private TenantRulesLoader tenantRulesLoader;
   // Http client to call programmatic rules as internal OKAPI endpoints
   private HttpClient httpClient;
+  // Options of the connection pools to Okapi
+  private final HttpClientOptions httpClientOptions = buildHttpClientOptions();
+  // Http clients bound to the event loops, used when http.client.per.event.loop is set
+  private final Map<Context, HttpClient> eventLoopHttpClients = new ConcurrentHashMap<>();
+  // Saturation of the connection pools and failed requests
+  private final HttpClientStatistics httpClientStatistics = new HttpClientStatistics(
+    h2c ? h2cMaxPoolSize * h2cMultiplexingLimit : httpMaxPoolSize * Math.max(httpPipeliningLimit, 1),
+    httpMaxWaitQueueSize);
+  // Enabled rules of the tenants sorted by order number
+  private TenantRulesCache rulesCache = new TenantRulesCache(rulesCacheSize, rulesCacheTtl);
+  // Compiled RegExp rules
+  private CompiledRuleStore ruleStore = new CompiledRuleStore();
+  // Password history checked by the History rules, looked up on the first use
+  private PasswordHistoryService passwordHistoryService;
+  // Names of the looked up users
+  private UserNamesCache userNamesCache = new UserNamesCache(userNamesCacheSize, userNamesCacheTtl,
+    userNamesCacheStalePeriod);
+  // Number of validations of a tenant after which its local rules are reordered in the adaptive evaluation mode
+  private int adaptiveReorderInterval = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("adaptive.reorder.interval", "100"));
+  // Evaluation order of the local rules in the adaptive evaluation mode
+  private AdaptiveRuleOrder adaptiveRuleOrder = new AdaptiveRuleOrder(adaptiveReorderInterval);
+  // Validation of the passwords of several users at once, created on the first use
+  private BatchValidator batchValidator;
+  // As-you-type validation sessions
+  private ValidationSessions validationSessions = new ValidationSessions(sessionMaxSize, sessionTtl);
+  // Durations of the validation pipeline stages
+  private final PipelineTimings pipelineTimings = new PipelineTimings();
+  // Latency histograms of the pipeline stages and the rules, shared with the REST handlers
+  private ValidationMetrics validationMetrics = new ValidationMetrics();
+  // Flight recorder events of the pipeline stages
+  private final ValidationEvents validationEvents = ValidationEvents.get();
+  // Number of RegExp rule matches aborted by the step limit
+  private final AtomicLong stepLimitExceededCount = new AtomicLong();
 
   public ValidationEngineServiceImpl() {
   }
 
   public ValidationEngineServiceImpl(final Vertx vertx) {
-    this.validatorRegistryProxy = ValidatorRegistryService
-      .createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    this(vertx, ValidatorRegistryService.createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS));
+  }
+
+  public ValidationEngineServiceImpl(final Vertx vertx, final ValidatorRegistryService validatorRegistryService) {
+    this(vertx, validatorRegistryService, validatorRegistryService instanceof TenantRulesLoader
+      ? (TenantRulesLoader) validatorRegistryService : null);
+  }
+
+  public ValidationEngineServiceImpl(final Vertx vertx,
+                                     final ValidatorRegistryService validatorRegistryService,
+                                     final TenantRulesLoader tenantRulesLoader) {
+    this.vertx = vertx;
+    this.validatorRegistryProxy = validatorRegistryService;
+    this.tenantRulesLoader = tenantRulesLoader;
+    this.validationMetrics = ValidatorServices.getValidationMetrics(vertx);
     initHttpClient(vertx);
+    vertx.eventBus().<JsonObject>consumer(ValidatorHelper.RULES_CHANGED_ADDRESS, message -> onRulesChanged(message.body()));
+  }
+
+  /**
+   * Drops cached rules of the tenant and compiles the changed RegExp rule ahead of its first use.
+   * A message of a rule changed in the database carries the rule id only, such a rule is compiled
+   * on its first use, and a message without a tenant drops the cached rules of all the tenants.
+   *
+   * @param rulesChangedMessage message with tenant id and the changed rule or its id
+   */
+  private void onRulesChanged(JsonObject rulesChangedMessage) {
+    String tenantId = rulesChangedMessage.getString(ValidatorHelper.RULES_CHANGED_TENANT_KEY);
+    if (tenantId == null) {
+      rulesCache.invalidateAll();
+      return;
+    }
+    rulesCache.invalidate(tenantId);
+    JsonObject changedRule = rulesChangedMessage.getJsonObject(ValidatorHelper.RULES_CHANGED_RULE_KEY);
+    String changedRuleId = rulesChangedMessage.getString(ValidatorHelper.RULES_CHANGED_RULE_ID_KEY);
+    if (changedRule == null && changedRuleId != null) {
+      // the compiled rule is kept, it is recompiled on its next use if its version has changed
+      adaptiveRuleOrder.invalidate(tenantId, changedRuleId);
+      validationMetrics.invalidate(tenantId, changedRuleId);
+      return;
+    }
+    if (changedRule == null) {
+      ruleStore.invalidate(tenantId);
+      adaptiveRuleOrder.invalidate(tenantId);
+      validationMetrics.invalidate(tenantId, null);
+      return;
+    }
+    Rule rule = changedRule.mapTo(Rule.class);
+    ruleStore.invalidate(tenantId, rule.getRuleId());
+    adaptiveRuleOrder.invalidate(tenantId, rule.getRuleId());
+    validationMetrics.invalidate(tenantId, rule.getRuleId());
+    if (CompiledRuleStore.isLocalRule(rule) && Rule.State.ENABLED.equals(rule.getState())) {
+      try {
+        ruleStore.compile(tenantId, rule);
+      } catch (Exception e) {
+        logger.error("Failed to compile the rule " + rule.getRuleId(), e);
+      }
+    }
   }
 
   private void initHttpClient(final Vertx vertx) {
+    this.httpClient = vertx.createHttpClient(httpClientOptions);
+  }
+
+  /**
+   * Builds options of the keep-alive connection pools to Okapi, the client keeps a pool per host
+   *
+   * @return http client options
+   */
+  private HttpClientOptions buildHttpClientOptions() {
     HttpClientOptions options = new HttpClientOptions();
     options.setConnectTimeout(lookupTimeout);
     options.setIdleTimeout(lookupTimeout);
-    this.httpClient = vertx.createHttpClient(options);
+    options.setKeepAlive(true);
+    options.setKeepAliveTimeout(httpKeepAliveTimeout);
+    options.setMaxPoolSize(httpMaxPoolSize);
+    options.setMaxWaitQueueSize(httpMaxWaitQueueSize);
+    if (httpPipeliningLimit > 0) {
+      options.setPipelining(true);
+      options.setPipeliningLimit(httpPipeliningLimit);
+    }
+    if (h2c) {
+      options.setProtocolVersion(HttpVersion.HTTP_2);
+      options.setHttp2ClearTextUpgrade(true);
+      options.setHttp2MaxPoolSize(h2cMaxPoolSize);
+      options.setHttp2MultiplexingLimit(h2cMultiplexingLimit);
+      options.setHttp2KeepAliveTimeout(httpKeepAliveTimeout);
+    }
+    return options;
+  }
+
+  /**
+   * Returns http client of the current event loop if http.client.per.event.loop is set,
+   * so that the connections are used by the event loop they are bound to, the shared client otherwise
+   *
+   * @return http client
+   */
+  private HttpClient getHttpClient() {
+    if (!httpClientPerEventLoop || vertx == null) {
+      return httpClient;
+    }
+    Context context = Vertx.currentContext();
+    if (context == null || !context.isEventLoopContext()) {
+      return httpClient;
+    }
+    return eventLoopHttpClients.computeIfAbsent(context, eventLoopContext -> vertx.createHttpClient(httpClientOptions));
   }
 
   /**
@@ -89,62 +316,559 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
                                final String password,
                                final Map<String, String> requestHeaders,
                                final Handler<AsyncResult<JsonObject>> resultHandler) {
+    long startedAt = System.nanoTime();
     MultiMap caseInsensitiveHeaders = new CaseInsensitiveHeaders().addAll(requestHeaders);
     String tenantId = caseInsensitiveHeaders.get(OKAPI_HEADER_TENANT);
-    validatorRegistryProxy.getAllTenantRules(tenantId, 500, 0, "query=state=Enabled", rulesResponse -> {
+    Future<CompiledRuleSet> rulesFuture = loadTenantRules(tenantId);
+    // the user is looked up along with the rules loading, unless the cached rules show the user name is not needed
+    // or, on a cache miss, the rules did not use it when they were last loaded
+    AtomicLong userLookupNanos = new AtomicLong();
+    Future<String> userNameFuture;
+    if (rulesFuture.isComplete()
+      ? rulesFuture.failed() || !isUserNameRequired(tenantId, rulesFuture.result().getRules())
+      : !ruleStore.mayRequireUserName(tenantId)) {
+      userNameFuture = null;
+    } else {
+      userNameFuture = lookupUserName(tenantId, userId, caseInsensitiveHeaders).map(userName -> {
+        userLookupNanos.set(recordStage(tenantId, PipelineTimings.Stage.USER_LOOKUP, startedAt));
+        return userName;
+      });
+    }
+    rulesFuture.setHandler(rulesResponse -> {
+      long rulesLoadingNanos = recordStage(tenantId, PipelineTimings.Stage.RULES_LOADING, startedAt);
       if (rulesResponse.failed()) {
         resultHandler.handle(Future.failedFuture(rulesResponse.cause().getMessage()));
         return;
       }
-      lookupUser(userId, caseInsensitiveHeaders).setHandler(lookupUserHandler -> {
+      List<Rule> rules = rulesResponse.result().getRules();
+      EvaluationMode evaluationMode = EvaluationMode.forTenant(tenantId);
+      boolean failFast = evaluationMode.isFailFast();
+      List<String> errorMessages = new ArrayList<>(rules.size());
+      // programmatic rules do not depend on the user name, so they are called as soon as the rules are known
+      List<Future> rulesFutures = new ArrayList<>();
+      if (!failFast) {
+        rulesFutures.add(getValidatePasswordByProgrammaticRulesFuture(rules, userId, password,
+          caseInsensitiveHeaders, errorMessages));
+      }
+      boolean userNameRequired = isUserNameRequired(tenantId, rules);
+      ruleStore.setUserNameRequired(tenantId, userNameRequired);
+      Future<String> requiredUserNameFuture;
+      if (!userNameRequired) {
+        requiredUserNameFuture = Future.succeededFuture();
+      } else if (userNameFuture != null) {
+        requiredUserNameFuture = userNameFuture;
+      } else {
+        // the rules have started to use the user name since they were last loaded
+        requiredUserNameFuture = lookupUserName(tenantId, userId, caseInsensitiveHeaders);
+      }
+      requiredUserNameFuture.setHandler(lookupUserHandler -> {
         if (lookupUserHandler.failed()) {
           resultHandler.handle(Future.failedFuture(lookupUserHandler.cause().getMessage()));
           return;
         }
-        List<Rule> rules = rulesResponse.result().mapTo(RuleCollection.class).getRules();
-        prepareRulesBeforeValidation(rules, lookupUserHandler);
-        Future<List<String>> errorMessagesFuture = validatePasswordByRules(rules, userId, password, caseInsensitiveHeaders);
+        if (userLookupNanos.get() > 0) {
+          pipelineTimings.recordSaved(Math.min(rulesLoadingNanos, userLookupNanos.get()));
+        }
+        long localRulesStartedAt = System.nanoTime();
+        List<Future> localRulesFutures = validatePasswordByLocalRules(tenantId, rules, lookupUserHandler.result(),
+          password, errorMessages, true);
+        recordStage(tenantId, PipelineTimings.Stage.LOCAL_RULES, localRulesStartedAt);
+        Future<List<String>> errorMessagesFuture;
+        if (failFast) {
+          errorMessagesFuture = validatePasswordByProgrammaticRules(tenantId, rules, userId, password,
+            caseInsensitiveHeaders, errorMessages, localRulesFutures);
+        } else {
+          rulesFutures.addAll(localRulesFutures);
+          errorMessagesFuture = getErrorMessagesFuture(rulesFutures, errorMessages);
+        }
         errorMessagesFuture.setHandler(asyncResult -> {
+          recordStage(tenantId, PipelineTimings.Stage.TOTAL, startedAt);
           if (asyncResult.failed()) {
             resultHandler.handle(Future.failedFuture(asyncResult.cause()));
             return;
           }
+          if (EvaluationMode.ADAPTIVE.equals(evaluationMode)) {
+            sortByRuleOrder(asyncResult.result(), rules);
+          }
           prepareResponse(asyncResult.result(), resultHandler);
         });
       });
     });
   }
 
-  private List<Rule> prepareRulesBeforeValidation(List<Rule> rules, AsyncResult<JsonObject> lookupUserHandler) {
-    JsonObject user = lookupUserHandler.result();
-    String userName = user.getString("username");
+  /**
+   * Tells whether any local rule of the tenant uses the user name
+   *
+   * @param tenantId tenant id
+   * @param rules    rules of the tenant
+   * @return true if the user name has to be looked up
+   */
+  private boolean isUserNameRequired(String tenantId, List<Rule> rules) {
+    return rules.stream()
+      .filter(CompiledRuleStore::isLocalRule)
+      .anyMatch(rule -> ruleStore.get(tenantId, rule).requiresUserName());
+  }
+
+  /**
+   * Records the duration of the pipeline stage that has just finished in the timings and the tenant histograms
+   *
+   * @return duration of the stage in nanoseconds
+   */
+  private long recordStage(String tenantId, PipelineTimings.Stage stage, long startNanoTime) {
+    long duration = pipelineTimings.record(stage, startNanoTime);
+    validationMetrics.recordStage(tenantId, stage, duration);
+    return duration;
+  }
+
+  /**
+   * Validates received passwords of several users by the batch validator,
+   * which runs the steps of the validation of a single password for each of the passwords.
+   *
+   * @param passwords      received passwords, objects with userId and password
+   * @param requestHeaders request headers needed for access backend FOLIO services to perform programmatic rules validation
+   * @param resultHandler  handler with validation results of each password in the received order
+   * @see BatchValidator
+   */
+  @Override
+  public void validatePasswords(final JsonArray passwords,
+                                final Map<String, String> requestHeaders,
+                                final Handler<AsyncResult<JsonObject>> resultHandler) {
+    MultiMap caseInsensitiveHeaders = new CaseInsensitiveHeaders().addAll(requestHeaders);
+    getBatchValidator().validatePasswords(passwords, caseInsensitiveHeaders, resultHandler);
+  }
+
+  @Override
+  public void openValidationSession(final String userId,
+                                    final Map<String, String> requestHeaders,
+                                    final Handler<AsyncResult<JsonObject>> resultHandler) {
+    MultiMap caseInsensitiveHeaders = new CaseInsensitiveHeaders().addAll(requestHeaders);
+    String tenantId = caseInsensitiveHeaders.get(OKAPI_HEADER_TENANT);
+    loadTenantRules(tenantId).setHandler(rulesResponse -> {
+      if (rulesResponse.failed()) {
+        resultHandler.handle(Future.failedFuture(rulesResponse.cause().getMessage()));
+        return;
+      }
+      ValidationSession session = validationSessions.open(tenantId, userId);
+      session.setRuleSet(rulesResponse.result());
+      resolveSessionUserName(session, caseInsensitiveHeaders).setHandler(lookupUserHandler -> {
+        if (lookupUserHandler.failed()) {
+          validationSessions.close(tenantId, session.getSessionId());
+          resultHandler.handle(Future.failedFuture(lookupUserHandler.cause().getMessage()));
+          return;
+        }
+        resultHandler.handle(Future.succeededFuture(new JsonObject()
+          .put(ValidatorHelper.SESSION_ID_KEY, session.getSessionId())
+          .put(ValidatorHelper.REQUEST_USER_ID_KEY, userId)));
+      });
+    });
+  }
+
+  /**
+   * Validates the password of the session by the local rules on the event loop,
+   * the submitted password is then validated by all the rules as by {@link #validatePassword}
+   */
+  @Override
+  public void updateValidationSession(final String sessionId,
+                                      final String password,
+                                      final boolean submit,
+                                      final Map<String, String> requestHeaders,
+                                      final Handler<AsyncResult<JsonObject>> resultHandler) {
+    MultiMap caseInsensitiveHeaders = new CaseInsensitiveHeaders().addAll(requestHeaders);
+    String tenantId = caseInsensitiveHeaders.get(OKAPI_HEADER_TENANT);
+    ValidationSession session = validationSessions.get(tenantId, sessionId);
+    if (session == null) {
+      resultHandler.handle(ServiceException.fail(ValidatorHelper.SESSION_NOT_FOUND_CODE,
+        "Validation session " + sessionId + " is not found"));
+      return;
+    }
+    validationSessions.recordUpdate(submit);
+    // the rules are taken from the cache, a changed rule set replaces the one of the session
+    loadTenantRules(tenantId).setHandler(rulesResponse -> {
+      if (rulesResponse.failed()) {
+        resultHandler.handle(Future.failedFuture(rulesResponse.cause().getMessage()));
+        return;
+      }
+      if (rulesResponse.result() != session.getRuleSet()) {
+        session.setRuleSet(rulesResponse.result());
+        session.clearRuleResults();
+      }
+      resolveSessionUserName(session, caseInsensitiveHeaders).setHandler(lookupUserHandler -> {
+        if (lookupUserHandler.failed()) {
+          resultHandler.handle(Future.failedFuture(lookupUserHandler.cause().getMessage()));
+          return;
+        }
+        JsonObject sessionResult = validateSessionPassword(session, password);
+        if (!submit) {
+          resultHandler.handle(Future.succeededFuture(sessionResult));
+          return;
+        }
+        validatePassword(session.getUserId(), password, requestHeaders, validationResult -> {
+          if (validationResult.failed()) {
+            resultHandler.handle(Future.failedFuture(validationResult.cause()));
+            return;
+          }
+          resultHandler.handle(Future.succeededFuture(sessionResult.mergeIn(validationResult.result())
+            .put(ValidatorHelper.RESPONSE_SUBMITTED_KEY, true)));
+        });
+      });
+    });
+  }
+
+  @Override
+  public void closeValidationSession(final String sessionId,
+                                     final Map<String, String> requestHeaders,
+                                     final Handler<AsyncResult<Boolean>> resultHandler) {
+    String tenantId = new CaseInsensitiveHeaders().addAll(requestHeaders).get(OKAPI_HEADER_TENANT);
+    resultHandler.handle(Future.succeededFuture(validationSessions.close(tenantId, sessionId)));
+  }
+
+  @Override
+  public void getMetrics(final Handler<AsyncResult<String>> resultHandler) {
+    PrometheusWriter writer = new PrometheusWriter();
+    validationMetrics.writeTo(writer, ValidatorServices.isLocalMode()
+      ? ValidatorServices.LOCAL_SERVICE_MODE : ValidatorServices.EVENT_BUS_SERVICE_MODE);
+    writer.gauge("password_validator_stage_overlap_saved_seconds",
+      "Time saved by loading the rules and looking the user up concurrently",
+      (double) pipelineTimings.getSavedNanos() / TimeUnit.SECONDS.toNanos(1));
+    writer.gauge("password_validator_regexp_step_limit_exceeded", "RegExp rule matches aborted by the step limit",
+      stepLimitExceededCount.get());
+    writer.gauge("password_validator_compiled_rules_memory_bytes", "Estimated memory used by the compiled rules",
+      ruleStore.estimatedMemoryUsage());
+    writer.statistics("password_validator_rules_cache", rulesCache.getStatistics());
+    writer.statistics("password_validator_users_cache", userNamesCache.getStatistics());
+    writer.statistics("password_validator_http_client", httpClientStatistics.getStatistics());
+    writer.statistics("password_validator_sessions", validationSessions.getStatistics());
+    JsonObject circuitBreakersStatistics = circuitBreakers.getStatistics();
+    circuitBreakersStatistics.fieldNames().forEach(implementationReference ->
+      writer.statistics("password_validator_circuit_breaker",
+        circuitBreakersStatistics.getJsonObject(implementationReference),
+        "implementation_reference", implementationReference));
+    JsonObject adaptiveOrderStatistics = adaptiveRuleOrder.getStatistics();
+    adaptiveOrderStatistics.fieldNames().forEach(tenantId -> {
+      JsonObject tenantStatistics = adaptiveOrderStatistics.getJsonObject(tenantId);
+      writer.gauge("password_validator_adaptive_validations", "Validations counted by the adaptive rule order",
+        tenantStatistics.getLong("validations"), "tenant", tenantId);
+      for (Object ruleStatistics : tenantStatistics.getJsonArray("rules")) {
+        JsonObject ruleJson = ((JsonObject) ruleStatistics).copy();
+        String ruleId = (String) ruleJson.remove("ruleId");
+        ruleJson.remove("name");
+        writer.statistics("password_validator_adaptive_rule", ruleJson, "tenant", tenantId, "rule_id", ruleId);
+      }
+    });
+    if (ConfiguredBreachedPasswords.isConfigured()) {
+      writer.statistics("password_validator_breached", ConfiguredBreachedPasswords.get().getStatistics());
+    }
+    resultHandler.handle(Future.succeededFuture(writer.toString()));
+  }
+
+  /**
+   * Looks the user of the session up once, if a local rule of the session uses the user name
+   *
+   * @param session validation session
+   * @param headers request headers
+   * @return future completed when the user name is known or not needed
+   */
+  private Future<Void> resolveSessionUserName(ValidationSession session, MultiMap headers) {
+    if (session.isUserNameResolved() || !isUserNameRequired(session.getTenantId(), session.getRuleSet().getRules())) {
+      return Future.succeededFuture();
+    }
+    return lookupUserName(session.getTenantId(), session.getUserId(), headers).map(userName -> {
+      session.setUserName(userName);
+      return null;
+    });
+  }
+
+  /**
+   * Checks the password of the session by the local rules with the event loop step limit,
+   * a rule which exceeds the limit is left to the submit, as are the offloaded rules
+   *
+   * @param session  validation session
+   * @param password password to check
+   * @return validation result along with the rules which result has changed
+   */
+  private JsonObject validateSessionPassword(ValidationSession session, String password) {
+    String tenantId = session.getTenantId();
+    ScannedPassword scannedPassword = new ScannedPassword(password);
+    List<String> errorMessages = new ArrayList<>();
+    JsonArray changes = new JsonArray();
+    for (Rule rule : session.getRuleSet().getRules()) {
+      if (!CompiledRuleStore.isLocalRule(rule)) {
+        continue;
+      }
+      CompiledRule compiledRule = ruleStore.get(tenantId, rule);
+      if (compiledRule.getStepLimitExceededCount() >= regExpOffloadThreshold) {
+        continue;
+      }
+      boolean passed;
+      try {
+        passed = compiledRule.matches(scannedPassword, session.getUserName(), regExpStepLimit);
+      } catch (MatchStepLimitExceededException e) {
+        stepLimitExceededCount.incrementAndGet();
+        continue;
+      }
+      if (!passed) {
+        errorMessages.add(rule.getErrMessageId());
+      }
+      if (session.updateRuleResult(rule.getRuleId(), passed)) {
+        changes.add(new JsonObject()
+          .put(ValidatorHelper.RULE_ID_KEY, rule.getRuleId())
+          .put(ValidatorHelper.RULE_NAME_KEY, rule.getName())
+          .put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY,
+            passed ? ValidatorHelper.VALIDATION_VALID_RESULT : ValidatorHelper.VALIDATION_INVALID_RESULT)
+          .put(ValidatorHelper.RULE_MESSAGE_KEY, rule.getErrMessageId()));
+      }
+    }
+    return ValidatorHelper.buildValidationResult(errorMessages)
+      .put(ValidatorHelper.RESPONSE_CHANGES_KEY, changes)
+      .put(ValidatorHelper.RESPONSE_SUBMITTED_KEY, false);
+  }
+
+  /**
+   * Returns enabled rules of the tenant sorted by order number,
+   * calls ValidationRegistry service only if the rules are not cached yet
+   *
+   * @param tenantId tenant id
+   * @return future with the rule set snapshot
+   */
+  private Future<CompiledRuleSet> loadTenantRules(String tenantId) {
+    Object event = validationEvents.beginRulesLoad(tenantId);
+    CompiledRuleSet cachedRuleSet = rulesCache.get(tenantId);
+    if (cachedRuleSet != null) {
+      validationEvents.endRulesLoad(event, true, cachedRuleSet.getRules().size());
+      return Future.succeededFuture(cachedRuleSet);
+    }
+    Future<CompiledRuleSet> future = Future.future();
+    long loadToken = rulesCache.loadToken();
+    getEnabledTenantRules(tenantId).setHandler(rulesResponse -> {
+      if (rulesResponse.failed()) {
+        validationEvents.endRulesLoad(event, false, -1);
+        future.fail(rulesResponse.cause());
+        return;
+      }
+      List<Rule> rules = rulesResponse.result();
+      CompiledRuleSet ruleSet = rulesCache.put(tenantId, rules, loadToken);
+      ruleStore.retain(tenantId, ruleSet.getRules().stream().map(Rule::getRuleId).collect(Collectors.toList()));
+      validationEvents.endRulesLoad(event, false, rules.size());
+      future.complete(ruleSet);
+    });
+    return future;
+  }
+
+  private Future<List<Rule>> getEnabledTenantRules(String tenantId) {
+    Future<List<Rule>> future = Future.future();
+    if (tenantRulesLoader != null) {
+      tenantRulesLoader.getEnabledTenantRules(tenantId, rulesResponse -> future.handle(rulesResponse.map(RuleCollection::getRules)));
+    } else {
+      validatorRegistryProxy.getAllTenantRules(tenantId, 500, 0, "query=state=Enabled", rulesResponse ->
+        future.handle(rulesResponse.map(rules -> rules.mapTo(RuleCollection.class).getRules())));
+    }
+    return future;
+  }
+
+  /**
+   * Checks the password by the RegExp and Sequence rules
+   *
+   * @param tenantId      tenant id
+   * @param rules         rules of the tenant
+   * @param userName      name of the user the password belongs to
+   * @param password      password to check
+   * @param errorMessages list to add the messages of the violated rules to
+   * @param onEventLoop   whether the rules are checked on the event loop, so that slow rules are offloaded
+   *                      to worker threads, rather than on a worker thread with the worker step limit
+   * @return futures of the checks, failed if a Strong rule exceeded the step limit
+   */
+  private List<Future> validatePasswordByLocalRules(final String tenantId,
+                                                    final List<Rule> rules,
+                                                    final String userName,
+                                                    final String password,
+                                                    final List<String> errorMessages,
+                                                    final boolean onEventLoop) {
+    if (EvaluationMode.ADAPTIVE.equals(EvaluationMode.forTenant(tenantId))) {
+      return validatePasswordByOrderedLocalRules(tenantId, rules, userName, password, errorMessages, onEventLoop);
+    }
+    // default rules of the rule set are checked by a single scan of the password
+    ScannedPassword scannedPassword = new ScannedPassword(password);
+    long stepLimit = onEventLoop ? regExpStepLimit : regExpWorkerStepLimit;
+    boolean ruleSampled = validationMetrics.isRuleSampled();
+
+    List<Future> rulesFutures = new ArrayList<>();
     for (Rule rule : rules) {
-      if (Rule.Type.REG_EXP.equals(rule.getType())) {
-        rule.setExpression(rule.getExpression().replace(REGEXP_USER_NAME_PLACEHOLDER, userName));
+      if (CompiledRuleStore.isLocalRule(rule)) {
+        CompiledRule compiledRule = ruleStore.get(tenantId, rule);
+        if (onEventLoop && vertx != null && compiledRule.getStepLimitExceededCount() >= regExpOffloadThreshold) {
+          rulesFutures.add(getValidatePasswordByOffloadedRuleFuture(compiledRule, password, userName, rule, errorMessages));
+        } else if (ruleSampled) {
+          long startedAt = System.nanoTime();
+          rulesFutures.add(validatePasswordByLocalRule(compiledRule, scannedPassword, userName, rule, errorMessages, stepLimit));
+          validationMetrics.recordRule(tenantId, rule.getRuleId(), System.nanoTime() - startedAt);
+        } else {
+          rulesFutures.add(validatePasswordByLocalRule(compiledRule, scannedPassword, userName, rule, errorMessages, stepLimit));
+        }
       }
     }
-    return rules.stream().sorted(Comparator.comparing(Rule::getOrderNo)).collect(Collectors.toList());
+    return rulesFutures;
   }
 
-  private Future<List<String>> validatePasswordByRules(final List<Rule> rules,
-                                                       final String userId,
-                                                       final String password,
-                                                       final MultiMap headers) {
-    List<String> errorMessages = new ArrayList<>(rules.size());
-    rules.sort(Comparator.comparing(Rule::getOrderNo));
+  /**
+   * Checks the password by the local rules in the adaptive order until the first failed rule,
+   * measuring the time and the result of every rule evaluated synchronously
+   *
+   * @see #validatePasswordByLocalRules(String, List, String, String, List, boolean)
+   */
+  private List<Future> validatePasswordByOrderedLocalRules(final String tenantId,
+                                                           final List<Rule> rules,
+                                                           final String userName,
+                                                           final String password,
+                                                           final List<String> errorMessages,
+                                                           final boolean onEventLoop) {
+    ScannedPassword scannedPassword = new ScannedPassword(password);
+    long stepLimit = onEventLoop ? regExpStepLimit : regExpWorkerStepLimit;
+    boolean ruleSampled = validationMetrics.isRuleSampled();
 
-    Future<List<String>> future = Future.future();
+    List<Future> rulesFutures = new ArrayList<>();
+    for (Rule rule : adaptiveRuleOrder.order(tenantId, rules)) {
+      CompiledRule compiledRule = ruleStore.get(tenantId, rule);
+      if (onEventLoop && vertx != null && compiledRule.getStepLimitExceededCount() >= regExpOffloadThreshold) {
+        rulesFutures.add(getValidatePasswordByOffloadedRuleFuture(compiledRule, password, userName, rule, errorMessages));
+        continue;
+      }
+      int errorMessagesCount = errorMessages.size();
+      long startedAt = System.nanoTime();
+      Future<String> ruleFuture = validatePasswordByLocalRule(compiledRule, scannedPassword, userName, rule,
+        errorMessages, stepLimit);
+      boolean passed = ruleFuture.succeeded() && errorMessages.size() == errorMessagesCount;
+      long ruleNanos = System.nanoTime() - startedAt;
+      adaptiveRuleOrder.record(tenantId, rule, ruleNanos, passed);
+      if (ruleSampled) {
+        validationMetrics.recordRule(tenantId, rule.getRuleId(), ruleNanos);
+      }
+      rulesFutures.add(ruleFuture);
+      if (!passed) {
+        break;
+      }
+    }
+    return rulesFutures;
+  }
+
+  /**
+   * Sorts the messages of the violated rules by the order numbers of the rules,
+   * as the rules may have been evaluated in another order
+   *
+   * @param errorMessages messages of the violated rules
+   * @param rules         rules of the tenant sorted by order number
+   */
+  private static void sortByRuleOrder(List<String> errorMessages, List<Rule> rules) {
+    if (errorMessages.size() < 2) {
+      return;
+    }
+    Map<String, Integer> positions = new HashMap<>();
+    for (int i = 0; i < rules.size(); i++) {
+      positions.putIfAbsent(rules.get(i).getErrMessageId(), i);
+    }
+    errorMessages.sort(Comparator.comparing(message -> positions.getOrDefault(message, Integer.MAX_VALUE)));
+  }
+
+  /**
+   * Calls the programmatic rules of the password once the local rules are checked,
+   * in the fail-fast evaluation mode the calls are skipped if the password has already failed a local rule
+   *
+   * @param tenantId      tenant id
+   * @param rules         rules of the tenant
+   * @param userId        user id
+   * @param password      password to check
+   * @param headers       request headers
+   * @param errorMessages messages of the violated local rules, messages of the programmatic rules are added to
+   * @param localRulesFutures futures of the local rule checks
+   * @return future with the messages of all the violated rules
+   */
+  private Future<List<String>> validatePasswordByProgrammaticRules(final String tenantId,
+                                                                   final List<Rule> rules,
+                                                                   final String userId,
+                                                                   final String password,
+                                                                   final MultiMap headers,
+                                                                   final List<String> errorMessages,
+                                                                   final List<Future> localRulesFutures) {
+    if (EvaluationMode.forTenant(tenantId).isFailFast()) {
+      Future<List<String>> future = Future.future();
+      CompositeFuture.all(localRulesFutures).setHandler(localRulesResult -> {
+        if (localRulesResult.failed()) {
+          future.fail(localRulesResult.cause().getMessage());
+        } else if (!errorMessages.isEmpty()) {
+          // local rules are Strong, so the password is already invalid
+          future.complete(errorMessages);
+        } else {
+          getErrorMessagesFuture(Collections.singletonList(
+            getValidatePasswordByProgrammaticRulesFuture(rules, userId, password, headers, errorMessages)), errorMessages)
+            .setHandler(future);
+        }
+      });
+      return future;
+    }
+    List<Future> rulesFutures = new ArrayList<>(localRulesFutures);
+    rulesFutures.add(getValidatePasswordByProgrammaticRulesFuture(rules, userId, password, headers, errorMessages));
+    return getErrorMessagesFuture(rulesFutures, errorMessages);
+  }
+
+  /**
+   * Calls all the programmatic rules of the password at once, along with the History rules
+   * which are checked by this module but are as slow as a call of another module
+   *
+   * @return future completed when all the rules respond
+   */
+  private Future<Void> getValidatePasswordByProgrammaticRulesFuture(final List<Rule> rules,
+                                                                    final String userId,
+                                                                    final String password,
+                                                                    final MultiMap headers,
+                                                                    final List<String> errorMessages) {
+    long startedAt = System.nanoTime();
+    String tenantId = headers.get(OKAPI_HEADER_TENANT);
     List<Future> programmaticRulesFutures = new ArrayList<>();
     for (Rule rule : rules) {
-      if (Rule.Type.REG_EXP.equals(rule.getType())) {
-        validatePasswordByRexExpRule(password, rule, errorMessages);
-      } else if (Rule.Type.PROGRAMMATIC.equals(rule.getType())) {
-        programmaticRulesFutures
-          .add(getValidatePasswordByProgrammaticRuleFuture(userId, password, rule, errorMessages, headers));
+      if (Rule.Type.PROGRAMMATIC.equals(rule.getType())) {
+        programmaticRulesFutures.add(timeRule(tenantId, rule, startedAt,
+          getValidatePasswordByProgrammaticRuleFuture(userId, password, rule, errorMessages, headers)));
+      } else if (Rule.Type.HISTORY.equals(rule.getType())) {
+        programmaticRulesFutures.add(timeRule(tenantId, rule, startedAt,
+          getValidatePasswordByHistoryRuleFuture(tenantId, userId, password, rule, errorMessages)));
       }
     }
-    // Notify external method future handler when all programmatic rule futures complete
-    CompositeFuture.all(programmaticRulesFutures).setHandler(compositeFutureAsyncResult -> {
+    if (programmaticRulesFutures.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    Future<Void> future = Future.future();
+    CompositeFuture.all(programmaticRulesFutures).setHandler(programmaticRulesResult -> {
+      recordStage(tenantId, PipelineTimings.Stage.PROGRAMMATIC_RULES, startedAt);
+      if (programmaticRulesResult.succeeded()) {
+        future.complete();
+      } else {
+        future.fail(programmaticRulesResult.cause());
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Records the duration of the rule check once the check completes
+   *
+   * @return future completed along with the check
+   */
+  private Future<String> timeRule(String tenantId, Rule rule, long startedAt, Future<String> ruleFuture) {
+    if (!validationMetrics.isEnabled()) {
+      return ruleFuture;
+    }
+    Future<String> future = Future.future();
+    ruleFuture.setHandler(ruleResult -> {
+      validationMetrics.recordRule(tenantId, rule.getRuleId(), System.nanoTime() - startedAt);
+      future.handle(ruleResult);
+    });
+    return future;
+  }
+
+  private Future<List<String>> getErrorMessagesFuture(final List<Future> rulesFutures,
+                                                      final List<String> errorMessages) {
+    Future<List<String>> future = Future.future();
+    // Notify external method future handler when all programmatic and offloaded rule futures complete
+    CompositeFuture.all(rulesFutures).setHandler(compositeFutureAsyncResult -> {
       if (compositeFutureAsyncResult.succeeded()) {
         future.complete(errorMessages);
       } else {
@@ -154,20 +878,123 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
     return future;
   }
 
-  private void validatePasswordByRexExpRule(final String password,
-                                            final Rule rule,
-                                            final List<String> errorMessages) {
-    String expression = rule.getExpression();
-    if (!Pattern.compile(expression).matcher(password).matches()) {
-      errorMessages.add(rule.getErrMessageId());
+  private Future<String> validatePasswordByLocalRule(final CompiledRule compiledRule,
+                                                     final CharSequence password,
+                                                     final String userName,
+                                                     final Rule rule,
+                                                     final List<String> errorMessages,
+                                                     final long stepLimit) {
+    try {
+      if (!compiledRule.matches(password, userName, stepLimit)) {
+        errorMessages.add(rule.getErrMessageId());
+      }
+      return Future.succeededFuture();
+    } catch (MatchStepLimitExceededException e) {
+      return getStepLimitExceededFuture(rule, e);
+    }
+  }
+
+  /**
+   * Matches the rule that keeps exceeding the step limit on a worker thread
+   * so that it does not block the event loop
+   */
+  private Future<String> getValidatePasswordByOffloadedRuleFuture(final CompiledRule compiledRule,
+                                                                  final String password,
+                                                                  final String userName,
+                                                                  final Rule rule,
+                                                                  final List<String> errorMessages) {
+    Future<String> future = Future.future();
+    vertx.<Boolean>executeBlocking(
+      blockingFuture -> blockingFuture.complete(compiledRule.matches(password, userName, regExpWorkerStepLimit)),
+      false,
+      matchResult -> {
+        if (matchResult.succeeded()) {
+          if (!matchResult.result()) {
+            errorMessages.add(rule.getErrMessageId());
+          }
+          future.complete();
+        } else if (matchResult.cause() instanceof MatchStepLimitExceededException) {
+          getStepLimitExceededFuture(rule, (MatchStepLimitExceededException) matchResult.cause()).setHandler(future);
+        } else {
+          future.fail(matchResult.cause());
+        }
+      });
+    return future;
+  }
+
+  private Future<String> getStepLimitExceededFuture(final Rule rule, final MatchStepLimitExceededException exception) {
+    stepLimitExceededCount.incrementAndGet();
+    String errorMessage;
+    switch (rule.getValidationType()) {
+      case STRONG:
+        errorMessage = new StringBuilder()
+          .append("RegExp rule ")
+          .append(rule.getName())
+          .append(" exceeded the limit of ")
+          .append(exception.getStepLimit())
+          .append(" steps")
+          .toString();
+        logger.error(errorMessage);
+        return Future.failedFuture(errorMessage);
+      case SOFT:
+        logger.warn("RegExp rule " + rule.getName() + " exceeded the limit of " + exception.getStepLimit()
+          + " steps and is skipped");
+        return Future.succeededFuture();
+      default:
+        errorMessage = "Please add an action for the new added " +
+          "rule type when the rule exceeds the step limit";
+        logger.error(errorMessage);
+        return Future.failedFuture(errorMessage);
     }
   }
 
+  /**
+   * Returns cached name of the user or looks the user up on a cache miss.
+   * A stale name is returned at once and refreshed in the background.
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @param headers  request headers
+   * @return future with the user name
+   */
+  private Future<String> lookupUserName(String tenantId, String userId, MultiMap headers) {
+    Object event = validationEvents.beginUserLookup(tenantId, userId);
+    UserNamesCache.CachedUserName cachedUserName = userNamesCache.get(tenantId, userId);
+    if (cachedUserName == null) {
+      Future<String> future = Future.future();
+      lookupUser(userId, headers).setHandler(lookupResult -> {
+        validationEvents.endUserLookup(event, false, lookupResult.succeeded());
+        future.handle(lookupResult.map(user -> {
+          String userName = user.getString("username");
+          userNamesCache.put(tenantId, userId, userName);
+          return userName;
+        }));
+      });
+      return future;
+    }
+    validationEvents.endUserLookup(event, true, true);
+    if (cachedUserName.isStale() && userNamesCache.startRefresh(tenantId, userId)) {
+      long refreshStartedAt = System.nanoTime();
+      lookupUser(userId, headers).setHandler(refreshResult -> {
+        long refreshNanos = System.nanoTime() - refreshStartedAt;
+        if (refreshResult.succeeded()) {
+          userNamesCache.refreshed(tenantId, userId, refreshResult.result().getString("username"), refreshNanos);
+        } else {
+          logger.warn("Stale user name of the user " + userId + " is kept: " + refreshResult.cause().getMessage());
+          userNamesCache.refreshFailed(tenantId, userId, refreshNanos);
+        }
+      });
+    }
+    return Future.succeededFuture(cachedUserName.getUserName());
+  }
+
   private Future<JsonObject> lookupUser(String userId, MultiMap headers) {
     Future<JsonObject> future = Future.future();
     String okapiUrl = headers.get(OKAPI_URL_HEADER);
     String userNameRequestUrl = String.format("%s/users?query=id==%s", okapiUrl, userId);
-    HttpClientRequest request = httpClient.getAbs(userNameRequestUrl);
+    HttpClientRequest request = getHttpClient().getAbs(userNameRequestUrl);
+    // the request is closed once no response data is received within the deadline
+    request.setTimeout(lookupTimeout);
     request
       .putHeader(OKAPI_HEADER_TOKEN, headers.get(OKAPI_HEADER_TOKEN))
       .putHeader(OKAPI_HEADER_TENANT, headers.get(OKAPI_HEADER_TENANT))
@@ -203,9 +1030,13 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
             }
           });
         }
+      })
+      .exceptionHandler(exception -> {
+        httpClientStatistics.requestFailed(exception);
+        future.tryFail(exception);
       });
     request.end();
-    return future;
+    return httpClientStatistics.track(future);
   }
 
   private Future<String> getValidatePasswordByProgrammaticRuleFuture(final String userId,
@@ -216,51 +1047,117 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
     String okapiURL = headers.get(OKAPI_URL_HEADER);
     String remoteModuleUrl = okapiURL + rule.getImplementationReference();
 
+    Object event = validationEvents.beginProgrammaticRule(headers.get(OKAPI_HEADER_TENANT), rule.getRuleId(),
+      rule.getImplementationReference());
+    CircuitBreaker circuitBreaker = circuitBreakers.get(rule.getImplementationReference());
+    if (!circuitBreaker.tryAcquire()) {
+      validationEvents.endProgrammaticRule(event, 0, "rejected");
+      return getProgrammaticRuleUnavailableFuture(rule, "is rejected as the module by the address "
+        + remoteModuleUrl + " is considered unavailable");
+    }
+
     Future<String> future = Future.future();
-    HttpClientRequest passwordValidationRequest = httpClient.postAbs(remoteModuleUrl, validationResponse -> {
+    HttpClientRequest passwordValidationRequest = getHttpClient().postAbs(remoteModuleUrl, validationResponse -> {
       if (validationResponse.statusCode() == HttpStatus.SC_OK) {
         validationResponse.bodyHandler(body -> {
+          if (future.isComplete()) {
+            return;
+          }
+          circuitBreaker.onSuccess();
           String validationResult = body.toJsonObject().getString(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY);
           if (ValidatorHelper.VALIDATION_INVALID_RESULT.equals(validationResult)) {
             errorMessages.add(rule.getErrMessageId());
           }
+          validationEvents.endProgrammaticRule(event, validationResponse.statusCode(), validationResult);
           future.complete();
         });
-      } else {
-        // TODO Inform administrator that remote module is down
+      } else if (!future.isComplete()) {
+        circuitBreaker.onFailure();
         logger.error("FOLIO module by the address " + remoteModuleUrl + " is not available.");
-        String errorMessage;
-        switch (rule.getValidationType()) {
-          case STRONG:
-            errorMessage = new StringBuilder()
-              .append("Programmatic rule ")
-              .append(rule.getName())
-              .append(" returns status code ")
-              .append(validationResponse.statusCode())
-              .toString();
-            logger.error(errorMessage);
-            future.fail(errorMessage);
-            break;
-          case SOFT:
-            future.complete();
-            break;
-          default:
-            errorMessage = "Please add an action for the new added " +
-              "rule type when internal FOLIO module is not available";
-            logger.error(errorMessage);
-            future.fail(errorMessage);
-        }
+        validationEvents.endProgrammaticRule(event, validationResponse.statusCode(), "unavailable");
+        getProgrammaticRuleUnavailableFuture(rule, "returns status code " + validationResponse.statusCode())
+          .setHandler(future);
       }
     });
+    // the request is closed once no response data is received within the deadline
+    passwordValidationRequest.setTimeout(programmaticRuleTimeout);
+    passwordValidationRequest.exceptionHandler(exception -> {
+      httpClientStatistics.requestFailed(exception);
+      if (future.isComplete()) {
+        return;
+      }
+      circuitBreaker.onFailure();
+      logger.error("FOLIO module by the address " + remoteModuleUrl + " is not available.", exception);
+      validationEvents.endProgrammaticRule(event, 0, "unavailable");
+      getProgrammaticRuleUnavailableFuture(rule, "failed with " + exception.getMessage()).setHandler(future);
+    });
     passwordValidationRequest
       .putHeader(OKAPI_HEADER_TOKEN, headers.get(OKAPI_HEADER_TOKEN))
       .putHeader(OKAPI_HEADER_TENANT, headers.get(OKAPI_HEADER_TENANT))
       .putHeader(HttpHeaders.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
       .putHeader(HttpHeaders.ACCEPT.toString(), MediaType.APPLICATION_JSON)
       .end(buildResetPasswordAction(userId, password));
+    return httpClientStatistics.track(future);
+  }
+
+  /**
+   * Checks the password against the last passwords of the user recorded in the module
+   */
+  private Future<String> getValidatePasswordByHistoryRuleFuture(final String tenantId,
+                                                                final String userId,
+                                                                final String password,
+                                                                final Rule rule,
+                                                                final List<String> errorMessages) {
+    Future<String> future = Future.future();
+    int historySize = rule.getHistorySize() == null ? DEFAULT_HISTORY_SIZE : rule.getHistorySize();
+    getPasswordHistoryService().isPasswordUsed(tenantId, userId, password, historySize, historyResult -> {
+      if (historyResult.succeeded()) {
+        if (historyResult.result()) {
+          errorMessages.add(rule.getErrMessageId());
+        }
+        future.complete();
+      } else {
+        logger.error("Password history of the user " + userId + " is not available", historyResult.cause());
+        if (Rule.ValidationType.SOFT.equals(rule.getValidationType())) {
+          future.complete();
+        } else {
+          future.fail("History rule " + rule.getName() + " failed with " + historyResult.cause().getMessage());
+        }
+      }
+    });
     return future;
   }
 
+  /**
+   * Handles the programmatic rule which module is not available
+   * or considered unavailable by the circuit breaker, according to the rule validation type
+   *
+   * @param rule   programmatic rule
+   * @param reason reason the rule could not be checked
+   * @return future completed if the rule can be skipped, failed otherwise
+   */
+  private Future<String> getProgrammaticRuleUnavailableFuture(final Rule rule, final String reason) {
+    String errorMessage;
+    switch (rule.getValidationType()) {
+      case STRONG:
+        errorMessage = new StringBuilder()
+          .append("Programmatic rule ")
+          .append(rule.getName())
+          .append(" ")
+          .append(reason)
+          .toString();
+        logger.error(errorMessage);
+        return Future.failedFuture(errorMessage);
+      case SOFT:
+        return Future.succeededFuture();
+      default:
+        errorMessage = "Please add an action for the new added " +
+          "rule type when internal FOLIO module is not available";
+        logger.error(errorMessage);
+        return Future.failedFuture(errorMessage);
+    }
+  }
+
   private String buildResetPasswordAction(final String userId, final String password) {
     JsonObject resetPasswordAction = new JsonObject()
       .put(ValidatorHelper.REQUEST_PARAM_KEY, password)
@@ -270,17 +1167,146 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
 
   private void prepareResponse(final List<String> errorMessages,
                                final Handler<AsyncResult<JsonObject>> resultHandler) {
-    JsonObject validationResult = new JsonObject();
-    if (errorMessages.isEmpty()) {
-      validationResult.put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY, ValidatorHelper.VALIDATION_VALID_RESULT);
-    } else {
-      validationResult.put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY, ValidatorHelper.VALIDATION_INVALID_RESULT);
-    }
-    validationResult.put(ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY, errorMessages);
+    Object event = validationEvents.beginResponsePreparation();
+    JsonObject validationResult = ValidatorHelper.buildValidationResult(errorMessages);
+    validationEvents.endResponsePreparation(event,
+      validationResult.getString(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY), errorMessages.size());
     resultHandler.handle(Future.succeededFuture(validationResult));
   }
 
   public void setValidatorRegistryProxy(ValidatorRegistryService validatorRegistryProxy) {
     this.validatorRegistryProxy = validatorRegistryProxy;
   }
+
+  private BatchValidator getBatchValidator() {
+    if (batchValidator == null) {
+      batchValidator = new BatchValidator(vertx, new EngineValidationSteps(), userNamesCache, this::getHttpClient,
+        httpClientStatistics, lookupTimeout);
+    }
+    return batchValidator;
+  }
+
+  private PasswordHistoryService getPasswordHistoryService() {
+    if (passwordHistoryService == null) {
+      passwordHistoryService = ValidatorServices.getPasswordHistoryService(vertx);
+    }
+    return passwordHistoryService;
+  }
+
+  /**
+   * Returns the cache of tenant rules, e.g. to read its hit/miss counters
+   *
+   * @return tenant rules cache
+   */
+  public TenantRulesCache getRulesCache() {
+    return rulesCache;
+  }
+
+  /**
+   * Returns the circuit breakers of the programmatic rules, e.g. to read their states
+   *
+   * @return circuit breakers by implementation reference
+   */
+  public CircuitBreakerRegistry getCircuitBreakers() {
+    return circuitBreakers;
+  }
+
+  /**
+   * Returns counters of the requests sent to Okapi
+   *
+   * @return http client statistics
+   */
+  public HttpClientStatistics getHttpClientStatistics() {
+    return httpClientStatistics;
+  }
+
+  /**
+   * Returns cache of the user names looked up in mod-users
+   *
+   * @return user names cache
+   */
+  public UserNamesCache getUserNamesCache() {
+    return userNamesCache;
+  }
+
+  /**
+   * Returns the evaluation order of the local rules in the adaptive evaluation mode, e.g. to read the rule statistics
+   *
+   * @return adaptive rule order
+   */
+  public AdaptiveRuleOrder getAdaptiveRuleOrder() {
+    return adaptiveRuleOrder;
+  }
+
+  /**
+   * Returns the as-you-type validation sessions, e.g. to read their counters
+   *
+   * @return validation sessions
+   */
+  public ValidationSessions getValidationSessions() {
+    return validationSessions;
+  }
+
+  /**
+   * Returns the durations of the validation pipeline stages
+   *
+   * @return pipeline timings
+   */
+  public PipelineTimings getPipelineTimings() {
+    return pipelineTimings;
+  }
+
+  /**
+   * Returns the number of RegExp rule matches aborted by the step limit
+   *
+   * @return number of aborted matches
+   */
+  public long getStepLimitExceededCount() {
+    return stepLimitExceededCount.get();
+  }
+
+  /**
+   * Returns the store of compiled RegExp rules, e.g. to read its memory usage
+   *
+   * @return compiled rule store
+   */
+  public CompiledRuleStore getRuleStore() {
+    return ruleStore;
+  }
+
+  /**
+   * Steps of the validation of a single password run by the batch validator
+   */
+  private class EngineValidationSteps implements PasswordValidationSteps {
+
+    @Override
+    public Future<CompiledRuleSet> loadTenantRules(String tenantId) {
+      return ValidationEngineServiceImpl.this.loadTenantRules(tenantId);
+    }
+
+    @Override
+    public boolean isUserNameRequired(String tenantId, List<Rule> rules) {
+      return ValidationEngineServiceImpl.this.isUserNameRequired(tenantId, rules);
+    }
+
+    @Override
+    public List<Future> validateByLocalRules(String tenantId, List<Rule> rules, String userName, String password,
+                                             List<String> errorMessages, boolean onEventLoop) {
+      return validatePasswordByLocalRules(tenantId, rules, userName, password, errorMessages, onEventLoop);
+    }
+
+    @Override
+    public Future<List<String>> validateByProgrammaticRules(String tenantId, List<Rule> rules, String userId,
+                                                            String password, MultiMap headers,
+                                                            List<String> errorMessages,
+                                                            List<Future> localRulesFutures) {
+      return validatePasswordByProgrammaticRules(tenantId, rules, userId, password, headers, errorMessages,
+        localRulesFutures).map(validatedErrorMessages -> {
+          if (EvaluationMode.ADAPTIVE.equals(EvaluationMode.forTenant(tenantId))) {
+            sortByRuleOrder(validatedErrorMessages, rules);
+          }
+          return validatedErrorMessages;
+        });
+    }
+  }
 }
@@ -0,0 +1,79 @@
+package org.folio.services.validator.history;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted slow hash of the passwords kept in the password history.
+ * <p>
+ * A hash is encoded as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} with Base64 salt and hash,
+ * so that hashes made with another number of iterations are still verified after the cost is changed.
+ */
+public class PasswordHasher {
+
+  static final String ALGORITHM = "pbkdf2-sha256";
+
+  private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final String SEPARATOR = "$";
+  private static final int SALT_LENGTH = 16;
+  private static final int HASH_LENGTH = 32;
+
+  private final int iterations;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Constructor
+   *
+   * @param iterations number of PBKDF2 iterations of the new hashes
+   */
+  public PasswordHasher(int iterations) {
+    this.iterations = iterations;
+  }
+
+  /**
+   * Hashes the password with a random salt
+   *
+   * @param password password
+   * @return encoded hash
+   */
+  public String hash(String password) {
+    byte[] salt = new byte[SALT_LENGTH];
+    random.nextBytes(salt);
+    Base64.Encoder encoder = Base64.getEncoder();
+    return ALGORITHM + SEPARATOR + iterations + SEPARATOR + encoder.encodeToString(salt)
+      + SEPARATOR + encoder.encodeToString(pbkdf2(password, salt, iterations));
+  }
+
+  /**
+   * Checks whether the password has the given hash
+   *
+   * @param password    password
+   * @param encodedHash encoded hash
+   * @return true if the password matches the hash
+   * @throws IllegalArgumentException if the hash is not encoded by this hasher
+   */
+  public boolean verify(String password, String encodedHash) {
+    String[] parts = encodedHash.split("\\" + SEPARATOR);
+    if (parts.length != 4 || !ALGORITHM.equals(parts[0])) {
+      throw new IllegalArgumentException("Unsupported password hash format");
+    }
+    Base64.Decoder decoder = Base64.getDecoder();
+    byte[] expectedHash = decoder.decode(parts[3]);
+    return MessageDigest.isEqual(expectedHash, pbkdf2(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+  }
+
+  private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+    PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * Byte.SIZE);
+    try {
+      return SecretKeyFactory.getInstance(KEY_ALGORITHM).generateSecret(keySpec).getEncoded();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(KEY_ALGORITHM + " is not supported by the platform", e);
+    } finally {
+      keySpec.clearPassword();
+    }
+  }
+}
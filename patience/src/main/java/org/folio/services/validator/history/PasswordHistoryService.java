@@ -0,0 +1,109 @@
+package org.folio.services.validator.history;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Records the passwords of the users and checks a new password against the last ones.
+ * <p>
+ * The passwords are kept as salted slow hashes, so each comparison costs a hash calculation.
+ * The calculations run on a dedicated worker pool, the hashes of the history in parallel,
+ * so that they do not block the event loop nor the other blocking code of the module.
+ */
+public class PasswordHistoryService {
+
+  private static final String WORKER_POOL_NAME = "password-history";
+
+  // Number of the last passwords of a user kept in the history
+  private int maxSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("history.max.size", "24"));
+  // Number of PBKDF2 iterations of a password hash
+  private int hashIterations = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("history.hash.iterations", "20000"));
+  // Number of threads calculating the password hashes
+  private int workerPoolSize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("history.worker.pool.size", "4"));
+
+  private final PasswordHistoryStore store;
+  private final PasswordHasher hasher = new PasswordHasher(hashIterations);
+  private final WorkerExecutor workerExecutor;
+
+  public PasswordHistoryService(Vertx vertx) {
+    this(vertx, new PostgresPasswordHistoryStore(vertx));
+  }
+
+  public PasswordHistoryService(Vertx vertx, PasswordHistoryStore store) {
+    this.store = store;
+    this.workerExecutor = vertx.createSharedWorkerExecutor(WORKER_POOL_NAME, workerPoolSize);
+  }
+
+  /**
+   * Records the new password of the user
+   *
+   * @param tenantId      tenant id
+   * @param userId        user id
+   * @param password      new password
+   * @param resultHandler handler completed once the password is recorded
+   */
+  public void recordPassword(String tenantId, String userId, String password, Handler<AsyncResult<Void>> resultHandler) {
+    workerExecutor.<String>executeBlocking(future -> future.complete(hasher.hash(password)), false, hashResult -> {
+      if (hashResult.failed()) {
+        resultHandler.handle(Future.failedFuture(hashResult.cause()));
+      } else {
+        store.addHash(tenantId, userId, hashResult.result(), maxSize, resultHandler);
+      }
+    });
+  }
+
+  /**
+   * Checks whether the password is one of the last passwords of the user
+   *
+   * @param tenantId      tenant id
+   * @param userId        user id
+   * @param password      password to check
+   * @param historySize   number of the last passwords to check, at most the number of passwords kept
+   * @param resultHandler handler with true if the password has been used
+   */
+  public void isPasswordUsed(String tenantId, String userId, String password, int historySize,
+                             Handler<AsyncResult<Boolean>> resultHandler) {
+    store.getLastHashes(tenantId, userId, Math.min(historySize, maxSize), hashesResult -> {
+      if (hashesResult.failed()) {
+        resultHandler.handle(Future.failedFuture(hashesResult.cause()));
+        return;
+      }
+      List<String> hashes = hashesResult.result();
+      if (hashes.isEmpty()) {
+        resultHandler.handle(Future.succeededFuture(false));
+        return;
+      }
+      Future<Boolean> future = Future.future();
+      future.setHandler(resultHandler);
+      AtomicInteger remaining = new AtomicInteger(hashes.size());
+      for (String hash : hashes) {
+        workerExecutor.<Boolean>executeBlocking(blockingFuture -> blockingFuture.complete(hasher.verify(password, hash)),
+          false, verifyResult -> {
+            if (verifyResult.failed()) {
+              future.tryFail(verifyResult.cause());
+            } else if (verifyResult.result()) {
+              // the password is used already, the other comparisons do not change the result
+              future.tryComplete(true);
+            } else if (remaining.decrementAndGet() == 0) {
+              future.tryComplete(false);
+            }
+          });
+      }
+    });
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+}
@@ -0,0 +1,33 @@
+package org.folio.services.validator.history;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+import java.util.List;
+
+/**
+ * Storage of the hashed previous passwords of the users
+ */
+public interface PasswordHistoryStore {
+
+  /**
+   * Returns hashes of the last passwords of the user, the newest first
+   *
+   * @param tenantId      tenant id
+   * @param userId        user id
+   * @param limit         maximum number of hashes to return
+   * @param resultHandler handler with the encoded hashes
+   */
+  void getLastHashes(String tenantId, String userId, int limit, Handler<AsyncResult<List<String>>> resultHandler);
+
+  /**
+   * Stores hash of the new password of the user and drops the hashes beyond the history size
+   *
+   * @param tenantId      tenant id
+   * @param userId        user id
+   * @param hash          encoded hash
+   * @param maxSize       number of the last hashes of the user to keep
+   * @param resultHandler handler completed once the hash is stored
+   */
+  void addHash(String tenantId, String userId, String hash, int maxSize, Handler<AsyncResult<Void>> resultHandler);
+}
@@ -0,0 +1,117 @@
+package org.folio.services.validator.history;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.rest.jaxrs.model.PasswordHistoryEntry;
+import org.folio.rest.persist.Criteria.Criteria;
+import org.folio.rest.persist.Criteria.Criterion;
+import org.folio.rest.persist.Criteria.Limit;
+import org.folio.rest.persist.Criteria.Order;
+import org.folio.rest.persist.PostgresClient;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Password history kept in the password_history table of the module schema, next to the validation rules
+ */
+public class PostgresPasswordHistoryStore implements PasswordHistoryStore {
+
+  private final Logger logger = LoggerFactory.getLogger(PostgresPasswordHistoryStore.class);
+
+  private static final String PASSWORD_HISTORY_TABLE_NAME = "password_history";
+  private static final String USER_ID_JSONB_FIELD = "'userId'";
+  private static final String USER_ID_FIELD = "jsonb->>'userId'";
+  private static final String CREATED_DATE_ORDER_FIELD = "jsonb->>'createdDate'";
+
+  private final Vertx vertx;
+
+  public PostgresPasswordHistoryStore(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  @Override
+  public void getLastHashes(String tenantId, String userId, int limit, Handler<AsyncResult<List<String>>> resultHandler) {
+    getEntries(tenantId, userId, limit, entriesResult ->
+      resultHandler.handle(entriesResult.map(entries -> entries.stream()
+        .map(PasswordHistoryEntry::getHash)
+        .collect(Collectors.toList()))));
+  }
+
+  @Override
+  public void addHash(String tenantId, String userId, String hash, int maxSize, Handler<AsyncResult<Void>> resultHandler) {
+    try {
+      String id = UUID.randomUUID().toString();
+      PasswordHistoryEntry entry = new PasswordHistoryEntry()
+        .withId(id)
+        .withUserId(userId)
+        .withHash(hash)
+        .withCreatedDate(new Date());
+      PostgresClient.getInstance(vertx, tenantId).save(PASSWORD_HISTORY_TABLE_NAME, id, entry, saveReply -> {
+        if (saveReply.failed()) {
+          logger.error("Error while saving the password history entry to the db", saveReply.cause());
+          resultHandler.handle(Future.failedFuture(saveReply.cause()));
+        } else {
+          deleteOldEntries(tenantId, userId, maxSize, resultHandler);
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Error while saving the password history entry", e);
+      resultHandler.handle(Future.failedFuture(e));
+    }
+  }
+
+  private void getEntries(String tenantId, String userId, int limit,
+                          Handler<AsyncResult<List<PasswordHistoryEntry>>> resultHandler) {
+    try {
+      Criterion criterion = new Criterion(constructCriteria(USER_ID_JSONB_FIELD, userId))
+        .setOrder(new Order(CREATED_DATE_ORDER_FIELD, Order.ORDER.DESC))
+        .setLimit(new Limit(limit));
+      PostgresClient.getInstance(vertx, tenantId).get(PASSWORD_HISTORY_TABLE_NAME, PasswordHistoryEntry.class,
+        criterion, false, false, getReply -> {
+          if (getReply.failed()) {
+            logger.error("Error while querying the db to get the password history", getReply.cause());
+            resultHandler.handle(Future.failedFuture(getReply.cause()));
+          } else {
+            resultHandler.handle(Future.succeededFuture(getReply.result().getResults()));
+          }
+        });
+    } catch (Exception e) {
+      logger.error("Error while getting the password history", e);
+      resultHandler.handle(Future.failedFuture(e));
+    }
+  }
+
+  /**
+   * Deletes the entries of the user older than the last ones kept, usually the single oldest one, in one statement.
+   * The new password is recorded already, so a failed deletion only leaves an extra entry until the next one.
+   */
+  private void deleteOldEntries(String tenantId, String userId, int maxSize, Handler<AsyncResult<Void>> resultHandler) {
+    String table = PostgresClient.convertToPsqlStandard(tenantId) + "." + PASSWORD_HISTORY_TABLE_NAME;
+    String sql = "DELETE FROM " + table + " WHERE " + USER_ID_FIELD + " = ? AND _id NOT IN"
+      + " (SELECT _id FROM " + table + " WHERE " + USER_ID_FIELD + " = ?"
+      + " ORDER BY " + CREATED_DATE_ORDER_FIELD + " DESC LIMIT ?)";
+    PostgresClient.getInstance(vertx, tenantId).execute(sql, new JsonArray().add(userId).add(userId).add(maxSize),
+      deleteReply -> {
+        if (deleteReply.failed()) {
+          logger.error("Error while deleting old password history entries of the user " + userId, deleteReply.cause());
+        }
+        resultHandler.handle(Future.succeededFuture());
+      });
+  }
+
+  private Criteria constructCriteria(String jsonbField, String value) {
+    Criteria criteria = new Criteria();
+    criteria.addField(jsonbField);
+    criteria.setOperation("=");
+    criteria.setValue(value);
+    return criteria;
+  }
+}
@@ -0,0 +1,116 @@
+package org.folio.services.validator.jfr;
+
+/**
+ * Validation events recorded by the flight recorder of the JVM,
+ * loaded only if the JVM provides the jdk.jfr API
+ */
+final class FlightRecorderEvents extends ValidationEvents {
+
+  @Override
+  public Object beginRulesLoad(String tenantId) {
+    RulesLoadEvent event = new RulesLoadEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.tenant = tenantId;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endRulesLoad(Object event, boolean cached, int rules) {
+    if (event != null) {
+      RulesLoadEvent rulesLoadEvent = (RulesLoadEvent) event;
+      rulesLoadEvent.cached = cached;
+      rulesLoadEvent.rules = rules;
+      rulesLoadEvent.commit();
+    }
+  }
+
+  @Override
+  public Object beginUserLookup(String tenantId, String userId) {
+    UserLookupEvent event = new UserLookupEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.tenant = tenantId;
+    event.userId = userId;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endUserLookup(Object event, boolean cached, boolean succeeded) {
+    if (event != null) {
+      UserLookupEvent userLookupEvent = (UserLookupEvent) event;
+      userLookupEvent.cached = cached;
+      userLookupEvent.succeeded = succeeded;
+      userLookupEvent.commit();
+    }
+  }
+
+  @Override
+  public Object beginRegExpMatch(String ruleId) {
+    RegExpMatchEvent event = new RegExpMatchEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.ruleId = ruleId;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endRegExpMatch(Object event, long steps, boolean matched, boolean aborted) {
+    if (event != null) {
+      RegExpMatchEvent regExpMatchEvent = (RegExpMatchEvent) event;
+      regExpMatchEvent.steps = steps;
+      regExpMatchEvent.matched = matched;
+      regExpMatchEvent.aborted = aborted;
+      regExpMatchEvent.commit();
+    }
+  }
+
+  @Override
+  public Object beginProgrammaticRule(String tenantId, String ruleId, String implementationReference) {
+    ProgrammaticRuleEvent event = new ProgrammaticRuleEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.tenant = tenantId;
+    event.ruleId = ruleId;
+    event.implementationReference = implementationReference;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endProgrammaticRule(Object event, int statusCode, String outcome) {
+    if (event != null) {
+      ProgrammaticRuleEvent programmaticRuleEvent = (ProgrammaticRuleEvent) event;
+      programmaticRuleEvent.statusCode = statusCode;
+      programmaticRuleEvent.outcome = outcome;
+      programmaticRuleEvent.commit();
+    }
+  }
+
+  @Override
+  public Object beginResponsePreparation() {
+    ResponsePreparationEvent event = new ResponsePreparationEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endResponsePreparation(Object event, String result, int messages) {
+    if (event != null) {
+      ResponsePreparationEvent responsePreparationEvent = (ResponsePreparationEvent) event;
+      responsePreparationEvent.result = result;
+      responsePreparationEvent.messages = messages;
+      responsePreparationEvent.commit();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Call of the module implementing a Programmatic rule
+ */
+@Name("org.folio.passwordvalidator.ProgrammaticRule")
+@Label("Programmatic Rule Call")
+@Category({"FOLIO", "Password Validator"})
+@Description("Call of the module implementing a Programmatic rule")
+@StackTrace(false)
+final class ProgrammaticRuleEvent extends jdk.jfr.Event {
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Rule Id")
+  String ruleId;
+
+  @Label("Implementation Reference")
+  String implementationReference;
+
+  @Label("Status Code")
+  @Description("Status code of the response, 0 if no response is received")
+  int statusCode;
+
+  @Label("Outcome")
+  @Description("valid, invalid, unavailable or rejected by the circuit breaker")
+  String outcome;
+}
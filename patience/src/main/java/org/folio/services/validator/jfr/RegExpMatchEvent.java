@@ -0,0 +1,32 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Match of a password against a RegExp rule
+ */
+@Name("org.folio.passwordvalidator.RegExpMatch")
+@Label("RegExp Match")
+@Category({"FOLIO", "Password Validator"})
+@Description("Match of a password against a RegExp rule")
+@StackTrace(false)
+final class RegExpMatchEvent extends jdk.jfr.Event {
+
+  @Label("Rule Id")
+  String ruleId;
+
+  @Label("Steps")
+  @Description("Number of characters read by the matcher, -1 if the match is not step limited")
+  long steps;
+
+  @Label("Matched")
+  boolean matched;
+
+  @Label("Aborted")
+  @Description("Whether the match is aborted by the step limit")
+  boolean aborted;
+}
@@ -0,0 +1,25 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Preparation of the validation result sent back to the caller
+ */
+@Name("org.folio.passwordvalidator.ResponsePreparation")
+@Label("Response Preparation")
+@Category({"FOLIO", "Password Validator"})
+@Description("Preparation of the validation result")
+@StackTrace(false)
+final class ResponsePreparationEvent extends jdk.jfr.Event {
+
+  @Label("Result")
+  String result;
+
+  @Label("Messages")
+  @Description("Number of the messages of the violated rules")
+  int messages;
+}
@@ -0,0 +1,29 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Load of the enabled rules of a tenant, from the rules cache or from the validator registry
+ */
+@Name("org.folio.passwordvalidator.RulesLoad")
+@Label("Rules Load")
+@Category({"FOLIO", "Password Validator"})
+@Description("Load of the enabled rules of a tenant")
+@StackTrace(false)
+final class RulesLoadEvent extends jdk.jfr.Event {
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Cached")
+  @Description("Whether the rules are taken from the rules cache")
+  boolean cached;
+
+  @Label("Rules")
+  @Description("Number of the enabled rules, -1 if the load failed")
+  int rules;
+}
@@ -0,0 +1,31 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Lookup of the name of the user the password belongs to, from the user names cache or from mod-users
+ */
+@Name("org.folio.passwordvalidator.UserLookup")
+@Label("User Lookup")
+@Category({"FOLIO", "Password Validator"})
+@Description("Lookup of the name of the user the password belongs to")
+@StackTrace(false)
+final class UserLookupEvent extends jdk.jfr.Event {
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("User Id")
+  String userId;
+
+  @Label("Cached")
+  @Description("Whether the user name is taken from the user names cache")
+  boolean cached;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
@@ -0,0 +1,99 @@
+package org.folio.services.validator.jfr;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Java Flight Recorder events of the validation pipeline. The events are recorded only if the JVM
+ * provides the jdk.jfr API (OpenJDK 8u262 and later, 11 and later), otherwise the methods do nothing;
+ * the event classes are loaded by {@link FlightRecorderEvents} only, so the module keeps running on a JVM without it.
+ * <p>
+ * An event is started by a begin method and committed by the matching end method. The object returned
+ * by the begin method is opaque to the caller and is null if no recording is interested in the event,
+ * which keeps the cost of the events to a few nanoseconds while nothing is recorded.
+ */
+public class ValidationEvents {
+
+  private static final Logger logger = LoggerFactory.getLogger(ValidationEvents.class);
+
+  private static final boolean FLIGHT_RECORDER_AVAILABLE = isFlightRecorderPresent();
+  private static final ValidationEvents INSTANCE = create();
+
+  ValidationEvents() {
+  }
+
+  /**
+   * Returns the events of the JVM, recorded if the flight recorder is available
+   *
+   * @return validation events
+   */
+  public static ValidationEvents get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Tells whether the JVM provides the flight recorder, i.e. whether the events can be recorded
+   *
+   * @return true if the flight recorder is available
+   */
+  public static boolean isFlightRecorderAvailable() {
+    return FLIGHT_RECORDER_AVAILABLE;
+  }
+
+  public Object beginRulesLoad(String tenantId) {
+    return null;
+  }
+
+  public void endRulesLoad(Object event, boolean cached, int rules) {
+  }
+
+  public Object beginUserLookup(String tenantId, String userId) {
+    return null;
+  }
+
+  public void endUserLookup(Object event, boolean cached, boolean succeeded) {
+  }
+
+  public Object beginRegExpMatch(String ruleId) {
+    return null;
+  }
+
+  public void endRegExpMatch(Object event, long steps, boolean matched, boolean aborted) {
+  }
+
+  public Object beginProgrammaticRule(String tenantId, String ruleId, String implementationReference) {
+    return null;
+  }
+
+  public void endProgrammaticRule(Object event, int statusCode, String outcome) {
+  }
+
+  public Object beginResponsePreparation() {
+    return null;
+  }
+
+  public void endResponsePreparation(Object event, String result, int messages) {
+  }
+
+  private static boolean isFlightRecorderPresent() {
+    try {
+      return (Boolean) Class.forName("jdk.jfr.FlightRecorder").getMethod("isAvailable").invoke(null);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private static ValidationEvents create() {
+    if (!FLIGHT_RECORDER_AVAILABLE) {
+      logger.info("Flight recorder is not available, validation events are not recorded");
+      return new ValidationEvents();
+    }
+    try {
+      return (ValidationEvents) Class.forName(ValidationEvents.class.getPackage().getName() + ".FlightRecorderEvents")
+        .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      logger.warn("Validation events are not recorded: " + e.getMessage());
+      return new ValidationEvents();
+    }
+  }
+}
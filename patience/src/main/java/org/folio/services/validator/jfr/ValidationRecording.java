@@ -0,0 +1,142 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.folio.rest.jaxrs.model.FlightRecording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Flight recording of the JVM started by the admin API, one at a time. The recording keeps the validation events
+ * along with the JVM events of its settings, e.g. garbage collections and safepoints, so that slow validations
+ * can be correlated with them. The methods may be called only if {@link ValidationEvents#isFlightRecorderAvailable()}.
+ */
+public final class ValidationRecording {
+
+  public static final String RECORDING_NAME = "password-validator";
+
+  private static final DateTimeFormatter DUMP_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  // directory the recordings are dumped to
+  private static final String RECORDING_DIR = MODULE_SPECIFIC_ARGS.getOrDefault("recording.dir",
+    System.getProperty("java.io.tmpdir"));
+
+  private static Recording recording;
+  private static String settings;
+  private static Path dumpPath;
+
+  private ValidationRecording() {
+  }
+
+  /**
+   * Starts a new recording, closing the stopped one
+   *
+   * @param settingsName name of the JVM settings, default or profile
+   * @param maxAge       maximum age of the recorded events in seconds, 0 - no limit
+   * @return state of the recording
+   * @throws IllegalStateException    if a recording is already running
+   * @throws IllegalArgumentException if the settings are not known
+   * @throws IOException              if the settings cannot be read
+   */
+  public static synchronized FlightRecording start(String settingsName, int maxAge) throws IOException {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      throw new IllegalStateException("Flight recording is already running");
+    }
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settingsName);
+    } catch (ParseException | IOException e) {
+      throw new IllegalArgumentException("Unknown flight recorder settings " + settingsName, e);
+    }
+    close();
+    Recording newRecording = new Recording(configuration);
+    newRecording.setName(RECORDING_NAME);
+    newRecording.setToDisk(true);
+    if (maxAge > 0) {
+      newRecording.setMaxAge(Duration.ofSeconds(maxAge));
+    }
+    newRecording.start();
+    recording = newRecording;
+    settings = settingsName;
+    return getState();
+  }
+
+  /**
+   * Stops the running recording, the stopped recording can still be dumped
+   *
+   * @return state of the recording
+   * @throws IllegalStateException if no recording is running
+   */
+  public static synchronized FlightRecording stop() {
+    if (recording == null || recording.getState() != RecordingState.RUNNING) {
+      throw new IllegalStateException("No flight recording is running");
+    }
+    recording.stop();
+    return getState();
+  }
+
+  /**
+   * Dumps the events of the recording to a new file in the recording directory
+   *
+   * @return state of the recording along with the path of the file
+   * @throws IllegalStateException if there is no recording
+   * @throws IOException           if the file cannot be written
+   */
+  public static synchronized FlightRecording dump() throws IOException {
+    if (recording == null) {
+      throw new IllegalStateException("No flight recording is started");
+    }
+    Path dir = Paths.get(RECORDING_DIR);
+    Files.createDirectories(dir);
+    Path path = dir.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(DUMP_FILE_TIMESTAMP) + ".jfr");
+    recording.dump(path);
+    dumpPath = path;
+    return getState();
+  }
+
+  /**
+   * Returns the state of the recording
+   *
+   * @return state of the recording
+   * @throws IllegalStateException if there is no recording
+   */
+  public static synchronized FlightRecording getState() {
+    if (recording == null) {
+      throw new IllegalStateException("No flight recording is started");
+    }
+    FlightRecording state = new FlightRecording()
+      .withName(recording.getName())
+      .withState(recording.getState().name())
+      .withSettings(settings)
+      .withSize(recording.getSize());
+    if (recording.getStartTime() != null) {
+      state.setStartTime(Date.from(recording.getStartTime()));
+    }
+    if (recording.getMaxAge() != null) {
+      state.setMaxAge((int) recording.getMaxAge().getSeconds());
+    }
+    if (dumpPath != null) {
+      state.setPath(dumpPath.toString());
+    }
+    return state;
+  }
+
+  private static void close() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+      dumpPath = null;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package org.folio.services.validator.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiled form of a Sequence rule: all the forbidden substrings are combined
+ * into a single Aho-Corasick automaton, so the password is checked in one pass
+ * regardless of the number of substrings.
+ * <p>
+ * The automaton is stored as a complete transition table over the characters
+ * that occur in the substrings; any other character leads back to the root state.
+ */
+final class AhoCorasickMatcher implements RuleMatcher {
+
+  private static final int ASCII_SIZE = 128;
+  private static final int ROOT = 0;
+
+  private final boolean ignoreCase;
+  // characters of the substrings, sorted to look up non-ASCII characters
+  private final char[] alphabet;
+  // index of the ASCII characters in the alphabet, -1 if the character does not occur in the substrings
+  private final int[] asciiIndex;
+  // transitions[state * (alphabet.length + 1) + characterIndex], the last column is for unknown characters
+  private final int[] transitions;
+  // whether a substring ends in the state or in any state of its suffix link chain
+  private final boolean[] terminal;
+
+  /**
+   * Builds the automaton
+   *
+   * @param sequences     forbidden substrings, empty ones are ignored
+   * @param ignoreCase    whether substrings are matched regardless of the letter case
+   * @param matchReversed whether reversed substrings are forbidden as well
+   */
+  AhoCorasickMatcher(Collection<String> sequences, boolean ignoreCase, boolean matchReversed) {
+    this.ignoreCase = ignoreCase;
+    Set<String> patterns = new LinkedHashSet<>();
+    for (String sequence : sequences) {
+      if (sequence == null || sequence.isEmpty()) {
+        continue;
+      }
+      String pattern = fold(sequence);
+      patterns.add(pattern);
+      if (matchReversed) {
+        patterns.add(new StringBuilder(pattern).reverse().toString());
+      }
+    }
+
+    Set<Character> characters = new TreeSet<>();
+    for (String pattern : patterns) {
+      for (int i = 0; i < pattern.length(); i++) {
+        characters.add(pattern.charAt(i));
+      }
+    }
+    alphabet = new char[characters.size()];
+    int index = 0;
+    for (Character character : characters) {
+      alphabet[index++] = character;
+    }
+    asciiIndex = new int[ASCII_SIZE];
+    Arrays.fill(asciiIndex, -1);
+    for (int i = 0; i < alphabet.length; i++) {
+      if (alphabet[i] < ASCII_SIZE) {
+        asciiIndex[alphabet[i]] = i;
+      }
+    }
+
+    // trie of the substrings
+    int width = alphabet.length + 1;
+    List<int[]> trie = new ArrayList<>();
+    List<Boolean> ends = new ArrayList<>();
+    trie.add(newState(width));
+    ends.add(false);
+    for (String pattern : patterns) {
+      int state = ROOT;
+      for (int i = 0; i < pattern.length(); i++) {
+        int column = indexOf(pattern.charAt(i));
+        if (trie.get(state)[column] < 0) {
+          trie.add(newState(width));
+          ends.add(false);
+          trie.get(state)[column] = trie.size() - 1;
+        }
+        state = trie.get(state)[column];
+      }
+      ends.set(state, true);
+    }
+
+    // breadth-first construction of the suffix links turning the trie into a complete automaton
+    int statesCount = trie.size();
+    transitions = new int[statesCount * width];
+    terminal = new boolean[statesCount];
+    int[] suffixLinks = new int[statesCount];
+    Queue<Integer> queue = new ArrayDeque<>();
+    for (int column = 0; column < width; column++) {
+      int next = trie.get(ROOT)[column];
+      if (next < 0) {
+        transitions[column] = ROOT;
+      } else {
+        transitions[column] = next;
+        suffixLinks[next] = ROOT;
+        queue.add(next);
+      }
+    }
+    terminal[ROOT] = ends.get(ROOT);
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      terminal[state] = ends.get(state) || terminal[suffixLinks[state]];
+      for (int column = 0; column < width; column++) {
+        int next = trie.get(state)[column];
+        int fallback = transitions[suffixLinks[state] * width + column];
+        if (next < 0) {
+          transitions[state * width + column] = fallback;
+        } else {
+          transitions[state * width + column] = next;
+          suffixLinks[next] = fallback;
+          queue.add(next);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    return indexOfMatchEnd(password) < 0;
+  }
+
+  /**
+   * Finds the end of the first forbidden substring in the text
+   *
+   * @param text text to search in
+   * @return index of the last character of the first found substring or -1 if none is found
+   */
+  int indexOfMatchEnd(CharSequence text) {
+    if (terminal[ROOT]) {
+      return -1;
+    }
+    int width = alphabet.length + 1;
+    int state = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      state = transitions[state * width + indexOf(fold(text.charAt(i)))];
+      if (terminal[state]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public long estimatedSize() {
+    return (long) transitions.length * Integer.BYTES + terminal.length + alphabet.length * 2L
+      + asciiIndex.length * Integer.BYTES;
+  }
+
+  int getStatesCount() {
+    return terminal.length;
+  }
+
+  private int indexOf(char character) {
+    if (character < ASCII_SIZE) {
+      int index = asciiIndex[character];
+      return index < 0 ? alphabet.length : index;
+    }
+    int index = Arrays.binarySearch(alphabet, character);
+    return index < 0 ? alphabet.length : index;
+  }
+
+  private String fold(String sequence) {
+    if (!ignoreCase) {
+      return sequence;
+    }
+    char[] characters = sequence.toCharArray();
+    for (int i = 0; i < characters.length; i++) {
+      characters[i] = fold(characters[i]);
+    }
+    return new String(characters);
+  }
+
+  private char fold(char character) {
+    return ignoreCase ? Character.toLowerCase(Character.toUpperCase(character)) : character;
+  }
+
+  private static int[] newState(int width) {
+    int[] state = new int[width];
+    Arrays.fill(state, -1);
+    return state;
+  }
+}
@@ -0,0 +1,28 @@
+package org.folio.services.validator.matcher;
+
+import org.folio.services.validator.breached.BreachedPasswords;
+
+/**
+ * Compiled form of a Breached rule: the password hash is looked up in the memory-mapped index,
+ * behind the Bloom filter if any. The index is shared, the matcher itself holds no data.
+ */
+final class BreachedPasswordMatcher implements RuleMatcher {
+
+  private static final long ESTIMATED_SIZE = 16;
+
+  private final BreachedPasswords breachedPasswords;
+
+  BreachedPasswordMatcher(BreachedPasswords breachedPasswords) {
+    this.breachedPasswords = breachedPasswords;
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    return !breachedPasswords.contains(password);
+  }
+
+  @Override
+  public long estimatedSize() {
+    return ESTIMATED_SIZE;
+  }
+}
@@ -0,0 +1,71 @@
+package org.folio.services.validator.matcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regular expression of a RegExp rule compiled once and matched
+ * with matchers reused by every thread the pattern is used on.
+ */
+public final class CompiledPattern implements RuleMatcher {
+
+  // Rough size of the compiled pattern node graph per character of the expression
+  private static final int PATTERN_BYTES_PER_CHAR = 64;
+  // Rough size of the pattern and matcher objects without the node graph and groups
+  private static final int PATTERN_BASE_BYTES = 256;
+  private static final int MATCHER_BASE_BYTES = 96;
+
+  private final String expression;
+  private final Pattern pattern;
+  private final int groupCount;
+  private final AtomicInteger matchersCount = new AtomicInteger();
+  private final ThreadLocal<Matcher> matcher;
+
+  CompiledPattern(String expression) {
+    this.expression = expression;
+    this.pattern = Pattern.compile(expression);
+    this.groupCount = pattern.matcher("").groupCount();
+    this.matcher = ThreadLocal.withInitial(() -> {
+      matchersCount.incrementAndGet();
+      return pattern.matcher("");
+    });
+  }
+
+  /**
+   * Checks whether the entire input matches the pattern
+   *
+   * @param input password to check
+   * @return true if the input matches the pattern
+   */
+  public boolean matches(CharSequence input) {
+    Matcher reusedMatcher = matcher.get();
+    // the matcher is reset afterwards to not keep a reference to the password
+    try {
+      return reusedMatcher.reset(input instanceof ScannedPassword ? input.toString() : input).matches();
+    } finally {
+      reusedMatcher.reset("");
+    }
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    return matches(password);
+  }
+
+  @Override
+  public boolean isLinear() {
+    return false;
+  }
+
+  @Override
+  public long estimatedSize() {
+    long patternSize = PATTERN_BASE_BYTES + (long) expression.length() * (PATTERN_BYTES_PER_CHAR + 2);
+    long matcherSize = MATCHER_BASE_BYTES + (groupCount + 1) * 4L * Integer.BYTES;
+    return patternSize + matchersCount.get() * matcherSize;
+  }
+
+  public Pattern getPattern() {
+    return pattern;
+  }
+}
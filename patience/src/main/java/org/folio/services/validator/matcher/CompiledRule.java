@@ -0,0 +1,164 @@
+package org.folio.services.validator.matcher;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.breached.ConfiguredBreachedPasswords;
+import org.folio.services.validator.jfr.ValidationEvents;
+import org.folio.services.validator.strength.PasswordStrengthEstimator;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rule compiled into its matcher, along with the rule version it was compiled from
+ */
+public final class CompiledRule {
+
+  public static final String USER_NAME_PLACEHOLDER = "<USER_NAME>";
+  public static final int DEFAULT_MIN_SCORE = 3;
+
+  private static final ValidationEvents VALIDATION_EVENTS = ValidationEvents.get();
+
+  private final Rule rule;
+  private final long version;
+  private final RuleMatcher matcher;
+  // number of matches of this rule version aborted by the step limit
+  private final AtomicInteger stepLimitExceededCount = new AtomicInteger();
+
+  private CompiledRule(Rule rule, long version, RuleMatcher matcher) {
+    this.rule = rule;
+    this.version = version;
+    this.matcher = matcher;
+  }
+
+  /**
+   * Compiles a local rule, i.e. RegExp, Sequence, Breached or Strength one
+   *
+   * @param rule    rule to compile
+   * @param version rule version
+   * @return compiled rule
+   * @throws IllegalArgumentException if the rule type cannot be checked locally
+   */
+  static CompiledRule compile(Rule rule, long version) {
+    if (Rule.Type.REG_EXP.equals(rule.getType())) {
+      return new CompiledRule(rule, version, compileRegExp(rule.getRuleId(), rule.getName(), rule.getExpression()));
+    } else if (Rule.Type.SEQUENCE.equals(rule.getType())) {
+      return new CompiledRule(rule, version, new AhoCorasickMatcher(rule.getSequences(),
+        Boolean.TRUE.equals(rule.getIgnoreCase()), Boolean.TRUE.equals(rule.getMatchReversed())));
+    } else if (Rule.Type.BREACHED.equals(rule.getType())) {
+      return new CompiledRule(rule, version, new BreachedPasswordMatcher(ConfiguredBreachedPasswords.get()));
+    } else if (Rule.Type.STRENGTH.equals(rule.getType())) {
+      int minScore = rule.getMinScore() == null ? DEFAULT_MIN_SCORE : rule.getMinScore();
+      return new CompiledRule(rule, version, new StrengthMatcher(PasswordStrengthEstimator.getDefault(), minScore));
+    }
+    throw new IllegalArgumentException("Rule " + rule.getRuleId() + " of type " + rule.getType() + " cannot be compiled");
+  }
+
+  /**
+   * Compiles expression of a RegExp rule.
+   * Unchanged default rules are checked by the single-pass scanner,
+   * the user name parameter is bound at match time rather than substituted into the expression,
+   * the common "must not contain user name" expression is replaced with a substring scan.
+   *
+   * @param ruleId     rule id
+   * @param name       rule name
+   * @param expression rule expression
+   * @return rule matcher
+   */
+  private static RuleMatcher compileRegExp(String ruleId, String name, String expression) {
+    DefaultRule defaultRule = DefaultRule.recognize(ruleId, name, expression);
+    if (defaultRule != null) {
+      return new FusedRuleMatcher(defaultRule);
+    } else if (UserNameSubstringMatcher.EXPRESSION.equals(expression)) {
+      return new UserNameSubstringMatcher();
+    } else if (expression.contains(USER_NAME_PLACEHOLDER)) {
+      return new UserNameTemplatePattern(expression);
+    }
+    return new CompiledPattern(expression);
+  }
+
+  /**
+   * Checks whether the password satisfies the rule
+   *
+   * @param password password to check
+   * @param userName name of the user the password belongs to
+   * @return true if the password satisfies the rule
+   */
+  public boolean matches(CharSequence password, String userName) {
+    return matcher.matches(password, userName);
+  }
+
+  /**
+   * Checks whether the password satisfies the rule,
+   * the match of a non-linear matcher is aborted after the given number of steps.
+   * The matches of RegExp rules are recorded as flight recorder events along with the steps spent.
+   *
+   * @param password  password to check
+   * @param userName  name of the user the password belongs to
+   * @param stepLimit maximum number of steps of the match, 0 - no limit
+   * @return true if the password satisfies the rule
+   * @throws MatchStepLimitExceededException if the match is aborted
+   */
+  public boolean matches(CharSequence password, String userName, long stepLimit) {
+    Object event = Rule.Type.REG_EXP.equals(rule.getType()) ? VALIDATION_EVENTS.beginRegExpMatch(rule.getRuleId()) : null;
+    if (stepLimit <= 0 || matcher.isLinear()) {
+      boolean matched = matcher.matches(password, userName);
+      VALIDATION_EVENTS.endRegExpMatch(event, -1, matched, false);
+      return matched;
+    }
+    StepLimitedCharSequence limitedPassword = new StepLimitedCharSequence(password.toString(), stepLimit);
+    try {
+      boolean matched = matcher.matches(limitedPassword, userName);
+      VALIDATION_EVENTS.endRegExpMatch(event, limitedPassword.getSteps(), matched, false);
+      return matched;
+    } catch (MatchStepLimitExceededException e) {
+      stepLimitExceededCount.incrementAndGet();
+      VALIDATION_EVENTS.endRegExpMatch(event, limitedPassword.getSteps(), false, true);
+      throw e;
+    }
+  }
+
+  public boolean requiresUserName() {
+    return matcher.requiresUserName();
+  }
+
+  /**
+   * Checks whether the rule was compiled from the given rule version
+   *
+   * @param rule    rule
+   * @param version rule version
+   * @return true if the compiled rule is up to date
+   */
+  boolean isCompiledFrom(Rule rule, long version) {
+    if (this.rule == rule) {
+      return true;
+    }
+    return this.version == version
+      && Objects.equals(this.rule.getType(), rule.getType())
+      && Objects.equals(this.rule.getName(), rule.getName())
+      && Objects.equals(this.rule.getExpression(), rule.getExpression())
+      && Objects.equals(this.rule.getSequences(), rule.getSequences())
+      && Objects.equals(this.rule.getIgnoreCase(), rule.getIgnoreCase())
+      && Objects.equals(this.rule.getMatchReversed(), rule.getMatchReversed())
+      && Objects.equals(this.rule.getMinScore(), rule.getMinScore());
+  }
+
+  public long estimatedSize() {
+    return matcher.estimatedSize();
+  }
+
+  public String getRuleId() {
+    return rule.getRuleId();
+  }
+
+  public int getStepLimitExceededCount() {
+    return stepLimitExceededCount.get();
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public RuleMatcher getMatcher() {
+    return matcher;
+  }
+}
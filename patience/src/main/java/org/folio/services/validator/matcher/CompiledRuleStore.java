@@ -0,0 +1,152 @@
+package org.folio.services.validator.matcher;
+
+import org.folio.rest.jaxrs.model.Rule;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe store of the compiled rules keyed by tenant, rule id and rule version.
+ * Rules are compiled when they are created or updated, or on the first use.
+ */
+public class CompiledRuleStore {
+
+  private final Map<String, Map<String, CompiledRule>> tenantRules = new ConcurrentHashMap<>();
+  // whether the rules of the tenant used the user name when they were last loaded, kept once the cached rules expire
+  private final Map<String, Boolean> tenantUserNameRequired = new ConcurrentHashMap<>();
+
+  /**
+   * Returns compiled local rule, compiles the rule if it has not been compiled yet
+   * or the rule has been changed since it was compiled
+   *
+   * @param tenantId tenant id
+   * @param rule     RegExp, Sequence or Breached rule
+   * @return compiled rule
+   */
+  public CompiledRule get(String tenantId, Rule rule) {
+    long version = getRuleVersion(rule);
+    if (rule.getRuleId() == null) {
+      return CompiledRule.compile(rule, version);
+    }
+    Map<String, CompiledRule> rules = tenantRules.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+    CompiledRule compiledRule = rules.get(rule.getRuleId());
+    if (compiledRule == null || !compiledRule.isCompiledFrom(rule, version)) {
+      compiledRule = rules.compute(rule.getRuleId(), (ruleId, existing) ->
+        existing != null && existing.isCompiledFrom(rule, version)
+          ? existing
+          : CompiledRule.compile(rule, version));
+    }
+    return compiledRule;
+  }
+
+  /**
+   * Compiles the created or updated rule ahead of its first use
+   *
+   * @param tenantId tenant id
+   * @param rule     RegExp, Sequence or Breached rule
+   */
+  public void compile(String tenantId, Rule rule) {
+    get(tenantId, rule);
+  }
+
+  /**
+   * Drops compiled rule
+   *
+   * @param tenantId tenant id
+   * @param ruleId   rule id
+   */
+  public void invalidate(String tenantId, String ruleId) {
+    Map<String, CompiledRule> rules = tenantRules.get(tenantId);
+    if (rules != null) {
+      rules.remove(ruleId);
+    }
+  }
+
+  /**
+   * Drops compiled rules that are not in the given rule ids, e.g. deleted or disabled ones
+   *
+   * @param tenantId tenant id
+   * @param ruleIds  ids of the rules to keep
+   */
+  public void retain(String tenantId, Collection<String> ruleIds) {
+    Map<String, CompiledRule> rules = tenantRules.get(tenantId);
+    if (rules != null) {
+      rules.keySet().retainAll(ruleIds);
+    }
+  }
+
+  /**
+   * Drops all compiled rules of the tenant
+   *
+   * @param tenantId tenant id
+   */
+  public void invalidate(String tenantId) {
+    tenantRules.remove(tenantId);
+  }
+
+  /**
+   * Records whether the loaded rules of the tenant use the user name
+   *
+   * @param tenantId         tenant id
+   * @param userNameRequired true if any local rule of the tenant uses the user name
+   */
+  public void setUserNameRequired(String tenantId, boolean userNameRequired) {
+    tenantUserNameRequired.put(tenantId, userNameRequired);
+  }
+
+  /**
+   * Tells whether the rules of the tenant are likely to use the user name before they are loaded
+   *
+   * @param tenantId tenant id
+   * @return false only if the rules of the tenant did not use the user name when they were last loaded
+   */
+  public boolean mayRequireUserName(String tenantId) {
+    return tenantUserNameRequired.getOrDefault(tenantId, true);
+  }
+
+  /**
+   * Returns number of compiled rules
+   *
+   * @return number of rules in the store
+   */
+  public int size() {
+    return tenantRules.values().stream().mapToInt(Map::size).sum();
+  }
+
+  /**
+   * Returns approximate number of bytes used by the compiled rules
+   *
+   * @return estimated memory usage in bytes
+   */
+  public long estimatedMemoryUsage() {
+    return tenantRules.values().stream()
+      .flatMap(rules -> rules.values().stream())
+      .mapToLong(CompiledRule::estimatedSize)
+      .sum();
+  }
+
+  /**
+   * Tells whether the rule is checked locally by a compiled matcher
+   *
+   * @param rule rule
+   * @return true for RegExp, Sequence and Breached rules
+   */
+  public static boolean isLocalRule(Rule rule) {
+    return Rule.Type.REG_EXP.equals(rule.getType()) || Rule.Type.SEQUENCE.equals(rule.getType())
+      || Rule.Type.BREACHED.equals(rule.getType()) || Rule.Type.STRENGTH.equals(rule.getType());
+  }
+
+  /**
+   * Returns version of the rule, that is the time of its last update
+   *
+   * @param rule rule
+   * @return rule version or 0 if the rule has no metadata
+   */
+  private long getRuleVersion(Rule rule) {
+    if (rule.getMetadata() == null || rule.getMetadata().getUpdatedDate() == null) {
+      return 0;
+    }
+    return rule.getMetadata().getUpdatedDate().getTime();
+  }
+}
@@ -0,0 +1,66 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Default RegExp rules shipped with the module (see defaultRules.json) that can be checked
+ * by {@link DefaultRulesScanner} instead of their regular expressions.
+ * A tenant rule is recognized by its id or name along with the unchanged expression.
+ */
+enum DefaultRule {
+
+  PASSWORD_LENGTH("5105b55a-b9a3-4f76-9402-a5243ea63c95", "password_length",
+    "^.{8,}$"),
+  ALPHABETICAL_LETTERS("dc653de8-f0df-48ab-9630-13aacfe8e8f4", "alphabetical_letters",
+    "(?=.*[a-z])(?=.*[A-Z]).+"),
+  NUMERIC_SYMBOL("3e3c53ae-73c2-4eba-9f09-f2c9a892c7a2", "numeric_symbol",
+    "(?=.*\\d).+"),
+  SPECIAL_CHARACTER("2e82f890-49e8-46fc-923d-644f33dc5c3f", "special_character",
+    "(?=.*[!\"#$%&'()*+,-./:;<=>?@\\[\\]^_`{|}~]).+"),
+  KEYBOARD_SEQUENCE("8d4a2124-8a54-4c49-84c8-36a8f7fc01a8", "keyboard_sequence",
+    "^(?:(?!qwe)(?!asd)(?!zxc)(?!qaz)(?!zaq)(?!xsw)(?!wsx)(?!edc)(?!cde)(?!rfv)(?!vfr)(?!tgb)(?!bgt)(?!yhn)"
+      + "(?!nhy)(?!ujm)(?!mju)(?!ik,)(?!,ki)(?!ol.)(?!.lo)(?!p;/)(?!/;p)(?!123).)+$"),
+  REPEATING_CHARACTERS("98b961b4-16b8-4e62-a359-abf3805e16b0", "repeating_characters",
+    "^(?:(.)(?!\\1))*$"),
+  NO_WHITE_SPACE_CHARACTER("51e201ba-95d3-44e5-b4ec-f0059f11afcb", "no_white_space_character",
+    "[^\\s]+");
+
+  private final String ruleId;
+  private final String name;
+  private final String expression;
+
+  DefaultRule(String ruleId, String name, String expression) {
+    this.ruleId = ruleId;
+    this.name = name;
+    this.expression = expression;
+  }
+
+  /**
+   * Bit of the rule in the violations returned by {@link DefaultRulesScanner#scan(CharSequence)}
+   *
+   * @return violation bit
+   */
+  int bit() {
+    return 1 << ordinal();
+  }
+
+  /**
+   * Finds the default rule the given rule is based on
+   *
+   * @param ruleId     rule id
+   * @param name       rule name
+   * @param expression rule expression
+   * @return default rule or null if the rule is not a default one or its expression has been changed
+   */
+  static DefaultRule recognize(String ruleId, String name, String expression) {
+    for (DefaultRule defaultRule : values()) {
+      if ((defaultRule.ruleId.equals(ruleId) || defaultRule.name.equals(name))
+        && defaultRule.expression.equals(expression)) {
+        return defaultRule;
+      }
+    }
+    return null;
+  }
+
+  String getExpression() {
+    return expression;
+  }
+}
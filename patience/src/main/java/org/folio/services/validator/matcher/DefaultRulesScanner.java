@@ -0,0 +1,137 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Checks all the default rules in a single allocation-free pass over the password characters.
+ * The checks follow the semantics of the default expressions exactly:
+ * the dot matches any code point except line terminators, <code>\s</code>, <code>\d</code>
+ * and the letter classes are ASCII only.
+ */
+public final class DefaultRulesScanner {
+
+  private static final int MIN_LENGTH = 8;
+
+  // Forbidden keyboard sequences of the keyboard_sequence rule, except "ol." and ".lo" checked separately
+  private static final String[] KEYBOARD_SEQUENCES = {
+    "qwe", "asd", "zxc", "qaz", "zaq", "xsw", "wsx", "edc", "cde", "rfv", "vfr", "tgb",
+    "bgt", "yhn", "nhy", "ujm", "mju", "ik,", ",ki", "p;/", "/;p", "123"
+  };
+
+  private DefaultRulesScanner() {
+  }
+
+  /**
+   * Scans the password once
+   *
+   * @param password password to check
+   * @return bit set of the violated default rules, see {@link DefaultRule#bit()}
+   */
+  public static int scan(CharSequence password) {
+    int length = password.length();
+    int codePoints = 0;
+    boolean hasLineTerminator = false;
+    boolean hasWhiteSpace = false;
+    boolean hasLowerCase = false;
+    boolean hasUpperCase = false;
+    boolean hasDigit = false;
+    boolean hasSpecialCharacter = false;
+    boolean hasRepeatingCharacters = false;
+    boolean hasKeyboardSequence = false;
+    int previousCodePoint = -1;
+
+    int i = 0;
+    while (i < length) {
+      int codePoint = codePointAt(password, i, length);
+      codePoints++;
+      if (UserNameSubstringMatcher.isLineTerminator(codePoint)) {
+        hasLineTerminator = true;
+      }
+      if (isWhiteSpace(codePoint)) {
+        hasWhiteSpace = true;
+      }
+      if (codePoint >= 'a' && codePoint <= 'z') {
+        hasLowerCase = true;
+      } else if (codePoint >= 'A' && codePoint <= 'Z') {
+        hasUpperCase = true;
+      } else if (codePoint >= '0' && codePoint <= '9') {
+        hasDigit = true;
+      } else if (isSpecialCharacter(codePoint)) {
+        hasSpecialCharacter = true;
+      }
+      if (codePoint == previousCodePoint) {
+        hasRepeatingCharacters = true;
+      }
+      if (!hasKeyboardSequence && isKeyboardSequenceAt(password, i, length)) {
+        hasKeyboardSequence = true;
+      }
+      previousCodePoint = codePoint;
+      i += Character.charCount(codePoint);
+    }
+
+    int violations = 0;
+    boolean isNotEmptyLine = length > 0 && !hasLineTerminator;
+    if (!isNotEmptyLine || codePoints < MIN_LENGTH) {
+      violations |= DefaultRule.PASSWORD_LENGTH.bit();
+    }
+    if (!isNotEmptyLine || !hasLowerCase || !hasUpperCase) {
+      violations |= DefaultRule.ALPHABETICAL_LETTERS.bit();
+    }
+    if (!isNotEmptyLine || !hasDigit) {
+      violations |= DefaultRule.NUMERIC_SYMBOL.bit();
+    }
+    if (!isNotEmptyLine || !hasSpecialCharacter) {
+      violations |= DefaultRule.SPECIAL_CHARACTER.bit();
+    }
+    if (!isNotEmptyLine || hasKeyboardSequence) {
+      violations |= DefaultRule.KEYBOARD_SEQUENCE.bit();
+    }
+    if (hasLineTerminator || hasRepeatingCharacters) {
+      violations |= DefaultRule.REPEATING_CHARACTERS.bit();
+    }
+    if (length == 0 || hasWhiteSpace) {
+      violations |= DefaultRule.NO_WHITE_SPACE_CHARACTER.bit();
+    }
+    return violations;
+  }
+
+  private static int codePointAt(CharSequence password, int index, int length) {
+    char high = password.charAt(index);
+    if (Character.isHighSurrogate(high) && index + 1 < length) {
+      char low = password.charAt(index + 1);
+      if (Character.isLowSurrogate(low)) {
+        return Character.toCodePoint(high, low);
+      }
+    }
+    return high;
+  }
+
+  private static boolean isWhiteSpace(int ch) {
+    return ch == ' ' || ch == '\t' || ch == '\n' || ch == 0x0B || ch == '\f' || ch == '\r';
+  }
+
+  private static boolean isSpecialCharacter(int ch) {
+    // ASCII punctuation except the backslash
+    return (ch >= '!' && ch <= '/') || (ch >= ':' && ch <= '@')
+      || ch == '[' || (ch >= ']' && ch <= '`') || (ch >= '{' && ch <= '~');
+  }
+
+  private static boolean isKeyboardSequenceAt(CharSequence password, int index, int length) {
+    // "ol" followed by any character and "lo" preceded by any character
+    if (index + 1 < length) {
+      char first = password.charAt(index);
+      char second = password.charAt(index + 1);
+      if ((first == 'o' && second == 'l' && index + 2 < length) || (first == 'l' && second == 'o' && index > 0)) {
+        return true;
+      }
+    }
+    if (index + 2 < length) {
+      for (String sequence : KEYBOARD_SEQUENCES) {
+        if (password.charAt(index) == sequence.charAt(0)
+          && password.charAt(index + 1) == sequence.charAt(1)
+          && password.charAt(index + 2) == sequence.charAt(2)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,32 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Default rule checked by the single-pass {@link DefaultRulesScanner} instead of its regular expression
+ */
+final class FusedRuleMatcher implements RuleMatcher {
+
+  private static final int SIZE_BYTES = 16;
+
+  private final DefaultRule defaultRule;
+
+  FusedRuleMatcher(DefaultRule defaultRule) {
+    this.defaultRule = defaultRule;
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    int violations = password instanceof ScannedPassword
+      ? ((ScannedPassword) password).getDefaultRuleViolations()
+      : DefaultRulesScanner.scan(password);
+    return (violations & defaultRule.bit()) == 0;
+  }
+
+  @Override
+  public long estimatedSize() {
+    return SIZE_BYTES;
+  }
+
+  DefaultRule getDefaultRule() {
+    return defaultRule;
+  }
+}
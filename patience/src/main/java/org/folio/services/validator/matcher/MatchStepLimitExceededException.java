@@ -0,0 +1,19 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Thrown when a regular expression does not finish matching a password within the step limit,
+ * e.g. because of catastrophic backtracking of nested quantifiers
+ */
+public class MatchStepLimitExceededException extends RuntimeException {
+
+  private final long stepLimit;
+
+  public MatchStepLimitExceededException(long stepLimit) {
+    super("Match exceeded the limit of " + stepLimit + " steps");
+    this.stepLimit = stepLimit;
+  }
+
+  public long getStepLimit() {
+    return stepLimit;
+  }
+}
@@ -0,0 +1,42 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Compiled form of a rule that checks a password
+ */
+public interface RuleMatcher {
+
+  /**
+   * Checks whether the password satisfies the rule
+   *
+   * @param password password to check
+   * @param userName name of the user the password belongs to, may be null if the matcher does not require it
+   * @return true if the password satisfies the rule
+   */
+  boolean matches(CharSequence password, String userName);
+
+  /**
+   * Tells whether the user name has to be resolved before matching
+   *
+   * @return true if {@link #matches(CharSequence, String)} uses the user name
+   */
+  default boolean requiresUserName() {
+    return false;
+  }
+
+  /**
+   * Tells whether the matcher checks a password in time linear to its length.
+   * Non-linear matchers, i.e. arbitrary regular expressions, are run with a step limit.
+   *
+   * @return true if the matching time is bounded by the password length
+   */
+  default boolean isLinear() {
+    return true;
+  }
+
+  /**
+   * Returns approximate number of bytes used by the compiled rule
+   *
+   * @return estimated memory usage in bytes
+   */
+  long estimatedSize();
+}
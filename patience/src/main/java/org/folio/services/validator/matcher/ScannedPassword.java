@@ -0,0 +1,47 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Password being validated along with the result of its single default rules scan,
+ * so the scan is done once for all the default rules of a rule set.
+ */
+public final class ScannedPassword implements CharSequence {
+
+  private final String password;
+  private int defaultRuleViolations = -1;
+
+  public ScannedPassword(String password) {
+    this.password = password;
+  }
+
+  /**
+   * Returns default rules violated by the password, scans the password on the first call
+   *
+   * @return bit set of the violated default rules
+   */
+  int getDefaultRuleViolations() {
+    if (defaultRuleViolations < 0) {
+      defaultRuleViolations = DefaultRulesScanner.scan(password);
+    }
+    return defaultRuleViolations;
+  }
+
+  @Override
+  public int length() {
+    return password.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return password.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return password.subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return password;
+  }
+}
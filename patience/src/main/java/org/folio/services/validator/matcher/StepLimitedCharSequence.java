@@ -0,0 +1,65 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Password wrapper that counts characters read by a regular expression matcher
+ * and aborts the match once the step limit is spent. java.util.regex reads the input
+ * by {@link #charAt(int)} on every step, including backtracking, so the count bounds
+ * the time a match can take.
+ */
+final class StepLimitedCharSequence implements CharSequence {
+
+  private final CharSequence text;
+  private final StepBudget budget;
+
+  StepLimitedCharSequence(CharSequence text, long stepLimit) {
+    this(text, new StepBudget(stepLimit));
+  }
+
+  private StepLimitedCharSequence(CharSequence text, StepBudget budget) {
+    this.text = text;
+    this.budget = budget;
+  }
+
+  @Override
+  public int length() {
+    return text.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (--budget.remaining < 0) {
+      throw new MatchStepLimitExceededException(budget.limit);
+    }
+    return text.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    // subsequences spend the budget of the whole match
+    return new StepLimitedCharSequence(text.subSequence(start, end), budget);
+  }
+
+  /**
+   * Returns the number of characters read by the matcher so far, by this sequence and its subsequences
+   *
+   * @return number of steps spent
+   */
+  long getSteps() {
+    return budget.limit - Math.max(budget.remaining, 0);
+  }
+
+  @Override
+  public String toString() {
+    return text.toString();
+  }
+
+  private static final class StepBudget {
+    private final long limit;
+    private long remaining;
+
+    private StepBudget(long limit) {
+      this.limit = limit;
+      this.remaining = limit;
+    }
+  }
+}
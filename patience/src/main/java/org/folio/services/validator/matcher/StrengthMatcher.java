@@ -0,0 +1,35 @@
+package org.folio.services.validator.matcher;
+
+import org.folio.services.validator.strength.PasswordStrengthEstimator;
+
+/**
+ * Compiled form of a Strength rule: the password has to score at least the minimum score.
+ * The frequency lists are shared, the matcher itself holds no data.
+ */
+final class StrengthMatcher implements RuleMatcher {
+
+  private static final long ESTIMATED_SIZE = 24;
+
+  private final PasswordStrengthEstimator estimator;
+  private final int minScore;
+
+  StrengthMatcher(PasswordStrengthEstimator estimator, int minScore) {
+    this.estimator = estimator;
+    this.minScore = minScore;
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    return estimator.score(password, userName) >= minScore;
+  }
+
+  @Override
+  public boolean requiresUserName() {
+    return true;
+  }
+
+  @Override
+  public long estimatedSize() {
+    return ESTIMATED_SIZE;
+  }
+}
@@ -0,0 +1,82 @@
+package org.folio.services.validator.matcher;
+
+/**
+ * Compiled form of the "password must not contain the user name" rule, i.e. <code>^(?:(?!&lt;USER_NAME&gt;).)+$</code>.
+ * Instead of the regular expression that runs a lookahead on every position,
+ * the password is scanned once for the case-insensitive occurrence of the user name.
+ */
+final class UserNameSubstringMatcher implements RuleMatcher {
+
+  static final String EXPRESSION = "^(?:(?!" + CompiledRule.USER_NAME_PLACEHOLDER + ").)+$";
+
+  private static final int SIZE_BYTES = 16;
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    if (password.length() == 0) {
+      return false;
+    }
+    for (int i = 0; i < password.length(); i++) {
+      if (isLineTerminator(password.charAt(i))) {
+        // the dot of the expression does not match line terminators
+        return false;
+      }
+    }
+    return indexOfIgnoreCase(password, userName) < 0;
+  }
+
+  @Override
+  public boolean requiresUserName() {
+    return true;
+  }
+
+  @Override
+  public long estimatedSize() {
+    return SIZE_BYTES;
+  }
+
+  /**
+   * Finds the first case-insensitive occurrence of the pattern in the text, Knuth-Morris-Pratt algorithm
+   *
+   * @param text    text to search in
+   * @param pattern string to search for
+   * @return index of the first occurrence or -1 if the text does not contain the pattern
+   */
+  static int indexOfIgnoreCase(CharSequence text, String pattern) {
+    int patternLength = pattern.length();
+    if (patternLength == 0) {
+      return 0;
+    }
+    int[] failure = new int[patternLength];
+    for (int i = 1, k = 0; i < patternLength; i++) {
+      while (k > 0 && !equalsIgnoreCase(pattern.charAt(i), pattern.charAt(k))) {
+        k = failure[k - 1];
+      }
+      if (equalsIgnoreCase(pattern.charAt(i), pattern.charAt(k))) {
+        k++;
+      }
+      failure[i] = k;
+    }
+    for (int i = 0, k = 0; i < text.length(); i++) {
+      while (k > 0 && !equalsIgnoreCase(text.charAt(i), pattern.charAt(k))) {
+        k = failure[k - 1];
+      }
+      if (equalsIgnoreCase(text.charAt(i), pattern.charAt(k))) {
+        k++;
+      }
+      if (k == patternLength) {
+        return i - patternLength + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean equalsIgnoreCase(char first, char second) {
+    return first == second
+      || Character.toLowerCase(Character.toUpperCase(first)) == Character.toLowerCase(Character.toUpperCase(second));
+  }
+
+  static boolean isLineTerminator(int ch) {
+    return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+  }
+}
@@ -0,0 +1,60 @@
+package org.folio.services.validator.matcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * RegExp rule with the user name parameter in an arbitrary place of the expression.
+ * The user name is bound as a quoted literal, so regular expression metacharacters
+ * in user names are matched as is; patterns of the recently validated users are kept.
+ */
+final class UserNameTemplatePattern implements RuleMatcher {
+
+  private static final int MAX_BOUND_PATTERNS = 64;
+
+  private final String template;
+  private final Map<String, CompiledPattern> boundPatterns =
+    new LinkedHashMap<String, CompiledPattern>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CompiledPattern> eldest) {
+        return size() > MAX_BOUND_PATTERNS;
+      }
+    };
+
+  UserNameTemplatePattern(String template) {
+    this.template = template;
+    // fail fast on the syntax errors of the template itself
+    Pattern.compile(bind(""));
+  }
+
+  @Override
+  public boolean matches(CharSequence password, String userName) {
+    CompiledPattern pattern;
+    synchronized (boundPatterns) {
+      pattern = boundPatterns.computeIfAbsent(userName, name -> new CompiledPattern(bind(name)));
+    }
+    return pattern.matches(password);
+  }
+
+  @Override
+  public boolean requiresUserName() {
+    return true;
+  }
+
+  @Override
+  public boolean isLinear() {
+    return false;
+  }
+
+  @Override
+  public long estimatedSize() {
+    synchronized (boundPatterns) {
+      return template.length() * 2L + boundPatterns.values().stream().mapToLong(CompiledPattern::estimatedSize).sum();
+    }
+  }
+
+  private String bind(String userName) {
+    return template.replace(CompiledRule.USER_NAME_PLACEHOLDER, Pattern.quote(userName));
+  }
+}
@@ -0,0 +1,70 @@
+package org.folio.services.validator.metrics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed buckets from 1 microsecond to 10 seconds,
+ * recorded by a binary search of the bucket and an increment of its counter
+ */
+public class LatencyHistogram {
+
+  // upper bounds of the buckets in nanoseconds, the last bucket takes the longer durations
+  private static final long[] BUCKET_BOUNDS = {
+    1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+    1_000_000, 2_500_000, 5_000_000, 10_000_000, 25_000_000, 50_000_000, 100_000_000, 250_000_000, 500_000_000,
+    1_000_000_000, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+  // upper bounds of the buckets in seconds as Prometheus "le" labels
+  private static final String[] BUCKET_LABELS = new String[BUCKET_BOUNDS.length + 1];
+
+  static {
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKET_BOUNDS[i], 9).stripTrailingZeros().toPlainString();
+    }
+    BUCKET_LABELS[BUCKET_BOUNDS.length] = "+Inf";
+  }
+
+  private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+  private final LongAdder totalNanos = new LongAdder();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a duration
+   *
+   * @param nanos duration in nanoseconds
+   */
+  public void record(long nanos) {
+    int index = Arrays.binarySearch(BUCKET_BOUNDS, nanos);
+    buckets[index < 0 ? -index - 1 : index].increment();
+    totalNanos.add(nanos);
+  }
+
+  /**
+   * Returns the number of durations not longer than each bucket bound, the last one is the number of all durations
+   *
+   * @return cumulative counts of the buckets
+   */
+  public long[] getCumulativeCounts() {
+    long[] counts = new long[buckets.length];
+    long count = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      count += buckets[i].sum();
+      counts[i] = count;
+    }
+    return counts;
+  }
+
+  public double getTotalSeconds() {
+    return totalNanos.sum() / 1e9;
+  }
+
+  static String getBucketLabel(int bucket) {
+    return BUCKET_LABELS[bucket];
+  }
+}
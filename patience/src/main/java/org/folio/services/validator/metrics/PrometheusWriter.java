@@ -0,0 +1,150 @@
+package org.folio.services.validator.metrics;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes metrics in the Prometheus text exposition format.
+ * Samples are grouped by metric family whatever order they are added in, as the format requires.
+ */
+public class PrometheusWriter {
+
+  private final Map<String, MetricFamily> families = new LinkedHashMap<>();
+
+  /**
+   * Adds a gauge sample
+   *
+   * @param name   metric name
+   * @param help   description of the metric, written once per family
+   * @param value  value
+   * @param labels label names and values one after another
+   * @return this writer
+   */
+  public PrometheusWriter gauge(String name, String help, Number value, String... labels) {
+    family(name, "gauge", help).samples.add(name + formatLabels(labels, null) + " " + value);
+    return this;
+  }
+
+  /**
+   * Adds the buckets, the sum and the count of a histogram, the durations are in seconds
+   *
+   * @param name      metric name
+   * @param help      description of the metric, written once per family
+   * @param histogram histogram
+   * @param labels    label names and values one after another
+   * @return this writer
+   */
+  public PrometheusWriter histogram(String name, String help, LatencyHistogram histogram, String... labels) {
+    List<String> samples = family(name, "histogram", help).samples;
+    long[] counts = histogram.getCumulativeCounts();
+    for (int i = 0; i < counts.length; i++) {
+      samples.add(name + "_bucket" + formatLabels(labels, LatencyHistogram.getBucketLabel(i)) + " " + counts[i]);
+    }
+    samples.add(name + "_sum" + formatLabels(labels, null) + " " + histogram.getTotalSeconds());
+    samples.add(name + "_count" + formatLabels(labels, null) + " " + counts[counts.length - 1]);
+    return this;
+  }
+
+  /**
+   * Adds the entries of a statistics object as gauges named by the prefix and the entry key,
+   * e.g. "maxSize" of the prefix "validator_cache" is written as "validator_cache_max_size".
+   * Text entries are written as a gauge of 1 labeled with the text, nested objects are left out.
+   *
+   * @param prefix     metric name prefix
+   * @param statistics statistics object
+   * @param labels     label names and values one after another
+   * @return this writer
+   */
+  public PrometheusWriter statistics(String prefix, JsonObject statistics, String... labels) {
+    statistics.forEach(entry -> {
+      String key = toSnakeCase(entry.getKey());
+      String name = prefix + "_" + key;
+      if (entry.getValue() instanceof Number) {
+        gauge(name, null, (Number) entry.getValue(), labels);
+      } else if (entry.getValue() instanceof String) {
+        String[] textLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, textLabels, 0, labels.length);
+        textLabels[labels.length] = key;
+        textLabels[labels.length + 1] = (String) entry.getValue();
+        gauge(name, null, 1, textLabels);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    families.forEach((name, family) -> {
+      if (family.help != null) {
+        text.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+      }
+      text.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+      family.samples.forEach(sample -> text.append(sample).append('\n'));
+    });
+    return text.toString();
+  }
+
+  private MetricFamily family(String name, String type, String help) {
+    return families.computeIfAbsent(name, familyName -> new MetricFamily(type, help));
+  }
+
+  private static String formatLabels(String[] labels, String bucketLabel) {
+    if (labels.length == 0 && bucketLabel == null) {
+      return "";
+    }
+    StringBuilder text = new StringBuilder("{");
+    for (int i = 0; i + 1 < labels.length; i += 2) {
+      appendLabel(text, labels[i], labels[i + 1]);
+    }
+    if (bucketLabel != null) {
+      appendLabel(text, "le", bucketLabel);
+    }
+    text.setCharAt(text.length() - 1, '}');
+    return text.toString();
+  }
+
+  private static void appendLabel(StringBuilder text, String name, String value) {
+    text.append(name).append("=\"");
+    String labelValue = String.valueOf(value);
+    for (int i = 0; i < labelValue.length(); i++) {
+      char c = labelValue.charAt(i);
+      if (c == '\\' || c == '"') {
+        text.append('\\').append(c);
+      } else if (c == '\n') {
+        text.append("\\n");
+      } else {
+        text.append(c);
+      }
+    }
+    text.append("\",");
+  }
+
+  private static String toSnakeCase(String key) {
+    StringBuilder name = new StringBuilder(key.length() + 4);
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if (Character.isUpperCase(c)) {
+        name.append('_').append(Character.toLowerCase(c));
+      } else {
+        name.append(c);
+      }
+    }
+    return name.toString();
+  }
+
+  private static class MetricFamily {
+    private final String type;
+    private final String help;
+    private final List<String> samples = new ArrayList<>();
+
+    private MetricFamily(String type, String help) {
+      this.type = type;
+      this.help = help;
+    }
+  }
+}
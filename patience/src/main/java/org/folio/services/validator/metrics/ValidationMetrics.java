@@ -0,0 +1,133 @@
+package org.folio.services.validator.metrics;
+
+import org.folio.services.validator.engine.PipelineTimings;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Latency histograms of the password validation: of each pipeline stage and each rule by tenant,
+ * and of the calls of the validation engine made by the REST handlers
+ */
+public class ValidationMetrics {
+
+  // Whether the durations are recorded in the histograms
+  private final boolean enabled = Boolean
+    .parseBoolean(MODULE_SPECIFIC_ARGS.getOrDefault("metrics.enabled", "true"));
+  // One in how many validations has its local rules timed one by one
+  private final int ruleSampling = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("metrics.rule.sampling", "16"));
+
+  private final Map<String, Map<PipelineTimings.Stage, LatencyHistogram>> stageHistograms = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, LatencyHistogram>> ruleHistograms = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> serviceCallHistograms = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Tells whether the local rules of the validation about to start are timed one by one,
+   * as timing every rule would noticeably slow down a validation taking a few microseconds
+   *
+   * @return true if the rule durations are recorded
+   */
+  public boolean isRuleSampled() {
+    return enabled && (ruleSampling <= 1 || ThreadLocalRandom.current().nextInt(ruleSampling) == 0);
+  }
+
+  /**
+   * Records the duration of a pipeline stage
+   *
+   * @param tenantId tenant id
+   * @param stage    pipeline stage
+   * @param nanos    duration in nanoseconds
+   */
+  public void recordStage(String tenantId, PipelineTimings.Stage stage, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    Map<PipelineTimings.Stage, LatencyHistogram> histograms = stageHistograms.get(String.valueOf(tenantId));
+    if (histograms == null) {
+      histograms = stageHistograms.computeIfAbsent(String.valueOf(tenantId), this::createStageHistograms);
+    }
+    histograms.get(stage).record(nanos);
+  }
+
+  /**
+   * Records the duration of a rule check
+   *
+   * @param tenantId tenant id
+   * @param ruleId   rule id
+   * @param nanos    duration in nanoseconds
+   */
+  public void recordRule(String tenantId, String ruleId, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    ruleHistograms.computeIfAbsent(String.valueOf(tenantId), tenant -> new ConcurrentHashMap<>())
+      .computeIfAbsent(String.valueOf(ruleId), rule -> new LatencyHistogram())
+      .record(nanos);
+  }
+
+  /**
+   * Records the duration of a call of the validation engine, through the event bus in the event-bus service mode
+   *
+   * @param operation engine method
+   * @param nanos     duration in nanoseconds
+   */
+  public void recordServiceCall(String operation, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    serviceCallHistograms.computeIfAbsent(operation, name -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * Drops the histograms of a changed rule, or of all the rules of the tenant if the rule is unknown
+   *
+   * @param tenantId tenant id
+   * @param ruleId   id of the changed rule, may be null
+   */
+  public void invalidate(String tenantId, String ruleId) {
+    if (ruleId == null) {
+      ruleHistograms.remove(String.valueOf(tenantId));
+      return;
+    }
+    Map<String, LatencyHistogram> histograms = ruleHistograms.get(String.valueOf(tenantId));
+    if (histograms != null) {
+      histograms.remove(ruleId);
+    }
+  }
+
+  /**
+   * Writes the histograms
+   *
+   * @param writer      Prometheus writer
+   * @param serviceMode service mode the engine is called in
+   */
+  public void writeTo(PrometheusWriter writer, String serviceMode) {
+    stageHistograms.forEach((tenantId, histograms) -> histograms.forEach((stage, histogram) ->
+      writer.histogram("password_validator_stage_duration_seconds", "Duration of the validation pipeline stages",
+        histogram, "tenant", tenantId, "stage", stage.getKey())));
+    ruleHistograms.forEach((tenantId, histograms) -> histograms.forEach((ruleId, histogram) ->
+      writer.histogram("password_validator_rule_duration_seconds",
+        "Duration of the rule checks, sampled for the local rules", histogram, "tenant", tenantId, "rule_id", ruleId)));
+    serviceCallHistograms.forEach((operation, histogram) ->
+      writer.histogram("password_validator_engine_call_duration_seconds",
+        "Duration of the validation engine calls made by the REST handlers", histogram,
+        "operation", operation, "mode", serviceMode));
+  }
+
+  private Map<PipelineTimings.Stage, LatencyHistogram> createStageHistograms(String tenantId) {
+    Map<PipelineTimings.Stage, LatencyHistogram> histograms = new EnumMap<>(PipelineTimings.Stage.class);
+    for (PipelineTimings.Stage stage : PipelineTimings.Stage.values()) {
+      histograms.put(stage, new LatencyHistogram());
+    }
+    return histograms;
+  }
+}
@@ -0,0 +1,60 @@
+package org.folio.services.validator.registry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.codec.RuleCollectionCodec;
+import org.folio.services.validator.util.ValidatorHelper;
+
+/**
+ * Loads the enabled rules of a tenant from the registry via the event bus.
+ * The rule collection is sent with {@link RuleCollectionCodec}: by reference within the process,
+ * in a compact binary layout across the cluster.
+ */
+public class EventBusTenantRulesLoader implements TenantRulesLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(EventBusTenantRulesLoader.class);
+
+  private final Vertx vertx;
+
+  public EventBusTenantRulesLoader(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  @Override
+  public void getEnabledTenantRules(String tenantId, Handler<AsyncResult<RuleCollection>> resultHandler) {
+    vertx.eventBus().<RuleCollection>send(ValidatorHelper.ENABLED_RULES_ADDRESS, tenantId, reply -> {
+      if (reply.succeeded()) {
+        resultHandler.handle(Future.succeededFuture(reply.result().body()));
+      } else {
+        resultHandler.handle(Future.failedFuture(reply.cause()));
+      }
+    });
+  }
+
+  /**
+   * Registers the rule collection codec and the consumer answering the enabled rules requests
+   *
+   * @param vertx             vertx instance
+   * @param tenantRulesLoader loader of the rules from the database
+   */
+  public static void bind(Vertx vertx, TenantRulesLoader tenantRulesLoader) {
+    try {
+      vertx.eventBus().registerDefaultCodec(RuleCollection.class, new RuleCollectionCodec());
+    } catch (IllegalStateException e) {
+      logger.debug("Rule collection codec is registered already");
+    }
+    vertx.eventBus().<String>consumer(ValidatorHelper.ENABLED_RULES_ADDRESS, message ->
+      tenantRulesLoader.getEnabledTenantRules(message.body(), rulesResult -> {
+        if (rulesResult.succeeded()) {
+          message.reply(rulesResult.result());
+        } else {
+          message.fail(-1, rulesResult.cause().getMessage());
+        }
+      }));
+  }
+}
@@ -0,0 +1,203 @@
+package org.folio.services.validator.registry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.folio.services.validator.util.ValidatorHelper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Listens to the notifications of the rules changed in the database, sent by the trigger
+ * of the validation_rules table on any instance of the module, and republishes them
+ * to {@link ValidatorHelper#RULES_CHANGED_ADDRESS}, so that the validation engine of this instance
+ * drops the cached rules of the tenant as well. The notifications are awaited on a dedicated connection,
+ * the database is not queried in between.
+ */
+public class RulesChangedListener {
+
+  public static final String CHANNEL = "password_validator_rules_changed";
+
+  private static final Logger logger = LoggerFactory.getLogger(RulesChangedListener.class);
+  private static final String WORKER_POOL_NAME = "rules-changed-listener";
+
+  // Time in milliseconds a worker thread waits for the notifications before the wait is resumed
+  private int waitTimeout = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("rules.listen.timeout", "10000"));
+  // Time in milliseconds after which the listener reconnects once the connection has failed
+  private long retryDelay = Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("rules.listen.retry.delay", "5000"));
+
+  private final Vertx vertx;
+  private final JsonObject connectionConfig;
+  private final WorkerExecutor workerExecutor;
+  // the verticle instances share the listener, the first of them starts it
+  private final AtomicBoolean started = new AtomicBoolean();
+  // opened by the worker thread, closed by either the worker thread or the closing one
+  private volatile Connection connection;
+  // accessed by the worker thread only, the waits are not run concurrently
+  private boolean notificationsMissed;
+  private volatile boolean closed;
+
+  /**
+   * @param vertx            vertx
+   * @param connectionConfig database connection config of the module: host, port, database, username and password
+   */
+  public RulesChangedListener(Vertx vertx, JsonObject connectionConfig) {
+    this.vertx = vertx;
+    this.connectionConfig = connectionConfig;
+    // the wait blocks the worker thread up to the wait timeout by design
+    this.workerExecutor = vertx.createSharedWorkerExecutor(WORKER_POOL_NAME, 1,
+      TimeUnit.MILLISECONDS.toNanos(waitTimeout) * 2);
+  }
+
+  /**
+   * Tells whether the instances of the module are to listen to the changed rules
+   *
+   * @return true unless the module is started with rules.listen.enabled=false
+   */
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(MODULE_SPECIFIC_ARGS.getOrDefault("rules.listen.enabled", "true"));
+  }
+
+  /**
+   * Starts listening, connecting to the database on a worker thread, unless the listener is already started
+   */
+  public void start() {
+    if (started.compareAndSet(false, true)) {
+      listen();
+    }
+  }
+
+  /**
+   * Stops listening and closes the connection, which ends the current wait for the notifications
+   *
+   * @param handler handler called when the connection is closed
+   */
+  public void close(Handler<AsyncResult<Void>> handler) {
+    if (closed) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    closed = true;
+    // not on the worker executor, its thread is blocked in the wait until the connection is closed
+    vertx.<Void>executeBlocking(future -> {
+      closeConnection();
+      future.complete();
+    }, false, result -> {
+      workerExecutor.close();
+      handler.handle(result);
+    });
+  }
+
+  private void listen() {
+    workerExecutor.<List<JsonObject>>executeBlocking(future -> {
+      try {
+        future.complete(awaitNotifications());
+      } catch (SQLException e) {
+        closeConnection();
+        notificationsMissed = true;
+        future.fail(e);
+      }
+    }, false, result -> {
+      if (closed) {
+        return;
+      }
+      if (result.succeeded()) {
+        result.result().forEach(message -> vertx.eventBus().publish(ValidatorHelper.RULES_CHANGED_ADDRESS, message));
+        listen();
+      } else {
+        logger.warn("Changed rules are not listened to, reconnecting in " + retryDelay + " ms: "
+          + result.cause().getMessage());
+        vertx.setTimer(retryDelay, timerId -> {
+          if (!closed) {
+            listen();
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Waits for the notifications of the changed rules, connecting to the database first if not connected.
+   * Once reconnected after a failure, the notifications sent while the listener was disconnected are lost,
+   * so a message without a tenant, i.e. of all the tenants, is returned.
+   *
+   * @return messages of the changed rules
+   * @throws SQLException if the connection fails
+   */
+  private List<JsonObject> awaitNotifications() throws SQLException {
+    List<JsonObject> messages = new ArrayList<>();
+    Connection current = connection;
+    if (current == null) {
+      current = connect();
+      connection = current;
+      if (closed) {
+        // closed while connecting, the closing thread may not have seen the connection
+        closeConnection();
+        return messages;
+      }
+      if (notificationsMissed) {
+        logger.info("Reconnected to listen to the changed rules, the cached rules of all the tenants are dropped");
+        messages.add(new JsonObject());
+        notificationsMissed = false;
+      }
+    }
+    PGNotification[] notifications = current.unwrap(PGConnection.class).getNotifications(waitTimeout);
+    if (notifications != null) {
+      for (PGNotification notification : notifications) {
+        try {
+          JsonObject payload = new JsonObject(notification.getParameter());
+          messages.add(new JsonObject()
+            .put(ValidatorHelper.RULES_CHANGED_TENANT_KEY, payload.getString(ValidatorHelper.RULES_CHANGED_TENANT_KEY))
+            .put(ValidatorHelper.RULES_CHANGED_RULE_ID_KEY, payload.getString(ValidatorHelper.RULES_CHANGED_RULE_ID_KEY)));
+        } catch (Exception e) {
+          logger.warn("Unexpected notification of the changed rules is ignored: " + notification.getParameter());
+        }
+      }
+    }
+    return messages;
+  }
+
+  private Connection connect() throws SQLException {
+    String url = "jdbc:postgresql://" + connectionConfig.getString("host") + ":"
+      + connectionConfig.getValue("port") + "/" + connectionConfig.getString("database");
+    Connection newConnection = DriverManager.getConnection(url,
+      connectionConfig.getString("username"), connectionConfig.getString("password"));
+    try (Statement statement = newConnection.createStatement()) {
+      statement.execute("LISTEN " + CHANNEL);
+    } catch (SQLException e) {
+      newConnection.close();
+      throw e;
+    }
+    return newConnection;
+  }
+
+  private synchronized void closeConnection() {
+    Connection current = connection;
+    if (current != null) {
+      connection = null;
+      try {
+        current.close();
+      } catch (SQLException e) {
+        logger.debug("Failed to close the connection of the changed rules listener", e);
+      }
+    }
+  }
+}
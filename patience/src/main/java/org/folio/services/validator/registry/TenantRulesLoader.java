@@ -0,0 +1,20 @@
+package org.folio.services.validator.registry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import org.folio.rest.jaxrs.model.RuleCollection;
+
+/**
+ * Loads the enabled rules of a tenant as a typed collection,
+ * sparing the validation engine the conversion of the rules to and from json
+ */
+public interface TenantRulesLoader {
+
+  /**
+   * Returns enabled rules of the tenant
+   *
+   * @param tenantId      tenant id
+   * @param resultHandler handler with the rule collection
+   */
+  void getEnabledTenantRules(String tenantId, Handler<AsyncResult<RuleCollection>> resultHandler);
+}
@@ -15,6 +15,7 @@ import org.folio.rest.persist.Criteria.Limit;
 import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.services.validator.util.ValidatorHelper;
 import org.z3950.zing.cql.cql2pgjson.CQL2PgJSON;
 
 import java.util.List;
@@ -24,7 +25,7 @@ import java.util.UUID;
  * Implementation of Validator Registry Service,
  * calls PostgresClient to perform CRUD operations on Rule entity
  */
-public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
+public class ValidatorRegistryServiceImpl implements ValidatorRegistryService, TenantRulesLoader {
 
   private final Logger logger = LoggerFactory.getLogger(ValidatorRegistryServiceImpl.class);
 
@@ -50,6 +51,22 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
    */
   @Override
   public ValidatorRegistryService getAllTenantRules(String tenantId, int limit, int offset, String query, Handler<AsyncResult<JsonObject>> asyncResultHandler) {
+    getTenantRules(tenantId, limit, offset, query, rulesResult -> asyncResultHandler.handle(rulesResult.map(JsonObject::mapFrom)));
+    return this;
+  }
+
+  /**
+   * Returns enabled rules for tenant, without converting them to json
+   *
+   * @param tenantId      tenant id
+   * @param resultHandler handler with the rule collection
+   */
+  @Override
+  public void getEnabledTenantRules(String tenantId, Handler<AsyncResult<RuleCollection>> resultHandler) {
+    getTenantRules(tenantId, 500, 0, "query=state=Enabled", resultHandler);
+  }
+
+  private void getTenantRules(String tenantId, int limit, int offset, String query, Handler<AsyncResult<RuleCollection>> asyncResultHandler) {
     try {
       CQLWrapper cql = getCQL(query, limit, offset);
       String[] fieldList = {"*"};
@@ -62,14 +79,13 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
           List<Rule> ruleList = (List<Rule>) getReply.result().getResults();
           rules.setRules(ruleList);
           rules.setTotalRecords(ruleList.size());
-          asyncResultHandler.handle(Future.succeededFuture(JsonObject.mapFrom(rules)));
+          asyncResultHandler.handle(Future.succeededFuture(rules));
         }
       });
     } catch (Exception e) {
       logger.error("Error while getting all tenant rules", e);
       asyncResultHandler.handle(Future.failedFuture(e));
     }
-    return this;
   }
 
   /**
@@ -90,6 +106,7 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
           logger.error("Error while saving the rule to the db", postReply.cause());
           asyncResultHandler.handle(Future.failedFuture(postReply.cause()));
         } else {
+          notifyRulesChanged(tenantId, validationRule);
           asyncResultHandler.handle(Future.succeededFuture(validationRule));
         }
       });
@@ -121,6 +138,7 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
           logger.debug("Rule " + id + " was not found in the db");
           asyncResultHandler.handle(Future.succeededFuture(null));
         } else {
+          notifyRulesChanged(tenantId, validationRule);
           asyncResultHandler.handle(Future.succeededFuture(validationRule));
         }
       });
@@ -164,6 +182,19 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
     return this;
   }
 
+  /**
+   * Publishes the changed rule, so the validation engine can drop the cached rules of the tenant
+   *
+   * @param tenantId       tenant id
+   * @param validationRule created or updated rule
+   */
+  private void notifyRulesChanged(String tenantId, JsonObject validationRule) {
+    JsonObject message = new JsonObject()
+      .put(ValidatorHelper.RULES_CHANGED_TENANT_KEY, tenantId)
+      .put(ValidatorHelper.RULES_CHANGED_RULE_KEY, validationRule);
+    vertx.eventBus().publish(ValidatorHelper.RULES_CHANGED_ADDRESS, message);
+  }
+
   /**
    * Builds criteria by which db result is filtered
    *
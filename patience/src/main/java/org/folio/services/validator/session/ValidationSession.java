@@ -0,0 +1,86 @@
+package org.folio.services.validator.session;
+
+import org.folio.services.validator.cache.CompiledRuleSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * As-you-type validation session of a user password.
+ * <p>
+ * Holds what a validation resolves before checking a password, i.e. the rules of the tenant and the user name,
+ * along with the outcome of every local rule for the last checked password, so that only the rules which
+ * outcome has changed are reported. The password itself is not kept.
+ * A session is updated by a single client at a time, updates of the same session are not synchronized.
+ */
+public class ValidationSession {
+
+  private final String sessionId;
+  private final String tenantId;
+  private final String userId;
+  private volatile CompiledRuleSet ruleSet;
+  private volatile String userName;
+  private volatile boolean userNameResolved;
+  private final Map<String, Boolean> ruleResults = new HashMap<>();
+
+  ValidationSession(String sessionId, String tenantId, String userId) {
+    this.sessionId = sessionId;
+    this.tenantId = tenantId;
+    this.userId = userId;
+  }
+
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public CompiledRuleSet getRuleSet() {
+    return ruleSet;
+  }
+
+  public void setRuleSet(CompiledRuleSet ruleSet) {
+    this.ruleSet = ruleSet;
+  }
+
+  public String getUserName() {
+    return userName;
+  }
+
+  /**
+   * @return true if the user name has been looked up
+   */
+  public boolean isUserNameResolved() {
+    return userNameResolved;
+  }
+
+  public void setUserName(String userName) {
+    this.userName = userName;
+    this.userNameResolved = true;
+  }
+
+  /**
+   * Records outcome of the rule for the last checked password
+   *
+   * @param ruleId rule id
+   * @param passed whether the password satisfies the rule
+   * @return true if the outcome differs from the one of the previous password, or the rule has not been checked yet
+   */
+  public synchronized boolean updateRuleResult(String ruleId, boolean passed) {
+    Boolean previous = ruleResults.put(ruleId, passed);
+    return previous == null || previous != passed;
+  }
+
+  /**
+   * Forgets the outcomes of the rules, e.g. after the rules of the tenant have changed
+   */
+  public synchronized void clearRuleResults() {
+    ruleResults.clear();
+  }
+}
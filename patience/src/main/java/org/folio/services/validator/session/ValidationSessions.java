@@ -0,0 +1,155 @@
+package org.folio.services.validator.session;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory registry of the as-you-type validation sessions, keyed by session id.
+ * <p>
+ * A session not updated for the TTL expires, least recently updated sessions are evicted
+ * once the registry reaches its maximum size. Sessions are local to the module instance.
+ */
+public class ValidationSessions {
+
+  private static class SessionEntry {
+    private final ValidationSession session;
+    private long accessedAt;
+
+    private SessionEntry(ValidationSession session, long accessedAt) {
+      this.session = session;
+      this.accessedAt = accessedAt;
+    }
+  }
+
+  private final int maxSize;
+  private final long ttl;
+  private final LongSupplier clock;
+  private final AtomicLong opened = new AtomicLong();
+  private final AtomicLong expired = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong updates = new AtomicLong();
+  private final AtomicLong submits = new AtomicLong();
+  private final LinkedHashMap<String, SessionEntry> sessions;
+
+  /**
+   * Constructor
+   *
+   * @param maxSize maximum number of open sessions
+   * @param ttl     time in milliseconds after which a session not updated expires
+   */
+  public ValidationSessions(int maxSize, long ttl) {
+    this(maxSize, ttl, System::currentTimeMillis);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param maxSize maximum number of open sessions
+   * @param ttl     time in milliseconds after which a session not updated expires
+   * @param clock   source of the current time in milliseconds
+   */
+  public ValidationSessions(int maxSize, long ttl, LongSupplier clock) {
+    this.maxSize = maxSize;
+    this.ttl = ttl;
+    this.clock = clock;
+    this.sessions = new LinkedHashMap<String, SessionEntry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, SessionEntry> eldest) {
+        boolean evict = size() > ValidationSessions.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Opens a new session of the user
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @return new session
+   */
+  public synchronized ValidationSession open(String tenantId, String userId) {
+    ValidationSession session = new ValidationSession(UUID.randomUUID().toString(), tenantId, userId);
+    sessions.put(session.getSessionId(), new SessionEntry(session, clock.getAsLong()));
+    opened.incrementAndGet();
+    return session;
+  }
+
+  /**
+   * Returns the session and prolongs it
+   *
+   * @param tenantId  tenant id, a session of another tenant is not returned
+   * @param sessionId session id
+   * @return session or null if the session is not found or has expired
+   */
+  public synchronized ValidationSession get(String tenantId, String sessionId) {
+    SessionEntry entry = sessions.get(sessionId);
+    if (entry == null || !entry.session.getTenantId().equals(tenantId)) {
+      return null;
+    }
+    long now = clock.getAsLong();
+    if (now - entry.accessedAt > ttl) {
+      sessions.remove(sessionId);
+      expired.incrementAndGet();
+      return null;
+    }
+    entry.accessedAt = now;
+    return entry.session;
+  }
+
+  /**
+   * Closes the session
+   *
+   * @param tenantId  tenant id
+   * @param sessionId session id
+   * @return true if the session was open
+   */
+  public synchronized boolean close(String tenantId, String sessionId) {
+    SessionEntry entry = sessions.get(sessionId);
+    if (entry == null || !entry.session.getTenantId().equals(tenantId)) {
+      return false;
+    }
+    sessions.remove(sessionId);
+    return true;
+  }
+
+  /**
+   * Records an update of a session
+   *
+   * @param submit whether the password was submitted, i.e. checked by all the rules
+   */
+  public void recordUpdate(boolean submit) {
+    updates.incrementAndGet();
+    if (submit) {
+      submits.incrementAndGet();
+    }
+  }
+
+  public synchronized int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns session counters
+   *
+   * @return json with number of open sessions, opened, expired and evicted sessions, updates and submits
+   */
+  public JsonObject getStatistics() {
+    return new JsonObject()
+      .put("size", size())
+      .put("maxSize", maxSize)
+      .put("opened", opened.get())
+      .put("expired", expired.get())
+      .put("evictions", evictions.get())
+      .put("updates", updates.get())
+      .put("submits", submits.get());
+  }
+}
@@ -0,0 +1,194 @@
+package org.folio.services.validator.strength;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Frequency list of words packed into a trie of parallel arrays.
+ * <p>
+ * The nodes are laid out breadth-first, so the children of a node occupy a contiguous range
+ * sorted by their character, which is searched by binary search. A node takes 14 bytes
+ * whatever the number of its children, and finding all the words starting at a position
+ * of a password takes a single walk down the trie.
+ */
+final class FrequencyTrie {
+
+  private static final int ROOT = 0;
+
+  private final char[] labels;
+  private final int[] childrenStart;
+  private final int[] childrenEnd;
+  // rank of the word ending in the node, 1 for the most frequent word, 0 if no word ends in the node
+  private final int[] ranks;
+
+  private FrequencyTrie(char[] labels, int[] childrenStart, int[] childrenEnd, int[] ranks) {
+    this.labels = labels;
+    this.childrenStart = childrenStart;
+    this.childrenEnd = childrenEnd;
+    this.ranks = ranks;
+  }
+
+  /**
+   * Builds the trie of the words, the rank of a word is its position in the list starting from 1
+   *
+   * @param words words in the order of decreasing frequency, they are lowercased, blank lines are ignored
+   * @return trie
+   */
+  static FrequencyTrie build(List<String> words) {
+    BuildNode root = new BuildNode();
+    int rank = 0;
+    for (String word : words) {
+      String key = word.trim().toLowerCase(Locale.ROOT);
+      if (key.isEmpty()) {
+        continue;
+      }
+      rank++;
+      BuildNode node = root;
+      for (int i = 0; i < key.length(); i++) {
+        node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+      }
+      if (node.rank == 0) {
+        node.rank = rank;
+      }
+    }
+
+    List<BuildNode> nodes = new ArrayList<>();
+    List<Character> nodeLabels = new ArrayList<>();
+    Queue<BuildNode> queue = new ArrayDeque<>();
+    nodes.add(root);
+    nodeLabels.add('\0');
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      BuildNode node = queue.poll();
+      node.childrenStart = nodes.size();
+      for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+        nodes.add(child.getValue());
+        nodeLabels.add(child.getKey());
+        queue.add(child.getValue());
+      }
+      node.childrenEnd = nodes.size();
+    }
+
+    char[] labels = new char[nodes.size()];
+    int[] childrenStart = new int[nodes.size()];
+    int[] childrenEnd = new int[nodes.size()];
+    int[] ranks = new int[nodes.size()];
+    for (int i = 0; i < nodes.size(); i++) {
+      BuildNode node = nodes.get(i);
+      labels[i] = nodeLabels.get(i);
+      childrenStart[i] = node.childrenStart;
+      childrenEnd[i] = node.childrenEnd;
+      ranks[i] = node.rank;
+    }
+    return new FrequencyTrie(labels, childrenStart, childrenEnd, ranks);
+  }
+
+  /**
+   * Loads the frequency list from a classpath resource with a word per line
+   *
+   * @param resource resource name
+   * @return trie
+   * @throws UncheckedIOException if the resource cannot be read
+   */
+  static FrequencyTrie load(String resource) {
+    try (InputStream stream = FrequencyTrie.class.getResourceAsStream(resource)) {
+      if (stream == null) {
+        throw new IOException("Frequency list " + resource + " is not found");
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+      List<String> words = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        words.add(line);
+      }
+      return build(words);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Finds the words of the list starting at the position of the text
+   *
+   * @param text     lowercased text
+   * @param start    start position
+   * @param consumer consumer called with the end position (exclusive) and the rank of every word found
+   */
+  void findWords(CharSequence text, int start, WordConsumer consumer) {
+    int node = ROOT;
+    for (int i = start; i < text.length(); i++) {
+      node = findChild(node, text.charAt(i));
+      if (node < 0) {
+        return;
+      }
+      if (ranks[node] > 0) {
+        consumer.accept(i + 1, ranks[node]);
+      }
+    }
+  }
+
+  /**
+   * Returns rank of the word
+   *
+   * @param word lowercased word
+   * @return rank of the word or 0 if the word is not in the list
+   */
+  int rank(CharSequence word) {
+    int node = ROOT;
+    for (int i = 0; i < word.length() && node >= 0; i++) {
+      node = findChild(node, word.charAt(i));
+    }
+    return node < 0 ? 0 : ranks[node];
+  }
+
+  private int findChild(int node, char label) {
+    int low = childrenStart[node];
+    int high = childrenEnd[node] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (labels[middle] < label) {
+        low = middle + 1;
+      } else if (labels[middle] > label) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns approximate number of bytes used by the trie
+   *
+   * @return estimated memory usage in bytes
+   */
+  long estimatedSize() {
+    return (long) labels.length * (Character.BYTES + 3 * Integer.BYTES);
+  }
+
+  /**
+   * Consumer of the words found in a text
+   */
+  @FunctionalInterface
+  interface WordConsumer {
+    void accept(int end, int rank);
+  }
+
+  private static class BuildNode {
+    private final Map<Character, BuildNode> children = new TreeMap<>();
+    private int rank;
+    private int childrenStart;
+    private int childrenEnd;
+  }
+}
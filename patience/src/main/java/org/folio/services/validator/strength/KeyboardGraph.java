@@ -0,0 +1,131 @@
+package org.folio.services.validator.strength;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adjacency of the keys of a keyboard layout, used to find keyboard walks such as 'qwerty' or 'zxcvbn'.
+ * <p>
+ * Every key is given its position: the keys of a row are one unit apart and the rows are shifted
+ * against each other as on a physical keyboard. Two keys are adjacent if they are next to each other
+ * in a row, or on neighbouring rows less than a key apart. The direction from a key to the next one
+ * tells the turns of a walk.
+ */
+final class KeyboardGraph {
+
+  static final KeyboardGraph QWERTY = new KeyboardGraph(
+    new String[]{"`1234567890-=", "qwertyuiop[]\\", "asdfghjkl;'", "zxcvbnm,./"},
+    new String[]{"~!@#$%^&*()_+", "QWERTYUIOP{}|", "ASDFGHJKL:\"", "ZXCVBNM<>?"},
+    new double[]{0, 1.5, 1.75, 2.25}, 0.75);
+
+  static final KeyboardGraph KEYPAD = new KeyboardGraph(
+    new String[]{"/*-", "789+", "456", "123", "0."},
+    new String[]{"/*-", "789+", "456", "123", "0."},
+    new double[]{1, 0, 0, 0, 0}, 1);
+
+  // no direction, e.g. the key does not belong to the layout or is not adjacent
+  static final int NOT_ADJACENT = Integer.MIN_VALUE;
+
+  private static final double SAME_ROW_DISTANCE = 1;
+
+  private final Map<Character, Key> keys = new HashMap<>();
+  private final double neighbourRowDistance;
+  private final int startingPositions;
+  private final double averageDegree;
+
+  /**
+   * Constructor
+   *
+   * @param rows                   characters of the keys by rows
+   * @param shiftedRows            characters of the keys typed with the shift key
+   * @param rowOffsets             horizontal position of the first key of each row
+   * @param neighbourRowDistance   maximum horizontal distance of adjacent keys of neighbouring rows
+   */
+  private KeyboardGraph(String[] rows, String[] shiftedRows, double[] rowOffsets, double neighbourRowDistance) {
+    this.neighbourRowDistance = neighbourRowDistance;
+    for (int row = 0; row < rows.length; row++) {
+      for (int column = 0; column < rows[row].length(); column++) {
+        double x = rowOffsets[row] + column;
+        keys.put(rows[row].charAt(column), new Key(x, row, false));
+        char shifted = shiftedRows[row].charAt(column);
+        if (shifted != rows[row].charAt(column)) {
+          keys.put(shifted, new Key(x, row, true));
+        }
+      }
+    }
+    int positions = 0;
+    long degrees = 0;
+    for (int row = 0; row < rows.length; row++) {
+      for (int column = 0; column < rows[row].length(); column++) {
+        Key key = keys.get(rows[row].charAt(column));
+        positions++;
+        for (int otherRow = 0; otherRow < rows.length; otherRow++) {
+          for (int otherColumn = 0; otherColumn < rows[otherRow].length(); otherColumn++) {
+            if (direction(key, keys.get(rows[otherRow].charAt(otherColumn))) != NOT_ADJACENT) {
+              degrees++;
+            }
+          }
+        }
+      }
+    }
+    this.startingPositions = positions;
+    this.averageDegree = (double) degrees / positions;
+  }
+
+  /**
+   * Returns the direction from the key to the next key of a walk
+   *
+   * @param from key pressed first
+   * @param to   key pressed next
+   * @return direction code, equal for the same direction, or {@link #NOT_ADJACENT}
+   */
+  int direction(char from, char to) {
+    return direction(keys.get(from), keys.get(to));
+  }
+
+  private int direction(Key from, Key to) {
+    if (from == null || to == null || from == to) {
+      return NOT_ADJACENT;
+    }
+    double dx = to.x - from.x;
+    int dy = to.row - from.row;
+    boolean adjacent = dy == 0
+      ? Math.abs(dx) == SAME_ROW_DISTANCE
+      : Math.abs(dy) == 1 && Math.abs(dx) <= neighbourRowDistance;
+    if (!adjacent) {
+      return NOT_ADJACENT;
+    }
+    return dy * 100 + (int) Math.round(dx * 4);
+  }
+
+  /**
+   * Tells whether the character is typed with the shift key
+   *
+   * @param character character
+   * @return true for a shifted character of the layout
+   */
+  boolean isShifted(char character) {
+    Key key = keys.get(character);
+    return key != null && key.shifted;
+  }
+
+  int getStartingPositions() {
+    return startingPositions;
+  }
+
+  double getAverageDegree() {
+    return averageDegree;
+  }
+
+  private static class Key {
+    private final double x;
+    private final int row;
+    private final boolean shifted;
+
+    private Key(double x, int row, boolean shifted) {
+      this.x = x;
+      this.row = row;
+      this.shifted = shifted;
+    }
+  }
+}
@@ -0,0 +1,557 @@
+package org.folio.services.validator.strength;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the number of guesses an attacker needs to find a password, in the manner of zxcvbn.
+ * <p>
+ * The password is split into the patterns an attacker tries first: words of the frequency lists,
+ * also capitalized, in l33t speak or reversed, the user name, keyboard walks, character sequences,
+ * repeats and dates. Each pattern is given the number of guesses to find it among the patterns of its kind,
+ * the rest of the password is guessed by brute force. The estimate is the minimum over the ways to split
+ * the password of the product of the guesses of its parts, penalized by the number of the parts.
+ * <p>
+ * The estimator holds no state but the shared frequency lists, it checks a password in microseconds
+ * and is safe for concurrent use.
+ */
+public final class PasswordStrengthEstimator {
+
+  public static final int MAX_SCORE = 4;
+
+  // longer passwords are estimated by their beginning, which only underestimates them
+  static final int MAX_LENGTH = 64;
+
+  private static final double BRUTEFORCE_CARDINALITY = 10;
+  private static final double MIN_SUBMATCH_GUESSES_SINGLE_CHAR = 10;
+  private static final double MIN_SUBMATCH_GUESSES_MULTI_CHAR = 50;
+  private static final double MIN_GUESSES_BEFORE_GROWING_SEQUENCE = 10000;
+  private static final int MAX_MATCHES_IN_SEQUENCE = 12;
+  private static final int MIN_YEAR_SPACE = 20;
+  private static final int MIN_YEAR = 1000;
+  private static final int MAX_YEAR = 2050;
+  private static final int DAYS_IN_YEAR = 365;
+  private static final int REFERENCE_YEAR = LocalDate.now().getYear();
+  private static final int MIN_USER_NAME_LENGTH = 3;
+  private static final int MAX_SEQUENCE_DELTA = 5;
+  private static final double[] SCORE_THRESHOLDS = {1e3 + 5, 1e6 + 5, 1e8 + 5, 1e10 + 5};
+  // ways to split a date of 4 to 8 digits into day, month and year
+  private static final int[][][] DATE_SPLITS = {
+    {{1, 2}, {2, 3}},
+    {{1, 3}, {2, 3}},
+    {{1, 2}, {2, 4}, {4, 5}},
+    {{1, 3}, {2, 3}, {4, 5}, {4, 6}},
+    {{2, 4}, {4, 6}}
+  };
+  private static final char[] L33T_FROM = {'4', '@', '8', '(', '3', '6', '1', '!', '|', '0', '$', '5', '7', '+', '2'};
+  private static final char[] L33T_TO = {'a', 'a', 'b', 'c', 'e', 'g', 'i', 'i', 'i', 'o', 's', 's', 't', 't', 'z'};
+  private static final char[] L33T_TO_ALTERNATIVE = {'a', 'a', 'b', 'c', 'e', 'g', 'l', 'i', 'l', 'o', 's', 's', 't', 't', 'z'};
+
+  // guesses to brute force a part of the password by its length
+  private static final double[] BRUTEFORCE_GUESSES = new double[MAX_LENGTH + 1];
+
+  static {
+    BRUTEFORCE_GUESSES[0] = 1;
+    for (int length = 1; length <= MAX_LENGTH; length++) {
+      BRUTEFORCE_GUESSES[length] = BRUTEFORCE_GUESSES[length - 1] * BRUTEFORCE_CARDINALITY;
+    }
+  }
+
+  private final List<FrequencyTrie> dictionaries;
+
+  PasswordStrengthEstimator(List<FrequencyTrie> dictionaries) {
+    this.dictionaries = dictionaries;
+  }
+
+  /**
+   * Returns the estimator with the frequency lists embedded in the module, they are loaded once per JVM
+   *
+   * @return estimator
+   */
+  public static PasswordStrengthEstimator getDefault() {
+    return DefaultEstimatorHolder.INSTANCE;
+  }
+
+  /**
+   * Returns the strength score of the password
+   *
+   * @param password password
+   * @param userName name of the user, guessed as the most likely word, may be null
+   * @return score from 0 - too guessable to {@value #MAX_SCORE} - very unguessable
+   */
+  public int score(CharSequence password, String userName) {
+    double guesses = guesses(password, userName);
+    for (int score = 0; score < SCORE_THRESHOLDS.length; score++) {
+      if (guesses < SCORE_THRESHOLDS[score]) {
+        return score;
+      }
+    }
+    return MAX_SCORE;
+  }
+
+  /**
+   * Estimates the number of guesses needed to find the password
+   *
+   * @param password password
+   * @param userName name of the user, guessed as the most likely word, may be null
+   * @return estimated number of guesses
+   */
+  public double guesses(CharSequence password, String userName) {
+    String text = password.length() > MAX_LENGTH
+      ? password.subSequence(0, MAX_LENGTH).toString() : password.toString();
+    return mostGuessableGuesses(text, userName, new HashMap<>());
+  }
+
+  private double mostGuessableGuesses(String text, String userName, Map<String, Double> repeatBaseGuesses) {
+    int length = text.length();
+    if (length == 0) {
+      return 1;
+    }
+    Matches matches = new Matches(length);
+    String lowerCase = lowerCase(text);
+    addDictionaryMatches(text, lowerCase, userName, matches);
+    addKeyboardWalkMatches(text, KeyboardGraph.QWERTY, matches);
+    addKeyboardWalkMatches(text, KeyboardGraph.KEYPAD, matches);
+    addSequenceMatches(text, matches);
+    addRepeatMatches(text, matches, repeatBaseGuesses);
+    addDateMatches(text, matches);
+    return minimumGuesses(length, matches);
+  }
+
+  /**
+   * Finds the split of the password into matches and brute forced parts which needs the least guesses.
+   * best[k][end] is the least product of the guesses of k parts covering the password up to the end.
+   */
+  private static double minimumGuesses(int length, Matches matches) {
+    int maxParts = Math.min(length, MAX_MATCHES_IN_SEQUENCE);
+    double[][] best = new double[maxParts + 1][length + 1];
+    for (double[] row : best) {
+      Arrays.fill(row, Double.POSITIVE_INFINITY);
+    }
+    best[0][0] = 1;
+    for (int end = 1; end <= length; end++) {
+      // k parts cover at least k characters
+      for (int parts = 1; parts <= Math.min(maxParts, end); parts++) {
+        double[] previous = best[parts - 1];
+        double least = Double.POSITIVE_INFINITY;
+        for (int start = parts - 1; start < end; start++) {
+          if (previous[start] < Double.POSITIVE_INFINITY) {
+            least = Math.min(least,
+              previous[start] * submatchGuesses(BRUTEFORCE_GUESSES[end - start], end - start, length));
+          }
+        }
+        for (Match match : matches.endingAt(end)) {
+          if (previous[match.start] < Double.POSITIVE_INFINITY) {
+            least = Math.min(least,
+              previous[match.start] * submatchGuesses(match.guesses, match.end - match.start, length));
+          }
+        }
+        best[parts][end] = least;
+      }
+    }
+    double guesses = Double.POSITIVE_INFINITY;
+    double factorial = 1;
+    for (int parts = 1; parts <= maxParts; parts++) {
+      factorial *= parts;
+      guesses = Math.min(guesses,
+        factorial * best[parts][length] + Math.pow(MIN_GUESSES_BEFORE_GROWING_SEQUENCE, parts - 1.0));
+    }
+    return guesses;
+  }
+
+  private static double submatchGuesses(double guesses, int matchLength, int passwordLength) {
+    if (matchLength == passwordLength) {
+      return Math.max(guesses, 1);
+    }
+    return Math.max(guesses, matchLength == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR : MIN_SUBMATCH_GUESSES_MULTI_CHAR);
+  }
+
+  private void addDictionaryMatches(String text, String lowerCase, String userName, Matches matches) {
+    int length = text.length();
+    String reversed = new StringBuilder(lowerCase).reverse().toString();
+    String l33t = unL33t(lowerCase, L33T_TO);
+    String l33tAlternative = unL33t(lowerCase, L33T_TO_ALTERNATIVE);
+    for (FrequencyTrie dictionary : dictionaries) {
+      for (int start = 0; start < length; start++) {
+        int matchStart = start;
+        dictionary.findWords(lowerCase, start, (end, rank) ->
+          matches.add(matchStart, end, rank * uppercaseVariations(text, matchStart, end)));
+        dictionary.findWords(reversed, start, (end, rank) ->
+          matches.add(length - end, length - matchStart,
+            2.0 * rank * uppercaseVariations(text, length - end, length - matchStart)));
+        if (!l33t.equals(lowerCase)) {
+          dictionary.findWords(l33t, start, (end, rank) ->
+            addL33tMatch(text, matchStart, end, rank, matches));
+        }
+        if (!l33tAlternative.equals(l33t)) {
+          dictionary.findWords(l33tAlternative, start, (end, rank) ->
+            addL33tMatch(text, matchStart, end, rank, matches));
+        }
+      }
+    }
+    if (userName != null && userName.length() >= MIN_USER_NAME_LENGTH) {
+      String lowerCaseUserName = lowerCase(userName);
+      for (int start = lowerCase.indexOf(lowerCaseUserName); start >= 0;
+           start = lowerCase.indexOf(lowerCaseUserName, start + 1)) {
+        int end = start + lowerCaseUserName.length();
+        matches.add(start, end, uppercaseVariations(text, start, end));
+      }
+    }
+  }
+
+  private static void addL33tMatch(String text, int start, int end, int rank, Matches matches) {
+    int substitutions = 0;
+    for (int i = start; i < end; i++) {
+      if (l33tIndex(text.charAt(i)) >= 0) {
+        substitutions++;
+      }
+    }
+    // words without substitutions are matched already
+    if (substitutions > 0) {
+      matches.add(start, end, rank * uppercaseVariations(text, start, end) * Math.pow(2, substitutions));
+    }
+  }
+
+  private static String unL33t(String lowerCase, char[] substitutions) {
+    char[] characters = lowerCase.toCharArray();
+    for (int i = 0; i < characters.length; i++) {
+      int index = l33tIndex(characters[i]);
+      if (index >= 0) {
+        characters[i] = substitutions[index];
+      }
+    }
+    return new String(characters);
+  }
+
+  private static int l33tIndex(char character) {
+    for (int i = 0; i < L33T_FROM.length; i++) {
+      if (L33T_FROM[i] == character) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the number of ways to capitalize the word as in the password, e.g. 2 for 'Password' or 'PASSWORD'
+   */
+  private static double uppercaseVariations(String text, int start, int end) {
+    int upper = 0;
+    int lower = 0;
+    for (int i = start; i < end; i++) {
+      char character = text.charAt(i);
+      if (Character.isUpperCase(character)) {
+        upper++;
+      } else if (Character.isLowerCase(character)) {
+        lower++;
+      }
+    }
+    if (upper == 0) {
+      return 1;
+    }
+    if (lower == 0 || upper == 1
+      && (Character.isUpperCase(text.charAt(start)) || Character.isUpperCase(text.charAt(end - 1)))) {
+      return 2;
+    }
+    return sumOfCombinations(upper + lower, Math.min(upper, lower));
+  }
+
+  private static void addKeyboardWalkMatches(String text, KeyboardGraph graph, Matches matches) {
+    int length = text.length();
+    int start = 0;
+    while (start < length - 2) {
+      int end = start + 1;
+      int turns = 0;
+      int lastDirection = KeyboardGraph.NOT_ADJACENT;
+      int shifted = graph.isShifted(text.charAt(start)) ? 1 : 0;
+      while (end < length) {
+        int direction = graph.direction(text.charAt(end - 1), text.charAt(end));
+        if (direction == KeyboardGraph.NOT_ADJACENT) {
+          break;
+        }
+        if (direction != lastDirection) {
+          turns++;
+          lastDirection = direction;
+        }
+        if (graph.isShifted(text.charAt(end))) {
+          shifted++;
+        }
+        end++;
+      }
+      if (end - start >= 3) {
+        matches.add(start, end, keyboardWalkGuesses(graph, end - start, turns, shifted));
+        start = end;
+      } else {
+        start++;
+      }
+    }
+  }
+
+  private static double keyboardWalkGuesses(KeyboardGraph graph, int length, int turns, int shifted) {
+    double guesses = 0;
+    for (int i = 2; i <= length; i++) {
+      for (int j = 1; j <= Math.min(turns, i - 1); j++) {
+        guesses += combinations(i - 1, j - 1) * graph.getStartingPositions() * Math.pow(graph.getAverageDegree(), j);
+      }
+    }
+    if (shifted > 0) {
+      int unshifted = length - shifted;
+      guesses *= unshifted == 0 ? 2 : sumOfCombinations(length, Math.min(shifted, unshifted));
+    }
+    return guesses;
+  }
+
+  private static void addSequenceMatches(String text, Matches matches) {
+    int length = text.length();
+    int start = 0;
+    while (start < length - 2) {
+      int delta = text.charAt(start + 1) - text.charAt(start);
+      int characterClass = characterClass(text.charAt(start));
+      if (delta == 0 || Math.abs(delta) > MAX_SEQUENCE_DELTA || characterClass < 0
+        || characterClass(text.charAt(start + 1)) != characterClass) {
+        start++;
+        continue;
+      }
+      int end = start + 2;
+      while (end < length && text.charAt(end) - text.charAt(end - 1) == delta
+        && characterClass(text.charAt(end)) == characterClass) {
+        end++;
+      }
+      if (end - start >= 3) {
+        char first = text.charAt(start);
+        double base = "aAzZ019".indexOf(first) >= 0 ? 4 : Character.isDigit(first) ? 10 : 26;
+        matches.add(start, end, base * (end - start) * (delta < 0 ? 2 : 1));
+        start = end - 1;
+      } else {
+        start++;
+      }
+    }
+  }
+
+  private static int characterClass(char character) {
+    if (character >= 'a' && character <= 'z') {
+      return 0;
+    } else if (character >= 'A' && character <= 'Z') {
+      return 1;
+    } else if (character >= '0' && character <= '9') {
+      return 2;
+    }
+    return -1;
+  }
+
+  private void addRepeatMatches(String text, Matches matches, Map<String, Double> repeatBaseGuesses) {
+    int length = text.length();
+    int start = 0;
+    while (start < length - 2) {
+      int bestBaseLength = 0;
+      int bestCount = 0;
+      for (int baseLength = 1; baseLength <= (length - start) / 2; baseLength++) {
+        int count = 1;
+        while (start + (count + 1) * baseLength <= length
+          && text.regionMatches(start, text, start + count * baseLength, baseLength)) {
+          count++;
+        }
+        if (count >= 2 && baseLength * count >= 3 && baseLength * count > bestBaseLength * bestCount) {
+          bestBaseLength = baseLength;
+          bestCount = count;
+        }
+      }
+      if (bestCount == 0) {
+        start++;
+        continue;
+      }
+      String base = text.substring(start, start + bestBaseLength);
+      Double baseGuesses = repeatBaseGuesses.get(base);
+      if (baseGuesses == null) {
+        baseGuesses = mostGuessableGuesses(base, null, repeatBaseGuesses);
+        repeatBaseGuesses.put(base, baseGuesses);
+      }
+      matches.add(start, start + bestBaseLength * bestCount, baseGuesses * bestCount);
+      start += bestBaseLength * bestCount;
+    }
+  }
+
+  private static void addDateMatches(String text, Matches matches) {
+    int length = text.length();
+    for (int start = 0; start < length; start++) {
+      int digits = 0;
+      while (start + digits < length && Character.isDigit(text.charAt(start + digits)) && digits < 8) {
+        digits++;
+      }
+      for (int end = start + 4; end <= start + digits; end++) {
+        double guesses = digitsDateGuesses(text, start, end);
+        if (guesses > 0) {
+          matches.add(start, end, guesses);
+        }
+      }
+      if (digits > 0) {
+        addSeparatedDateMatches(text, start, matches);
+      }
+    }
+  }
+
+  private static double digitsDateGuesses(String text, int start, int end) {
+    int length = end - start;
+    double least = 0;
+    if (length == 4) {
+      int year = Integer.parseInt(text.substring(start, end));
+      if (year >= 1900 && year <= MAX_YEAR) {
+        least = yearSpace(year);
+      }
+    }
+    for (int[] split : DATE_SPLITS[length - 4]) {
+      int first = Integer.parseInt(text.substring(start, start + split[0]));
+      int second = Integer.parseInt(text.substring(start + split[0], start + split[1]));
+      int third = Integer.parseInt(text.substring(start + split[1], end));
+      int year = dateYear(first, split[0], second, third, length - split[1]);
+      if (year > 0) {
+        double guesses = DAYS_IN_YEAR * yearSpace(year);
+        least = least == 0 ? guesses : Math.min(least, guesses);
+      }
+    }
+    return least;
+  }
+
+  /**
+   * Matches dates with separators, e.g. '1/1/91' or '2019-02-28'
+   */
+  private static void addSeparatedDateMatches(String text, int start, Matches matches) {
+    int length = text.length();
+    int firstEnd = start;
+    while (firstEnd < length && firstEnd - start < 4 && Character.isDigit(text.charAt(firstEnd))) {
+      firstEnd++;
+    }
+    if (firstEnd >= length || " /\\_.-".indexOf(text.charAt(firstEnd)) < 0) {
+      return;
+    }
+    char separator = text.charAt(firstEnd);
+    int secondEnd = firstEnd + 1;
+    while (secondEnd < length && secondEnd - firstEnd - 1 < 2 && Character.isDigit(text.charAt(secondEnd))) {
+      secondEnd++;
+    }
+    if (secondEnd == firstEnd + 1 || secondEnd >= length || text.charAt(secondEnd) != separator) {
+      return;
+    }
+    int thirdEnd = secondEnd + 1;
+    while (thirdEnd < length && thirdEnd - secondEnd - 1 < 4 && Character.isDigit(text.charAt(thirdEnd))) {
+      thirdEnd++;
+    }
+    if (thirdEnd == secondEnd + 1) {
+      return;
+    }
+    int first = Integer.parseInt(text.substring(start, firstEnd));
+    int second = Integer.parseInt(text.substring(firstEnd + 1, secondEnd));
+    int third = Integer.parseInt(text.substring(secondEnd + 1, thirdEnd));
+    int year = dateYear(first, firstEnd - start, second, third, thirdEnd - secondEnd - 1);
+    if (year > 0) {
+      // the separator is one of a few
+      matches.add(start, thirdEnd, 4.0 * DAYS_IN_YEAR * yearSpace(year));
+    }
+  }
+
+  /**
+   * Reads the day, month and year from three numbers, the year being the first or the last one
+   *
+   * @return the year or 0 if the numbers are not a date
+   */
+  private static int dateYear(int first, int firstLength, int second, int third, int thirdLength) {
+    int year = year(third, thirdLength);
+    if (year > 0 && isDayAndMonth(first, second)) {
+      return year;
+    }
+    year = year(first, firstLength);
+    if (year > 0 && isDayAndMonth(second, third)) {
+      return year;
+    }
+    return 0;
+  }
+
+  private static int year(int value, int digits) {
+    if (digits == 4 && value >= MIN_YEAR && value <= MAX_YEAR) {
+      return value;
+    } else if (digits == 2) {
+      return value > 50 ? 1900 + value : 2000 + value;
+    }
+    return 0;
+  }
+
+  private static boolean isDayAndMonth(int first, int second) {
+    return first >= 1 && second >= 1
+      && (first <= 31 && second <= 12 || first <= 12 && second <= 31);
+  }
+
+  private static double yearSpace(int year) {
+    return Math.max(Math.abs(year - REFERENCE_YEAR), MIN_YEAR_SPACE);
+  }
+
+  private static double combinations(int n, int k) {
+    double result = 1;
+    for (int i = 1; i <= k; i++) {
+      result = result * (n - k + i) / i;
+    }
+    return result;
+  }
+
+  private static double sumOfCombinations(int n, int maxK) {
+    double sum = 0;
+    for (int k = 1; k <= maxK; k++) {
+      sum += combinations(n, k);
+    }
+    return sum;
+  }
+
+  /**
+   * Lowercases the text character by character, so that positions in the lowercased text are the same
+   */
+  private static String lowerCase(String text) {
+    char[] characters = text.toCharArray();
+    for (int i = 0; i < characters.length; i++) {
+      characters[i] = Character.toLowerCase(characters[i]);
+    }
+    return new String(characters);
+  }
+
+  /**
+   * Patterns found in the password, grouped by their end position
+   */
+  private static class Matches {
+    private final List<List<Match>> byEnd;
+
+    private Matches(int length) {
+      byEnd = new ArrayList<>(length + 1);
+      for (int i = 0; i <= length; i++) {
+        byEnd.add(new ArrayList<>());
+      }
+    }
+
+    private void add(int start, int end, double guesses) {
+      byEnd.get(end).add(new Match(start, end, guesses));
+    }
+
+    private List<Match> endingAt(int end) {
+      return byEnd.get(end);
+    }
+  }
+
+  private static class Match {
+    private final int start;
+    private final int end;
+    private final double guesses;
+
+    private Match(int start, int end, double guesses) {
+      this.start = start;
+      this.end = end;
+      this.guesses = guesses;
+    }
+  }
+
+  private static class DefaultEstimatorHolder {
+    private static final PasswordStrengthEstimator INSTANCE = new PasswordStrengthEstimator(Arrays.asList(
+      FrequencyTrie.load("/strength/passwords.txt"),
+      FrequencyTrie.load("/strength/english.txt")));
+  }
+}
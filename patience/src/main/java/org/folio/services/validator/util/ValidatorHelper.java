@@ -1,9 +1,19 @@
 package org.folio.services.validator.util;
 
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+
 public final class ValidatorHelper {
 
   public static final String VALIDATOR_ENGINE_ADDRESS = "validation-engine.queue";
   public static final String REGISTRY_SERVICE_ADDRESS = "validator-registry.queue";
+  public static final String ENABLED_RULES_ADDRESS = "validator-registry.enabled-rules";
+  public static final String RULES_CHANGED_ADDRESS = "validator-registry.rules-changed";
+
+  public static final String RULES_CHANGED_TENANT_KEY = "tenantId";
+  public static final String RULES_CHANGED_RULE_KEY = "rule";
+  public static final String RULES_CHANGED_RULE_ID_KEY = "ruleId";
 
   public static final String RESPONSE_VALIDATION_RESULT_KEY = "result";
   public static final String RESPONSE_ERROR_MESSAGES_KEY = "messages";
@@ -11,8 +21,35 @@ public final class ValidatorHelper {
   public static final String REQUEST_USER_ID_KEY = "userId";
   public static final String VALIDATION_VALID_RESULT = "valid";
   public static final String VALIDATION_INVALID_RESULT = "invalid";
+  public static final String RESPONSE_RESULTS_KEY = "results";
+  public static final String RESPONSE_TOTAL_RECORDS_KEY = "totalRecords";
+  public static final String RESPONSE_ERROR_KEY = "error";
+  public static final String SESSION_ID_KEY = "sessionId";
+  public static final String RESPONSE_CHANGES_KEY = "changes";
+  public static final String RESPONSE_SUBMITTED_KEY = "submitted";
+  public static final String RULE_ID_KEY = "ruleId";
+  public static final String RULE_NAME_KEY = "name";
+  public static final String RULE_MESSAGE_KEY = "message";
+  public static final int SESSION_NOT_FOUND_CODE = 404;
 
   private ValidatorHelper() {
   }
 
+  /**
+   * Builds the validation result of a password
+   *
+   * @param errorMessages messages of the violated rules
+   * @return validation result, valid if no rule is violated
+   */
+  public static JsonObject buildValidationResult(List<String> errorMessages) {
+    JsonObject validationResult = new JsonObject();
+    if (errorMessages.isEmpty()) {
+      validationResult.put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_VALID_RESULT);
+    } else {
+      validationResult.put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT);
+    }
+    validationResult.put(RESPONSE_ERROR_MESSAGES_KEY, errorMessages);
+    return validationResult;
+  }
+
 }
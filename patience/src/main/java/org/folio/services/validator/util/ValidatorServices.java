@@ -0,0 +1,187 @@
+package org.folio.services.validator.util;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.history.PasswordHistoryService;
+import org.folio.services.validator.metrics.ValidationMetrics;
+import org.folio.services.validator.registry.RulesChangedListener;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+
+import java.util.function.Supplier;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Provides the validation engine, the validator registry and the password history to their callers.
+ * <p>
+ * In the {@code local} service mode the implementations bound by {@code InitAPIs} are called directly,
+ * with no event bus marshalling of the headers, rules and results. In the {@code event-bus} service mode,
+ * e.g. when the services are deployed separately, the callers get the event bus proxies.
+ */
+public final class ValidatorServices {
+
+  public static final String LOCAL_SERVICE_MODE = "local";
+  public static final String EVENT_BUS_SERVICE_MODE = "event-bus";
+
+  private static final String LOCAL_SERVICES_MAP = "validator.local-services";
+  private static final String PASSWORD_HISTORY_SERVICE = "validator.password-history";
+  private static final String VALIDATION_METRICS = "validator.metrics";
+  private static final String SHARED_LISTENERS_MAP = "validator.shared-listeners";
+  private static final String RULES_CHANGED_LISTENER = "validator.rules-changed-listener";
+
+  private ValidatorServices() {
+  }
+
+  /**
+   * Tells whether the services are called in-process
+   *
+   * @return true in the local service mode
+   */
+  public static boolean isLocalMode() {
+    return LOCAL_SERVICE_MODE.equals(MODULE_SPECIFIC_ARGS.getOrDefault("service.mode", LOCAL_SERVICE_MODE));
+  }
+
+  /**
+   * Binds the service implementation for direct calls, the first bound implementation is kept
+   *
+   * @param vertx   vertx instance
+   * @param address event bus address of the service
+   * @param service service implementation
+   * @return the service implementation bound to the address
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T bindLocal(Vertx vertx, String address, T service) {
+    LocalService existingService = getLocalServices(vertx).putIfAbsent(address, new LocalService(service));
+    return existingService == null ? service : (T) existingService.service;
+  }
+
+  /**
+   * Returns the validation engine bound locally or the event bus proxy of the engine
+   *
+   * @param vertx vertx instance
+   * @return validation engine
+   */
+  public static ValidationEngineService getValidationEngineService(Vertx vertx) {
+    ValidationEngineService localService = getLocalService(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS);
+    return localService != null
+      ? localService : ValidationEngineService.createProxy(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS);
+  }
+
+  /**
+   * Returns the validator registry bound locally or the event bus proxy of the registry
+   *
+   * @param vertx vertx instance
+   * @return validator registry
+   */
+  public static ValidatorRegistryService getValidatorRegistryService(Vertx vertx) {
+    ValidatorRegistryService localService = getLocalService(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    return localService != null
+      ? localService : ValidatorRegistryService.createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+  }
+
+  /**
+   * Returns the password history service, it is always called in-process whatever the service mode
+   *
+   * @param vertx vertx instance
+   * @return password history service
+   */
+  public static PasswordHistoryService getPasswordHistoryService(Vertx vertx) {
+    LocalService localService = getLocalServices(vertx).get(PASSWORD_HISTORY_SERVICE);
+    return localService != null
+      ? (PasswordHistoryService) localService.service
+      : bindLocal(vertx, PASSWORD_HISTORY_SERVICE, new PasswordHistoryService(vertx));
+  }
+
+  /**
+   * Returns the latency histograms shared by the validation engine and the REST handlers calling it
+   *
+   * @param vertx vertx instance
+   * @return validation metrics
+   */
+  public static ValidationMetrics getValidationMetrics(Vertx vertx) {
+    LocalService localService = getLocalServices(vertx).get(VALIDATION_METRICS);
+    return localService != null
+      ? (ValidationMetrics) localService.service
+      : bindLocal(vertx, VALIDATION_METRICS, new ValidationMetrics());
+  }
+
+  /**
+   * Returns the listener of the rules changed via the other instances of the module, shared by the verticle
+   * instances. Each call by {@code InitAPIs} is paired with a {@link #releaseRulesChangedListener(Vertx)} call
+   * by {@code ShutdownAPIs}.
+   *
+   * @param vertx           vertx instance
+   * @param listenerFactory creates the listener on the first call
+   * @return rules changed listener
+   */
+  public static synchronized RulesChangedListener acquireRulesChangedListener(
+    Vertx vertx, Supplier<RulesChangedListener> listenerFactory) {
+    LocalMap<String, SharedListener> listeners = getSharedListeners(vertx);
+    SharedListener sharedListener = listeners.get(RULES_CHANGED_LISTENER);
+    if (sharedListener == null) {
+      sharedListener = new SharedListener(listenerFactory.get());
+      listeners.put(RULES_CHANGED_LISTENER, sharedListener);
+    }
+    sharedListener.references++;
+    return sharedListener.listener;
+  }
+
+  /**
+   * Releases the listener returned by {@link #acquireRulesChangedListener(Vertx, Supplier)}
+   *
+   * @param vertx vertx instance
+   * @return the listener to close once the last verticle instance has released it, null otherwise
+   */
+  public static synchronized RulesChangedListener releaseRulesChangedListener(Vertx vertx) {
+    LocalMap<String, SharedListener> listeners = getSharedListeners(vertx);
+    SharedListener sharedListener = listeners.get(RULES_CHANGED_LISTENER);
+    if (sharedListener == null || --sharedListener.references > 0) {
+      return null;
+    }
+    listeners.remove(RULES_CHANGED_LISTENER);
+    return sharedListener.listener;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T getLocalService(Vertx vertx, String address) {
+    if (!isLocalMode()) {
+      return null;
+    }
+    LocalService localService = getLocalServices(vertx).get(address);
+    return localService == null ? null : (T) localService.service;
+  }
+
+  private static LocalMap<String, LocalService> getLocalServices(Vertx vertx) {
+    return vertx.sharedData().getLocalMap(LOCAL_SERVICES_MAP);
+  }
+
+  private static LocalMap<String, SharedListener> getSharedListeners(Vertx vertx) {
+    return vertx.sharedData().getLocalMap(SHARED_LISTENERS_MAP);
+  }
+
+  /**
+   * Service implementation kept in the vertx local map, it is shared as is since the services are thread safe
+   */
+  private static class LocalService implements Shareable {
+    private final Object service;
+
+    private LocalService(Object service) {
+      this.service = service;
+    }
+  }
+
+  /**
+   * Listener kept in the vertx local map along with the number of the verticle instances using it,
+   * the count is guarded by the class lock
+   */
+  private static class SharedListener implements Shareable {
+    private final RulesChangedListener listener;
+    private int references;
+
+    private SharedListener(RulesChangedListener listener) {
+      this.listener = listener;
+    }
+  }
+}
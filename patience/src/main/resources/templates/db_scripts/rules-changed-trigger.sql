@@ -0,0 +1,21 @@
+-- Notifies the module instances listening on the password_validator_rules_changed channel of a changed rule,
+-- so that every instance drops the cached rules of the tenant, not only the one which handled the change
+CREATE OR REPLACE FUNCTION notify_validation_rules_changed() RETURNS TRIGGER AS $$
+DECLARE
+  changed_rule jsonb;
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    changed_rule := OLD.jsonb;
+  ELSE
+    changed_rule := NEW.jsonb;
+  END IF;
+  PERFORM pg_notify('password_validator_rules_changed', json_build_object(
+    'tenantId', substring(TG_TABLE_SCHEMA from '^(.*)_mod_password_validator$'),
+    'ruleId', changed_rule->>'ruleId')::text);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS notify_validation_rules_changed ON validation_rules;
+CREATE TRIGGER notify_validation_rules_changed AFTER INSERT OR UPDATE OR DELETE ON validation_rules
+  FOR EACH ROW EXECUTE PROCEDURE notify_validation_rules_changed();
@@ -108,6 +108,8 @@ public class PasswordResourceTest {
         throw new Exception(message);
     }
 
+    // every test mocks its own users response, so the user names are not cached between the tests
+    RestVerticle.MODULE_SPECIFIC_ARGS.put("users.cache.size", "0");
     TenantClient tenantClient = new TenantClient("localhost", port, TENANT, TENANT);
     DeploymentOptions restVerticleDeploymentOptions = new DeploymentOptions().setConfig(new JsonObject().put(HTTP_PORT, port));
     vertx.deployVerticle(RestVerticle.class.getName(), restVerticleDeploymentOptions, res -> {
@@ -130,6 +132,7 @@ public class PasswordResourceTest {
   @AfterClass
   public static void tearDownClass(final TestContext context) {
     Async async = context.async();
+    RestVerticle.MODULE_SPECIFIC_ARGS.remove("users.cache.size");
     vertx.close(context.asyncAssertSuccess(res -> {
       if (useExternalDatabase.equals("embedded")) {
         PostgresClient.stopEmbeddedPostgres();
@@ -189,6 +192,7 @@ public class PasswordResourceTest {
 
   @Test
   public void shouldReturnFailedValidationResultWhenUserNotFound() {
+    postUserNameRule();
     ResponseDefinitionBuilder mockDefinition = WireMock.okJson(new JsonObject()
       .put(USERS_KEY, new JsonArray())
       .put(TOTAL_RECORDS_KEY, 0).toString());
@@ -211,6 +215,7 @@ public class PasswordResourceTest {
 
   @Test
   public void shouldReturnFailedValidationResultWhenUserApiReturnBadRequest() {
+    postUserNameRule();
     ResponseDefinitionBuilder mockDefinition = WireMock.badRequest();
     initMockUserService(mockDefinition);
 
@@ -231,6 +236,7 @@ public class PasswordResourceTest {
 
   @Test
   public void shouldReturnFailedValidationResultWhenUserReturnIncorrectRequest() {
+    postUserNameRule();
     ResponseDefinitionBuilder mockDefinition = WireMock.okJson(new JsonObject()
       .put(TOTAL_RECORDS_KEY, 0).toString());
     initMockUserService(mockDefinition);
@@ -252,6 +258,7 @@ public class PasswordResourceTest {
 
   @Test
   public void shouldReturnFailedValidationResultWhenUserReturnIncorrectTotalRecords() {
+    postUserNameRule();
     ResponseDefinitionBuilder mockDefinition = WireMock.okJson(new JsonObject()
       .put(USERS_KEY, new JsonArray())
       .put(TOTAL_RECORDS_KEY, 2).toString());
@@ -272,6 +279,33 @@ public class PasswordResourceTest {
       .statusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
   }
 
+  @Test
+  public void shouldNotLookUpUserWhenNoRuleUsesUserName(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildRegexpRuleMinLength8().withOrderNo(0).withState(Rule.State.ENABLED))
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    initMockUserService(WireMock.badRequest());
+    Password passwordToValidate = new Password()
+      .withPassword("P@sword12")
+      .withUserId(ADMIN_ID);
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .header(TOKEN_HEADER)
+      .header(userMockUrlHeader)
+      .body(passwordToValidate)
+      .when()
+      .post(VALIDATE_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body(PASSWORD_VALIDATION_RESULT_JSON_PATH, is(ValidatorHelper.VALIDATION_VALID_RESULT));
+  }
+
   @Test
   public void shouldReturnFailedValidationResultWithMessageWhenPasswordDidNotPassRule(final TestContext context) {
     requestSpecification()
@@ -336,6 +370,25 @@ public class PasswordResourceTest {
       .withErrMessageId("password.validation.error.min-8");
   }
 
+  private void postUserNameRule() {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(new Rule()
+        .withName("User name rule")
+        .withType(Rule.Type.REG_EXP)
+        .withValidationType(Rule.ValidationType.STRONG)
+        .withState(Rule.State.ENABLED)
+        .withOrderNo(0)
+        .withModuleName("mod-password-validator")
+        .withExpression("^(?:(?!<USER_NAME>).)+$")
+        .withDescription("The password must not contain your username")
+        .withErrMessageId("password.usernameDuplicate.invalid"))
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+  }
+
   private void mockUserService() {
     ResponseDefinitionBuilder mockDefinition = WireMock.okJson(buildUserMockResponse().toString());
     initMockUserService(mockDefinition);
@@ -363,6 +416,9 @@ public class PasswordResourceTest {
       if (event.failed()) {
         context.fail(event.cause());
       }
+      // rules are removed bypassing the registry, so the cached tenant rules are dropped explicitly
+      vertx.eventBus().publish(ValidatorHelper.RULES_CHANGED_ADDRESS,
+        new JsonObject().put(ValidatorHelper.RULES_CHANGED_TENANT_KEY, TENANT));
     });
   }
 }
@@ -6,6 +6,8 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -17,6 +19,7 @@ import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.NetworkUtils;
+import org.folio.services.validator.util.ValidatorHelper;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
@@ -391,6 +394,86 @@ public class ValidatorRegistryTest {
       .statusCode(HttpStatus.SC_BAD_REQUEST);
   }
 
+  @Test
+  public void shouldReturnBadRequestOnPostWhenNoSequencesSpecifiedForSequenceType(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildSequenceRule().put("sequences", new JsonArray()).toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildSequenceRule().put("sequences", new JsonArray().add("qwerty").add("")).toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void shouldCreateValidSequenceRule(final TestContext context) {
+    JsonObject sequenceRule = buildSequenceRule();
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(sequenceRule.toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .body("type", is(sequenceRule.getString("type")))
+      .body("sequences", contains("qwerty", "password"))
+      .body("ignoreCase", is(true))
+      .body("matchReversed", is(true));
+  }
+
+  @Test
+  public void shouldReturnBadRequestOnPostWhenSoftValidationTypeForHistoryType(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildHistoryRule().put("validationType", "Soft").toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void shouldReturnBadRequestOnPostWhenInvalidHistorySizeForHistoryType(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildHistoryRule().put("historySize", (Integer) null).toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+    // more passwords than the module keeps in the history, 24 by default
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(buildHistoryRule().put("historySize", 30).toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void shouldCreateValidHistoryRule(final TestContext context) {
+    JsonObject historyRule = buildHistoryRule();
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(historyRule.toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .body("type", is(historyRule.getString("type")))
+      .body("historySize", is(historyRule.getInteger("historySize")));
+  }
+
   @Test
   public void shouldCreateValidRule(final TestContext context) {
     requestSpecification()
@@ -410,6 +493,24 @@ public class ValidatorRegistryTest {
       .body("description", is(VALID_RULE.getString("description")));
   }
 
+  @Test
+  public void shouldNotifyOfRuleChangedInDatabase(final TestContext context) {
+    Async async = context.async();
+    String ruleId = UUID.randomUUID().toString();
+    MessageConsumer<JsonObject> consumer = vertx.eventBus().consumer(ValidatorHelper.RULES_CHANGED_ADDRESS);
+    consumer.handler(message -> {
+      if (ruleId.equals(message.body().getString(ValidatorHelper.RULES_CHANGED_RULE_ID_KEY))) {
+        context.assertEquals(TENANT, message.body().getString(ValidatorHelper.RULES_CHANGED_TENANT_KEY));
+        consumer.unregister();
+        async.complete();
+      }
+    });
+
+    // the rule is saved bypassing the API, as if it were changed via another instance of the module
+    Rule rule = VALID_RULE.copy().put(RULE_ID, ruleId).mapTo(Rule.class);
+    PostgresClient.getInstance(vertx, TENANT).save(VALIDATION_RULES_TABLE_NAME, ruleId, rule, context.asyncAssertSuccess());
+  }
+
   @Test
   public void shouldReturnBadRequestOnPutWhenNoRulePassedInBody(final TestContext context) {
     requestSpecification()
@@ -569,4 +670,32 @@ public class ValidatorRegistryTest {
       .put("orderNo", 1)
       .put("errMessageId", "");
   }
+
+  private JsonObject buildSequenceRule() {
+    return new JsonObject()
+      .put("name", "no_keyboard_sequences")
+      .put("type", "Sequence")
+      .put("validationType", "Strong")
+      .put("state", "Enabled")
+      .put("moduleName", "mod-password-validator")
+      .put("sequences", new JsonArray().add("qwerty").add("password"))
+      .put("ignoreCase", true)
+      .put("matchReversed", true)
+      .put("description", "Password must not contain common sequences")
+      .put("orderNo", 7)
+      .put("errMessageId", "password.sequence.invalid");
+  }
+
+  private JsonObject buildHistoryRule() {
+    return new JsonObject()
+      .put("name", "no_reused_passwords")
+      .put("type", "History")
+      .put("validationType", "Strong")
+      .put("state", "Enabled")
+      .put("moduleName", "mod-password-validator")
+      .put("historySize", 10)
+      .put("description", "Password must differ from the last passwords of the user")
+      .put("orderNo", 8)
+      .put("errMessageId", "password.history.invalid");
+  }
 }
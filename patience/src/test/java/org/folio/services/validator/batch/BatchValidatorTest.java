@@ -0,0 +1,146 @@
+package org.folio.services.validator.batch;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.cache.CompiledRuleSet;
+import org.folio.services.validator.cache.TenantRulesCache;
+import org.folio.services.validator.cache.UserNamesCache;
+import org.folio.services.validator.engine.HttpClientStatistics;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_RESULTS_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_INVALID_RESULT;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_VALID_RESULT;
+
+/**
+ * Test for the validation of a batch of passwords by the steps of the validation of a single password
+ */
+public class BatchValidatorTest {
+
+  private static final String TENANT = "diku";
+  private static final String ADMIN_ID = "9d990cae-2685-4868-9fca-d0ad013c0640";
+  private static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+
+  private static final Rule MIN_LENGTH_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withExpression("^.{8,}$")
+    .withOrderNo(0)
+    .withErrMessageId("password.length.invalid");
+
+  private final UserNamesCache userNamesCache = new UserNamesCache(10, 60000, 60000);
+  private final List<String> programmaticRulesUserIds = new ArrayList<>();
+
+  @Test
+  public void shouldValidateEveryPasswordBySingleValidationSteps() {
+    BatchValidator batchValidator = new BatchValidator(null, new LengthValidationSteps(false), userNamesCache,
+      () -> {
+        throw new AssertionError("No user is looked up");
+      }, new HttpClientStatistics(1, -1), 1000);
+    JsonArray passwords = new JsonArray()
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rd1"))
+      .add(new JsonObject().put("userId", USER_ID).put("password", "P@sw"));
+
+    JsonObject response = validatePasswords(batchValidator, passwords).result();
+
+    JsonArray results = response.getJsonArray(RESPONSE_RESULTS_KEY);
+    Assert.assertThat(results.getJsonObject(0).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+    Assert.assertThat(results.getJsonObject(1).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+    Assert.assertThat(results.getJsonObject(1).getJsonArray(RESPONSE_ERROR_MESSAGES_KEY).getString(0),
+      Matchers.is(MIN_LENGTH_RULE.getErrMessageId()));
+    Assert.assertThat(programmaticRulesUserIds, Matchers.contains(ADMIN_ID, USER_ID));
+    Assert.assertThat(userNamesCache.getMisses(), Matchers.is(0L));
+  }
+
+  @Test
+  public void shouldUseCachedUserNamesOfBatch() {
+    userNamesCache.put(TENANT, ADMIN_ID, "admin");
+    userNamesCache.put(TENANT, USER_ID, "user");
+    BatchValidator batchValidator = new BatchValidator(null, new LengthValidationSteps(true), userNamesCache,
+      () -> {
+        throw new AssertionError("No user is looked up");
+      }, new HttpClientStatistics(1, -1), 1000);
+    JsonArray passwords = new JsonArray()
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rdAdmin"))
+      .add(new JsonObject().put("userId", USER_ID).put("password", "P@sw0rd1"));
+
+    JsonObject response = validatePasswords(batchValidator, passwords).result();
+
+    JsonArray results = response.getJsonArray(RESPONSE_RESULTS_KEY);
+    Assert.assertThat(results.getJsonObject(0).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+    Assert.assertThat(results.getJsonObject(1).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+    Assert.assertThat(userNamesCache.getHits(), Matchers.is(2L));
+  }
+
+  private AsyncResult<JsonObject> validatePasswords(BatchValidator batchValidator, JsonArray passwords) {
+    MultiMap headers = new CaseInsensitiveHeaders().add(RestVerticle.OKAPI_HEADER_TENANT, TENANT);
+    AtomicReference<AsyncResult<JsonObject>> result = new AtomicReference<>();
+    batchValidator.validatePasswords(passwords, headers, result::set);
+    Assert.assertTrue(result.get().succeeded());
+    return result.get();
+  }
+
+  /**
+   * Rejects short passwords and, if the user name is required, passwords containing the user name
+   */
+  private class LengthValidationSteps implements PasswordValidationSteps {
+
+    private final boolean userNameRequired;
+
+    private LengthValidationSteps(boolean userNameRequired) {
+      this.userNameRequired = userNameRequired;
+    }
+
+    @Override
+    public Future<CompiledRuleSet> loadTenantRules(String tenantId) {
+      TenantRulesCache rulesCache = new TenantRulesCache(1, 60000);
+      return Future.succeededFuture(rulesCache.put(tenantId, Collections.singletonList(MIN_LENGTH_RULE),
+        rulesCache.loadToken()));
+    }
+
+    @Override
+    public boolean isUserNameRequired(String tenantId, List<Rule> rules) {
+      return userNameRequired;
+    }
+
+    @Override
+    public List<Future> validateByLocalRules(String tenantId, List<Rule> rules, String userName, String password,
+                                             List<String> errorMessages, boolean onEventLoop) {
+      Assert.assertFalse(onEventLoop);
+      if (password.length() < 8) {
+        errorMessages.add(MIN_LENGTH_RULE.getErrMessageId());
+      }
+      if (userName != null && password.toLowerCase().contains(userName)) {
+        errorMessages.add("password.usernameDuplicate.invalid");
+      }
+      return Collections.singletonList(Future.succeededFuture());
+    }
+
+    @Override
+    public Future<List<String>> validateByProgrammaticRules(String tenantId, List<Rule> rules, String userId,
+                                                            String password, MultiMap headers,
+                                                            List<String> errorMessages,
+                                                            List<Future> localRulesFutures) {
+      programmaticRulesUserIds.add(userId);
+      return Future.succeededFuture(errorMessages);
+    }
+  }
+}
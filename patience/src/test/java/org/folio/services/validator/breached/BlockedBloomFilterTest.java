@@ -0,0 +1,107 @@
+package org.folio.services.validator.breached;
+
+import io.vertx.core.json.JsonObject;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for the Bloom filter in front of the breached hash index
+ */
+public class BlockedBloomFilterTest {
+
+  private static final int HASHES_COUNT = 5000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<String> breachedPasswords = new ArrayList<>();
+  private BreachedHashIndex index;
+
+  @Before
+  public void setUp() throws IOException {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < HASHES_COUNT; i++) {
+      String password = "breached" + i;
+      breachedPasswords.add(password);
+      lines.append(HashAlgorithmTest.hex(HashAlgorithm.SHA1.hash(password))).append('\n');
+    }
+    Path hashList = folder.newFile("sha1.txt").toPath();
+    Files.write(hashList, lines.toString().getBytes(StandardCharsets.US_ASCII));
+    Path indexFile = folder.getRoot().toPath().resolve("sha1.idx");
+    BreachedHashIndexBuilder.build(HashAlgorithm.SHA1, hashList, indexFile, 1000);
+    index = BreachedHashIndex.open(indexFile);
+  }
+
+  @Test
+  public void shouldContainAllHashesAndRejectMostOthers() throws IOException {
+    Path filterFile = folder.getRoot().toPath().resolve("sha1.bloom");
+    BlockedBloomFilterBuilder.build(index, filterFile, 0.01);
+    BlockedBloomFilter filter = BlockedBloomFilter.open(filterFile);
+
+    for (String password : breachedPasswords) {
+      Assert.assertTrue(filter.mightContain(HashAlgorithm.SHA1.hash(password)));
+    }
+    int falsePositives = 0;
+    Random random = new Random(7);
+    for (int i = 0; i < HASHES_COUNT * 10; i++) {
+      byte[] hash = new byte[HashAlgorithm.SHA1.getHashLength()];
+      random.nextBytes(hash);
+      if (filter.mightContain(hash)) {
+        falsePositives++;
+      }
+    }
+    Assert.assertThat((double) falsePositives / (HASHES_COUNT * 10), Matchers.lessThan(0.03));
+    Assert.assertThat(filter.getEntries(), Matchers.is((long) HASHES_COUNT));
+    Assert.assertThat(filter.getHashFunctions(), Matchers.is(7));
+    Assert.assertThat(filter.sizeInBytes(), Matchers.lessThan(index.sizeInBytes()));
+  }
+
+  @Test
+  public void shouldLookUpIndexOnlyForPasswordsPassingFilter() throws IOException {
+    Path filterFile = folder.getRoot().toPath().resolve("sha1.bloom");
+    BreachedPasswords passwords = new BreachedPasswords(index, BlockedBloomFilterBuilder.build(index, filterFile, 0.001));
+
+    Assert.assertTrue(passwords.contains("breached42"));
+    for (int i = 0; i < 100; i++) {
+      Assert.assertFalse(passwords.contains("clean" + i));
+    }
+
+    JsonObject statistics = passwords.getStatistics();
+    Assert.assertThat(statistics.getLong("lookups"), Matchers.is(101L));
+    Assert.assertThat(statistics.getLong("indexLookups"), Matchers.lessThan(5L));
+    Assert.assertThat(statistics.getLong("breached"), Matchers.is(1L));
+    Assert.assertThat(statistics.getLong("filterBytes"), Matchers.greaterThan(0L));
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldRejectTruncatedSnapshot() throws IOException {
+    Path filterFile = folder.getRoot().toPath().resolve("truncated.bloom");
+    BlockedBloomFilterBuilder.build(index, filterFile, 0.01);
+    try (RandomAccessFile file = new RandomAccessFile(filterFile.toFile(), "rw")) {
+      file.setLength(file.length() - BlockedBloomFilter.BLOCK_SIZE);
+    }
+
+    BlockedBloomFilter.open(filterFile);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectFilterOfAnotherAlgorithm() throws IOException {
+    Path filterFile = folder.getRoot().toPath().resolve("ntlm.bloom");
+    BlockedBloomFilter filter = BlockedBloomFilter.create(filterFile, HashAlgorithm.NTLM, 3, 1, 0);
+
+    new BreachedPasswords(index, filter);
+  }
+}
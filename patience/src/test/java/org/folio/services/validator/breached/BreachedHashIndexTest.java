@@ -0,0 +1,108 @@
+package org.folio.services.validator.breached;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for the memory-mapped index of the breached password hashes and its builder
+ */
+public class BreachedHashIndexTest {
+
+  private static final int HASHES_COUNT = 2000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldFindBreachedPasswords() throws IOException {
+    Path hashList = writeHashList(HashAlgorithm.SHA1, "password", "qwerty", "letmein");
+    Path indexFile = folder.getRoot().toPath().resolve("sha1.idx");
+
+    long count = BreachedHashIndexBuilder.build(HashAlgorithm.SHA1, hashList, indexFile, 2);
+    BreachedHashIndex index = BreachedHashIndex.open(indexFile);
+
+    Assert.assertThat(count, Matchers.is(3L));
+    Assert.assertThat(index.size(), Matchers.is(3L));
+    Assert.assertThat(index.getAlgorithm(), Matchers.is(HashAlgorithm.SHA1));
+    Assert.assertTrue(index.containsPassword("qwerty"));
+    Assert.assertTrue(index.containsPassword("password"));
+    Assert.assertFalse(index.containsPassword("Password"));
+    Assert.assertFalse(index.containsPassword("correct horse battery staple"));
+  }
+
+  @Test
+  public void shouldFindHashesAcrossSegmentsAndChunks() throws IOException {
+    Random random = new Random(42);
+    List<byte[]> hashes = new ArrayList<>();
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < HASHES_COUNT; i++) {
+      byte[] hash = new byte[HashAlgorithm.NTLM.getHashLength()];
+      random.nextBytes(hash);
+      hashes.add(hash);
+      // duplicates and prevalence counts of the downloaded lists are accepted
+      lines.append(HashAlgorithmTest.hex(hash).toUpperCase()).append(':').append(i).append('\n');
+      if (i % 10 == 0) {
+        lines.append(HashAlgorithmTest.hex(hash)).append("\n\n");
+      }
+    }
+    Path hashList = folder.newFile("ntlm.txt").toPath();
+    Files.write(hashList, lines.toString().getBytes(StandardCharsets.US_ASCII));
+    Path indexFile = folder.getRoot().toPath().resolve("ntlm.idx");
+
+    Assert.assertThat(BreachedHashIndexBuilder.build(HashAlgorithm.NTLM, hashList, indexFile, 300),
+      Matchers.is((long) HASHES_COUNT));
+    BreachedHashIndex index = BreachedHashIndex.open(indexFile, 1000);
+
+    for (byte[] hash : hashes) {
+      Assert.assertTrue(index.contains(hash));
+    }
+    for (int i = 0; i < HASHES_COUNT; i++) {
+      byte[] hash = new byte[HashAlgorithm.NTLM.getHashLength()];
+      random.nextBytes(hash);
+      Assert.assertFalse(index.contains(hash));
+    }
+    Assert.assertFalse(index.contains(new byte[HashAlgorithm.NTLM.getHashLength()]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidHashList() throws IOException {
+    Path hashList = folder.newFile("invalid.txt").toPath();
+    Files.write(hashList, "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8\nnot a hash\n".getBytes(StandardCharsets.US_ASCII));
+
+    BreachedHashIndexBuilder.build(HashAlgorithm.SHA1, hashList, folder.getRoot().toPath().resolve("invalid.idx"), 10);
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldRejectTruncatedIndex() throws IOException {
+    Path indexFile = folder.getRoot().toPath().resolve("truncated.idx");
+    BreachedHashIndexBuilder.build(HashAlgorithm.SHA1, writeHashList(HashAlgorithm.SHA1, "password", "qwerty"),
+      indexFile, 10);
+    try (RandomAccessFile file = new RandomAccessFile(indexFile.toFile(), "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    BreachedHashIndex.open(indexFile);
+  }
+
+  private Path writeHashList(HashAlgorithm algorithm, String... passwords) throws IOException {
+    StringBuilder lines = new StringBuilder();
+    for (String password : passwords) {
+      lines.append(HashAlgorithmTest.hex(algorithm.hash(password))).append('\n');
+    }
+    Path hashList = folder.newFile().toPath();
+    Files.write(hashList, lines.toString().getBytes(StandardCharsets.US_ASCII));
+    return hashList;
+  }
+}
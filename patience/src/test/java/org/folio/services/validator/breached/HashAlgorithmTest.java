@@ -0,0 +1,49 @@
+package org.folio.services.validator.breached;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test for the hash functions of the breached passwords index
+ */
+public class HashAlgorithmTest {
+
+  @Test
+  public void shouldCalculateMd4TestSuiteDigests() {
+    Assert.assertThat(hex(Md4.digest(new byte[0])), Matchers.is("31d6cfe0d16ae931b73c59d7e0c089c0"));
+    Assert.assertThat(hex(Md4.digest("abc".getBytes(StandardCharsets.US_ASCII))),
+      Matchers.is("a448017aaf21d8525fc10ae87aa6729d"));
+    Assert.assertThat(hex(Md4.digest("12345678901234567890123456789012345678901234567890123456789012345678901234567890"
+        .getBytes(StandardCharsets.US_ASCII))),
+      Matchers.is("e33b4ddc9c38f2199c3e7b164fcc0536"));
+  }
+
+  @Test
+  public void shouldHashPasswords() {
+    Assert.assertThat(hex(HashAlgorithm.NTLM.hash("password")), Matchers.is("8846f7eaee8fb117ad06bdd830b7586c"));
+    Assert.assertThat(hex(HashAlgorithm.SHA1.hash("password")),
+      Matchers.is("5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8"));
+  }
+
+  @Test
+  public void shouldFindAlgorithmByIdAndName() {
+    Assert.assertThat(HashAlgorithm.fromId((byte) 2), Matchers.is(HashAlgorithm.NTLM));
+    Assert.assertThat(HashAlgorithm.fromName("SHA1"), Matchers.is(HashAlgorithm.SHA1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownAlgorithm() {
+    HashAlgorithm.fromName("md5");
+  }
+
+  static String hex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder();
+    for (byte b : bytes) {
+      builder.append(String.format("%02x", b & 0xff));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,109 @@
+package org.folio.services.validator.breaker;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the circuit breaker of the programmatic rules
+ */
+public class CircuitBreakerTest {
+
+  private static final CircuitBreakerOptions OPTIONS = new CircuitBreakerOptions()
+    .setWindowSize(4)
+    .setMinimumCalls(4)
+    .setFailureRateThreshold(50)
+    .setOpenTimeout(1000)
+    .setHalfOpenCalls(2);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private CircuitBreaker buildCircuitBreaker() {
+    return new CircuitBreaker("/auth/credentials/isInBadPasswordList", OPTIONS, clock::get);
+  }
+
+  private static void call(CircuitBreaker circuitBreaker, boolean failure) {
+    Assert.assertTrue(circuitBreaker.tryAcquire());
+    if (failure) {
+      circuitBreaker.onFailure();
+    } else {
+      circuitBreaker.onSuccess();
+    }
+  }
+
+  @Test
+  public void shouldStayClosedUntilMinimumCalls() {
+    CircuitBreaker circuitBreaker = buildCircuitBreaker();
+
+    call(circuitBreaker, true);
+    call(circuitBreaker, true);
+    call(circuitBreaker, true);
+
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void shouldOpenWhenFailureRateReachesThreshold() {
+    CircuitBreaker circuitBreaker = buildCircuitBreaker();
+
+    call(circuitBreaker, false);
+    call(circuitBreaker, false);
+    call(circuitBreaker, true);
+    call(circuitBreaker, true);
+
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.OPEN));
+    Assert.assertFalse(circuitBreaker.tryAcquire());
+    Assert.assertThat(circuitBreaker.getStatistics().getLong("rejections"), Matchers.is(1L));
+  }
+
+  @Test
+  public void shouldForgetCallsOutsideOfWindow() {
+    CircuitBreaker circuitBreaker = buildCircuitBreaker();
+
+    call(circuitBreaker, true);
+    call(circuitBreaker, false);
+    call(circuitBreaker, false);
+    call(circuitBreaker, false);
+    call(circuitBreaker, true);
+
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void shouldCloseAfterSucceededProbes() {
+    CircuitBreaker circuitBreaker = buildCircuitBreaker();
+    for (int i = 0; i < 4; i++) {
+      call(circuitBreaker, true);
+    }
+
+    clock.set(1000);
+    Assert.assertTrue(circuitBreaker.tryAcquire());
+    Assert.assertTrue(circuitBreaker.tryAcquire());
+    Assert.assertFalse(circuitBreaker.tryAcquire());
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.HALF_OPEN));
+    circuitBreaker.onSuccess();
+    circuitBreaker.onSuccess();
+
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.CLOSED));
+    call(circuitBreaker, true);
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void shouldReopenWhenProbeFails() {
+    CircuitBreaker circuitBreaker = buildCircuitBreaker();
+    for (int i = 0; i < 4; i++) {
+      call(circuitBreaker, true);
+    }
+
+    clock.set(1500);
+    call(circuitBreaker, true);
+
+    Assert.assertThat(circuitBreaker.getState(), Matchers.is(CircuitBreaker.State.OPEN));
+    clock.set(2000);
+    Assert.assertFalse(circuitBreaker.tryAcquire());
+    Assert.assertThat(circuitBreaker.getStatistics().getLong("openings"), Matchers.is(2L));
+  }
+}
@@ -0,0 +1,116 @@
+package org.folio.services.validator.cache;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test for the cache of tenant rules
+ */
+public class TenantRulesCacheTest {
+
+  private static final String TENANT = "diku";
+  private static final String ANOTHER_TENANT = "another";
+
+  private static final Rule FIRST_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP)
+    .withState(Rule.State.ENABLED)
+    .withExpression("^.{8,}$")
+    .withOrderNo(0);
+
+  private static final Rule SECOND_RULE = new Rule()
+    .withRuleId("3e3c53ae-73c2-4eba-9f09-f2c9a892c7a2")
+    .withName("numeric_symbol")
+    .withType(Rule.Type.REG_EXP)
+    .withState(Rule.State.ENABLED)
+    .withExpression("(?=.*\\d).+")
+    .withOrderNo(1);
+
+  private static final Rule DISABLED_RULE = new Rule()
+    .withRuleId("51e201ba-95d3-44e5-b4ec-f0059f11afcb")
+    .withName("no_white_space_character")
+    .withType(Rule.Type.REG_EXP)
+    .withState(Rule.State.DISABLED)
+    .withExpression("[^\\s]+")
+    .withOrderNo(2);
+
+  @Test
+  public void shouldKeepOnlyEnabledRulesSortedByOrderNo() {
+    TenantRulesCache cache = new TenantRulesCache(10, 0);
+
+    cache.put(TENANT, Arrays.asList(DISABLED_RULE, SECOND_RULE, FIRST_RULE), cache.loadToken());
+
+    List<String> ruleIds = cache.get(TENANT).getRules().stream().map(Rule::getRuleId).collect(Collectors.toList());
+    Assert.assertThat(ruleIds, Matchers.contains(FIRST_RULE.getRuleId(), SECOND_RULE.getRuleId()));
+  }
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    TenantRulesCache cache = new TenantRulesCache(10, 0);
+
+    Assert.assertNull(cache.get(TENANT));
+    cache.put(TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken());
+    Assert.assertNotNull(cache.get(TENANT));
+    Assert.assertNotNull(cache.get(TENANT));
+
+    Assert.assertThat(cache.getMisses(), Matchers.is(1L));
+    Assert.assertThat(cache.getHits(), Matchers.is(2L));
+  }
+
+  @Test
+  public void shouldDropInvalidatedTenantRules() {
+    TenantRulesCache cache = new TenantRulesCache(10, 0);
+    cache.put(TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken());
+    cache.put(ANOTHER_TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken());
+
+    cache.invalidate(TENANT);
+
+    Assert.assertNull(cache.get(TENANT));
+    Assert.assertNotNull(cache.get(ANOTHER_TENANT));
+  }
+
+  @Test
+  public void shouldNotStoreRulesLoadedBeforeInvalidation() {
+    TenantRulesCache cache = new TenantRulesCache(10, 0);
+    long loadToken = cache.loadToken();
+
+    cache.invalidate(TENANT);
+    CompiledRuleSet staleRuleSet = cache.put(TENANT, Collections.singletonList(FIRST_RULE), loadToken);
+
+    Assert.assertNotNull(staleRuleSet);
+    Assert.assertNull(cache.get(TENANT));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedTenant() {
+    TenantRulesCache cache = new TenantRulesCache(2, 0);
+    cache.put(TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken());
+    cache.put(ANOTHER_TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken());
+    cache.get(TENANT);
+
+    cache.put("third", Collections.singletonList(FIRST_RULE), cache.loadToken());
+
+    Assert.assertNotNull(cache.get(TENANT));
+    Assert.assertNull(cache.get(ANOTHER_TENANT));
+    Assert.assertThat(cache.getEvictions(), Matchers.is(1L));
+  }
+
+  @Test
+  public void shouldIncreaseVersionOnReload() {
+    TenantRulesCache cache = new TenantRulesCache(10, 0);
+    long firstVersion = cache.put(TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken()).getVersion();
+
+    cache.invalidate(TENANT);
+    long secondVersion = cache.put(TENANT, Collections.singletonList(FIRST_RULE), cache.loadToken()).getVersion();
+
+    Assert.assertThat(secondVersion, Matchers.greaterThan(firstVersion));
+  }
+}
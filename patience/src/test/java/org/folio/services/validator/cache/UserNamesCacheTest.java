@@ -0,0 +1,93 @@
+package org.folio.services.validator.cache;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the cache of user names
+ */
+public class UserNamesCacheTest {
+
+  private static final String TENANT = "diku";
+  private static final String ANOTHER_TENANT = "another";
+  private static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+  private static final String ANOTHER_USER_ID = "9d990cae-2685-4868-9fca-d0ad013c0640";
+
+  private final AtomicLong now = new AtomicLong(1000);
+
+  @Test
+  public void shouldReturnFreshUserNameOfTenant() {
+    UserNamesCache cache = new UserNamesCache(10, 100, 200, now::get);
+
+    Assert.assertNull(cache.get(TENANT, USER_ID));
+    cache.put(TENANT, USER_ID, "admin");
+    UserNamesCache.CachedUserName cachedUserName = cache.get(TENANT, USER_ID);
+
+    Assert.assertThat(cachedUserName.getUserName(), Matchers.is("admin"));
+    Assert.assertFalse(cachedUserName.isStale());
+    Assert.assertNull(cache.get(ANOTHER_TENANT, USER_ID));
+    Assert.assertThat(cache.getHits(), Matchers.is(1L));
+    Assert.assertThat(cache.getMisses(), Matchers.is(2L));
+  }
+
+  @Test
+  public void shouldServeStaleUserNameWhileItIsRefreshedOnce() {
+    UserNamesCache cache = new UserNamesCache(10, 100, 200, now::get);
+    cache.put(TENANT, USER_ID, "admin");
+    now.addAndGet(150);
+
+    UserNamesCache.CachedUserName cachedUserName = cache.get(TENANT, USER_ID);
+    Assert.assertThat(cachedUserName.getUserName(), Matchers.is("admin"));
+    Assert.assertTrue(cachedUserName.isStale());
+    Assert.assertTrue(cache.startRefresh(TENANT, USER_ID));
+    Assert.assertFalse(cache.startRefresh(TENANT, USER_ID));
+
+    cache.refreshed(TENANT, USER_ID, "administrator", 5000000);
+
+    Assert.assertThat(cache.get(TENANT, USER_ID).getUserName(), Matchers.is("administrator"));
+    Assert.assertFalse(cache.get(TENANT, USER_ID).isStale());
+    Assert.assertThat(cache.getStaleHits(), Matchers.is(1L));
+    Assert.assertThat(cache.getRefreshes(), Matchers.is(1L));
+    Assert.assertThat(cache.getStatistics().getDouble("refreshMaxMillis"), Matchers.is(5d));
+  }
+
+  @Test
+  public void shouldKeepStaleUserNameWhenRefreshFails() {
+    UserNamesCache cache = new UserNamesCache(10, 100, 200, now::get);
+    cache.put(TENANT, USER_ID, "admin");
+    now.addAndGet(150);
+    cache.get(TENANT, USER_ID);
+    cache.startRefresh(TENANT, USER_ID);
+
+    cache.refreshFailed(TENANT, USER_ID, 1000000);
+
+    Assert.assertThat(cache.get(TENANT, USER_ID).getUserName(), Matchers.is("admin"));
+    Assert.assertTrue(cache.startRefresh(TENANT, USER_ID));
+    Assert.assertThat(cache.getRefreshFailures(), Matchers.is(1L));
+  }
+
+  @Test
+  public void shouldDropUserNameAfterStalePeriod() {
+    UserNamesCache cache = new UserNamesCache(10, 100, 200, now::get);
+    cache.put(TENANT, USER_ID, "admin");
+    now.addAndGet(301);
+
+    Assert.assertNull(cache.get(TENANT, USER_ID));
+    Assert.assertThat(cache.size(), Matchers.is(0));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedUser() {
+    UserNamesCache cache = new UserNamesCache(1, 100, 200, now::get);
+    cache.put(TENANT, USER_ID, "admin");
+    cache.put(TENANT, ANOTHER_USER_ID, "user");
+
+    Assert.assertNull(cache.get(TENANT, USER_ID));
+    Assert.assertNotNull(cache.get(TENANT, ANOTHER_USER_ID));
+    Assert.assertThat(cache.getEvictions(), Matchers.is(1L));
+    Assert.assertThat(cache.getStatistics().getDouble("hitRate"), Matchers.is(0.5d));
+  }
+}
@@ -0,0 +1,76 @@
+package org.folio.services.validator.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.Metadata;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Test for the event bus codec of the rule collections
+ */
+public class RuleCollectionCodecTest {
+
+  private static final Rule SEQUENCE_RULE = new Rule()
+    .withRuleId("0b2d2a36-2d2c-4a2b-8b1e-0f1c6a5b7d41")
+    .withName("keyboard_sequence")
+    .withType(Rule.Type.SEQUENCE)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withSequences(Arrays.asList("qwerty", "\u0439\u0446\u0443\u043a\u0435\u043d"))
+    .withIgnoreCase(true)
+    .withMatchReversed(false)
+    .withDescription("The password must not contain a keyboard sequence")
+    .withOrderNo(3)
+    .withErrMessageId("password.keyboardSequence.invalid")
+    .withMetadata(new Metadata()
+      .withCreatedDate(new Date(1539936000000L))
+      .withCreatedByUserId("9d990cae-2685-4868-9fca-d0ad013c0640"));
+
+  private static final Rule PROGRAMMATIC_RULE = new Rule()
+    .withRuleId("739c63d4-bb55-4b5d-8c1a-2ed8e8c7d4a2")
+    .withName("password_history")
+    .withType(Rule.Type.PROGRAMMATIC)
+    .withValidationType(Rule.ValidationType.SOFT)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-login")
+    .withImplementationReference("/authn/password/repeatable")
+    .withOrderNo(4);
+
+  private final RuleCollectionCodec codec = new RuleCollectionCodec();
+
+  @Test
+  public void shouldDecodeSameRulesAsEncoded() {
+    RuleCollection ruleCollection = new RuleCollection()
+      .withRules(Arrays.asList(SEQUENCE_RULE, PROGRAMMATIC_RULE))
+      .withTotalRecords(2);
+    Buffer buffer = Buffer.buffer("header");
+
+    codec.encodeToWire(buffer, ruleCollection);
+    RuleCollection decodedRuleCollection = codec.decodeFromWire("header".length(), buffer);
+
+    Assert.assertThat(buffer.getInt("header".length()), Matchers.is(buffer.length() - "header".length() - Integer.BYTES));
+    Assert.assertThat(JsonObject.mapFrom(decodedRuleCollection), Matchers.is(JsonObject.mapFrom(ruleCollection)));
+  }
+
+  @Test
+  public void shouldPassRulesByReferenceForLocalDelivery() {
+    RuleCollection ruleCollection = new RuleCollection().withRules(Arrays.asList(SEQUENCE_RULE)).withTotalRecords(1);
+
+    Assert.assertThat(codec.transform(ruleCollection), Matchers.sameInstance(ruleCollection));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRejectUnknownFormatVersion() {
+    Buffer buffer = Buffer.buffer().appendInt(1).appendByte((byte) 99);
+
+    codec.decodeFromWire(0, buffer);
+  }
+}
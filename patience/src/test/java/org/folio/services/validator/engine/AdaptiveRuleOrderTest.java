@@ -0,0 +1,76 @@
+package org.folio.services.validator.engine;
+
+import io.vertx.core.json.JsonObject;
+import org.folio.rest.jaxrs.model.Rule;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test for the adaptive evaluation order of the local rules
+ */
+public class AdaptiveRuleOrderTest {
+
+  private static final String TENANT = "diku";
+
+  private static final Rule EXPENSIVE_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("expensive")
+    .withType(Rule.Type.REG_EXP)
+    .withOrderNo(0);
+
+  private static final Rule CHEAP_RULE = new Rule()
+    .withRuleId("db6ffb67-3160-43bf-8e2f-ecf9a420288b")
+    .withName("cheap")
+    .withType(Rule.Type.SEQUENCE)
+    .withOrderNo(1);
+
+  private static final Rule PROGRAMMATIC_RULE = new Rule()
+    .withRuleId("9d990cae-2685-4868-9fca-d0ad013c0640")
+    .withName("programmatic")
+    .withType(Rule.Type.PROGRAMMATIC)
+    .withOrderNo(2);
+
+  private final List<Rule> rules =
+    Collections.unmodifiableList(Arrays.asList(EXPENSIVE_RULE, CHEAP_RULE, PROGRAMMATIC_RULE));
+
+  @Test
+  public void shouldKeepOrderNumbersOfLocalRulesWithoutStatistics() {
+    AdaptiveRuleOrder order = new AdaptiveRuleOrder(10);
+
+    Assert.assertThat(order.order(TENANT, rules), Matchers.contains(EXPENSIVE_RULE, CHEAP_RULE));
+  }
+
+  @Test
+  public void shouldPutCheapOftenFailingRuleFirstAfterReorderInterval() {
+    AdaptiveRuleOrder order = new AdaptiveRuleOrder(10);
+    order.order(TENANT, rules);
+    for (int i = 0; i < 8; i++) {
+      order.record(TENANT, EXPENSIVE_RULE, 50000, true);
+      order.record(TENANT, CHEAP_RULE, 1000, i % 2 == 0);
+      Assert.assertThat(order.order(TENANT, rules), Matchers.contains(EXPENSIVE_RULE, CHEAP_RULE));
+    }
+
+    Assert.assertThat(order.order(TENANT, rules), Matchers.contains(CHEAP_RULE, EXPENSIVE_RULE));
+    JsonObject statistics = order.getStatistics().getJsonObject(TENANT);
+    Assert.assertThat(statistics.getLong("validations"), Matchers.is(10L));
+    Assert.assertThat(statistics.getJsonArray("rules").getJsonObject(0).getLong("failures"), Matchers.is(4L));
+  }
+
+  @Test
+  public void shouldReorderChangedRuleSetAndForgetChangedRule() {
+    AdaptiveRuleOrder order = new AdaptiveRuleOrder(1000);
+    order.order(TENANT, rules);
+    order.record(TENANT, EXPENSIVE_RULE, 50000, true);
+
+    List<Rule> reloadedRules = Collections.unmodifiableList(Arrays.asList(EXPENSIVE_RULE, CHEAP_RULE));
+    Assert.assertThat(order.order(TENANT, reloadedRules), Matchers.contains(CHEAP_RULE, EXPENSIVE_RULE));
+
+    order.invalidate(TENANT, EXPENSIVE_RULE.getRuleId());
+    Assert.assertThat(order.order(TENANT, rules), Matchers.contains(EXPENSIVE_RULE, CHEAP_RULE));
+  }
+}
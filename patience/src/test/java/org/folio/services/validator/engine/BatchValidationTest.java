@@ -0,0 +1,233 @@
+package org.folio.services.validator.engine;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.impl.GenericHandlerAnswer;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.cache.UserNamesCache;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_RESULTS_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_TOTAL_RECORDS_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_INVALID_RESULT;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_VALID_RESULT;
+
+/**
+ * Test for Validation Engine component. Testing validation of a batch of passwords.
+ */
+@RunWith(VertxUnitRunner.class)
+public class BatchValidationTest {
+
+  private static final String ADMIN_ID = "9d990cae-2685-4868-9fca-d0ad013c0640";
+  private static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+  private static final String UNKNOWN_USER_ID = "3f4b8a8c-8b3a-4e0a-9a4d-4c6f1f7b9e21";
+
+  private static final JsonObject USER_SERVICE_MOCK_RESPONSE = new JsonObject()
+    .put("users", new JsonArray()
+      .add(new JsonObject()
+        .put("username", "admin")
+        .put("id", ADMIN_ID)
+        .put("active", true))
+      .add(new JsonObject()
+        .put("username", "user")
+        .put("id", USER_ID)
+        .put("active", true)))
+    .put("totalRecords", 2);
+
+  private static final Rule REGEXP_MIN_LENGTH_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withExpression("^.{8,}$")
+    .withDescription("Password must contain minimum 8 characters")
+    .withOrderNo(0)
+    .withErrMessageId("password.length.invalid");
+
+  private static final Rule REGEXP_USER_NAME_RULE = new Rule()
+    .withRuleId("2f390fa6-a2f8-4027-abaf-ee61952668bc")
+    .withName("no_user_name")
+    .withType(Rule.Type.REG_EXP)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withExpression("^(?:(?!<USER_NAME>).)+$")
+    .withDescription("The password must not contain your username")
+    .withOrderNo(1)
+    .withErrMessageId("password.usernameDuplicate.invalid");
+
+  private static final String OKAPI_HEADER_TENANT_VALUE = "tenant";
+  private static final String OKAPI_HEADER_TOKEN_VALUE = "token";
+
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+
+  @InjectMocks
+  private ValidationEngineService validationEngineService = new ValidationEngineServiceImpl(Vertx.vertx());
+  @Mock
+  private ValidatorRegistryService validatorRegistryService;
+  @Spy
+  private HttpClient httpClient = Vertx.vertx().createHttpClient();
+  @Spy
+  private UserNamesCache userNamesCache = new UserNamesCache(10, 100, 60000, this::currentTimeMillis);
+
+  private long now = 1000;
+
+  private Map<String, String> requestHeaders;
+
+  @org.junit.Rule
+  public WireMockRule userMockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig()
+      .dynamicPort()
+      .notifier(new ConsoleNotifier(true)));
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    requestHeaders = new HashMap<>();
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TENANT, OKAPI_HEADER_TENANT_VALUE);
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TOKEN, OKAPI_HEADER_TOKEN_VALUE);
+    requestHeaders.put(OKAPI_URL_HEADER, "http://localhost:" + userMockServer.port());
+    WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/users"))
+      .withQueryParam("query", WireMock.equalTo("id==(\"" + ADMIN_ID + "\" or \"" + USER_ID + "\")"))
+      .willReturn(WireMock.okJson(USER_SERVICE_MOCK_RESPONSE.toString())));
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(JsonObject.mapFrom(new RuleCollection()
+      .withRules(Arrays.asList(REGEXP_MIN_LENGTH_RULE, REGEXP_USER_NAME_RULE)))), 4))
+      .when(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+      ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  /**
+   * Testing the case when a batch contains valid and invalid passwords of several users.
+   * Expected result is to receive the validation result of each password in the received order,
+   * the rules and the users being requested only once.
+   */
+  @Test
+  public void shouldReturnResultOfEachPasswordInReceivedOrder(TestContext testContext) {
+    //given
+    JsonArray passwords = new JsonArray()
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rd1"))
+      .add(new JsonObject().put("userId", USER_ID).put("password", "P@sw"))
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rdAdmin1"));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      JsonArray results = response.getJsonArray(RESPONSE_RESULTS_KEY);
+      Assert.assertThat(response.getInteger(RESPONSE_TOTAL_RECORDS_KEY), Matchers.is(3));
+      Assert.assertThat(results.getJsonObject(0).getString("userId"), Matchers.is(ADMIN_ID));
+      Assert.assertThat(results.getJsonObject(0).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      Assert.assertThat(results.getJsonObject(1).getString("userId"), Matchers.is(USER_ID));
+      Assert.assertThat(results.getJsonObject(1).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      Assert.assertThat(results.getJsonObject(1).getJsonArray(RESPONSE_ERROR_MESSAGES_KEY),
+        Matchers.contains(REGEXP_MIN_LENGTH_RULE.getErrMessageId()));
+      Assert.assertThat(results.getJsonObject(2).getJsonArray(RESPONSE_ERROR_MESSAGES_KEY),
+        Matchers.contains(REGEXP_USER_NAME_RULE.getErrMessageId()));
+      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      userMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users")));
+      JsonObject httpClientStatistics = ((ValidationEngineServiceImpl) validationEngineService)
+        .getHttpClientStatistics().getStatistics();
+      Assert.assertThat(httpClientStatistics.getLong("requests"), Matchers.is(1L));
+      Assert.assertThat(httpClientStatistics.getLong("inFlight"), Matchers.is(0L));
+    });
+
+    //when
+    validationEngineService.validatePasswords(passwords, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when a user of the batch is not found.
+   * Expected result is to receive an error result of the password of that user
+   * and the validation results of the other passwords.
+   */
+  @Test
+  public void shouldReturnErrorOfPasswordWhenUserIsNotFound(TestContext testContext) {
+    //given
+    JsonArray passwords = new JsonArray()
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rd1"))
+      .add(new JsonObject().put("userId", UNKNOWN_USER_ID).put("password", "P@sw0rd1"))
+      .add(new JsonObject().put("userId", USER_ID).put("password", "P@sw0rdUser1"));
+    WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/users"))
+      .willReturn(WireMock.okJson(USER_SERVICE_MOCK_RESPONSE.toString())));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      JsonArray results = response.getJsonArray(RESPONSE_RESULTS_KEY);
+      Assert.assertThat(response.getInteger(RESPONSE_TOTAL_RECORDS_KEY), Matchers.is(3));
+      Assert.assertThat(results.getJsonObject(0).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      Assert.assertThat(results.getJsonObject(1).getString("userId"), Matchers.is(UNKNOWN_USER_ID));
+      Assert.assertThat(results.getJsonObject(1).getString(RESPONSE_ERROR_KEY), Matchers.containsString(UNKNOWN_USER_ID));
+      Assert.assertThat(results.getJsonObject(1).containsKey(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(false));
+      Assert.assertThat(results.getJsonObject(2).getJsonArray(RESPONSE_ERROR_MESSAGES_KEY),
+        Matchers.contains(REGEXP_USER_NAME_RULE.getErrMessageId()));
+    });
+
+    //when
+    validationEngineService.validatePasswords(passwords, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the cached user names are stale and mod-users is unavailable.
+   * Expected result is to validate the passwords with the stale user names.
+   */
+  @Test
+  public void shouldUseStaleUserNamesWhenUsersModuleFails(TestContext testContext) {
+    //given
+    userNamesCache.put(OKAPI_HEADER_TENANT_VALUE, ADMIN_ID, "admin");
+    userNamesCache.put(OKAPI_HEADER_TENANT_VALUE, USER_ID, "user");
+    now += 150;
+    WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/users"))
+      .willReturn(WireMock.serverError()));
+    JsonArray passwords = new JsonArray()
+      .add(new JsonObject().put("userId", ADMIN_ID).put("password", "P@sw0rdAdmin1"))
+      .add(new JsonObject().put("userId", USER_ID).put("password", "P@sw0rd1"));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      JsonArray results = response.getJsonArray(RESPONSE_RESULTS_KEY);
+      Assert.assertThat(results.getJsonObject(0).getJsonArray(RESPONSE_ERROR_MESSAGES_KEY),
+        Matchers.contains(REGEXP_USER_NAME_RULE.getErrMessageId()));
+      Assert.assertThat(results.getJsonObject(1).getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      Assert.assertThat(userNamesCache.getStaleHits(), Matchers.is(2L));
+    });
+
+    //when
+    validationEngineService.validatePasswords(passwords, requestHeaders, checkingHandler);
+  }
+
+  private long currentTimeMillis() {
+    return now;
+  }
+}
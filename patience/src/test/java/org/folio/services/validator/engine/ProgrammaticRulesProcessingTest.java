@@ -4,6 +4,7 @@ package org.folio.services.validator.engine;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -18,9 +19,12 @@ import org.apache.http.HttpStatus;
 import org.folio.rest.impl.GenericHandlerAnswer;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.breaker.CircuitBreaker;
+import org.folio.services.validator.history.PasswordHistoryService;
 import org.folio.services.validator.registry.ValidatorRegistryService;
 import org.folio.services.validator.util.ValidatorHelper;
 import org.hamcrest.Matchers;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,6 +36,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +46,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
 import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
 import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
 import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
@@ -93,9 +99,34 @@ public class ProgrammaticRulesProcessingTest {
     .withOrderNo(0)
     .withErrMessageId("password.in.bad.password.list");
 
+  private static final Rule REGEXP_MIN_LENGTH_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withExpression("^.{8,}$")
+    .withDescription("Password must contain minimum 8 characters")
+    .withOrderNo(1)
+    .withErrMessageId("password.length.invalid");
+
+  private static final Rule HISTORY_RULE = new Rule()
+    .withRuleId("5e515a3c-c27a-4304-a33b-b260ce15ffaf")
+    .withName("no_repeatable_password")
+    .withType(Rule.Type.HISTORY)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withHistorySize(5)
+    .withDescription("The password must not be previously used")
+    .withOrderNo(8)
+    .withErrMessageId("password.lastTenPasswords.invalid");
 
   @Mock
   private ValidatorRegistryService validatorRegistryService;
+  @Mock
+  private PasswordHistoryService passwordHistoryService;
   @Spy
   private HttpClient httpClient = Vertx.vertx().createHttpClient();
   @InjectMocks
@@ -119,6 +150,11 @@ public class ProgrammaticRulesProcessingTest {
     mockUserModule(HttpStatus.SC_OK, USER_SERVICE_MOCK_RESPONSE);
   }
 
+  @After
+  public void tearDown() {
+    MODULE_SPECIFIC_ARGS.remove("evaluation.mode." + OKAPI_HEADER_TENANT_VALUE);
+  }
+
   /**
    * Testing the case when received password satisfies Strong Programmatic rule.
    * Expected result is to receive the response contains valid validation result
@@ -245,6 +281,215 @@ public class ProgrammaticRulesProcessingTest {
     validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
   }
 
+  /**
+   * Testing the case when the password fails a local rule of a tenant with the fail-fast evaluation mode.
+   * Expected result is to receive invalid validation result without calling the programmatic rule:
+   * {
+   * "result" : "invalid",
+   * "messages" : "[password.length.invalid]"
+   * }
+   */
+  @Test
+  public void shouldNotCallProgrammaticRuleWhenLocalRuleFailsInFailFastMode(TestContext testContext) {
+    //given
+    MODULE_SPECIFIC_ARGS.put("evaluation.mode." + OKAPI_HEADER_TENANT_VALUE, EvaluationMode.FAIL_FAST.getValue());
+    mockRegistryService(Arrays.asList(STRONG_PROGRAMMATIC_RULE, REGEXP_MIN_LENGTH_RULE));
+
+    JsonObject httpClientMockResponse = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT);
+    mockProgrammaticRuleClient(STRONG_PROGRAMMATIC_RULE.getImplementationReference(),
+      HttpStatus.SC_OK, httpClientMockResponse);
+
+    //expect
+    JsonObject expectedResult = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT)
+      .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray().add(REGEXP_MIN_LENGTH_RULE.getErrMessageId()));
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response, Matchers.is(expectedResult));
+      userMockServer.verify(0, WireMock.postRequestedFor(urlEqualTo(STRONG_PROGRAMMATIC_RULE.getImplementationReference())));
+    });
+
+    //when
+    String givenPassword = "pass";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the password fails a local rule of a tenant with the adaptive evaluation mode.
+   * Expected result is the same as in the fail-fast mode, the evaluation of the local rule is measured.
+   */
+  @Test
+  public void shouldNotCallProgrammaticRuleWhenLocalRuleFailsInAdaptiveMode(TestContext testContext) {
+    //given
+    MODULE_SPECIFIC_ARGS.put("evaluation.mode." + OKAPI_HEADER_TENANT_VALUE, EvaluationMode.ADAPTIVE.getValue());
+    mockRegistryService(Arrays.asList(STRONG_PROGRAMMATIC_RULE, REGEXP_MIN_LENGTH_RULE));
+
+    JsonObject httpClientMockResponse = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT);
+    mockProgrammaticRuleClient(STRONG_PROGRAMMATIC_RULE.getImplementationReference(),
+      HttpStatus.SC_OK, httpClientMockResponse);
+
+    //expect
+    JsonObject expectedResult = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT)
+      .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray().add(REGEXP_MIN_LENGTH_RULE.getErrMessageId()));
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response, Matchers.is(expectedResult));
+      userMockServer.verify(0, WireMock.postRequestedFor(urlEqualTo(STRONG_PROGRAMMATIC_RULE.getImplementationReference())));
+      JsonObject ruleStatistics = ((ValidationEngineServiceImpl) validationEngineService).getAdaptiveRuleOrder()
+        .getStatistics().getJsonObject(OKAPI_HEADER_TENANT_VALUE).getJsonArray("rules").getJsonObject(0);
+      Assert.assertThat(ruleStatistics.getString("ruleId"), Matchers.is(REGEXP_MIN_LENGTH_RULE.getRuleId()));
+      Assert.assertThat(ruleStatistics.getLong("failures"), Matchers.is(1L));
+    });
+
+    //when
+    String givenPassword = "pass";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the password fails a local rule of a tenant with the default evaluation mode.
+   * Expected result is to receive messages of both the local and the programmatic rule.
+   */
+  @Test
+  public void shouldCallProgrammaticRuleWhenLocalRuleFailsInCollectAllMode(TestContext testContext) {
+    //given
+    mockRegistryService(Arrays.asList(STRONG_PROGRAMMATIC_RULE, REGEXP_MIN_LENGTH_RULE));
+
+    JsonObject httpClientMockResponse = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT);
+    mockProgrammaticRuleClient(STRONG_PROGRAMMATIC_RULE.getImplementationReference(),
+      HttpStatus.SC_OK, httpClientMockResponse);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      Assert.assertThat(response.getJsonArray(RESPONSE_ERROR_MESSAGES_KEY), Matchers.containsInAnyOrder(
+        REGEXP_MIN_LENGTH_RULE.getErrMessageId(), STRONG_PROGRAMMATIC_RULE.getErrMessageId()));
+    });
+
+    //when
+    String givenPassword = "pass";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+  /**
+   * Testing the case when the circuit breaker of the programmatic rules module is open.
+   * Expected result is to skip Soft rule and fail Strong rule without calling the module.
+   */
+  @Test
+  public void shouldNotCallProgrammaticRuleWhenCircuitBreakerIsOpen(TestContext testContext) {
+    //given
+    mockRegistryService(Collections.singletonList(SOFT_PROGRAMMATIC_RULE));
+    mockProgrammaticRuleClient(SOFT_PROGRAMMATIC_RULE.getImplementationReference(),
+      HttpStatus.SC_OK, new JsonObject().put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT));
+    CircuitBreaker circuitBreaker = ((ValidationEngineServiceImpl) validationEngineService).getCircuitBreakers()
+      .get(SOFT_PROGRAMMATIC_RULE.getImplementationReference());
+    while (circuitBreaker.tryAcquire()) {
+      circuitBreaker.onFailure();
+    }
+
+    //expect
+    JsonObject expectedResult = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_VALID_RESULT)
+      .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray());
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response, Matchers.is(expectedResult));
+      userMockServer.verify(0, WireMock.postRequestedFor(urlEqualTo(SOFT_PROGRAMMATIC_RULE.getImplementationReference())));
+    });
+
+    //when
+    String givenPassword = "password";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the connection to the programmatic rules module is reset.
+   * Expected result is to fail Strong rule and record the failure by the circuit breaker.
+   */
+  @Test
+  public void shouldFailWhenStrongProgrammaticRuleConnectionFails(TestContext testContext) {
+    //given
+    mockRegistryService(Collections.singletonList(STRONG_PROGRAMMATIC_RULE));
+    stubFor(post(urlEqualTo(STRONG_PROGRAMMATIC_RULE.getImplementationReference()))
+      .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertFailure(exception -> {
+      JsonObject statistics = ((ValidationEngineServiceImpl) validationEngineService).getCircuitBreakers()
+        .getStatistics().getJsonObject(STRONG_PROGRAMMATIC_RULE.getImplementationReference());
+      Assert.assertThat(statistics.getLong("failures"), Matchers.is(1L));
+    });
+
+    //when
+    String givenPassword = "password";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when received password is one of the last passwords of the user recorded by the module.
+   * Expected result is to receive the response contains invalid validation result
+   * and error message code belongs to the History rule
+   */
+  @Test
+  public void shouldReturnInvalidResultWhenPasswordIsInHistory(TestContext testContext) {
+    //given
+    mockRegistryService(Collections.singletonList(HISTORY_RULE));
+    mockPasswordHistory(Future.succeededFuture(true));
+
+    //expect
+    JsonObject expectedResult = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_INVALID_RESULT)
+      .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray().add(HISTORY_RULE.getErrMessageId()));
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response, Matchers.is(expectedResult));
+      Mockito.verify(passwordHistoryService).isPasswordUsed(ArgumentMatchers.eq(OKAPI_HEADER_TENANT_VALUE),
+        ArgumentMatchers.eq(USER_ID_VALUE), ArgumentMatchers.eq("password"), ArgumentMatchers.eq(5),
+        ArgumentMatchers.any());
+      userMockServer.verify(0, WireMock.postRequestedFor(WireMock.anyUrl()));
+    });
+
+    //when
+    String givenPassword = "password";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the password history cannot be read for a Soft History rule.
+   * Expected result is the rule being skipped and the password being valid
+   */
+  @Test
+  public void shouldSkipSoftHistoryRuleWhenHistoryIsNotAvailable(TestContext testContext) {
+    //given
+    Rule softHistoryRule = new Rule()
+      .withRuleId(HISTORY_RULE.getRuleId())
+      .withName(HISTORY_RULE.getName())
+      .withType(Rule.Type.HISTORY)
+      .withValidationType(Rule.ValidationType.SOFT)
+      .withState(Rule.State.ENABLED)
+      .withModuleName(HISTORY_RULE.getModuleName())
+      .withOrderNo(HISTORY_RULE.getOrderNo())
+      .withErrMessageId(HISTORY_RULE.getErrMessageId());
+    mockRegistryService(Collections.singletonList(softHistoryRule));
+    mockPasswordHistory(Future.failedFuture("Connection refused"));
+
+    //expect
+    JsonObject expectedResult = new JsonObject()
+      .put(RESPONSE_VALIDATION_RESULT_KEY, VALIDATION_VALID_RESULT)
+      .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray());
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response ->
+      Assert.assertThat(response, Matchers.is(expectedResult)));
+
+    //when
+    String givenPassword = "password";
+    validationEngineService.validatePassword(USER_ID_VALUE, givenPassword, requestHeaders, checkingHandler);
+  }
+
+  private void mockPasswordHistory(AsyncResult<Boolean> result) {
+    Mockito.doAnswer(new GenericHandlerAnswer<>(result, 4))
+      .when(passwordHistoryService)
+      .isPasswordUsed(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+        ArgumentMatchers.any());
+  }
 
   private void mockRegistryService(List<Rule> rules) {
     JsonObject registryResponse = JsonObject.mapFrom(new RuleCollection().withRules(rules));
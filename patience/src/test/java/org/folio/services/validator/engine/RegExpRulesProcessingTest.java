@@ -12,14 +12,17 @@ import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.serviceproxy.ServiceException;
 import org.apache.http.HttpStatus;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.impl.GenericHandlerAnswer;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
 import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.util.ValidatorHelper;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -36,6 +39,8 @@ import org.mockito.Spy;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
 import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY;
@@ -238,6 +243,200 @@ public class RegExpRulesProcessingTest {
     validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
   }
 
+  /**
+   * Testing the case when a Strong RegExp rule does not finish matching the password within the step limit,
+   * e.g. because of nested repetitions.
+   * Expected result is to fail the validation instead of blocking the event loop.
+   */
+  @Test
+  public void shouldFailWhenStrongRegExpRuleExceedsStepLimit(TestContext testContext) {
+    //given
+    String password = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!";
+    Rule backtrackingRule = new Rule()
+      .withRuleId("5b3b3b0e-5dd2-4b0c-8b3c-c8e1f5b8a0d4")
+      .withName("nested_repetitions")
+      .withType(Rule.Type.REG_EXP)
+      .withValidationType(Rule.ValidationType.STRONG)
+      .withState(Rule.State.ENABLED)
+      .withModuleName("mod-password-validator")
+      .withExpression("^(.*a){12}$")
+      .withOrderNo(2)
+      .withErrMessageId("password.repetitions.invalid");
+    mockRegistryServiceResponse(JsonObject.mapFrom(new RuleCollection()
+      .withRules(Arrays.asList(REGEXP_LIMITED_LENGTH_RULE, backtrackingRule))));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertFailure(throwable -> {
+      Assert.assertThat(throwable.getMessage(), Matchers.containsString(backtrackingRule.getName()));
+      Assert.assertThat(((ValidationEngineServiceImpl) validationEngineService).getStepLimitExceededCount(),
+        Matchers.is(1L));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when no enabled rule uses the user name.
+   * Expected result is to validate the password without looking the user up
+   * and to record the durations of the pipeline stages.
+   */
+  @Test
+  public void shouldNotLookUpUserWhenNoRuleUsesUserName(TestContext testContext) {
+    //given
+    String password = "Password";
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Assert.assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      userMockServer.verify(0, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users")));
+      PipelineTimings timings = ((ValidationEngineServiceImpl) validationEngineService).getPipelineTimings();
+      Assert.assertThat(timings.getCount(PipelineTimings.Stage.RULES_LOADING), Matchers.is(1L));
+      Assert.assertThat(timings.getCount(PipelineTimings.Stage.LOCAL_RULES), Matchers.is(1L));
+      Assert.assertThat(timings.getCount(PipelineTimings.Stage.USER_LOOKUP), Matchers.is(0L));
+      Assert.assertThat(timings.getCount(PipelineTimings.Stage.TOTAL), Matchers.is(1L));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the validation once the cached rules have expired: the rules did not use the user name
+   * when they were last loaded, so the user is not looked up along with the rules loading.
+   */
+  @Test
+  public void shouldNotLookUpUserOnCacheMissWhenRulesDidNotUseUserName(TestContext testContext) {
+    //given
+    String password = "Password";
+    mockAsyncRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    ValidationEngineServiceImpl engine = (ValidationEngineServiceImpl) validationEngineService;
+    Async async = testContext.async();
+
+    //when
+    engine.validatePassword(USER_ID_VALUE, password, requestHeaders, testContext.asyncAssertSuccess(first -> {
+      engine.getRulesCache().invalidate(OKAPI_HEADER_TENANT_VALUE);
+      long userNameLookups = engine.getUserNamesCache().getMisses();
+      // another user, whose name is not cached
+      engine.validatePassword(UUID.randomUUID().toString(), password, requestHeaders, testContext.asyncAssertSuccess(second -> {
+        //then
+        Assert.assertThat(second.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+        Mockito.verify(validatorRegistryService, Mockito.times(2)).getAllTenantRules(ArgumentMatchers.any(),
+          ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Assert.assertThat(engine.getUserNamesCache().getMisses(), Matchers.is(userNameLookups));
+        async.complete();
+      }));
+    }));
+  }
+
+  /**
+   * Testing the validation once the rules have started to use the user name since they were last loaded:
+   * the user is looked up once the rules are loaded.
+   */
+  @Test
+  public void shouldLookUpUserOnceRulesStartToUseUserName(TestContext testContext) {
+    //given
+    String password = "xadminx";
+    Rule userNameRule = new Rule()
+      .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+      .withName("no_user_name")
+      .withType(Rule.Type.REG_EXP)
+      .withValidationType(Rule.ValidationType.STRONG)
+      .withState(Rule.State.ENABLED)
+      .withModuleName("mod-password-validator")
+      .withExpression("^(?:(?!<USER_NAME>).)+$")
+      .withDescription("The password must not contain your username")
+      .withOrderNo(2)
+      .withErrMessageId("password.usernameDuplicate.invalid");
+    mockAsyncRegistryServiceResponse(JsonObject.mapFrom(new RuleCollection()
+      .withRules(Arrays.asList(REGEXP_LIMITED_LENGTH_RULE))));
+    ValidationEngineServiceImpl engine = (ValidationEngineServiceImpl) validationEngineService;
+    Async async = testContext.async();
+
+    //when
+    engine.validatePassword(USER_ID_VALUE, password, requestHeaders, testContext.asyncAssertSuccess(first -> {
+      Assert.assertThat(first.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      mockAsyncRegistryServiceResponse(JsonObject.mapFrom(new RuleCollection()
+        .withRules(Arrays.asList(REGEXP_LIMITED_LENGTH_RULE, userNameRule))));
+      engine.getRulesCache().invalidate(OKAPI_HEADER_TENANT_VALUE);
+      engine.validatePassword(USER_ID_VALUE, password, requestHeaders, testContext.asyncAssertSuccess(second -> {
+        //then
+        Assert.assertThat(second.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+        JsonArray errorMessages = (JsonArray) second.getValue(RESPONSE_ERROR_MESSAGES_KEY);
+        Assert.assertThat(errorMessages, Matchers.contains(userNameRule.getErrMessageId()));
+        async.complete();
+      }));
+    }));
+  }
+
+  /**
+   * Testing as-you-type validation: every update of the password of a session reports
+   * only the rules which result has changed, the rules are loaded once for the session.
+   */
+  @Test
+  public void shouldReportChangedRulesOfValidationSession(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    Async async = testContext.async();
+
+    //when
+    validationEngineService.openValidationSession(USER_ID_VALUE, requestHeaders, testContext.asyncAssertSuccess(session -> {
+      String sessionId = session.getString(ValidatorHelper.SESSION_ID_KEY);
+      validationEngineService.updateValidationSession(sessionId, "pass", false, requestHeaders,
+        testContext.asyncAssertSuccess(firstResult -> {
+          //expect
+          Assert.assertThat(firstResult.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+          Assert.assertThat(firstResult.getJsonArray(ValidatorHelper.RESPONSE_CHANGES_KEY).size(), Matchers.is(2));
+          validationEngineService.updateValidationSession(sessionId, "password", false, requestHeaders,
+            testContext.asyncAssertSuccess(secondResult -> {
+              JsonArray changes = secondResult.getJsonArray(ValidatorHelper.RESPONSE_CHANGES_KEY);
+              Assert.assertThat(secondResult.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+              Assert.assertThat(changes.size(), Matchers.is(1));
+              Assert.assertThat(changes.getJsonObject(0).getString(ValidatorHelper.RULE_ID_KEY),
+                Matchers.is(REGEXP_LIMITED_LENGTH_RULE.getRuleId()));
+              Assert.assertFalse(secondResult.getBoolean(ValidatorHelper.RESPONSE_SUBMITTED_KEY));
+              Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+              async.complete();
+            }));
+        }));
+    }));
+  }
+
+  /**
+   * Testing the case when the validation session is not open.
+   * Expected result is the failure with the session not found code.
+   */
+  @Test
+  public void shouldFailUpdateOfUnknownValidationSession(TestContext testContext) {
+    validationEngineService.updateValidationSession("unknown", "password", false, requestHeaders,
+      testContext.asyncAssertFailure(cause -> {
+        Assert.assertThat(cause, Matchers.instanceOf(ServiceException.class));
+        Assert.assertThat(((ServiceException) cause).failureCode(), Matchers.is(ValidatorHelper.SESSION_NOT_FOUND_CODE));
+      }));
+  }
+
+  /**
+   * Testing the metrics of the engine after a validation.
+   * Expected result is the Prometheus text with the stage histograms of the tenant and the rules cache statistics.
+   */
+  @Test
+  public void shouldReturnMetricsOfValidation(TestContext testContext) {
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+
+    validationEngineService.validatePassword(USER_ID_VALUE, "Password", requestHeaders,
+      testContext.asyncAssertSuccess(response ->
+        validationEngineService.getMetrics(testContext.asyncAssertSuccess(metrics -> {
+          Assert.assertThat(metrics, Matchers.containsString("# TYPE password_validator_stage_duration_seconds histogram"));
+          Assert.assertThat(metrics, Matchers.containsString(
+            "password_validator_stage_duration_seconds_count{tenant=\"tenant\",stage=\"total\"} 1"));
+          Assert.assertThat(metrics, Matchers.containsString(
+            "password_validator_stage_duration_seconds_bucket{tenant=\"tenant\",stage=\"total\",le=\"+Inf\"} 1"));
+          Assert.assertThat(metrics, Matchers.containsString("password_validator_rules_cache_misses 1"));
+        }))));
+  }
+
   private static void initRegExpRules() {
     regExpRuleCollection = new RuleCollection()
       .withRules(Arrays.asList(REGEXP_LIMITED_LENGTH_RULE, REGEXP_ONLY_ALPHABETICAL_RULE));
@@ -249,6 +448,18 @@ public class RegExpRulesProcessingTest {
       ));
   }
 
+  /**
+   * Mocks the rules loaded asynchronously like by the registry, so that the user can be looked up meanwhile
+   */
+  private void mockAsyncRegistryServiceResponse(JsonObject jsonObject) {
+    Mockito.doAnswer(invocation -> {
+      Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(4);
+      CompletableFuture.runAsync(() -> handler.handle(Future.succeededFuture(jsonObject)));
+      return null;
+    }).when(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+      ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
   private void mockRegistryServiceResponse(JsonObject jsonObject) {
     Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(jsonObject), 4))
       .when(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
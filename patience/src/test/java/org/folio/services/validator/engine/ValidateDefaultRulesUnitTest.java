@@ -391,6 +391,22 @@ public class ValidateDefaultRulesUnitTest {
     validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
   }
 
+  @Test
+  public void shouldFailWhenUserLookupTimesOut(TestContext testContext) {
+    //given
+    WireMock.stubFor(WireMock.get("/users?query=id==" + USER_ID_VALUE)
+      .willReturn(WireMock.okJson(USER_SERVICE_MOCK_RESPONSE.toString()).withFixedDelay(5000)));
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    long startedAt = System.currentTimeMillis();
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertFailure(cause ->
+      Assert.assertThat(System.currentTimeMillis() - startedAt, Matchers.lessThan(5000L)));
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "P@sw0rd1", requestHeaders, checkingHandler);
+  }
+
   private void mockUserModule(int status, JsonObject response) {
     WireMock.stubFor(WireMock.get("/users?query=id==" + USER_ID_VALUE)
       .willReturn(WireMock.okJson(response.toString())
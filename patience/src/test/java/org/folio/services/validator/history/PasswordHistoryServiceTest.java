@@ -0,0 +1,139 @@
+package org.folio.services.validator.history;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test for the password history kept by the module
+ */
+@RunWith(VertxUnitRunner.class)
+public class PasswordHistoryServiceTest {
+
+  private static final String TENANT = "diku";
+  private static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+
+  private Vertx vertx;
+  private InMemoryPasswordHistoryStore store;
+  private PasswordHistoryService passwordHistoryService;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    store = new InMemoryPasswordHistoryStore();
+    passwordHistoryService = new PasswordHistoryService(vertx, store);
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldHashAndVerifyPassword() {
+    PasswordHasher hasher = new PasswordHasher(1000);
+
+    String hash = hasher.hash("Secret#1");
+
+    Assert.assertThat(hash, Matchers.startsWith(PasswordHasher.ALGORITHM + "$1000$"));
+    Assert.assertThat(hash, Matchers.not(Matchers.containsString("Secret#1")));
+    Assert.assertThat(hasher.hash("Secret#1"), Matchers.not(hash));
+    Assert.assertTrue(hasher.verify("Secret#1", hash));
+    Assert.assertFalse(hasher.verify("Secret#2", hash));
+    Assert.assertTrue(new PasswordHasher(2000).verify("Secret#1", hash));
+  }
+
+  @Test
+  public void shouldFindRecordedPasswordWithinHistorySize(TestContext context) {
+    Async async = context.async();
+    record(context, "First#1", () -> record(context, "Second#2", () -> record(context, "Third#3", () ->
+      passwordHistoryService.isPasswordUsed(TENANT, USER_ID, "Second#2", 2, context.asyncAssertSuccess(used -> {
+        context.assertTrue(used);
+        passwordHistoryService.isPasswordUsed(TENANT, USER_ID, "First#1", 2, context.asyncAssertSuccess(oldUsed -> {
+          context.assertFalse(oldUsed);
+          passwordHistoryService.isPasswordUsed(TENANT, "another", "Third#3", 2,
+            context.asyncAssertSuccess(otherUserUsed -> {
+              context.assertFalse(otherUserUsed);
+              async.complete();
+            }));
+        }));
+      })))));
+  }
+
+  @Test
+  public void shouldKeepOnlyLastPasswords(TestContext context) {
+    int maxSize = passwordHistoryService.getMaxSize();
+    Async async = context.async();
+    recordSequentially(context, maxSize + 1, 0, () -> {
+      Assert.assertThat(store.hashes.get(USER_ID).size(), Matchers.is(maxSize));
+      async.complete();
+    });
+  }
+
+  @Test
+  public void shouldFailWhenHistoryIsNotAvailable(TestContext context) {
+    store.failure = new IllegalStateException("Connection refused");
+
+    passwordHistoryService.isPasswordUsed(TENANT, USER_ID, "First#1", 10, context.asyncAssertFailure(cause ->
+      Assert.assertThat(cause.getMessage(), Matchers.is("Connection refused"))));
+  }
+
+  private void recordSequentially(TestContext context, int count, int index, Runnable next) {
+    if (index == count) {
+      next.run();
+      return;
+    }
+    record(context, "Password#" + index, () -> recordSequentially(context, count, index + 1, next));
+  }
+
+  private void record(TestContext context, String password, Runnable next) {
+    passwordHistoryService.recordPassword(TENANT, USER_ID, password, context.asyncAssertSuccess(v -> next.run()));
+  }
+
+  /**
+   * Password history kept in memory, the newest hashes first
+   */
+  private static class InMemoryPasswordHistoryStore implements PasswordHistoryStore {
+    private final Map<String, LinkedList<String>> hashes = new HashMap<>();
+    private Throwable failure;
+
+    @Override
+    public void getLastHashes(String tenantId, String userId, int limit,
+                              Handler<AsyncResult<List<String>>> resultHandler) {
+      if (failure != null) {
+        resultHandler.handle(Future.failedFuture(failure));
+        return;
+      }
+      List<String> userHashes = hashes.getOrDefault(userId, new LinkedList<>());
+      resultHandler.handle(Future.succeededFuture(new ArrayList<>(userHashes.subList(0,
+        Math.min(limit, userHashes.size())))));
+    }
+
+    @Override
+    public void addHash(String tenantId, String userId, String hash, int maxSize,
+                        Handler<AsyncResult<Void>> resultHandler) {
+      LinkedList<String> userHashes = hashes.computeIfAbsent(userId, id -> new LinkedList<>());
+      userHashes.addFirst(hash);
+      while (userHashes.size() > maxSize) {
+        userHashes.removeLast();
+      }
+      resultHandler.handle(Future.succeededFuture());
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.folio.services.validator.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.folio.rest.jaxrs.model.FlightRecording;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.matcher.CompiledRule;
+import org.folio.services.validator.matcher.CompiledRuleStore;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test for the flight recording of the validation events
+ */
+public class ValidationRecordingTest {
+
+  private static final String RULE_ID = "5105b55a-b9a3-4f76-9402-a5243ea63c95";
+
+  private FlightRecording recording;
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(ValidationEvents.isFlightRecorderAvailable());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (recording != null) {
+      if ("RUNNING".equals(ValidationRecording.getState().getState())) {
+        ValidationRecording.stop();
+      }
+      if (recording.getPath() != null) {
+        Files.deleteIfExists(Paths.get(recording.getPath()));
+      }
+    }
+  }
+
+  @Test
+  public void shouldRecordRegExpMatchesWithSteps() throws Exception {
+    recording = ValidationRecording.start("default", 0);
+    Assert.assertThat(recording.getState(), Matchers.is("RUNNING"));
+    Assert.assertThat(recording.getName(), Matchers.is(ValidationRecording.RECORDING_NAME));
+
+    CompiledRule compiledRule = new CompiledRuleStore().get("diku", new Rule()
+      .withRuleId(RULE_ID)
+      .withName("password_length")
+      .withType(Rule.Type.REG_EXP)
+      .withState(Rule.State.ENABLED)
+      .withExpression("^(?=.*\\d).{8,}$")
+      .withOrderNo(0));
+    Assert.assertTrue(compiledRule.matches("P@sw0rd1", null, 10000));
+    Object userLookup = ValidationEvents.get().beginUserLookup("diku", "db6ffb2d-f5ad-4a25-b4e5-7e6d6e3c4e12");
+    ValidationEvents.get().endUserLookup(userLookup, true, true);
+
+    recording = ValidationRecording.dump();
+    Assert.assertNotNull(recording.getPath());
+    List<RecordedEvent> events = RecordingFile.readAllEvents(Paths.get(recording.getPath())).stream()
+      .filter(event -> event.getEventType().getName().startsWith("org.folio.passwordvalidator."))
+      .collect(Collectors.toList());
+
+    RecordedEvent match = events.stream()
+      .filter(event -> event.getEventType().getName().equals("org.folio.passwordvalidator.RegExpMatch"))
+      .findFirst().orElseThrow(AssertionError::new);
+    Assert.assertThat(match.getString("ruleId"), Matchers.is(RULE_ID));
+    Assert.assertThat(match.getLong("steps"), Matchers.greaterThan(0L));
+    Assert.assertTrue(match.getBoolean("matched"));
+    Assert.assertFalse(match.getBoolean("aborted"));
+
+    RecordedEvent lookup = events.stream()
+      .filter(event -> event.getEventType().getName().equals("org.folio.passwordvalidator.UserLookup"))
+      .findFirst().orElseThrow(AssertionError::new);
+    Assert.assertThat(lookup.getString("tenant"), Matchers.is("diku"));
+    Assert.assertTrue(lookup.getBoolean("cached"));
+  }
+
+  @Test
+  public void shouldStopRunningRecordingOnly() throws Exception {
+    recording = ValidationRecording.start("default", 60);
+    Assert.assertThat(recording.getMaxAge(), Matchers.is(60));
+
+    try {
+      ValidationRecording.start("default", 60);
+      Assert.fail("Second recording is started");
+    } catch (IllegalStateException e) {
+      Assert.assertThat(e.getMessage(), Matchers.is("Flight recording is already running"));
+    }
+    Assert.assertThat(ValidationRecording.stop().getState(), Matchers.is("STOPPED"));
+    try {
+      ValidationRecording.stop();
+      Assert.fail("Stopped recording is stopped again");
+    } catch (IllegalStateException e) {
+      Assert.assertThat(e.getMessage(), Matchers.is("No flight recording is running"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownSettings() throws Exception {
+    ValidationRecording.start("unknown", 0);
+  }
+}
@@ -0,0 +1,98 @@
+package org.folio.services.validator.matcher;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for the automaton of Sequence rules
+ */
+public class AhoCorasickMatcherTest {
+
+  private static final char[] ALPHABET = {'a', 'b', 'c', 'A', 'B', '1', '\u00e9', '\u00c9'};
+
+  @Test
+  public void shouldRejectPasswordContainingAnySequence() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("qwerty", "12345", "werq"), false, false);
+
+    Assert.assertTrue(matcher.matches("P@sw0rd1", null));
+    Assert.assertTrue(matcher.matches("qwert", null));
+    Assert.assertFalse(matcher.matches("xqwertyx", null));
+    Assert.assertFalse(matcher.matches("0123456", null));
+    Assert.assertFalse(matcher.matches("qwerq", null));
+    Assert.assertTrue(matcher.matches("QWERTY", null));
+    Assert.assertThat(matcher.indexOfMatchEnd("xxqwerty"), Matchers.is(7));
+  }
+
+  @Test
+  public void shouldIgnoreCaseWhenRequested() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.singletonList("QwErTy"), true, false);
+
+    Assert.assertFalse(matcher.matches("xQWERTYx", null));
+    Assert.assertFalse(matcher.matches("qwerty", null));
+    Assert.assertTrue(matcher.matches("qwert", null));
+  }
+
+  @Test
+  public void shouldRejectReversedSequenceWhenRequested() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.singletonList("abc"), false, true);
+
+    Assert.assertFalse(matcher.matches("xcbax", null));
+    Assert.assertFalse(matcher.matches("xabcx", null));
+    Assert.assertTrue(matcher.matches("xacbx", null));
+  }
+
+  @Test
+  public void shouldAcceptAnyPasswordWithoutSequences() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("", null), false, false);
+
+    Assert.assertTrue(matcher.matches("P@sw0rd1", null));
+    Assert.assertThat(matcher.getStatesCount(), Matchers.is(1));
+  }
+
+  @Test
+  public void shouldFindSameSequencesAsNaiveSearch() {
+    Random random = new Random(20181019);
+    for (int iteration = 0; iteration < 5000; iteration++) {
+      List<String> sequences = new ArrayList<>();
+      int sequencesCount = 1 + random.nextInt(6);
+      for (int i = 0; i < sequencesCount; i++) {
+        sequences.add(randomString(random, 1 + random.nextInt(4)));
+      }
+      boolean ignoreCase = random.nextBoolean();
+      boolean matchReversed = random.nextBoolean();
+      AhoCorasickMatcher matcher = new AhoCorasickMatcher(sequences, ignoreCase, matchReversed);
+      String password = randomString(random, random.nextInt(16));
+
+      Assert.assertEquals("Sequences " + sequences + ", password " + password,
+        naiveMatches(sequences, ignoreCase, matchReversed, password), matcher.matches(password, null));
+    }
+  }
+
+  private static boolean naiveMatches(List<String> sequences, boolean ignoreCase, boolean matchReversed,
+                                      String password) {
+    String text = ignoreCase ? password.toLowerCase() : password;
+    for (String sequence : sequences) {
+      String pattern = ignoreCase ? sequence.toLowerCase() : sequence;
+      if (text.contains(pattern)
+        || matchReversed && text.contains(new StringBuilder(pattern).reverse().toString())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,148 @@
+package org.folio.services.validator.matcher;
+
+import org.folio.rest.jaxrs.model.Metadata;
+import org.folio.rest.jaxrs.model.Rule;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Test for the store of compiled rules
+ */
+public class CompiledRuleStoreTest {
+
+  private static final String TENANT = "diku";
+
+  private static Rule buildMinLengthRule() {
+    return new Rule()
+      .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+      .withName("password_length")
+      .withType(Rule.Type.REG_EXP)
+      .withState(Rule.State.ENABLED)
+      .withExpression("^.{8,}$")
+      .withOrderNo(0)
+      .withMetadata(new Metadata().withUpdatedDate(new Date(1000)));
+  }
+
+  private static Rule buildUserNameRule(String expression) {
+    return new Rule()
+      .withRuleId("2f390fa6-a2f8-4027-abaf-ee61952668bc")
+      .withName("no_user_name")
+      .withType(Rule.Type.REG_EXP)
+      .withState(Rule.State.ENABLED)
+      .withExpression(expression)
+      .withOrderNo(4);
+  }
+
+  @Test
+  public void shouldCompileRuleOnce() {
+    CompiledRuleStore store = new CompiledRuleStore();
+
+    CompiledRule firstRule = store.get(TENANT, buildMinLengthRule());
+    CompiledRule secondRule = store.get(TENANT, buildMinLengthRule());
+
+    Assert.assertSame(firstRule, secondRule);
+    Assert.assertTrue(firstRule.matches("P@sw0rd1", null));
+    Assert.assertFalse(firstRule.matches("P@sw0rd", null));
+  }
+
+  @Test
+  public void shouldRecompileUpdatedRule() {
+    CompiledRuleStore store = new CompiledRuleStore();
+    CompiledRule oldRule = store.get(TENANT, buildMinLengthRule());
+
+    Rule updatedRule = buildMinLengthRule()
+      .withExpression("^.{4,}$")
+      .withMetadata(new Metadata().withUpdatedDate(new Date(2000)));
+    CompiledRule newRule = store.get(TENANT, updatedRule);
+
+    Assert.assertNotSame(oldRule, newRule);
+    Assert.assertThat(newRule.getVersion(), Matchers.is(2000L));
+    Assert.assertTrue(newRule.matches("P@sw", null));
+    Assert.assertThat(store.size(), Matchers.is(1));
+  }
+
+  @Test
+  public void shouldDropRemovedRules() {
+    CompiledRuleStore store = new CompiledRuleStore();
+    store.compile(TENANT, buildMinLengthRule());
+
+    store.retain(TENANT, Collections.singletonList("3e3c53ae-73c2-4eba-9f09-f2c9a892c7a2"));
+
+    Assert.assertThat(store.size(), Matchers.is(0));
+  }
+
+  @Test
+  public void shouldRememberWhetherRulesUseUserName() {
+    CompiledRuleStore store = new CompiledRuleStore();
+    Assert.assertThat(store.mayRequireUserName(TENANT), Matchers.is(true));
+
+    store.setUserNameRequired(TENANT, false);
+    store.invalidate(TENANT);
+    Assert.assertThat(store.mayRequireUserName(TENANT), Matchers.is(false));
+
+    store.setUserNameRequired(TENANT, true);
+    Assert.assertThat(store.mayRequireUserName(TENANT), Matchers.is(true));
+  }
+
+  @Test
+  public void shouldReportMemoryUsageOfCompiledRules() {
+    CompiledRuleStore store = new CompiledRuleStore();
+    Assert.assertThat(store.estimatedMemoryUsage(), Matchers.is(0L));
+
+    store.get(TENANT, buildMinLengthRule()).matches("password", null);
+
+    Assert.assertThat(store.estimatedMemoryUsage(), Matchers.greaterThan(0L));
+  }
+
+  @Test
+  public void shouldScanPasswordForUserNameIgnoringCase() {
+    CompiledRule rule = new CompiledRuleStore().get(TENANT, buildUserNameRule("^(?:(?!<USER_NAME>).)+$"));
+
+    Assert.assertThat(rule.getMatcher(), Matchers.instanceOf(UserNameSubstringMatcher.class));
+    Assert.assertTrue(rule.requiresUserName());
+    Assert.assertTrue(rule.matches("P@sw0rd1", "admin"));
+    Assert.assertFalse(rule.matches("P@swadmin0rd1", "admin"));
+    Assert.assertFalse(rule.matches("P@swADMIN0rd1", "admin"));
+    Assert.assertFalse(rule.matches("aaadmin", "aadmin"));
+    Assert.assertFalse(rule.matches("", "admin"));
+    Assert.assertFalse(rule.matches("P@sw\n0rd1", "admin"));
+  }
+
+  @Test
+  public void shouldBindUserNameWithRegExpMetacharactersAsLiteral() {
+    CompiledRule rule = new CompiledRuleStore().get(TENANT, buildUserNameRule("^(?!.*<USER_NAME>).*$"));
+
+    Assert.assertThat(rule.getMatcher(), Matchers.instanceOf(UserNameTemplatePattern.class));
+    Assert.assertTrue(rule.matches("P@sw0rd1", "a.b"));
+    Assert.assertFalse(rule.matches("P@swa.b0rd1", "a.b"));
+    Assert.assertTrue(rule.matches("P@swaxb0rd1", "a.b"));
+    Assert.assertFalse(rule.matches("P@sw(j0rd1", "(j"));
+  }
+
+  @Test
+  public void shouldAbortCatastrophicBacktrackingAfterStepLimit() {
+    CompiledRule rule = new CompiledRuleStore().get(TENANT, buildMinLengthRule().withExpression("^(.*a){12}$"));
+    String password = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!";
+
+    try {
+      rule.matches(password, null, 10000);
+      Assert.fail("Match is expected to be aborted");
+    } catch (MatchStepLimitExceededException e) {
+      Assert.assertThat(e.getStepLimit(), Matchers.is(10000L));
+    }
+    Assert.assertThat(rule.getStepLimitExceededCount(), Matchers.is(1));
+    Assert.assertTrue(rule.matches("aaaaaaaaaaaa", null, 1000000));
+  }
+
+  @Test
+  public void shouldNotLimitLinearMatchers() {
+    CompiledRule rule = new CompiledRuleStore().get(TENANT, buildUserNameRule("^(?:(?!<USER_NAME>).)+$"));
+
+    Assert.assertTrue(rule.matches("P@sw0rd1P@sw0rd1", "admin", 1));
+    Assert.assertThat(rule.getStepLimitExceededCount(), Matchers.is(0));
+  }
+}
@@ -0,0 +1,70 @@
+package org.folio.services.validator.matcher;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Test for the single-pass scanner of the default rules.
+ * The scanner must give the same result as the default rule expressions.
+ */
+public class DefaultRulesScannerTest {
+
+  private static final String[] ALPHABET = {
+    "q", "w", "e", "a", "s", "d", "z", "x", "c", "o", "l", "p", "k", "i", ";", "/", ",", ".",
+    "1", "2", "3", "A", "Z", "!", "~", "\\", " ", "\t", "\n", "\r", "\u0085", "\u2028", "\u000B",
+    "\u00e9", "\uD83D\uDE00"
+  };
+
+  @Test
+  public void shouldRecognizeOnlyUnchangedDefaultRules() {
+    Assert.assertThat(DefaultRule.recognize("5105b55a-b9a3-4f76-9402-a5243ea63c95", "password_length", "^.{8,}$"),
+      Matchers.is(DefaultRule.PASSWORD_LENGTH));
+    Assert.assertThat(DefaultRule.recognize(null, "password_length", "^.{8,}$"),
+      Matchers.is(DefaultRule.PASSWORD_LENGTH));
+    Assert.assertNull(DefaultRule.recognize("5105b55a-b9a3-4f76-9402-a5243ea63c95", "password_length", "^.{10,}$"));
+    Assert.assertNull(DefaultRule.recognize("tenant-rule", "tenant_rule", "^.{8,}$"));
+  }
+
+  @Test
+  public void shouldDetectViolationsOfDefaultRules() {
+    Assert.assertThat(DefaultRulesScanner.scan("P@sw0rd1"), Matchers.is(0));
+    Assert.assertThat(DefaultRulesScanner.scan("P@sw0rd"), Matchers.is(DefaultRule.PASSWORD_LENGTH.bit()));
+    Assert.assertThat(DefaultRulesScanner.scan("p@sw0qwertyrD"), Matchers.is(DefaultRule.KEYBOARD_SEQUENCE.bit()));
+    Assert.assertThat(DefaultRulesScanner.scan("p@ssw0rD"), Matchers.is(DefaultRule.REPEATING_CHARACTERS.bit()));
+    Assert.assertThat(DefaultRulesScanner.scan("P@s w0rd1"), Matchers.is(DefaultRule.NO_WHITE_SPACE_CHARACTER.bit()));
+  }
+
+  @Test
+  public void shouldGiveSameResultAsDefaultRuleExpressions() {
+    Random random = new Random(20181019L);
+    for (int i = 0; i < 50000; i++) {
+      StringBuilder password = new StringBuilder();
+      int length = random.nextInt(14);
+      for (int j = 0; j < length; j++) {
+        password.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+      }
+      assertSameAsExpressions(password.toString());
+    }
+    assertSameAsExpressions("");
+    assertSameAsExpressions("ol");
+    assertSameAsExpressions("olx");
+    assertSameAsExpressions("lo");
+    assertSameAsExpressions("xlo");
+    assertSameAsExpressions("\uD83D\uDE00lo");
+    assertSameAsExpressions("\uD83D\uDE00\uD83D\uDE00");
+    assertSameAsExpressions("Abcdefg1!\n");
+  }
+
+  private void assertSameAsExpressions(String password) {
+    int violations = DefaultRulesScanner.scan(password);
+    for (DefaultRule defaultRule : DefaultRule.values()) {
+      boolean expected = Pattern.compile(defaultRule.getExpression()).matcher(password).matches();
+      boolean actual = (violations & defaultRule.bit()) == 0;
+      Assert.assertEquals(defaultRule + " for '" + password + "'", expected, actual);
+    }
+  }
+}
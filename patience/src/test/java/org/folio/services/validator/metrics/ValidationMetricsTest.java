@@ -0,0 +1,106 @@
+package org.folio.services.validator.metrics;
+
+import io.vertx.core.json.JsonObject;
+import org.folio.services.validator.engine.PipelineTimings;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+/**
+ * Test for the latency histograms and their Prometheus exposition
+ */
+public class ValidationMetricsTest {
+
+  @After
+  public void tearDown() {
+    MODULE_SPECIFIC_ARGS.remove("metrics.enabled");
+    MODULE_SPECIFIC_ARGS.remove("metrics.rule.sampling");
+  }
+
+  @Test
+  public void shouldCountDurationsInCumulativeBuckets() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(1));
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+    histogram.record(TimeUnit.MINUTES.toNanos(1));
+
+    long[] counts = histogram.getCumulativeCounts();
+    Assert.assertThat(counts[0], Matchers.is(1L));
+    Assert.assertThat(counts[1], Matchers.is(1L));
+    Assert.assertThat(counts[2], Matchers.is(2L));
+    Assert.assertThat(counts[counts.length - 2], Matchers.is(2L));
+    Assert.assertThat(counts[counts.length - 1], Matchers.is(3L));
+    Assert.assertThat(histogram.getTotalSeconds(), Matchers.closeTo(60.000004, 1e-9));
+  }
+
+  @Test
+  public void shouldWriteHistogramsGroupedByFamily() {
+    MODULE_SPECIFIC_ARGS.put("metrics.rule.sampling", "1");
+    ValidationMetrics metrics = new ValidationMetrics();
+    Assert.assertTrue(metrics.isRuleSampled());
+    metrics.recordStage("diku", PipelineTimings.Stage.TOTAL, TimeUnit.MICROSECONDS.toNanos(40));
+    metrics.recordRule("diku", "rule-1", 700);
+    metrics.recordStage("other", PipelineTimings.Stage.TOTAL, TimeUnit.MILLISECONDS.toNanos(2));
+    metrics.recordServiceCall("validatePassword", TimeUnit.MICROSECONDS.toNanos(60));
+
+    PrometheusWriter writer = new PrometheusWriter();
+    metrics.writeTo(writer, "local");
+    String text = writer.toString();
+
+    Assert.assertThat(text, Matchers.containsString(
+      "password_validator_stage_duration_seconds_bucket{tenant=\"diku\",stage=\"total\",le=\"0.000025\"} 0\n"
+        + "password_validator_stage_duration_seconds_bucket{tenant=\"diku\",stage=\"total\",le=\"0.00005\"} 1\n"));
+    Assert.assertThat(text, Matchers.containsString(
+      "password_validator_rule_duration_seconds_bucket{tenant=\"diku\",rule_id=\"rule-1\",le=\"0.000001\"} 1\n"));
+    Assert.assertThat(text, Matchers.containsString(
+      "password_validator_engine_call_duration_seconds_count{operation=\"validatePassword\",mode=\"local\"} 1\n"));
+    // the samples of both tenants follow the single TYPE line of the family
+    Assert.assertThat(text.split("# TYPE password_validator_stage_duration_seconds histogram", -1).length,
+      Matchers.is(2));
+    int otherTenant = text.indexOf("tenant=\"other\"");
+    Assert.assertThat(otherTenant, Matchers.lessThan(text.indexOf("# TYPE password_validator_rule_duration_seconds")));
+  }
+
+  @Test
+  public void shouldDropHistogramsOfChangedRule() {
+    ValidationMetrics metrics = new ValidationMetrics();
+    metrics.recordRule("diku", "rule-1", 700);
+    metrics.recordRule("diku", "rule-2", 700);
+    metrics.invalidate("diku", "rule-1");
+
+    PrometheusWriter writer = new PrometheusWriter();
+    metrics.writeTo(writer, "local");
+    Assert.assertThat(writer.toString(), Matchers.not(Matchers.containsString("rule-1")));
+    Assert.assertThat(writer.toString(), Matchers.containsString("rule-2"));
+  }
+
+  @Test
+  public void shouldNotRecordWhenDisabled() {
+    MODULE_SPECIFIC_ARGS.put("metrics.enabled", "false");
+    ValidationMetrics metrics = new ValidationMetrics();
+    metrics.recordStage("diku", PipelineTimings.Stage.TOTAL, 1000);
+    Assert.assertFalse(metrics.isRuleSampled());
+
+    PrometheusWriter writer = new PrometheusWriter();
+    metrics.writeTo(writer, "local");
+    Assert.assertThat(writer.toString(), Matchers.isEmptyString());
+  }
+
+  @Test
+  public void shouldWriteStatisticsAsGauges() {
+    String text = new PrometheusWriter()
+      .statistics("validator_breaker", new JsonObject().put("state", "CLOSED").put("windowCalls", 3),
+        "reference", "/authn/\"x\"")
+      .toString();
+
+    Assert.assertThat(text, Matchers.is("# TYPE validator_breaker_state gauge\n"
+      + "validator_breaker_state{reference=\"/authn/\\\"x\\\"\",state=\"CLOSED\"} 1\n"
+      + "# TYPE validator_breaker_window_calls gauge\n"
+      + "validator_breaker_window_calls{reference=\"/authn/\\\"x\\\"\"} 3\n"));
+  }
+}
@@ -0,0 +1,58 @@
+package org.folio.services.validator.registry;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+/**
+ * Test for the loading of the enabled rules via the event bus
+ */
+@RunWith(VertxUnitRunner.class)
+public class EventBusTenantRulesLoaderTest {
+
+  private static final String TENANT = "diku";
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown(TestContext testContext) {
+    vertx.close(testContext.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldReturnRulesOfTenantWithoutCopying(TestContext testContext) {
+    RuleCollection ruleCollection = new RuleCollection()
+      .withRules(Collections.singletonList(new Rule().withName("password_length").withOrderNo(0)))
+      .withTotalRecords(1);
+    EventBusTenantRulesLoader.bind(vertx, (tenantId, resultHandler) -> resultHandler.handle(TENANT.equals(tenantId)
+      ? Future.succeededFuture(ruleCollection) : Future.failedFuture("Unknown tenant " + tenantId)));
+
+    new EventBusTenantRulesLoader(vertx).getEnabledTenantRules(TENANT, testContext.asyncAssertSuccess(rules ->
+      Assert.assertThat(rules, Matchers.sameInstance(ruleCollection))));
+  }
+
+  @Test
+  public void shouldFailWhenRulesAreNotLoaded(TestContext testContext) {
+    EventBusTenantRulesLoader.bind(vertx, (tenantId, resultHandler) ->
+      resultHandler.handle(Future.failedFuture("Unknown tenant " + tenantId)));
+
+    new EventBusTenantRulesLoader(vertx).getEnabledTenantRules("another", testContext.asyncAssertFailure(throwable ->
+      Assert.assertThat(throwable.getMessage(), Matchers.is("Unknown tenant another"))));
+  }
+}
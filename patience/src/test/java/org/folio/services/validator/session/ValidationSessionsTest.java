@@ -0,0 +1,70 @@
+package org.folio.services.validator.session;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the registry of as-you-type validation sessions
+ */
+public class ValidationSessionsTest {
+
+  private static final String TENANT = "diku";
+  private static final String ANOTHER_TENANT = "another";
+  private static final String USER_ID = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+  private static final String RULE_ID = "5105b55a-b9a3-4f76-9402-a5243ea63c95";
+
+  private final AtomicLong now = new AtomicLong(1000);
+
+  @Test
+  public void shouldReturnSessionOfTenantOnly() {
+    ValidationSessions sessions = new ValidationSessions(10, 100, now::get);
+
+    ValidationSession session = sessions.open(TENANT, USER_ID);
+
+    Assert.assertThat(sessions.get(TENANT, session.getSessionId()), Matchers.sameInstance(session));
+    Assert.assertNull(sessions.get(ANOTHER_TENANT, session.getSessionId()));
+    Assert.assertFalse(sessions.close(ANOTHER_TENANT, session.getSessionId()));
+    Assert.assertTrue(sessions.close(TENANT, session.getSessionId()));
+    Assert.assertNull(sessions.get(TENANT, session.getSessionId()));
+  }
+
+  @Test
+  public void shouldExpireSessionNotUpdatedForTtl() {
+    ValidationSessions sessions = new ValidationSessions(10, 100, now::get);
+    ValidationSession session = sessions.open(TENANT, USER_ID);
+    now.addAndGet(80);
+    Assert.assertNotNull(sessions.get(TENANT, session.getSessionId()));
+    now.addAndGet(80);
+    Assert.assertNotNull(sessions.get(TENANT, session.getSessionId()));
+
+    now.addAndGet(101);
+
+    Assert.assertNull(sessions.get(TENANT, session.getSessionId()));
+    Assert.assertThat(sessions.getStatistics().getLong("expired"), Matchers.is(1L));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUpdatedSession() {
+    ValidationSessions sessions = new ValidationSessions(1, 100, now::get);
+    ValidationSession session = sessions.open(TENANT, USER_ID);
+    ValidationSession anotherSession = sessions.open(TENANT, USER_ID);
+
+    Assert.assertNull(sessions.get(TENANT, session.getSessionId()));
+    Assert.assertNotNull(sessions.get(TENANT, anotherSession.getSessionId()));
+    Assert.assertThat(sessions.getStatistics().getLong("evictions"), Matchers.is(1L));
+  }
+
+  @Test
+  public void shouldReportChangedRuleResultsOnly() {
+    ValidationSession session = new ValidationSessions(10, 100, now::get).open(TENANT, USER_ID);
+
+    Assert.assertTrue(session.updateRuleResult(RULE_ID, false));
+    Assert.assertFalse(session.updateRuleResult(RULE_ID, false));
+    Assert.assertTrue(session.updateRuleResult(RULE_ID, true));
+    session.clearRuleResults();
+    Assert.assertTrue(session.updateRuleResult(RULE_ID, true));
+  }
+}
@@ -0,0 +1,66 @@
+package org.folio.services.validator.strength;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Test for the password guessability estimator
+ */
+public class PasswordStrengthEstimatorTest {
+
+  private final PasswordStrengthEstimator estimator = PasswordStrengthEstimator.getDefault();
+
+  @Test
+  public void shouldFindWordsOfFrequencyList() {
+    FrequencyTrie trie = FrequencyTrie.build(Arrays.asList("pass", "password", "", "Word"));
+
+    Assert.assertThat(trie.rank("pass"), Matchers.is(1));
+    Assert.assertThat(trie.rank("password"), Matchers.is(2));
+    Assert.assertThat(trie.rank("word"), Matchers.is(3));
+    Assert.assertThat(trie.rank("passw"), Matchers.is(0));
+    StringBuilder ends = new StringBuilder();
+    trie.findWords("xpasswords", 1, (end, rank) -> ends.append(end).append(':').append(rank).append(' '));
+    Assert.assertThat(ends.toString(), Matchers.is("5:1 9:2 "));
+  }
+
+  @Test
+  public void shouldScoreCommonPasswordsAsTooGuessable() {
+    for (String password : Arrays.asList("password", "Password1", "P@ssw0rd", "drowssap", "qwertyuiop", "123456789",
+      "abcdefgh", "zzzzzzzzzzzz", "abcabcabcabc", "01/01/1990", "19901231")) {
+      Assert.assertThat(password, estimator.score(password, null), Matchers.lessThanOrEqualTo(1));
+    }
+  }
+
+  @Test
+  public void shouldScoreKeyboardWalksBelowRandomPasswords() {
+    Assert.assertThat(estimator.guesses("zxcvfdsa", null), Matchers.lessThan(estimator.guesses("zkvfhdsa", null)));
+    Assert.assertThat(estimator.guesses("7894561230", null),
+      Matchers.lessThan(estimator.guesses("7194865320", null)));
+  }
+
+  @Test
+  public void shouldScoreUserNameAsMostLikelyWord() {
+    Assert.assertThat(estimator.guesses("jdoe5sun", "jdoe"), Matchers.lessThan(estimator.guesses("jdoe5sun", null)));
+    Assert.assertThat(estimator.score("Administrator", "administrator"), Matchers.is(0));
+  }
+
+  @Test
+  public void shouldScoreLongAndRandomPasswordsAsUnguessable() {
+    Assert.assertThat(estimator.score("correct horse battery staple", null), Matchers.greaterThanOrEqualTo(3));
+    Assert.assertThat(estimator.score("rWibMFACxAUGZmxhVncy", null), Matchers.is(PasswordStrengthEstimator.MAX_SCORE));
+    Assert.assertThat(estimator.score("Tr0ub4dour&3xq!", null), Matchers.greaterThanOrEqualTo(3));
+  }
+
+  @Test
+  public void shouldEstimateOnlyBeginningOfVeryLongPassword() {
+    StringBuilder password = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      password.append("a1");
+    }
+    Assert.assertThat(estimator.score(password, null), Matchers.lessThanOrEqualTo(1));
+    Assert.assertThat(estimator.score("", null), Matchers.is(0));
+  }
+}
@@ -0,0 +1,87 @@
+package org.folio.services.validator.util;
+
+import io.vertx.core.Vertx;
+import org.folio.rest.RestVerticle;
+import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.engine.ValidationEngineServiceImpl;
+import org.folio.services.validator.registry.RulesChangedListener;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for the lookup of the local services and the event bus proxies
+ */
+public class ValidatorServicesTest {
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    RestVerticle.MODULE_SPECIFIC_ARGS.remove("service.mode");
+    vertx.close();
+  }
+
+  @Test
+  public void shouldReturnFirstBoundServiceInLocalMode() {
+    ValidatorRegistryService registryService = Mockito.mock(ValidatorRegistryService.class);
+    ValidationEngineService engineService = new ValidationEngineServiceImpl();
+
+    ValidatorServices.bindLocal(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS, registryService);
+    ValidatorServices.bindLocal(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS, engineService);
+    ValidationEngineService boundEngineService = ValidatorServices
+      .bindLocal(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS, new ValidationEngineServiceImpl());
+
+    Assert.assertThat(boundEngineService, Matchers.sameInstance(engineService));
+    Assert.assertThat(ValidatorServices.getValidationEngineService(vertx), Matchers.sameInstance(engineService));
+    Assert.assertThat(ValidatorServices.getValidatorRegistryService(vertx), Matchers.sameInstance(registryService));
+  }
+
+  @Test
+  public void shouldReturnProxiesInEventBusMode() {
+    RestVerticle.MODULE_SPECIFIC_ARGS.put("service.mode", ValidatorServices.EVENT_BUS_SERVICE_MODE);
+    ValidationEngineService engineService = new ValidationEngineServiceImpl();
+    ValidatorServices.bindLocal(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS, engineService);
+
+    Assert.assertThat(ValidatorServices.getValidationEngineService(vertx),
+      Matchers.not(Matchers.sameInstance(engineService)));
+    Assert.assertThat(ValidatorServices.getValidatorRegistryService(vertx), Matchers.notNullValue());
+  }
+
+  @Test
+  public void shouldReleaseRulesChangedListenerWithLastVerticleInstance() {
+    RulesChangedListener listener = Mockito.mock(RulesChangedListener.class);
+    AtomicInteger created = new AtomicInteger();
+
+    RulesChangedListener first = ValidatorServices.acquireRulesChangedListener(vertx, () -> {
+      created.incrementAndGet();
+      return listener;
+    });
+    RulesChangedListener second = ValidatorServices.acquireRulesChangedListener(vertx, () -> {
+      created.incrementAndGet();
+      return Mockito.mock(RulesChangedListener.class);
+    });
+
+    Assert.assertThat(first, Matchers.sameInstance(listener));
+    Assert.assertThat(second, Matchers.sameInstance(listener));
+    Assert.assertThat(created.get(), Matchers.is(1));
+    Assert.assertThat(ValidatorServices.releaseRulesChangedListener(vertx), Matchers.nullValue());
+    Assert.assertThat(ValidatorServices.releaseRulesChangedListener(vertx), Matchers.sameInstance(listener));
+  }
+
+  @Test
+  public void shouldNotCreateRulesChangedListenerOnRelease() {
+    Assert.assertThat(ValidatorServices.releaseRulesChangedListener(vertx), Matchers.nullValue());
+  }
+}